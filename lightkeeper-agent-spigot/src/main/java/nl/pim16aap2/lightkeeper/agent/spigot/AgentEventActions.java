@@ -1,5 +1,8 @@
 package nl.pim16aap2.lightkeeper.agent.spigot;
 
+import nl.pim16aap2.lightkeeper.protocol.AgentErrorCode;
+import nl.pim16aap2.lightkeeper.protocol.AgentProtocolException;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.CancelNextEvents;
 import nl.pim16aap2.lightkeeper.protocol.ClearCapturedEvents;
 import nl.pim16aap2.lightkeeper.protocol.GetCapturedEvents;
@@ -8,12 +11,14 @@ import nl.pim16aap2.lightkeeper.protocol.UnregisterEventListener;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Protocol action handler for dynamic Bukkit event capture.
  *
  * <p>Handles {@code REGISTER_EVENT_LISTENER}, {@code GET_CAPTURED_EVENTS},
- * {@code CLEAR_CAPTURED_EVENTS}, and {@code UNREGISTER_EVENT_LISTENER} actions by delegating to
+ * {@code AWAIT_EVENTS}, {@code CLEAR_CAPTURED_EVENTS}, and {@code UNREGISTER_EVENT_LISTENER} actions by
+ * delegating to
  * {@link AgentEventCapture}.
  */
 final class AgentEventActions
@@ -22,19 +27,30 @@ final class AgentEventActions
      * Dynamic event listener and payload store.
      */
     private final AgentEventCapture eventCapture;
+    /**
+     * Upper bound for a single {@code AWAIT_EVENTS} wait, matching the synchronous operation timeout the client's
+     * transport watchdog is sized for.
+     */
+    private final long maxAwaitMillis;
 
     /**
      * @param eventCapture
      *     Dynamic event capture facade.
+     * @param syncOperationTimeoutSeconds
+     *     Synchronous operation timeout; {@code AWAIT_EVENTS} deadlines are clamped to it.
      */
-    AgentEventActions(AgentEventCapture eventCapture)
+    AgentEventActions(AgentEventCapture eventCapture, long syncOperationTimeoutSeconds)
     {
         this.eventCapture = Objects.requireNonNull(eventCapture, "eventCapture");
+        this.maxAwaitMillis = TimeUnit.SECONDS.toMillis(syncOperationTimeoutSeconds);
     }
 
     /**
      * Handles {@code REGISTER_EVENT_LISTENER} by resolving and registering a monitor-priority Bukkit listener.
      *
+     * <p>With a projection, the listener encodes only the requested accessor paths of each event instead of the
+     * full bounded accessor walk.
+     *
      * @param command
      *     Typed register-event-listener command.
      * @return
@@ -45,7 +61,7 @@ final class AgentEventActions
         final String eventClassName = command.eventClassName();
         try
         {
-            eventCapture.registerListener(eventClassName);
+            eventCapture.registerListener(eventClassName, command.projection());
         }
         catch (ClassNotFoundException exception)
         {
@@ -77,6 +93,42 @@ final class AgentEventActions
         return new GetCapturedEvents.Response(events);
     }
 
+    /**
+     * Handles {@code AWAIT_EVENTS} by blocking the request thread until enough matching events were captured or
+     * the deadline passes.
+     *
+     * <p>The wait runs on the agent's request thread, never on the server thread, and is woken by the capture
+     * listener itself. A missed deadline is not an error: the response reports {@code satisfied=false} with the
+     * matches seen so far.
+     *
+     * @param command
+     *     Typed await-events command.
+     * @return
+     *     The outcome of the wait, or {@code INVALID_ARGUMENT} when no capture listener is registered for the class.
+     */
+    AwaitEvents.Response handleAwaitEvents(AwaitEvents.Command command)
+    {
+        try
+        {
+            return eventCapture.awaitEvents(
+                command.eventClassName(),
+                command.minCount(),
+                command.filters(),
+                Math.min(command.timeoutMillis(), maxAwaitMillis),
+                command.timeoutTicks()
+            );
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new AgentProtocolException(
+                AgentErrorCode.INTERRUPTED,
+                "Interrupted while awaiting events.",
+                exception
+            );
+        }
+    }
+
     /**
      * Handles {@code CANCEL_NEXT_EVENTS} by arming a LOWEST-priority listener that cancels the next N fired
      * events of the class.
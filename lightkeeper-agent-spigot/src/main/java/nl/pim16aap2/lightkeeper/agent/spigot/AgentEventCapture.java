@@ -1,5 +1,6 @@
 package nl.pim16aap2.lightkeeper.agent.spigot;
 
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.GetCapturedEvents;
 import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
@@ -7,8 +8,12 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jspecify.annotations.Nullable;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -16,17 +21,21 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 
 /**
- * Dynamically captures Bukkit events by registering temporary listeners.
+ * Dynamically captures Bukkit events through one dispatcher listener per {@link HandlerList}.
  *
- * <p>All Bukkit listener (un)registration calls are routed through {@link AgentMainThreadExecutor} because
- * {@link org.bukkit.plugin.PluginManager#registerEvent} and {@link HandlerList#unregisterAll(Listener)} must
- * run on the Bukkit primary thread.
+ * <p>The first capture or cancel rule touching a handler list hooks it with a single {@link DispatcherHook}
+ * (a LOWEST-priority cancel executor plus a MONITOR-priority capture executor); every later capture and cancel
+ * rule on that list only swaps the hook's immutable routing table. Only that first hook goes through
+ * {@link AgentMainThreadExecutor}, because {@link org.bukkit.plugin.PluginManager#registerEvent} must run on the
+ * Bukkit primary thread. Hooks stay registered for the agent's lifetime: an idle hook costs one volatile read per
+ * event, whereas unregistering would re-bake the handler list on every capture open and close.
  */
 final class AgentEventCapture
 {
@@ -36,6 +45,12 @@ final class AgentEventCapture
      */
     private static final int MAX_CAPTURED_EVENTS_PER_CLASS = 10_000;
 
+    /**
+     * Upper bound on how long an {@link #awaitEvents} waiter with a tick deadline sleeps before re-reading the tick
+     * counter: one server tick.
+     */
+    private static final long TICK_DEADLINE_RECHECK_MILLIS = 50L;
+
     /**
      * Owning plugin used as registration context for Bukkit listeners.
      */
@@ -53,19 +68,22 @@ final class AgentEventCapture
      */
     private final AtomicLong tickCounter;
     /**
-     * Captured event payloads keyed by fully qualified event class name.
+     * Captured event buffers keyed by fully qualified event class name.
      */
-    private final Map<String, List<GetCapturedEvents.CapturedEvent>> capturedEvents = new ConcurrentHashMap<>();
+    private final Map<String, CaptureBuffer> capturedEvents = new ConcurrentHashMap<>();
     /**
-     * Active marker listeners keyed by fully qualified event class name.
+     * Active capture routes keyed by fully qualified event class name.
      */
-    private final Map<String, Listener> activeListeners = new ConcurrentHashMap<>();
+    private final Map<String, CaptureRoute> activeCaptures = new ConcurrentHashMap<>();
     /**
-     * Active cancel-next marker listeners keyed by fully qualified event class name. Kept separate from the
-     * MONITOR capture listeners: cancellation acts at LOWEST priority so the capture listener observes the
-     * final cancelled state.
+     * Armed cancel rules keyed by fully qualified event class name. Kept separate from the capture routes:
+     * cancellation acts at LOWEST priority so the capture dispatch observes the final cancelled state.
      */
     private final Map<String, CancelNextState> cancelListeners = new ConcurrentHashMap<>();
+    /**
+     * Dispatcher hooks keyed by the event class that owns the hooked {@link HandlerList}.
+     */
+    private final Map<Class<? extends Event>, DispatcherHook> hooks = new ConcurrentHashMap<>();
     /**
      * Event class names whose capture cap has already been warned about, so hitting the cap is reported once
      * rather than silently discarding every subsequent event.
@@ -87,47 +105,45 @@ final class AgentEventCapture
     }
 
     /**
-     * Registers a monitor-priority listener that captures every fired event of the requested type.
+     * Starts capturing every fired event of the requested type.
      *
-     * <p>Resolution and Bukkit registration are atomic per event class name: concurrent invocations for the
-     * same class register the listener exactly once.
+     * <p>Registration is atomic per event class name: concurrent invocations for the same class create exactly
+     * one capture. Registering an already captured class again is a no-op when the projection matches, and fails
+     * when it does not: silently switching the payload shape would break whoever registered first. Only the
+     * first capture or cancel rule on a handler list waits for the main thread; later ones are routed in place.
      *
      * @param eventClassName
      *     Fully qualified Bukkit event class to register.
+     * @param projection
+     *     Accessor paths to capture per event; empty captures the full bounded accessor walk.
      * @throws ClassNotFoundException
      *     When the class cannot be resolved by any reachable class loader.
      */
-    void registerListener(String eventClassName)
+    void registerListener(String eventClassName, List<String> projection)
         throws ClassNotFoundException
     {
-        final Listener marker = new Listener() {};
-        final Listener previous = activeListeners.putIfAbsent(eventClassName, marker);
+        final ProtocolValueEncoder.Projection compiledProjection = ProtocolValueEncoder.Projection.compile(projection);
+        final CaptureBuffer events = new CaptureBuffer(compiledProjection);
+        final CaptureBuffer previous = capturedEvents.putIfAbsent(eventClassName, events);
         if (previous != null)
+        {
+            if (!previous.projection().equals(compiledProjection))
+                throw new IllegalArgumentException(
+                    "Event class '%s' is already captured with a different projection.".formatted(eventClassName));
             return;
+        }
 
         boolean registered = false;
         try
         {
-            final Class<?> resolvedClass = resolveEventClass(eventClassName);
-            if (!Event.class.isAssignableFrom(resolvedClass))
-                throw new IllegalArgumentException("Class '%s' is not a Bukkit Event.".formatted(eventClassName));
-
-            final Class<? extends Event> eventClass = resolvedClass.asSubclass(Event.class);
-            final List<GetCapturedEvents.CapturedEvent> events =
-                capturedEvents.computeIfAbsent(eventClassName, ignored -> new CopyOnWriteArrayList<>());
-
-            mainThreadExecutor.callOnMainThread(() ->
-            {
-                Bukkit.getPluginManager().registerEvent(
-                    eventClass,
-                    marker,
-                    EventPriority.MONITOR,
-                    (listenerInstance, event) -> captureEventForList(event, events),
-                    plugin,
-                    false
-                );
-                return Boolean.TRUE;
-            });
+            final Class<? extends Event> eventClass = resolveBukkitEventClass(eventClassName);
+            final CaptureRoute route = new CaptureRoute(eventClass, events, hookFor(eventClass, eventClassName));
+            activeCaptures.put(eventClassName, route);
+            route.hook().addCapture(route);
+            // An unregister racing this registration closes the buffer before or after the route is published;
+            // either it removes the route itself, or the buffer is already closed here and the route is retracted.
+            if (events.isClosed())
+                route.hook().removeCapture(route);
             registered = true;
         }
         catch (ClassNotFoundException | RuntimeException exception)
@@ -142,10 +158,67 @@ final class AgentEventCapture
         finally
         {
             if (!registered)
-                activeListeners.remove(eventClassName, marker);
+            {
+                capturedEvents.remove(eventClassName, events);
+                activeCaptures.computeIfPresent(
+                    eventClassName, (ignored, route) -> route.buffer() == events ? null : route);
+            }
         }
     }
 
+    private Class<? extends Event> resolveBukkitEventClass(String eventClassName)
+        throws ClassNotFoundException
+    {
+        final Class<?> resolvedClass = resolveEventClass(eventClassName);
+        if (!Event.class.isAssignableFrom(resolvedClass))
+            throw new IllegalArgumentException("Class '%s' is not a Bukkit Event.".formatted(eventClassName));
+        return resolvedClass.asSubclass(Event.class);
+    }
+
+    private DispatcherHook hookFor(Class<? extends Event> eventClass, String eventClassName)
+    {
+        final Class<? extends Event> registrationClass = registrationClass(eventClass);
+        if (registrationClass == null)
+            throw new IllegalArgumentException(
+                "Event class '%s' has no static getHandlerList() in its hierarchy and cannot be listened to."
+                    .formatted(eventClassName));
+        return hooks.computeIfAbsent(registrationClass, DispatcherHook::new);
+    }
+
+    /**
+     * Finds the class whose static {@code getHandlerList()} serves events of the given class, mirroring how
+     * Bukkit resolves the handler list in {@link org.bukkit.plugin.PluginManager#registerEvent}.
+     *
+     * <p>Subclasses without their own handler list share their ancestor's, which is why dispatch filters each
+     * route by {@link Class#isInstance}: the shared list also delivers the ancestor and sibling events.
+     *
+     * @param eventClass
+     *     The event class to resolve.
+     * @return
+     *     The class declaring the handler list, or {@code null} when no class below {@link Event} declares one.
+     */
+    static @Nullable Class<? extends Event> registrationClass(Class<? extends Event> eventClass)
+    {
+        for (Class<?> current = eventClass;
+             current != null && current != Event.class && Event.class.isAssignableFrom(current);
+             current = current.getSuperclass())
+        {
+            if (declaresHandlerList(current))
+                return current.asSubclass(Event.class);
+        }
+        return null;
+    }
+
+    private static boolean declaresHandlerList(Class<?> type)
+    {
+        for (final Method method : type.getDeclaredMethods())
+            if ("getHandlerList".equals(method.getName())
+                && method.getParameterCount() == 0
+                && Modifier.isStatic(method.getModifiers()))
+                return true;
+        return false;
+    }
+
     private Class<?> resolveEventClass(String eventClassName)
         throws ClassNotFoundException
     {
@@ -193,44 +266,31 @@ final class AgentEventCapture
     }
 
     /**
-     * Unregisters a previously registered capture listener and discards its accumulated events.
+     * Stops a previously registered capture and discards its accumulated events.
+     *
+     * <p>Only the routing table changes; the handler list's dispatcher hook stays registered, so this never
+     * waits for the main thread.
      *
      * @param eventClassName
-     *     Fully qualified event class previously passed to {@link #registerListener(String)}.
+     *     Fully qualified event class previously passed to {@link #registerListener(String, List)}.
      */
     void unregisterListener(String eventClassName)
     {
-        final Listener listener = activeListeners.remove(eventClassName);
-        capturedEvents.remove(eventClassName);
-        // Closing a capture also disarms any pending cancellation for the class: a leftover LOWEST-priority
-        // cancel listener would silently cancel later tests' events on the shared server.
+        final CaptureBuffer removedBuffer = capturedEvents.remove(eventClassName);
+        if (removedBuffer != null)
+            removedBuffer.close();
+        final CaptureRoute route = activeCaptures.remove(eventClassName);
+        if (route != null)
+            route.hook().removeCapture(route);
+        // Closing a capture also disarms any pending cancellation for the class: a leftover cancel rule would
+        // silently cancel later tests' events on the shared server.
         final CancelNextState armedCancellation = cancelListeners.remove(eventClassName);
         if (armedCancellation != null)
         {
-            // Zero the budget immediately: the marker stays registered until the scheduled unregister runs,
-            // and events fired in that window must not be cancelled after close() promised a disarm.
+            // Zero the budget first: a dispatch already holding the old routing table must not cancel after
+            // close() promised a disarm.
             armedCancellation.remaining().set(0);
-            Bukkit.getScheduler().runTask(plugin, () -> HandlerList.unregisterAll(armedCancellation.marker()));
-        }
-        if (listener == null)
-            return;
-
-        try
-        {
-            mainThreadExecutor.callOnMainThread(() ->
-            {
-                HandlerList.unregisterAll(listener);
-                return Boolean.TRUE;
-            });
-        }
-        catch (RuntimeException exception)
-        {
-            throw exception;
-        }
-        catch (Exception exception)
-        {
-            throw new IllegalStateException(
-                "Failed to unregister listener for '%s' on the main thread.".formatted(eventClassName), exception);
+            armedCancellation.hook().removeCancel(armedCancellation);
         }
     }
 
@@ -244,13 +304,96 @@ final class AgentEventCapture
      */
     List<GetCapturedEvents.CapturedEvent> getCapturedEvents(String eventClassName)
     {
-        final List<GetCapturedEvents.CapturedEvent> events = capturedEvents.get(eventClassName);
-        if (events == null)
+        return new ArrayList<>(requireBuffer(eventClassName).events());
+    }
+
+    /**
+     * Blocks until at least {@code minCount} captured events of the class satisfy every filter, or a deadline
+     * passes.
+     *
+     * <p>The wait is woken from the capture path: every captured event signals the buffer's waiters, which then
+     * test only the events appended since their previous scan. Events captured before this call count too.
+     * The tick deadline has no capture-side signal, so while one is set the waiter also re-checks the tick
+     * counter once per tick.
+     *
+     * @param eventClassName
+     *     Fully qualified event class previously passed to {@link #registerListener(String, List)}.
+     * @param minCount
+     *     Number of matching events required; must be positive.
+     * @param filters
+     *     Filters every counted event must satisfy; empty counts every event.
+     * @param timeoutMillis
+     *     Wall-clock deadline for the wait, in milliseconds.
+     * @param timeoutTicks
+     *     Server-tick deadline for the wait; {@code 0} disables it.
+     * @return
+     *     The outcome of the wait with the matching events seen, oldest first.
+     * @throws InterruptedException
+     *     When the waiting thread is interrupted.
+     */
+    AwaitEvents.Response awaitEvents(
+        String eventClassName,
+        int minCount,
+        List<AwaitEvents.Filter> filters,
+        long timeoutMillis,
+        int timeoutTicks)
+        throws InterruptedException
+    {
+        final CaptureBuffer buffer = requireBuffer(eventClassName);
+        final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final long deadlineTick = timeoutTicks > 0 ? tickCounter.get() + timeoutTicks : Long.MAX_VALUE;
+        final List<GetCapturedEvents.CapturedEvent> matches = new ArrayList<>();
+        int scanned = 0;
+
+        buffer.addWaiter();
+        try
+        {
+            synchronized (buffer)
+            {
+                long remainingMillis = timeoutMillis;
+                while (!buffer.isClosed() && remainingMillis > 0L && tickCounter.get() < deadlineTick)
+                {
+                    final List<GetCapturedEvents.CapturedEvent> events = buffer.events();
+                    // A clear() since the previous scan shrinks the buffer; restart from the new contents so the
+                    // wait keeps the clear's "forget what came before" semantics.
+                    if (events.size() < scanned)
+                    {
+                        scanned = 0;
+                        matches.clear();
+                    }
+                    for (; scanned < events.size() && matches.size() < minCount; scanned++)
+                    {
+                        final GetCapturedEvents.CapturedEvent event = events.get(scanned);
+                        if (filters.stream().allMatch(filter -> filter.matches(event.values())))
+                            matches.add(event);
+                    }
+                    if (matches.size() >= minCount)
+                        return new AwaitEvents.Response(true, tickCounter.get(), matches);
+
+                    buffer.wait(deadlineTick == Long.MAX_VALUE
+                        ? remainingMillis
+                        : Math.min(remainingMillis, TICK_DEADLINE_RECHECK_MILLIS));
+                    remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                }
+                // Deadline passed, or the capture was unregistered mid-wait: report the partial matches.
+                return new AwaitEvents.Response(false, tickCounter.get(), matches);
+            }
+        }
+        finally
+        {
+            buffer.removeWaiter();
+        }
+    }
+
+    private CaptureBuffer requireBuffer(String eventClassName)
+    {
+        final CaptureBuffer buffer = capturedEvents.get(eventClassName);
+        if (buffer == null)
             throw new IllegalArgumentException(
                 ("No capture listener is registered for event class '%s'; register it before querying captured "
                     + "events (a typo'd class name or a query after unregister otherwise looks like 'no events').")
                     .formatted(eventClassName));
-        return new ArrayList<>(events);
+        return buffer;
     }
 
     /**
@@ -261,7 +404,7 @@ final class AgentEventCapture
      */
     void clearCapturedEvents(String eventClassName)
     {
-        final List<GetCapturedEvents.CapturedEvent> events = capturedEvents.get(eventClassName);
+        final CaptureBuffer events = capturedEvents.get(eventClassName);
         if (events == null)
             throw new IllegalArgumentException(
                 "No capture listener is registered for event class '%s'; register it before clearing events."
@@ -269,9 +412,9 @@ final class AgentEventCapture
         events.clear();
     }
 
-    private void captureEventForList(Event event, List<GetCapturedEvents.CapturedEvent> targetList)
+    private void captureEventForList(Event event, CaptureBuffer targetList)
     {
-        if (targetList.size() >= MAX_CAPTURED_EVENTS_PER_CLASS)
+        if (targetList.events().size() >= MAX_CAPTURED_EVENTS_PER_CLASS)
         {
             if (cappedEventClasses.add(event.getClass().getName()))
                 plugin.getLogger().log(
@@ -281,17 +424,21 @@ final class AgentEventCapture
             return;
         }
 
-        targetList.add(new GetCapturedEvents.CapturedEvent(
+        final String context = event.getClass().getName();
+        final ProtocolValueEncoder.Projection projection = targetList.projection();
+        targetList.append(new GetCapturedEvents.CapturedEvent(
             tickCounter.get(),
-            protocolValueEncoder.encodeAccessors(event, event.getClass().getName())));
+            projection.isEmpty()
+                ? protocolValueEncoder.encodeAccessors(event, context)
+                : protocolValueEncoder.encodeProjection(event, projection, context)));
     }
 
     /**
-     * Arms cancellation of the next {@code count} fired events of the class via a LOWEST-priority listener,
-     * so regular plugin listeners (and the MONITOR capture listener) observe the cancelled state.
+     * Arms cancellation of the next {@code count} fired events of the class at LOWEST priority, so regular plugin
+     * listeners (and the MONITOR capture dispatch) observe the cancelled state.
      *
-     * <p>One armed cancellation per event class at a time; arming again while one is active throws. The
-     * listener unregisters itself (on the next tick) once its count is exhausted.
+     * <p>One armed cancellation per event class at a time; arming again while one is active throws. The rule
+     * drops out of the routing table as soon as its count is exhausted.
      *
      * @param eventClassName
      *     Fully qualified Bukkit event class; must implement {@code Cancellable}.
@@ -303,14 +450,13 @@ final class AgentEventCapture
     void cancelNextEvents(String eventClassName, int count)
         throws ClassNotFoundException
     {
-        final Class<?> resolvedClass = resolveEventClass(eventClassName);
-        if (!Event.class.isAssignableFrom(resolvedClass))
-            throw new IllegalArgumentException("Class '%s' is not a Bukkit Event.".formatted(eventClassName));
-        if (!org.bukkit.event.Cancellable.class.isAssignableFrom(resolvedClass))
+        final Class<? extends Event> eventClass = resolveBukkitEventClass(eventClassName);
+        if (!org.bukkit.event.Cancellable.class.isAssignableFrom(eventClass))
             throw new IllegalArgumentException(
                 "Class '%s' is not Cancellable; cancelNext cannot apply.".formatted(eventClassName));
 
-        final CancelNextState state = new CancelNextState(new Listener() {}, new AtomicInteger(count));
+        final CancelNextState state = new CancelNextState(
+            eventClassName, eventClass, new AtomicInteger(count), hookFor(eventClass, eventClassName));
         final CancelNextState previous = cancelListeners.putIfAbsent(eventClassName, state);
         if (previous != null)
             throw new IllegalStateException(
@@ -320,22 +466,10 @@ final class AgentEventCapture
         boolean registered = false;
         try
         {
-            final Class<? extends Event> eventClass = resolvedClass.asSubclass(Event.class);
-            mainThreadExecutor.callOnMainThread(() ->
-            {
-                Bukkit.getPluginManager().registerEvent(
-                    eventClass,
-                    state.marker(),
-                    EventPriority.LOWEST,
-                    (listenerInstance, event) -> cancelEvent(eventClassName, state, event),
-                    plugin,
-                    false
-                );
-                return Boolean.TRUE;
-            });
+            state.hook().addCancel(state);
             registered = true;
         }
-        catch (ClassNotFoundException | RuntimeException exception)
+        catch (RuntimeException exception)
         {
             throw exception;
         }
@@ -352,7 +486,7 @@ final class AgentEventCapture
         }
     }
 
-    private void cancelEvent(String eventClassName, CancelNextState state, Event event)
+    private void cancelEvent(CancelNextState state, Event event)
     {
         final int before = state.remaining().getAndDecrement();
         if (before <= 0)
@@ -361,17 +495,240 @@ final class AgentEventCapture
             cancellable.setCancelled(true);
         if (before == 1)
         {
-            // Exhausted: detach on the next tick (unregistering mid-dispatch from inside the handler is
-            // avoided deliberately), and drop the bookkeeping so a new cancelNext can be armed.
-            cancelListeners.remove(eventClassName, state);
-            Bukkit.getScheduler().runTask(plugin, () -> HandlerList.unregisterAll(state.marker()));
+            // Exhausted: drop the rule from the routing table and the bookkeeping so a new cancelNext can be
+            // armed. The hook itself stays, so nothing is unregistered mid-dispatch.
+            cancelListeners.remove(state.eventClassName(), state);
+            state.hook().removeCancel(state);
+        }
+    }
+
+    /**
+     * The single Bukkit listener hooked into one {@link HandlerList}, fanning fired events out to every capture
+     * route and cancel rule whose event class matches.
+     *
+     * <p>The routing table is an immutable snapshot swapped on change under the hook's monitor, so dispatch on
+     * the server thread is a lock-free volatile read followed by a walk over a small list.
+     */
+    private final class DispatcherHook
+    {
+        private final Class<? extends Event> registrationClass;
+        private final Listener marker = new Listener() {};
+        private volatile Routes routes = Routes.EMPTY;
+        private volatile boolean installed;
+
+        DispatcherHook(Class<? extends Event> registrationClass)
+        {
+            this.registrationClass = registrationClass;
+        }
+
+        synchronized void addCapture(CaptureRoute route)
+            throws Exception
+        {
+            ensureInstalled();
+            routes = new Routes(appended(routes.captures(), route), routes.cancels());
+        }
+
+        synchronized void removeCapture(CaptureRoute route)
+        {
+            routes = new Routes(removed(routes.captures(), route), routes.cancels());
+        }
+
+        synchronized void addCancel(CancelNextState state)
+            throws Exception
+        {
+            ensureInstalled();
+            routes = new Routes(routes.captures(), appended(routes.cancels(), state));
+        }
+
+        synchronized void removeCancel(CancelNextState state)
+        {
+            routes = new Routes(routes.captures(), removed(routes.cancels(), state));
+        }
+
+        /**
+         * Registers both executors on the main thread the first time a route is added. Blocking under the monitor
+         * is safe: dispatch never takes it, and concurrent first routes for the same list must wait for the hook
+         * anyway.
+         *
+         * <p>The flag is set by the main-thread task itself and checked again there, because the wait can time
+         * out while the task still runs later. A retry queued behind it then finds the hook installed instead of
+         * registering the executors a second time and counting every event twice.
+         */
+        private void ensureInstalled()
+            throws Exception
+        {
+            if (installed)
+                return;
+            mainThreadExecutor.callOnMainThread(() ->
+            {
+                if (installed)
+                    return Boolean.TRUE;
+                final PluginManager pluginManager = Bukkit.getPluginManager();
+                pluginManager.registerEvent(
+                    registrationClass,
+                    marker,
+                    EventPriority.LOWEST,
+                    (listenerInstance, event) -> dispatchCancel(event),
+                    plugin,
+                    false
+                );
+                try
+                {
+                    pluginManager.registerEvent(
+                        registrationClass,
+                        marker,
+                        EventPriority.MONITOR,
+                        (listenerInstance, event) -> dispatchCapture(event),
+                        plugin,
+                        false
+                    );
+                }
+                catch (RuntimeException exception)
+                {
+                    HandlerList.unregisterAll(marker);
+                    throw exception;
+                }
+                installed = true;
+                return Boolean.TRUE;
+            });
+        }
+
+        private void dispatchCancel(Event event)
+        {
+            for (final CancelNextState state : routes.cancels())
+                if (state.eventClass().isInstance(event))
+                    cancelEvent(state, event);
+        }
+
+        private void dispatchCapture(Event event)
+        {
+            for (final CaptureRoute route : routes.captures())
+                if (route.eventClass().isInstance(event))
+                    captureEventForList(event, route.buffer());
+        }
+
+        private static <T> List<T> appended(List<T> list, T element)
+        {
+            final List<T> copy = new ArrayList<>(list);
+            copy.add(element);
+            return List.copyOf(copy);
+        }
+
+        private static <T> List<T> removed(List<T> list, T element)
+        {
+            if (!list.contains(element))
+                return list;
+            final List<T> copy = new ArrayList<>(list);
+            copy.remove(element);
+            return List.copyOf(copy);
         }
     }
 
     /**
-     * Bookkeeping for one armed cancellation: its marker listener and the remaining cancel budget.
+     * Append-only (until cleared) store of one event class's captured payloads, doubling as the monitor that
+     * {@link #awaitEvents} waiters block on.
+     *
+     * <p>Appends only take the monitor when a waiter is registered, so captures without a pending await stay on
+     * the lock-free {@link CopyOnWriteArrayList} path.
+     */
+    private static final class CaptureBuffer
+    {
+        private final ProtocolValueEncoder.Projection projection;
+        private final List<GetCapturedEvents.CapturedEvent> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger waiterCount = new AtomicInteger();
+        private volatile boolean closed;
+
+        CaptureBuffer(ProtocolValueEncoder.Projection projection)
+        {
+            this.projection = projection;
+        }
+
+        /**
+         * @return The accessor paths captured per event; empty for the full accessor walk.
+         */
+        ProtocolValueEncoder.Projection projection()
+        {
+            return projection;
+        }
+
+        List<GetCapturedEvents.CapturedEvent> events()
+        {
+            return events;
+        }
+
+        void append(GetCapturedEvents.CapturedEvent event)
+        {
+            events.add(event);
+            signalWaiters();
+        }
+
+        void clear()
+        {
+            events.clear();
+            signalWaiters();
+        }
+
+        /**
+         * Marks the buffer as detached from its (unregistered) listener and wakes any waiters so they return
+         * instead of sleeping out their deadline.
+         */
+        void close()
+        {
+            closed = true;
+            events.clear();
+            signalWaiters();
+        }
+
+        boolean isClosed()
+        {
+            return closed;
+        }
+
+        void addWaiter()
+        {
+            waiterCount.incrementAndGet();
+        }
+
+        void removeWaiter()
+        {
+            waiterCount.decrementAndGet();
+        }
+
+        private void signalWaiters()
+        {
+            if (waiterCount.get() == 0)
+                return;
+            synchronized (this)
+            {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * One dispatcher hook's immutable routing table.
+     */
+    private record Routes(List<CaptureRoute> captures, List<CancelNextState> cancels)
+    {
+        static final Routes EMPTY = new Routes(List.of(), List.of());
+    }
+
+    /**
+     * One active capture: the event class it accepts, the buffer it fills and the hook delivering its events.
+     */
+    private record CaptureRoute(Class<? extends Event> eventClass, CaptureBuffer buffer, DispatcherHook hook)
+    {
+    }
+
+    /**
+     * Bookkeeping for one armed cancellation: the event class it accepts, the remaining cancel budget and the hook
+     * delivering its events.
      */
-    private record CancelNextState(Listener marker, AtomicInteger remaining)
+    private record CancelNextState(
+        String eventClassName,
+        Class<? extends Event> eventClass,
+        AtomicInteger remaining,
+        DispatcherHook hook)
     {
     }
 }
@@ -0,0 +1,256 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.generator.BiomeProvider;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.generator.WorldInfo;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Chunk generator for test worlds that only need a fixed column of blocks, or nothing at all.
+ *
+ * <p>Every chunk is filled with the same layer stack, starting at the world's minimum height. All vanilla generation
+ * steps (noise, surface, caves, decorations, mobs and structures) are turned off, the world has a single biome, and
+ * the spawn location is fixed on top of the stack, so the server does not search for a safe spawn either.
+ *
+ * <p>Selected through the {@code VOID}, {@code BEDROCK} and {@code LAYERS} world types of {@code NEW_WORLD}.
+ */
+final class AgentFastChunkGenerator extends ChunkGenerator
+{
+    /**
+     * World type producing empty chunks.
+     */
+    static final String WORLD_TYPE_VOID = "VOID";
+    /**
+     * World type producing a single bedrock layer.
+     */
+    static final String WORLD_TYPE_BEDROCK = "BEDROCK";
+    /**
+     * World type producing the layer stack from the command's {@code generatorLayers}.
+     */
+    static final String WORLD_TYPE_LAYERS = "LAYERS";
+
+    /**
+     * Upper bound on the total stack height; no supported world is taller than this.
+     */
+    private static final int MAX_STACK_HEIGHT = 4064;
+
+    /**
+     * Layers from bottom to top.
+     */
+    private final List<Layer> layers;
+    /**
+     * Total height of all layers.
+     */
+    private final int stackHeight;
+
+    AgentFastChunkGenerator(List<Layer> layers)
+    {
+        this.layers = List.copyOf(Objects.requireNonNull(layers, "layers"));
+        this.stackHeight = this.layers.stream().mapToInt(Layer::thickness).sum();
+        if (stackHeight > MAX_STACK_HEIGHT)
+            throw new IllegalArgumentException(
+                "Layer stack height %d exceeds the maximum of %d.".formatted(stackHeight, MAX_STACK_HEIGHT));
+    }
+
+    /**
+     * Creates the generator for a {@code NEW_WORLD} world type, if it is one of the agent-provided types.
+     *
+     * @param worldType
+     *     World type from the command.
+     * @param generatorLayers
+     *     Layer specification for {@code LAYERS}; ignored for other types.
+     * @return
+     *     The generator, or {@code null} when the world type is a vanilla Bukkit world type.
+     *
+     * @throws IllegalArgumentException
+     *     When {@code LAYERS} is requested without a valid layer specification.
+     */
+    static @Nullable AgentFastChunkGenerator forWorldType(String worldType, @Nullable String generatorLayers)
+    {
+        return switch (worldType.trim().toUpperCase(Locale.ROOT))
+        {
+            case WORLD_TYPE_VOID -> new AgentFastChunkGenerator(List.of());
+            case WORLD_TYPE_BEDROCK -> new AgentFastChunkGenerator(List.of(new Layer(Material.BEDROCK, 1)));
+            case WORLD_TYPE_LAYERS -> new AgentFastChunkGenerator(parseLayers(generatorLayers));
+            default -> null;
+        };
+    }
+
+    /**
+     * Parses a layer specification in the vanilla superflat format.
+     *
+     * <p>Layers are comma-separated and listed from bottom to top. Each layer is a material key, optionally prefixed
+     * with a thickness and {@code *}, for example {@code minecraft:bedrock,2*minecraft:dirt,minecraft:grass_block}.
+     *
+     * @param generatorLayers
+     *     Layer specification.
+     * @return
+     *     Parsed layers from bottom to top.
+     *
+     * @throws IllegalArgumentException
+     *     When the specification is blank, a thickness is not a positive number, or a material is unknown or not a
+     *     block.
+     */
+    static List<Layer> parseLayers(@Nullable String generatorLayers)
+    {
+        if (generatorLayers == null || generatorLayers.isBlank())
+            throw new IllegalArgumentException("Argument 'generatorLayers' must not be blank for world type LAYERS.");
+
+        final List<Layer> layers = new ArrayList<>();
+        for (final String entry : generatorLayers.split(",", -1))
+        {
+            final String trimmed = entry.trim();
+            final int separator = trimmed.indexOf('*');
+            final String materialKey = separator < 0 ? trimmed : trimmed.substring(separator + 1).trim();
+            final int thickness = separator < 0 ? 1 : parseThickness(trimmed.substring(0, separator).trim(), entry);
+
+            final Material material = AgentRequestParsers.parseMaterial(materialKey);
+            if (material == null || !material.isBlock())
+                throw new IllegalArgumentException("Unknown block material '%s' in generator layer '%s'."
+                    .formatted(materialKey, entry.trim()));
+            layers.add(new Layer(material, thickness));
+        }
+        return layers;
+    }
+
+    private static int parseThickness(String value, String entry)
+    {
+        try
+        {
+            final int thickness = Integer.parseInt(value);
+            if (thickness > 0)
+                return thickness;
+        }
+        catch (NumberFormatException ignored)
+        {
+            // Reported below together with non-positive values.
+        }
+        throw new IllegalArgumentException("Invalid thickness '%s' in generator layer '%s'; expected a positive number."
+            .formatted(value, entry.trim()));
+    }
+
+    /**
+     * Height of the layer stack.
+     *
+     * @return Sum of all layer thicknesses.
+     */
+    int stackHeight()
+    {
+        return stackHeight;
+    }
+
+    @Override
+    public void generateNoise(WorldInfo worldInfo, Random random, int chunkX, int chunkZ, ChunkData chunkData)
+    {
+        int minY = chunkData.getMinHeight();
+        for (final Layer layer : layers)
+        {
+            final int maxY = Math.min(minY + layer.thickness(), chunkData.getMaxHeight());
+            if (minY >= maxY)
+                return;
+            chunkData.setRegion(0, minY, 0, 16, maxY, 16, layer.material());
+            minY = maxY;
+        }
+    }
+
+    @Override
+    public BiomeProvider getDefaultBiomeProvider(WorldInfo worldInfo)
+    {
+        return new SingleBiomeProvider(layers.isEmpty() ? Biome.THE_VOID : Biome.PLAINS);
+    }
+
+    @Override
+    public Location getFixedSpawnLocation(World world, Random random)
+    {
+        return new Location(world, 0.5D, world.getMinHeight() + stackHeight, 0.5D);
+    }
+
+    @Override
+    public boolean isParallelCapable()
+    {
+        return true;
+    }
+
+    @Override
+    public boolean shouldGenerateNoise()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean shouldGenerateSurface()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean shouldGenerateCaves()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean shouldGenerateDecorations()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean shouldGenerateMobs()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean shouldGenerateStructures()
+    {
+        return false;
+    }
+
+    /**
+     * One layer of the stack.
+     *
+     * @param material
+     *     Block material of the layer.
+     * @param thickness
+     *     Number of blocks the layer spans vertically.
+     */
+    record Layer(Material material, int thickness)
+    {
+    }
+
+    /**
+     * Biome provider returning the same biome everywhere.
+     */
+    private static final class SingleBiomeProvider extends BiomeProvider
+    {
+        private final Biome biome;
+
+        private SingleBiomeProvider(Biome biome)
+        {
+            this.biome = biome;
+        }
+
+        @Override
+        public Biome getBiome(WorldInfo worldInfo, int x, int y, int z)
+        {
+            return biome;
+        }
+
+        @Override
+        public List<Biome> getBiomes(WorldInfo worldInfo)
+        {
+            return List.of(biome);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells the framework that the server finished starting, replacing console scraping for a readiness marker.
+ *
+ * <p>Records the startup phases the agent observes and sends a single {@link AgentReadinessSignal} on the readiness
+ * socket the framework listens on: {@code READY} once the server fired its startup {@link ServerLoadEvent} (every
+ * plugin enabled, agent socket bound), or {@code FAILED} when the agent could not start. Servers not launched by the
+ * framework have no readiness socket, in which case nothing is sent.
+ */
+final class AgentReadinessPublisher implements Listener
+{
+    private final @Nullable Path readySocketPath;
+    private final Logger logger;
+    @GuardedBy("this")
+    private final Map<AgentReadinessSignal.Phase, Long> phaseEpochMillis =
+        new EnumMap<>(AgentReadinessSignal.Phase.class);
+    @GuardedBy("this")
+    private boolean published;
+
+    /**
+     * @param readySocketPath
+     *     Readiness socket of the framework, or {@code null} when no framework awaits the signal.
+     * @param jvmStartEpochMillis
+     *     Epoch milliseconds at which the server JVM started.
+     * @param logger
+     *     Agent logger used for delivery failures.
+     */
+    AgentReadinessPublisher(@Nullable Path readySocketPath, long jvmStartEpochMillis, Logger logger)
+    {
+        this.readySocketPath = readySocketPath;
+        this.logger = Objects.requireNonNull(logger, "logger");
+        phaseEpochMillis.put(AgentReadinessSignal.Phase.JVM_START, jvmStartEpochMillis);
+    }
+
+    /**
+     * Creates a publisher for the readiness socket configured through
+     * {@link RuntimeProtocol#PROPERTY_READY_SOCKET_PATH}.
+     *
+     * @param logger
+     *     Agent logger used for delivery failures.
+     * @return The publisher.
+     */
+    static AgentReadinessPublisher fromSystemProperties(Logger logger)
+    {
+        final String configuredPath = System.getProperty(RuntimeProtocol.PROPERTY_READY_SOCKET_PATH, "");
+        return new AgentReadinessPublisher(
+            configuredPath.isBlank() ? null : Path.of(configuredPath),
+            ManagementFactory.getRuntimeMXBean().getStartTime(),
+            logger
+        );
+    }
+
+    /**
+     * Records that the server reached a startup phase; later calls for the same phase are ignored.
+     *
+     * @param phase
+     *     The phase reached now.
+     */
+    synchronized void markPhase(AgentReadinessSignal.Phase phase)
+    {
+        phaseEpochMillis.putIfAbsent(phase, System.currentTimeMillis());
+    }
+
+    /**
+     * Signals readiness once the server finished its initial startup; reloads are ignored.
+     *
+     * @param event
+     *     Bukkit server-load event.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    void onServerLoad(ServerLoadEvent event)
+    {
+        if (event.getType() != ServerLoadEvent.LoadType.STARTUP)
+            return;
+        markPhase(AgentReadinessSignal.Phase.SERVER_LOADED);
+        publishReady();
+    }
+
+    /**
+     * Sends {@code READY} with every phase recorded so far.
+     */
+    void publishReady()
+    {
+        final AgentReadinessSignal signal;
+        synchronized (this)
+        {
+            phaseEpochMillis.putIfAbsent(AgentReadinessSignal.Phase.AGENT_READY, System.currentTimeMillis());
+            signal = AgentReadinessSignal.ready(phaseEpochMillis);
+        }
+        publish(signal);
+    }
+
+    /**
+     * Sends {@code FAILED}, so the framework reports the agent failure instead of waiting for its startup timeout.
+     *
+     * @param failureMessage
+     *     Why the agent could not start.
+     */
+    void publishFailure(String failureMessage)
+    {
+        publish(AgentReadinessSignal.failed(failureMessage));
+    }
+
+    private void publish(AgentReadinessSignal signal)
+    {
+        synchronized (this)
+        {
+            if (published)
+                return;
+            published = true;
+        }
+        if (readySocketPath == null)
+            return;
+
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            channel.connect(UnixDomainSocketAddress.of(readySocketPath));
+            final ByteBuffer buffer = ByteBuffer.wrap((signal.encode() + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        catch (IOException exception)
+        {
+            logger.log(
+                Level.WARNING,
+                "LK_AGENT: Failed to signal readiness on socket '%s'.".formatted(readySocketPath),
+                exception
+            );
+        }
+    }
+}
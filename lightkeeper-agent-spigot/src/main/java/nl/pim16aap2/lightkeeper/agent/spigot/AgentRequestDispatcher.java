@@ -2,6 +2,7 @@ package nl.pim16aap2.lightkeeper.agent.spigot;
 
 import nl.pim16aap2.lightkeeper.protocol.AgentErrorCode;
 import nl.pim16aap2.lightkeeper.protocol.AgentProtocolException;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.BlockType;
 import nl.pim16aap2.lightkeeper.protocol.CancelNextEvents;
 import nl.pim16aap2.lightkeeper.protocol.ClearCapturedEvents;
@@ -36,11 +37,14 @@ import nl.pim16aap2.lightkeeper.protocol.PlayerChat;
 import nl.pim16aap2.lightkeeper.protocol.QueryEntities;
 import nl.pim16aap2.lightkeeper.protocol.RegisterEventListener;
 import nl.pim16aap2.lightkeeper.protocol.RemovePlayer;
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
 import nl.pim16aap2.lightkeeper.protocol.RightClickBlock;
 import nl.pim16aap2.lightkeeper.protocol.SetBlock;
+import nl.pim16aap2.lightkeeper.protocol.SnapshotRegion;
 import nl.pim16aap2.lightkeeper.protocol.TabCompletePlayer;
 import nl.pim16aap2.lightkeeper.protocol.TeleportPlayer;
 import nl.pim16aap2.lightkeeper.protocol.UnloadChunk;
+import nl.pim16aap2.lightkeeper.protocol.UnloadWorld;
 import nl.pim16aap2.lightkeeper.protocol.UnregisterEventListener;
 import nl.pim16aap2.lightkeeper.protocol.WaitTicks;
 import org.bukkit.Bukkit;
@@ -245,6 +249,7 @@ final class AgentRequestDispatcher
             // fails to compile rather than silently deserializing into the wrong record on the client.
             final IAgentResponse response = switch (command)
             {
+                case AwaitEvents.Command c -> handle(c, eventActions::handleAwaitEvents);
                 case BlockType.Command c -> handle(c, worldActions::handleBlockType);
                 case CancelNextEvents.Command c -> handle(c, eventActions::handleCancelNextEvents);
                 case ClearCapturedEvents.Command c -> handle(c, eventActions::handleClearCapturedEvents);
@@ -276,11 +281,14 @@ final class AgentRequestDispatcher
                 case QueryEntities.Command c -> handle(c, worldActions::handleQueryEntities);
                 case RegisterEventListener.Command c -> handle(c, eventActions::handleRegisterEventListener);
                 case RemovePlayer.Command c -> handle(c, playerActions::handleRemovePlayer);
+                case RestoreRegion.Command c -> handle(c, worldActions::handleRestoreRegion);
                 case RightClickBlock.Command c -> handle(c, playerActions::handleRightClickBlock);
                 case SetBlock.Command c -> handle(c, worldActions::handleSetBlock);
+                case SnapshotRegion.Command c -> handle(c, worldActions::handleSnapshotRegion);
                 case TabCompletePlayer.Command c -> handle(c, playerActions::handleTabCompletePlayer);
                 case TeleportPlayer.Command c -> handle(c, playerActions::handleTeleportPlayer);
                 case UnloadChunk.Command c -> handle(c, worldActions::handleUnloadChunk);
+                case UnloadWorld.Command c -> handle(c, worldActions::handleUnloadWorld);
                 case UnregisterEventListener.Command c -> handle(c, eventActions::handleUnregisterEventListener);
                 case WaitTicks.Command c -> handle(c, worldActions::handleWaitTicks);
 
@@ -13,10 +13,15 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 /**
  * Captures WARN-or-worse server log events as structured snapshots by attaching an appender to the Log4j root
@@ -29,8 +34,17 @@ import java.util.Objects;
  * alongside the appender so failures inside the logging system itself (which Log4j reports only through its
  * status logger, bypassing all appenders) are captured too.
  *
- * <p>The buffer is bounded: once full, new entries are dropped and counted while the oldest entries are kept,
- * so an error storm cannot exhaust server memory and the first (root-cause) errors always survive.
+ * <p>Entries are grouped by a fingerprint of their level, logger, message, and throwable (class, message, and stack
+ * frames of the whole cause chain). Messages of events with a throwable are reduced to a template with every number
+ * replaced, so an error embedding a tick or coordinate still folds into one group. The first occurrence of a group
+ * is kept in full and its stack trace is rendered once; every later occurrence only bumps the group's count and
+ * last-seen timestamp, so a plugin throwing the same exception every tick occupies a single entry. The capture path
+ * takes no locks: groups live in a concurrent map and the counters are atomics, so server threads logging in
+ * parallel never contend on a monitor.
+ *
+ * <p>The buffer is bounded by the number of distinct groups: once full, occurrences of new groups are dropped and
+ * counted while the oldest groups are kept, so an error storm cannot exhaust server memory and the first
+ * (root-cause) errors always survive.
  *
  * <p>Install from {@code onLoad} — before any plugin's {@code onEnable} runs — so enable-time errors of the
  * plugins under test are captured.
@@ -41,6 +55,14 @@ final class AgentServerErrorCapture
      * Maximum number of error entries retained. Prevents unbounded memory growth during error storms.
      */
     static final int MAX_CAPTURED_ERRORS = 1_000;
+    /**
+     * Maximum number of throwables of a cause chain that contribute to a fingerprint; guards against cyclic chains.
+     */
+    private static final int MAX_FINGERPRINT_CAUSES = 16;
+    /**
+     * Matches the numbers that are replaced in message templates.
+     */
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
     /**
      * Maximum number of rendered stack trace lines (including the cause chain) retained per entry.
      */
@@ -68,17 +90,10 @@ final class AgentServerErrorCapture
      */
     private final java.util.logging.Logger pluginLogger;
     /**
-     * Guards {@link #buffer} and {@link #droppedCount}.
+     * The current capture generation; {@link #clear()} swaps in a fresh one so concurrent offers never observe a
+     * half-cleared buffer.
      */
-    private final Object bufferLock = new Object();
-    /**
-     * Captured entries ordered oldest-to-newest; guarded by {@link #bufferLock}.
-     */
-    private final ArrayDeque<ServerErrorEntry> buffer = new ArrayDeque<>();
-    /**
-     * Number of entries discarded because the buffer was full; guarded by {@link #bufferLock}.
-     */
-    private long droppedCount;
+    private final AtomicReference<CaptureGeneration> generation = new AtomicReference<>(new CaptureGeneration());
 
     /**
      * The capture appender while installed.
@@ -216,10 +231,10 @@ final class AgentServerErrorCapture
      */
     List<ServerErrorEntry> snapshot()
     {
-        synchronized (bufferLock)
-        {
-            return new ArrayList<>(buffer);
-        }
+        return generation.get().groups.values().stream()
+            .sorted(Comparator.comparingLong(ErrorGroup::sequence))
+            .map(ErrorGroup::toEntry)
+            .toList();
     }
 
     /**
@@ -230,10 +245,7 @@ final class AgentServerErrorCapture
      */
     long droppedCount()
     {
-        synchronized (bufferLock)
-        {
-            return droppedCount;
-        }
+        return generation.get().droppedCount.get();
     }
 
     /**
@@ -241,29 +253,80 @@ final class AgentServerErrorCapture
      */
     void clear()
     {
-        synchronized (bufferLock)
-        {
-            buffer.clear();
-            droppedCount = 0L;
-        }
+        generation.set(new CaptureGeneration());
+    }
+
+    /**
+     * Counts one occurrence that could not be captured.
+     */
+    private void countDropped()
+    {
+        generation.get().droppedCount.incrementAndGet();
     }
 
     /**
-     * Buffers one entry, dropping it (counted) when the buffer is full so the oldest entries survive.
+     * Records one occurrence: bumps the existing group with the same fingerprint, or creates a new group (rendering
+     * the stack trace once) when a slot is free. Occurrences of new groups are dropped (counted) when the buffer is
+     * full so the oldest groups survive.
      *
-     * @param entry
-     *     The entry to buffer.
+     * @param timestampMillis
+     *     Epoch milliseconds at which the occurrence was logged.
+     * @param level
+     *     The occurrence's log level.
+     * @param loggerName
+     *     Name of the emitting logger.
+     * @param threadName
+     *     Name of the emitting thread.
+     * @param message
+     *     Formatted log message.
+     * @param thrown
+     *     The attached throwable, or {@code null}.
      */
-    private void offer(ServerErrorEntry entry)
+    private void offer(
+        long timestampMillis,
+        Level level,
+        String loggerName,
+        String threadName,
+        String message,
+        @Nullable Throwable thrown)
     {
-        synchronized (bufferLock)
+        final CaptureGeneration current = generation.get();
+        final Fingerprint fingerprint = Fingerprint.of(level.name(), loggerName, message, thrown);
+        final ErrorGroup existing = current.groups.get(fingerprint);
+        if (existing != null)
         {
-            if (buffer.size() >= MAX_CAPTURED_ERRORS)
-            {
-                droppedCount++;
-                return;
-            }
-            buffer.addLast(entry);
+            existing.recordOccurrence(timestampMillis);
+            return;
+        }
+
+        if (current.groupCount.incrementAndGet() > MAX_CAPTURED_ERRORS)
+        {
+            current.groupCount.decrementAndGet();
+            current.droppedCount.incrementAndGet();
+            return;
+        }
+
+        final ErrorGroup created = new ErrorGroup(
+            current.nextSequence.getAndIncrement(),
+            new ServerErrorEntry(
+                timestampMillis,
+                level.isMoreSpecificThan(Level.ERROR) ? SEVERITY_ERROR : SEVERITY_WARNING,
+                level.name(),
+                loggerName,
+                threadName,
+                message,
+                thrown == null ? null : thrown.getClass().getName(),
+                thrown == null ? null : thrown.getMessage(),
+                thrown == null ? List.of() : renderStackTrace(thrown),
+                1L,
+                timestampMillis
+            ));
+        final ErrorGroup raced = current.groups.putIfAbsent(fingerprint, created);
+        if (raced != null)
+        {
+            // Another thread created the same group first; release the reserved slot and count against it.
+            current.groupCount.decrementAndGet();
+            raced.recordOccurrence(timestampMillis);
         }
     }
 
@@ -279,19 +342,15 @@ final class AgentServerErrorCapture
         if (level == null || !level.isMoreSpecificThan(Level.WARN))
             return;
 
-        final Throwable thrown = event.getThrown();
-        offer(new ServerErrorEntry(
+        offer(
             event.getTimeMillis(),
-            level.isMoreSpecificThan(Level.ERROR) ? SEVERITY_ERROR : SEVERITY_WARNING,
-            level.name(),
+            level,
             Objects.requireNonNullElse(event.getLoggerName(), ""),
             Objects.requireNonNullElse(event.getThreadName(), ""),
             event.getMessage() == null ? "" : Objects.requireNonNullElse(
                 event.getMessage().getFormattedMessage(), ""),
-            thrown == null ? null : thrown.getClass().getName(),
-            thrown == null ? null : thrown.getMessage(),
-            thrown == null ? List.of() : renderStackTrace(thrown)
-        ));
+            event.getThrown()
+        );
     }
 
     /**
@@ -337,10 +396,7 @@ final class AgentServerErrorCapture
             {
                 // Never propagate capture failures into the server's logging pipeline, and never log from here:
                 // a log call would recurse straight back into this appender. Count the loss instead.
-                synchronized (bufferLock)
-                {
-                    droppedCount++;
-                }
+                countDropped();
             }
         }
     }
@@ -360,26 +416,19 @@ final class AgentServerErrorCapture
                 if (level == null || !level.isMoreSpecificThan(Level.WARN))
                     return;
 
-                final Throwable thrown = data.getThrowable();
-                offer(new ServerErrorEntry(
+                offer(
                     data.getTimestamp(),
-                    level.isMoreSpecificThan(Level.ERROR) ? SEVERITY_ERROR : SEVERITY_WARNING,
-                    level.name(),
+                    level,
                     STATUS_LOGGER_NAME,
                     Objects.requireNonNullElse(data.getThreadName(), ""),
                     Objects.requireNonNullElse(data.getFormattedStatus(), ""),
-                    thrown == null ? null : thrown.getClass().getName(),
-                    thrown == null ? null : thrown.getMessage(),
-                    thrown == null ? List.of() : renderStackTrace(thrown)
-                ));
+                    data.getThrowable()
+                );
             }
             catch (RuntimeException exception)
             {
                 // Same rule as the appender: never log from the capture path.
-                synchronized (bufferLock)
-                {
-                    droppedCount++;
-                }
+                countDropped();
             }
         }
 
@@ -395,4 +444,129 @@ final class AgentServerErrorCapture
             // Nothing to release; unregistration happens in uninstall().
         }
     }
+
+    /**
+     * One capture buffer lifetime, from agent load or a {@link #clear()} to the next clear.
+     */
+    private static final class CaptureGeneration
+    {
+        /**
+         * Captured groups keyed by fingerprint.
+         */
+        private final ConcurrentHashMap<Fingerprint, ErrorGroup> groups = new ConcurrentHashMap<>();
+        /**
+         * Number of group slots reserved; may briefly exceed {@link #groups}'s size while a group is being created.
+         */
+        private final AtomicInteger groupCount = new AtomicInteger();
+        /**
+         * Creation order source for groups, so snapshots list them oldest-to-newest.
+         */
+        private final AtomicLong nextSequence = new AtomicLong();
+        /**
+         * Number of occurrences discarded because the buffer was full or capture failed.
+         */
+        private final AtomicLong droppedCount = new AtomicLong();
+    }
+
+    /**
+     * Identity of an error group.
+     *
+     * <p>Groups are compared by their actual frames, not by a hash of them, so two stacks that happen to hash alike
+     * never share a group.
+     *
+     * @param levelName
+     *     Log level name.
+     * @param loggerName
+     *     Emitting logger name.
+     * @param messageTemplate
+     *     The formatted message; with its numbers replaced for events with a throwable.
+     * @param causes
+     *     The throwable's cause chain, outermost first; empty without a throwable.
+     */
+    private record Fingerprint(String levelName, String loggerName, String messageTemplate, List<Cause> causes)
+    {
+        static Fingerprint of(String levelName, String loggerName, String message, @Nullable Throwable thrown)
+        {
+            if (thrown == null)
+                return new Fingerprint(levelName, loggerName, message, List.of());
+
+            final List<Cause> causes = new ArrayList<>();
+            @Nullable Throwable current = thrown;
+            for (int depth = 0; current != null && depth < MAX_FINGERPRINT_CAUSES; depth++)
+            {
+                causes.add(new Cause(
+                    current.getClass().getName(),
+                    messageTemplate(current.getMessage()),
+                    List.of(current.getStackTrace())
+                ));
+                current = current.getCause() == current ? null : current.getCause();
+            }
+            return new Fingerprint(levelName, loggerName, messageTemplate(message), causes);
+        }
+
+        private static String messageTemplate(@Nullable String message)
+        {
+            return message == null ? "" : NUMBER_PATTERN.matcher(message).replaceAll("#");
+        }
+    }
+
+    /**
+     * One throwable of a fingerprinted cause chain.
+     *
+     * @param className
+     *     Throwable class name.
+     * @param messageTemplate
+     *     Throwable message with its numbers replaced.
+     * @param frames
+     *     Stack frames of the throwable.
+     */
+    private record Cause(String className, String messageTemplate, List<StackTraceElement> frames)
+    {
+    }
+
+    /**
+     * A captured error group: the first occurrence in full plus the count and last timestamp of all occurrences.
+     */
+    private static final class ErrorGroup
+    {
+        private final long sequence;
+        private final ServerErrorEntry firstOccurrence;
+        private final AtomicLong occurrenceCount = new AtomicLong(1L);
+        private final AtomicLong lastTimestampMillis;
+
+        ErrorGroup(long sequence, ServerErrorEntry firstOccurrence)
+        {
+            this.sequence = sequence;
+            this.firstOccurrence = firstOccurrence;
+            this.lastTimestampMillis = new AtomicLong(firstOccurrence.timestampMillis());
+        }
+
+        long sequence()
+        {
+            return sequence;
+        }
+
+        void recordOccurrence(long timestampMillis)
+        {
+            occurrenceCount.incrementAndGet();
+            lastTimestampMillis.accumulateAndGet(timestampMillis, Math::max);
+        }
+
+        ServerErrorEntry toEntry()
+        {
+            return new ServerErrorEntry(
+                firstOccurrence.timestampMillis(),
+                firstOccurrence.severity(),
+                firstOccurrence.levelName(),
+                firstOccurrence.loggerName(),
+                firstOccurrence.threadName(),
+                firstOccurrence.message(),
+                firstOccurrence.throwableClass(),
+                firstOccurrence.throwableMessage(),
+                firstOccurrence.stackTrace(),
+                occurrenceCount.get(),
+                lastTimestampMillis.get()
+            );
+        }
+    }
 }
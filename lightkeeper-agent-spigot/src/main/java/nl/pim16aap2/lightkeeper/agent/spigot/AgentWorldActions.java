@@ -12,9 +12,12 @@ import nl.pim16aap2.lightkeeper.protocol.LoadChunk;
 import nl.pim16aap2.lightkeeper.protocol.MainWorld;
 import nl.pim16aap2.lightkeeper.protocol.NewWorld;
 import nl.pim16aap2.lightkeeper.protocol.QueryEntities;
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
 import nl.pim16aap2.lightkeeper.protocol.ServerPluginSnapshot;
 import nl.pim16aap2.lightkeeper.protocol.SetBlock;
+import nl.pim16aap2.lightkeeper.protocol.SnapshotRegion;
 import nl.pim16aap2.lightkeeper.protocol.UnloadChunk;
+import nl.pim16aap2.lightkeeper.protocol.UnloadWorld;
 import nl.pim16aap2.lightkeeper.protocol.WaitTicks;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -32,13 +35,20 @@ import org.joml.Quaternionf;
 import org.joml.Vector3f;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -66,6 +76,14 @@ final class AgentWorldActions
      * Monotonic tick counter incremented by the plugin scheduler loop.
      */
     private final AtomicLong tickCounter;
+    /**
+     * Encoder for the optional accessor-path projection of queried entities.
+     */
+    private final ProtocolValueEncoder protocolValueEncoder;
+    /**
+     * Store behind the region snapshot and restore handlers.
+     */
+    private final AgentWorldSnapshots worldSnapshots;
 
     /**
      * @param plugin
@@ -80,6 +98,8 @@ final class AgentWorldActions
         this.plugin = Objects.requireNonNull(plugin, "plugin");
         this.mainThreadExecutor = Objects.requireNonNull(mainThreadExecutor, "mainThreadExecutor");
         this.tickCounter = Objects.requireNonNull(tickCounter, "tickCounter");
+        this.protocolValueEncoder = new ProtocolValueEncoder(plugin);
+        this.worldSnapshots = new AgentWorldSnapshots(plugin, mainThreadExecutor);
     }
 
     /**
@@ -110,8 +130,11 @@ final class AgentWorldActions
     /**
      * Handles {@code NEW_WORLD} by creating or loading a world with deterministic creator settings.
      *
+     * <p>The {@code VOID}, {@code BEDROCK} and {@code LAYERS} world types use {@link AgentFastChunkGenerator} instead
+     * of a vanilla generator, and disable natural mob spawning in the created world.
+     *
      * @param command
-     *     Typed command carrying world name, type, environment, and seed.
+     *     Typed command carrying world name, type, environment, seed, and optional generator layers.
      * @return Response containing resolved world name.
      *
      * @throws Exception
@@ -128,13 +151,22 @@ final class AgentWorldActions
         if (worldName.isBlank())
             throw new IllegalArgumentException("Argument 'worldName' must not be blank.");
 
+        final @Nullable AgentFastChunkGenerator generator =
+            AgentFastChunkGenerator.forWorldType(worldTypeValue, command.generatorLayers());
+
         final World world = mainThreadExecutor.callOnMainThread(() ->
         {
             final WorldCreator worldCreator = new WorldCreator(worldName);
-            worldCreator.type(WorldType.valueOf(worldTypeValue.toUpperCase(Locale.ROOT)));
+            if (generator == null)
+                worldCreator.type(WorldType.valueOf(worldTypeValue.toUpperCase(Locale.ROOT)));
+            else
+                worldCreator.generator(generator).generateStructures(false);
             worldCreator.environment(World.Environment.valueOf(environmentValue.toUpperCase(Locale.ROOT)));
             worldCreator.seed(seed);
-            return Objects.requireNonNull(worldCreator.createWorld());
+            final World createdWorld = Objects.requireNonNull(worldCreator.createWorld());
+            if (generator != null)
+                createdWorld.setSpawnFlags(false, false);
+            return createdWorld;
         });
 
         plugin.getLogger().info(
@@ -144,6 +176,57 @@ final class AgentWorldActions
         return new NewWorld.Response(world.getName());
     }
 
+    /**
+     * Handles {@code UNLOAD_WORLD} by unloading a world without saving it.
+     *
+     * <p>A world that is not loaded is reported as not unloaded rather than as an error, so cleanup that races a
+     * test's own unload stays quiet. The folder is deleted off the main thread, after Bukkit released the world.
+     *
+     * @param command
+     *     Typed command carrying the world name and whether to delete its folder.
+     * @return Response with the {@code unloaded} flag.
+     *
+     * @throws Exception
+     *     Propagates main-thread execution failures.
+     */
+    UnloadWorld.Response handleUnloadWorld(UnloadWorld.Command command)
+        throws Exception
+    {
+        final String worldName = command.worldName();
+        final Optional<Path> worldFolder = mainThreadExecutor.callOnMainThread(() ->
+        {
+            final World world = Bukkit.getWorld(worldName);
+            if (world == null)
+                return Optional.<Path>empty();
+            if (world.equals(Bukkit.getWorlds().getFirst()))
+                throw new IllegalArgumentException("World '%s' is the main world and cannot be unloaded."
+                    .formatted(worldName));
+            return Bukkit.unloadWorld(world, false)
+                ? Optional.of(world.getWorldFolder().toPath())
+                : Optional.<Path>empty();
+        });
+        if (worldFolder.isEmpty())
+            return new UnloadWorld.Response(false);
+
+        if (command.deleteFolder())
+            deleteRecursively(worldFolder.get());
+        plugin.getLogger().info(
+            "LK_AGENT: Unloaded world '%s' (deleteFolder=%s).".formatted(worldName, command.deleteFolder()));
+        return new UnloadWorld.Response(true);
+    }
+
+    private static void deleteRecursively(Path directory)
+        throws IOException
+    {
+        if (!Files.exists(directory))
+            return;
+        try (Stream<Path> paths = Files.walk(directory))
+        {
+            for (final Path path : paths.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+
     /**
      * Handles {@code EXECUTE_COMMAND} by running a console command.
      *
@@ -241,6 +324,38 @@ final class AgentWorldActions
         return new SetBlock.Response(setMaterial);
     }
 
+    /**
+     * Handles {@code SNAPSHOT_REGION}; see {@link AgentWorldSnapshots#handleSnapshotRegion(SnapshotRegion.Command)}.
+     *
+     * @param command
+     *     Typed command carrying the world name and the block-inclusive box.
+     * @return Response with the snapshot identifier.
+     *
+     * @throws Exception
+     *     Propagates main-thread execution failures.
+     */
+    SnapshotRegion.Response handleSnapshotRegion(SnapshotRegion.Command command)
+        throws Exception
+    {
+        return worldSnapshots.handleSnapshotRegion(command);
+    }
+
+    /**
+     * Handles {@code RESTORE_REGION}; see {@link AgentWorldSnapshots#handleRestoreRegion(RestoreRegion.Command)}.
+     *
+     * @param command
+     *     Typed command carrying the snapshot identifier.
+     * @return Response describing what was restored.
+     *
+     * @throws Exception
+     *     Propagates main-thread execution failures.
+     */
+    RestoreRegion.Response handleRestoreRegion(RestoreRegion.Command command)
+        throws Exception
+    {
+        return worldSnapshots.handleRestoreRegion(command);
+    }
+
     /**
      * Handles {@code QUERY_ENTITIES} by reading all matching entities in one main-thread burst, so the returned states
      * are internally consistent and share one tick stamp.
@@ -250,7 +365,8 @@ final class AgentWorldActions
      * not by position containment.
      *
      * @param command
-     *     Typed command carrying world name, optional type filter, optional bounds, and the count-only flag.
+     *     Typed command carrying world name, optional type filter, optional bounds, the count-only flag, and the
+     *     optional accessor-path projection.
      * @return Response with the match count and (unless count-only) the entity states.
      *
      * @throws Exception
@@ -276,6 +392,8 @@ final class AgentWorldActions
                 command.maxX() + 1.0, command.maxY() + 1.0, command.maxZ() + 1.0))
                 : world.getEntities();
 
+            final ProtocolValueEncoder.Projection projection =
+                ProtocolValueEncoder.Projection.compile(command.projection());
             final List<QueryEntities.EntityData> matches = new ArrayList<>();
             int count = 0;
             for (final Entity entity : candidates)
@@ -287,7 +405,7 @@ final class AgentWorldActions
                     continue;
                 count++;
                 if (!command.countOnly())
-                    matches.add(toEntityData(entity));
+                    matches.add(toEntityData(entity, projection));
             }
             return new QueryEntities.Response(tickCounter.get(), count, matches);
         });
@@ -299,7 +417,7 @@ final class AgentWorldActions
         return trimmed.indexOf(':') < 0 ? "minecraft:" + trimmed : trimmed;
     }
 
-    private static QueryEntities.EntityData toEntityData(Entity entity)
+    private QueryEntities.EntityData toEntityData(Entity entity, ProtocolValueEncoder.Projection projection)
     {
         final Location location = entity.getLocation();
         final List<String> pdcKeys = entity.getPersistentDataContainer().getKeys().stream()
@@ -314,7 +432,10 @@ final class AgentWorldActions
             location.getZ(),
             entity.getCustomName(),
             pdcKeys,
-            entity instanceof Display display ? toTransformData(display) : null
+            entity instanceof Display display ? toTransformData(display) : null,
+            projection.isEmpty()
+                ? Map.of()
+                : protocolValueEncoder.encodeProjection(entity, projection, entity.getClass().getName())
         );
     }
 
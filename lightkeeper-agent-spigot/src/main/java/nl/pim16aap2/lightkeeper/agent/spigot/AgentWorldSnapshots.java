@@ -0,0 +1,426 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
+import nl.pim16aap2.lightkeeper.protocol.SnapshotRegion;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntitySnapshot;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protocol action handler for {@code SNAPSHOT_REGION} and {@code RESTORE_REGION}.
+ *
+ * <p>A snapshot only costs the main thread one {@link ChunkSnapshot} per chunk plus copies of the tile states and
+ * entities in the box; the blocks are folded into a palette on the request thread. A restore diffs the live chunks
+ * against that palette on the request thread as well, then writes only the changed blocks in main-thread batches that
+ * each stop after a fixed time budget, so a large box is rolled back over a few ticks instead of stalling one.
+ */
+final class AgentWorldSnapshots
+{
+    /**
+     * Largest box, in blocks, one snapshot may cover; keeps the palette index array at 32 MiB at most.
+     */
+    static final long MAX_SNAPSHOT_BLOCKS = 1L << 23;
+    /**
+     * Main-thread time one restore batch may use before it yields the rest of the tick back to the server.
+     */
+    private static final long DEFAULT_BATCH_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20L);
+
+    /**
+     * Owning plugin used for logging.
+     */
+    private final JavaPlugin plugin;
+    /**
+     * Scheduler bridge for Bukkit main-thread execution.
+     */
+    private final AgentMainThreadExecutor mainThreadExecutor;
+    /**
+     * Main-thread time budget of one restore batch, in nanoseconds.
+     */
+    private final long batchBudgetNanos;
+    /**
+     * Snapshots that were taken and not restored yet, by snapshot identifier.
+     */
+    private final Map<String, RegionSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong snapshotCounter = new AtomicLong();
+
+    /**
+     * @param plugin
+     *     Plugin context used for logging.
+     * @param mainThreadExecutor
+     *     Main-thread execution bridge for Bukkit-safe operations.
+     */
+    AgentWorldSnapshots(JavaPlugin plugin, AgentMainThreadExecutor mainThreadExecutor)
+    {
+        this(plugin, mainThreadExecutor, DEFAULT_BATCH_BUDGET_NANOS);
+    }
+
+    /**
+     * @param plugin
+     *     Plugin context used for logging.
+     * @param mainThreadExecutor
+     *     Main-thread execution bridge for Bukkit-safe operations.
+     * @param batchBudgetNanos
+     *     Main-thread time budget of one restore batch; every batch writes at least one block.
+     */
+    AgentWorldSnapshots(JavaPlugin plugin, AgentMainThreadExecutor mainThreadExecutor, long batchBudgetNanos)
+    {
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.mainThreadExecutor = Objects.requireNonNull(mainThreadExecutor, "mainThreadExecutor");
+        this.batchBudgetNanos = batchBudgetNanos;
+    }
+
+    /**
+     * Handles {@code SNAPSHOT_REGION} by capturing the blocks, tile states and non-player entities in the box.
+     *
+     * @param command
+     *     Typed command carrying the world name and the block-inclusive box.
+     * @return Response with the snapshot identifier and what it captured.
+     *
+     * @throws Exception
+     *     Propagates main-thread execution failures; throws {@link IllegalArgumentException} when the world does
+     *     not exist or the box is outside the world's height or larger than {@link #MAX_SNAPSHOT_BLOCKS}.
+     */
+    SnapshotRegion.Response handleSnapshotRegion(SnapshotRegion.Command command)
+        throws Exception
+    {
+        final String worldName = command.worldName();
+        final Capture capture = mainThreadExecutor.callOnMainThread(() ->
+        {
+            final World world = requireWorld(worldName);
+            final Box box = clampedBox(world, command);
+            final List<BlockState> tileStates = new ArrayList<>();
+            final List<EntityCopy> entities = new ArrayList<>();
+            final ChunkSnapshot[] chunks = captureChunks(world, box, tileStates, entities);
+            return new Capture(box, chunks, tileStates, entities);
+        });
+
+        final Box box = capture.box();
+        final List<BlockData> palette = new ArrayList<>();
+        final Map<BlockData, Integer> paletteIndices = new HashMap<>();
+        final int[] blocks = new int[box.volume()];
+        for (int index = 0; index < blocks.length; ++index)
+        {
+            final BlockData blockData = box.blockDataAt(capture.chunks(), index);
+            blocks[index] = paletteIndices.computeIfAbsent(blockData, data ->
+            {
+                palette.add(data);
+                return palette.size() - 1;
+            });
+        }
+
+        final String snapshotId = "region-" + snapshotCounter.incrementAndGet();
+        snapshots.put(
+            snapshotId,
+            new RegionSnapshot(worldName, box, List.copyOf(palette), blocks, capture.tileStates(), capture.entities())
+        );
+        plugin.getLogger().info(
+            ("LK_AGENT: Captured region snapshot '%s' of world '%s' "
+                + "(%d blocks, %d block types, %d tile states, %d entities).").formatted(
+                snapshotId, worldName, blocks.length, palette.size(), capture.tileStates().size(),
+                capture.entities().size())
+        );
+        return new SnapshotRegion.Response(
+            snapshotId, blocks.length, capture.tileStates().size(), capture.entities().size());
+    }
+
+    /**
+     * Handles {@code RESTORE_REGION} by rolling the box back to the snapshot and releasing the snapshot.
+     *
+     * <p>The entities in the box are replaced by fresh copies of the captured ones, so the copies get new unique
+     * ids. Players are never touched.
+     *
+     * @param command
+     *     Typed command carrying the snapshot identifier.
+     * @return Response describing what was restored.
+     *
+     * @throws Exception
+     *     Propagates main-thread execution failures; throws {@link IllegalArgumentException} when the snapshot does
+     *     not exist or its world was unloaded.
+     */
+    RestoreRegion.Response handleRestoreRegion(RestoreRegion.Command command)
+        throws Exception
+    {
+        final RegionSnapshot snapshot = snapshots.remove(command.snapshotId());
+        if (snapshot == null)
+            throw new IllegalArgumentException(
+                "Region snapshot '%s' does not exist or was already restored.".formatted(command.snapshotId()));
+        final Box box = snapshot.box();
+
+        final ChunkSnapshot[] liveChunks = mainThreadExecutor.callOnMainThread(
+            () -> captureChunks(requireWorld(snapshot.worldName()), box, null, null));
+        final int[] changed = new int[snapshot.blocks().length];
+        int changedCount = 0;
+        for (int index = 0; index < changed.length; ++index)
+        {
+            if (!box.blockDataAt(liveChunks, index).equals(snapshot.blockAt(index)))
+                changed[changedCount++] = index;
+        }
+
+        final int totalChanged = changedCount;
+        int written = 0;
+        int batches = 0;
+        while (written < totalChanged)
+        {
+            final int from = written;
+            written = mainThreadExecutor.callOnMainThread(
+                () -> writeBatch(requireWorld(snapshot.worldName()), snapshot, changed, from, totalChanged));
+            ++batches;
+        }
+
+        final int restoredEntities = mainThreadExecutor.callOnMainThread(() ->
+        {
+            for (final BlockState tileState : snapshot.tileStates())
+                tileState.update(true, false);
+            return replaceEntities(requireWorld(snapshot.worldName()), snapshot);
+        });
+
+        plugin.getLogger().info(
+            "LK_AGENT: Restored region snapshot '%s' of world '%s' (%d changed blocks in %d batches)."
+                .formatted(command.snapshotId(), snapshot.worldName(), totalChanged, batches)
+        );
+        return new RestoreRegion.Response(totalChanged, snapshot.tileStates().size(), restoredEntities, batches);
+    }
+
+    /**
+     * Writes changed blocks, starting at {@code from}, until the batch budget is used up.
+     *
+     * @return Position in {@code changed} of the first block that was not written.
+     */
+    private int writeBatch(World world, RegionSnapshot snapshot, int[] changed, int from, int to)
+    {
+        final Box box = snapshot.box();
+        final long startNanos = System.nanoTime();
+        int cursor = from;
+        do
+        {
+            final int index = changed[cursor++];
+            world.getBlockAt(box.xAt(index), box.yAt(index), box.zAt(index))
+                .setBlockData(snapshot.blockAt(index), false);
+        }
+        while (cursor < to && System.nanoTime() - startNanos < batchBudgetNanos);
+        return cursor;
+    }
+
+    /**
+     * Removes the non-player entities now in the box and respawns the captured ones.
+     *
+     * @return Number of entities respawned.
+     */
+    private static int replaceEntities(World world, RegionSnapshot snapshot)
+    {
+        final Box box = snapshot.box();
+        for (int chunkX = box.minChunkX(); chunkX <= box.maxChunkX(); ++chunkX)
+        {
+            for (int chunkZ = box.minChunkZ(); chunkZ <= box.maxChunkZ(); ++chunkZ)
+            {
+                for (final Entity entity : world.getChunkAt(chunkX, chunkZ).getEntities())
+                {
+                    if (!(entity instanceof Player) && box.contains(entity.getLocation()))
+                        entity.remove();
+                }
+            }
+        }
+        for (final EntityCopy entity : snapshot.entities())
+            entity.snapshot().createEntity(entity.location());
+        return snapshot.entities().size();
+    }
+
+    /**
+     * Loads the chunks the box spans and copies their blocks, optionally collecting the tile states and entity
+     * snapshots inside the box as well. Must run on the main thread.
+     */
+    private static ChunkSnapshot[] captureChunks(
+        World world,
+        Box box,
+        @Nullable List<BlockState> tileStates,
+        @Nullable List<EntityCopy> entities)
+    {
+        final ChunkSnapshot[] chunks = new ChunkSnapshot[box.chunkCount()];
+        for (int chunkX = box.minChunkX(); chunkX <= box.maxChunkX(); ++chunkX)
+        {
+            for (int chunkZ = box.minChunkZ(); chunkZ <= box.maxChunkZ(); ++chunkZ)
+            {
+                final Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+                chunks[box.chunkSlot(chunkX, chunkZ)] = chunk.getChunkSnapshot(false, false, false);
+                if (tileStates != null)
+                {
+                    for (final BlockState tileState : chunk.getTileEntities())
+                    {
+                        if (box.contains(tileState.getX(), tileState.getY(), tileState.getZ()))
+                            tileStates.add(tileState);
+                    }
+                }
+                if (entities != null)
+                {
+                    for (final Entity entity : chunk.getEntities())
+                    {
+                        final Location location = entity.getLocation();
+                        if (entity instanceof Player || !box.contains(location))
+                            continue;
+                        final EntitySnapshot entitySnapshot = entity.createSnapshot();
+                        if (entitySnapshot != null)
+                            entities.add(new EntityCopy(entitySnapshot, location));
+                    }
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private static World requireWorld(String worldName)
+    {
+        final World world = Bukkit.getWorld(worldName);
+        if (world == null)
+            throw new IllegalArgumentException("World '%s' does not exist.".formatted(worldName));
+        return world;
+    }
+
+    private static Box clampedBox(World world, SnapshotRegion.Command command)
+    {
+        final int minY = Math.max(command.minY(), world.getMinHeight());
+        final int maxY = Math.min(command.maxY(), world.getMaxHeight() - 1);
+        if (minY > maxY)
+            throw new IllegalArgumentException(
+                "Region Y range %d..%d lies outside the height of world '%s'."
+                    .formatted(command.minY(), command.maxY(), world.getName()));
+        final long volume = ((long) command.maxX() - command.minX() + 1L)
+            * ((long) maxY - minY + 1L)
+            * ((long) command.maxZ() - command.minZ() + 1L);
+        if (volume > MAX_SNAPSHOT_BLOCKS)
+            throw new IllegalArgumentException(
+                "Region of %d blocks exceeds the snapshot limit of %d blocks.".formatted(volume, MAX_SNAPSHOT_BLOCKS));
+        return new Box(command.minX(), minY, command.minZ(), command.maxX(), maxY, command.maxZ());
+    }
+
+    /**
+     * Block-inclusive box whose blocks are indexed x-fastest, then z, then y.
+     */
+    private record Box(int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
+    {
+        int sizeX()
+        {
+            return maxX - minX + 1;
+        }
+
+        int sizeZ()
+        {
+            return maxZ - minZ + 1;
+        }
+
+        int volume()
+        {
+            return sizeX() * (maxY - minY + 1) * sizeZ();
+        }
+
+        int xAt(int index)
+        {
+            return minX + index % sizeX();
+        }
+
+        int zAt(int index)
+        {
+            return minZ + (index / sizeX()) % sizeZ();
+        }
+
+        int yAt(int index)
+        {
+            return minY + index / (sizeX() * sizeZ());
+        }
+
+        int minChunkX()
+        {
+            return minX >> 4;
+        }
+
+        int maxChunkX()
+        {
+            return maxX >> 4;
+        }
+
+        int minChunkZ()
+        {
+            return minZ >> 4;
+        }
+
+        int maxChunkZ()
+        {
+            return maxZ >> 4;
+        }
+
+        int chunkCount()
+        {
+            return (maxChunkX() - minChunkX() + 1) * (maxChunkZ() - minChunkZ() + 1);
+        }
+
+        int chunkSlot(int chunkX, int chunkZ)
+        {
+            return (chunkX - minChunkX()) * (maxChunkZ() - minChunkZ() + 1) + (chunkZ - minChunkZ());
+        }
+
+        BlockData blockDataAt(ChunkSnapshot[] chunks, int index)
+        {
+            final int x = xAt(index);
+            final int z = zAt(index);
+            return chunks[chunkSlot(x >> 4, z >> 4)].getBlockData(x & 15, yAt(index), z & 15);
+        }
+
+        boolean contains(int x, int y, int z)
+        {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        boolean contains(Location location)
+        {
+            return contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+    }
+
+    /**
+     * What the main thread captured for one snapshot, before the blocks are folded into a palette.
+     */
+    private record Capture(Box box, ChunkSnapshot[] chunks, List<BlockState> tileStates, List<EntityCopy> entities)
+    {
+    }
+
+    /**
+     * Captured entity and the location to respawn it at.
+     */
+    private record EntityCopy(EntitySnapshot snapshot, Location location)
+    {
+    }
+
+    /**
+     * Palette-encoded blocks of one box, plus its tile states and entities.
+     */
+    private record RegionSnapshot(
+        String worldName,
+        Box box,
+        List<BlockData> palette,
+        int[] blocks,
+        List<BlockState> tileStates,
+        List<EntityCopy> entities)
+    {
+        BlockData blockAt(int index)
+        {
+            return palette.get(blocks[index]);
+        }
+    }
+}
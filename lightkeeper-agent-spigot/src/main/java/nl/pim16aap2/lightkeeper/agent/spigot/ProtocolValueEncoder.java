@@ -16,7 +16,9 @@ import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,10 @@ import java.util.logging.Level;
  * other objects through their public zero-arg {@code get*}/{@code is*} accessors (sorted by name for
  * deterministic output, capped per object).
  *
+ * <p>Accessor discovery runs once per class: the filtered, sorted accessors are compiled into a cached plan that
+ * every later encode of that class reuses. Callers that only need a few values can instead
+ * {@link #encodeProjection project} explicit accessor paths, which evaluates just those accessors.
+ *
  * <p>Nothing is skipped silently: a value the encoder cannot represent — depth exhausted, an unencodable type,
  * or a throwing accessor — is reported as a {@link IProtocolValue.PDropped} marker, with a WARN logged once per
  * (context, accessor) pair. Only {@code null} values are omitted entirely: an absent value is data, not data
@@ -64,6 +70,20 @@ final class ProtocolValueEncoder
      */
     static final String TRUNCATED_KEY = "<truncated>";
 
+    /**
+     * Compiled accessor plans: per class, accessor name to accessor in encoding order. Records map their
+     * components, all other classes their sorted public zero-arg {@code get*}/{@code is*} instance methods.
+     * A {@link ClassValue} rather than a map so plans of classes from disabled plugins stay collectable.
+     */
+    private static final ClassValue<Map<String, Method>> ACCESSOR_PLANS = new ClassValue<>()
+    {
+        @Override
+        protected Map<String, Method> computeValue(Class<?> type)
+        {
+            return compileAccessorPlan(type);
+        }
+    };
+
     private final JavaPlugin plugin;
     /**
      * WARN-once guard keyed by {@code context + "#" + accessorName}, so a noisy accessor logs a single warning
@@ -97,35 +117,84 @@ final class ProtocolValueEncoder
         return walkAccessors(subject, context, MAX_DEPTH);
     }
 
-    private Map<String, IProtocolValue> walkAccessors(Object subject, String context, int remainingDepth)
+    /**
+     * Encodes only the given accessor paths of an object.
+     *
+     * <p>Each path is evaluated through the compiled accessor plans along it, so no other accessor is invoked.
+     * Intermediate values are walked regardless of how the full walk would encode them (an entity's
+     * {@code getName} is reachable even though the full walk stops at the entity reference); the value at the
+     * end of a path is encoded exactly as the full walk would encode a top-level accessor. An accessor missing
+     * from a path, or a path continuing past a leaf value, yields a {@link IProtocolValue.PDropped} marker.
+     *
+     * @param subject
+     *     The object whose accessor paths to evaluate.
+     * @param projection
+     *     The compiled paths; must not be {@link Projection#isEmpty() empty}.
+     * @param context
+     *     Context label for drop warnings.
+     * @return The projected values nested as records along each path, in request order; {@code null}-valued
+     *     accessors are omitted.
+     */
+    Map<String, IProtocolValue> encodeProjection(Object subject, Projection projection, String context)
     {
+        final Map<String, Method> plan = ACCESSOR_PLANS.get(subject.getClass());
         final Map<String, IProtocolValue> encoded = new LinkedHashMap<>();
-        if (subject.getClass().isRecord())
+        for (final Map.Entry<String, Projection> entry : projection.children().entrySet())
         {
-            final RecordComponent[] components = subject.getClass().getRecordComponents();
-            for (int i = 0; i < Math.min(components.length, MAX_ACCESSORS_PER_OBJECT); i++)
-            {
-                final RecordComponent component = components[i];
-                final IProtocolValue value =
-                    encodeAccessorResult(subject, component.getAccessor(), component.getName(),
-                        context, remainingDepth);
-                if (value != null)
-                    encoded.put(component.getName(), value);
-            }
-            markTruncatedAccessors(encoded, context, components.length);
-            return encoded;
+            final String accessorName = entry.getKey();
+            final Projection nested = entry.getValue();
+            final @Nullable Method accessor = plan.get(accessorName);
+            final @Nullable IProtocolValue value;
+            if (accessor == null)
+                value = dropped(context, accessorName, "no-such-accessor on " + subject.getClass().getName());
+            else if (nested.isEmpty())
+                value = encodeAccessorResult(subject, accessor, accessorName, context, MAX_DEPTH);
+            else
+                value = projectAccessorResult(subject, accessor, accessorName, nested, context);
+            if (value != null)
+                encoded.put(accessorName, value);
         }
+        return encoded;
+    }
 
-        final List<Method> accessors = sortedInstanceAccessors(subject);
-        for (int i = 0; i < Math.min(accessors.size(), MAX_ACCESSORS_PER_OBJECT); i++)
+    private @Nullable IProtocolValue projectAccessorResult(
+        Object subject,
+        Method accessor,
+        String accessorName,
+        Projection nested,
+        String context)
+    {
+        final @Nullable Object value = invokeAccessor(subject, accessor, accessorName, context);
+        if (value == null || value instanceof IProtocolValue.PDropped)
+            return (IProtocolValue) value;
+        if (isLeafValue(value) || value instanceof Collection<?> || value instanceof Map<?, ?>
+            || value.getClass().isArray())
+            return dropped(context, accessorName, "not-navigable: " + value.getClass().getName());
+        return new IProtocolValue.PRecord(encodeProjection(value, nested, context));
+    }
+
+    private static boolean isLeafValue(Object value)
+    {
+        return value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof UUID || value instanceof Enum<?> || value instanceof Vector;
+    }
+
+    private Map<String, IProtocolValue> walkAccessors(Object subject, String context, int remainingDepth)
+    {
+        final Map<String, Method> plan = ACCESSOR_PLANS.get(subject.getClass());
+        final Map<String, IProtocolValue> encoded = new LinkedHashMap<>();
+        int walked = 0;
+        for (final Map.Entry<String, Method> entry : plan.entrySet())
         {
-            final Method accessor = accessors.get(i);
+            if (walked >= MAX_ACCESSORS_PER_OBJECT)
+                break;
+            walked++;
             final IProtocolValue value =
-                encodeAccessorResult(subject, accessor, accessor.getName(), context, remainingDepth);
+                encodeAccessorResult(subject, entry.getValue(), entry.getKey(), context, remainingDepth);
             if (value != null)
-                encoded.put(accessor.getName(), value);
+                encoded.put(entry.getKey(), value);
         }
-        markTruncatedAccessors(encoded, context, accessors.size());
+        markTruncatedAccessors(encoded, context, plan.size());
         return encoded;
     }
 
@@ -140,9 +209,17 @@ final class ProtocolValueEncoder
                 "truncated: %d more accessors".formatted(totalAccessors - MAX_ACCESSORS_PER_OBJECT)));
     }
 
-    private List<Method> sortedInstanceAccessors(Object subject)
+    private static Map<String, Method> compileAccessorPlan(Class<?> type)
     {
-        return Arrays.stream(subject.getClass().getMethods())
+        final Map<String, Method> plan = new LinkedHashMap<>();
+        if (type.isRecord())
+        {
+            for (final RecordComponent component : type.getRecordComponents())
+                plan.put(component.getName(), component.getAccessor());
+            return Collections.unmodifiableMap(plan);
+        }
+
+        Arrays.stream(type.getMethods())
             // Static methods are never instance state; without this, every Bukkit event's static
             // getHandlerList() would drag server-global handler registrations into each payload.
             .filter(method -> !Modifier.isStatic(method.getModifiers()))
@@ -152,7 +229,8 @@ final class ProtocolValueEncoder
                 && !method.getName().equals("getHandlers")
                 && !method.getName().equals("getEventName"))
             .sorted(Comparator.comparing(Method::getName))
-            .toList();
+            .forEach(method -> plan.put(method.getName(), method));
+        return Collections.unmodifiableMap(plan);
     }
 
     private @Nullable IProtocolValue encodeAccessorResult(
@@ -162,10 +240,21 @@ final class ProtocolValueEncoder
         String context,
         int remainingDepth)
     {
-        final Object value;
+        final @Nullable Object value = invokeAccessor(subject, accessor, accessorName, context);
+        if (value == null || value instanceof IProtocolValue.PDropped)
+            return (IProtocolValue) value;
+        return encodeValue(value, accessorName, context, remainingDepth);
+    }
+
+    /**
+     * Invokes a zero-arg accessor; a throwing or inaccessible accessor yields its {@link IProtocolValue.PDropped}
+     * marker instead of the value.
+     */
+    private @Nullable Object invokeAccessor(Object subject, Method accessor, String accessorName, String context)
+    {
         try
         {
-            value = accessor.invoke(subject);
+            return accessor.invoke(subject);
         }
         catch (InvocationTargetException exception)
         {
@@ -176,10 +265,6 @@ final class ProtocolValueEncoder
         {
             return dropped(context, accessorName, "capture-failed: " + exception.getClass().getSimpleName());
         }
-
-        if (value == null)
-            return null;
-        return encodeValue(value, accessorName, context, remainingDepth);
     }
 
     /**
@@ -332,4 +417,59 @@ final class ProtocolValueEncoder
             );
         return new IProtocolValue.PDropped(accessorName, runtimeType);
     }
+
+    /**
+     * A compiled set of accessor paths, as a tree of accessor names.
+     *
+     * <p>A node without children selects the whole value at its path; the root without children selects
+     * nothing, so callers treat an empty projection as "no projection". When one requested path is a prefix of
+     * another (e.g. {@code getPlayer} and {@code getPlayer.getName}), the shorter path wins: the whole value
+     * already contains the longer one.
+     *
+     * @param children
+     *     Accessor name to the paths continuing below it, in request order.
+     */
+    record Projection(Map<String, Projection> children)
+    {
+        /**
+         * The projection selecting nothing (at the root) or the whole value (below it).
+         */
+        static final Projection NONE = new Projection(Map.of());
+
+        /**
+         * Compiles dot-separated accessor paths into a projection tree.
+         *
+         * @param paths
+         *     Validated accessor paths, e.g. {@code getBlock.getType}.
+         * @return The compiled projection; {@link #NONE} for an empty list.
+         */
+        static Projection compile(List<String> paths)
+        {
+            final Map<String, List<String>> remainders = new LinkedHashMap<>();
+            final Set<String> wholeValues = new HashSet<>();
+            for (final String path : paths)
+            {
+                final int separator = path.indexOf('.');
+                final String head = separator < 0 ? path : path.substring(0, separator);
+                final List<String> remainder = remainders.computeIfAbsent(head, ignored -> new ArrayList<>());
+                if (separator < 0)
+                    wholeValues.add(head);
+                else
+                    remainder.add(path.substring(separator + 1));
+            }
+
+            final Map<String, Projection> children = new LinkedHashMap<>();
+            remainders.forEach((head, remainder) ->
+                children.put(head, wholeValues.contains(head) ? NONE : compile(remainder)));
+            return new Projection(Collections.unmodifiableMap(children));
+        }
+
+        /**
+         * @return {@code true} when no accessor path is selected.
+         */
+        boolean isEmpty()
+        {
+            return children.isEmpty();
+        }
+    }
 }
@@ -4,6 +4,7 @@ import tools.jackson.databind.ObjectMapper;
 import nl.pim16aap2.lightkeeper.nms.api.IBotPlayerNmsAdapter;
 import nl.pim16aap2.lightkeeper.nms.v121r7.BotPlayerNmsAdapterV1_21_R7;
 import nl.pim16aap2.lightkeeper.protocol.AgentProtocolMapper;
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -97,6 +98,10 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
      * Structured server-error capture, installed during {@link #onLoad()}.
      */
     private @Nullable AgentServerErrorCapture serverErrorCapture;
+    /**
+     * Readiness signal sender for the framework, created on first use during {@link #onLoad()}.
+     */
+    private @Nullable AgentReadinessPublisher readinessPublisher;
 
     /**
      * Installs the structured server-error capture appender.
@@ -108,6 +113,7 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
     @Override
     public void onLoad()
     {
+        readinessPublisher().markPhase(AgentReadinessSignal.Phase.PLUGINS_LOADED);
         final AgentServerErrorCapture capture = new AgentServerErrorCapture(getLogger());
         serverErrorCapture = capture;
         capture.install();
@@ -115,10 +121,15 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
 
     /**
      * Initializes agent configuration and socket server.
+     *
+     * <p>Readiness is signalled to the framework once the server finished starting; a startup failure is signalled
+     * right away.
      */
     @Override
     public void onEnable()
     {
+        final AgentReadinessPublisher publisher = readinessPublisher();
+        publisher.markPhase(AgentReadinessSignal.Phase.WORLDS_LOADED);
         try
         {
             final AgentConfiguration configuration = AgentConfiguration.fromSystemProperties();
@@ -154,7 +165,10 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
                 botPlayerNmsAdapter
             );
             final AgentEventCapture eventCapture = new AgentEventCapture(this, mainThreadExecutor, tickCounter);
-            final AgentEventActions eventActions = new AgentEventActions(eventCapture);
+            final AgentEventActions eventActions = new AgentEventActions(
+                eventCapture,
+                mainThreadExecutor.syncOperationTimeoutSeconds()
+            );
 
             final AgentServerErrorCapture errorCapture = serverErrorCapture;
             if (errorCapture == null)
@@ -179,10 +193,12 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
 
             startTickLoop(worldActions);
             startServer(socketPath);
+            getServer().getPluginManager().registerEvents(publisher, this);
         }
         catch (Exception exception)
         {
             getLogger().log(Level.SEVERE, "Failed to start LightKeeper Spigot agent.", exception);
+            publisher.publishFailure("Failed to start LightKeeper Spigot agent: " + exception);
             getServer().getPluginManager().disablePlugin(this);
         }
     }
@@ -217,6 +233,17 @@ public final class SpigotLightkeeperAgentPlugin extends JavaPlugin
         }
     }
 
+    private AgentReadinessPublisher readinessPublisher()
+    {
+        AgentReadinessPublisher publisher = readinessPublisher;
+        if (publisher == null)
+        {
+            publisher = AgentReadinessPublisher.fromSystemProperties(getLogger());
+            readinessPublisher = publisher;
+        }
+        return publisher;
+    }
+
     /**
      * Validates Bukkit/NMS compatibility with supported adapters.
      *
@@ -1,5 +1,8 @@
 package nl.pim16aap2.lightkeeper.agent.spigot;
 
+import nl.pim16aap2.lightkeeper.protocol.AgentErrorCode;
+import nl.pim16aap2.lightkeeper.protocol.AgentProtocolException;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.CancelNextEvents;
 import nl.pim16aap2.lightkeeper.protocol.ClearCapturedEvents;
 import nl.pim16aap2.lightkeeper.protocol.GetCapturedEvents;
@@ -23,7 +26,7 @@ class AgentEventActionsTest
 {
     private static AgentEventActions createEventActions(AgentEventCapture eventCapture)
     {
-        return new AgentEventActions(eventCapture);
+        return new AgentEventActions(eventCapture, 120L);
     }
 
     @Test
@@ -34,7 +37,7 @@ class AgentEventActionsTest
 
         // execute + verify
         assertThatThrownBy(() ->
-            actions.handleRegisterEventListener(new RegisterEventListener.Command("req-1", "")))
+            actions.handleRegisterEventListener(new RegisterEventListener.Command("req-1", "", List.of())))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("eventClassName");
     }
@@ -47,11 +50,12 @@ class AgentEventActionsTest
         final AgentEventCapture eventCapture = mock();
         final AgentEventActions actions = createEventActions(eventCapture);
         org.mockito.Mockito.doThrow(new IllegalArgumentException("Class 'java.lang.String' is not a Bukkit Event."))
-            .when(eventCapture).registerListener("java.lang.String");
+            .when(eventCapture).registerListener("java.lang.String", List.of());
 
         // execute + verify
         assertThatThrownBy(() ->
-            actions.handleRegisterEventListener(new RegisterEventListener.Command("req-2", "java.lang.String")))
+            actions.handleRegisterEventListener(
+                new RegisterEventListener.Command("req-2", "java.lang.String", List.of())))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("not a Bukkit Event");
     }
@@ -64,11 +68,11 @@ class AgentEventActionsTest
         final AgentEventCapture eventCapture = mock();
         final AgentEventActions actions = createEventActions(eventCapture);
         org.mockito.Mockito.doThrow(new ClassNotFoundException("com.example.NonExistent"))
-            .when(eventCapture).registerListener("com.example.NonExistent");
+            .when(eventCapture).registerListener("com.example.NonExistent", List.of());
 
         // execute + verify
         assertThatThrownBy(() -> actions.handleRegisterEventListener(
-            new RegisterEventListener.Command("req-cnf", "com.example.NonExistent")))
+            new RegisterEventListener.Command("req-cnf", "com.example.NonExistent", List.of())))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessage("Event class not found: com.example.NonExistent");
     }
@@ -83,11 +87,11 @@ class AgentEventActionsTest
 
         // execute
         final RegisterEventListener.Response response = actions.handleRegisterEventListener(
-            new RegisterEventListener.Command("req-3", "org.bukkit.event.Event"));
+            new RegisterEventListener.Command("req-3", "org.bukkit.event.Event", List.of()));
 
         // verify
         assertThat(response).isNotNull();
-        verify(eventCapture).registerListener("org.bukkit.event.Event");
+        verify(eventCapture).registerListener("org.bukkit.event.Event", List.of());
     }
 
     @Test
@@ -146,7 +150,7 @@ class AgentEventActionsTest
         final AgentEventCapture eventCapture = mock(AgentEventCapture.class);
         doThrow(new IllegalStateException("already armed"))
             .when(eventCapture).cancelNextEvents("org.example.Evt", 2);
-        final AgentEventActions eventActions = new AgentEventActions(eventCapture);
+        final AgentEventActions eventActions = new AgentEventActions(eventCapture, 120L);
         final CancelNextEvents.Command command = new CancelNextEvents.Command("req-1", "org.example.Evt", 2);
 
         // execute
@@ -232,4 +236,51 @@ class AgentEventActionsTest
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("eventClassName");
     }
+
+    @Test
+    void handleAwaitEvents_shouldClampTimeoutToSyncOperationTimeout()
+        throws Exception
+    {
+        // setup
+        final AgentEventCapture eventCapture = mock();
+        final AgentEventActions actions = new AgentEventActions(eventCapture, 2L);
+        final List<AwaitEvents.Filter> filters = List.of(new AwaitEvents.Filter("getName", "x"));
+        final AwaitEvents.Response expected = new AwaitEvents.Response(true, 4L, List.of());
+        when(eventCapture.awaitEvents("org.bukkit.event.Event", 1, filters, 2_000L, 0)).thenReturn(expected);
+
+        // execute
+        final AwaitEvents.Response response = actions.handleAwaitEvents(
+            new AwaitEvents.Command("req-await", "org.bukkit.event.Event", 1, filters, 600_000L, 0));
+
+        // verify
+        assertThat(response).isSameAs(expected);
+    }
+
+    @Test
+    void handleAwaitEvents_shouldMapInterruptToInterruptedError()
+        throws Exception
+    {
+        // setup
+        final AgentEventCapture eventCapture = mock();
+        final AgentEventActions actions = createEventActions(eventCapture);
+        when(eventCapture.awaitEvents("org.bukkit.event.Event", 1, List.of(), 1_000L, 0))
+            .thenThrow(new InterruptedException("stop"));
+
+        try
+        {
+            // execute
+            final Throwable thrown = catchThrowable(() -> actions.handleAwaitEvents(
+                new AwaitEvents.Command("req-await-int", "org.bukkit.event.Event", 1, List.of(), 1_000L, 0)));
+
+            // verify
+            assertThat(thrown).isInstanceOf(AgentProtocolException.class);
+            assertThat(((AgentProtocolException) thrown).errorCode()).isEqualTo(AgentErrorCode.INTERRUPTED);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        }
+        finally
+        {
+            // Clear the restored interrupt flag so it does not leak into other tests.
+            Thread.interrupted();
+        }
+    }
 }
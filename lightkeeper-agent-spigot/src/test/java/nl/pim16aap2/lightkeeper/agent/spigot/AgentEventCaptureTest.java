@@ -1,5 +1,6 @@
 package nl.pim16aap2.lightkeeper.agent.spigot;
 
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.GetCapturedEvents;
 import nl.pim16aap2.lightkeeper.protocol.IProtocolValue;
 import org.bukkit.Bukkit;
@@ -13,12 +14,15 @@ import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitScheduler;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,7 +56,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            eventCapture.registerListener(TestCaptureEvent.class.getName());
+            eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
         }
         verify(pluginManager).registerEvent(
             eq(TestCaptureEvent.class),
@@ -91,7 +95,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            eventCapture.registerListener(ThrowingGetterEvent.class.getName());
+            eventCapture.registerListener(ThrowingGetterEvent.class.getName(), List.of());
         }
         verify(pluginManager).registerEvent(
             eq(ThrowingGetterEvent.class),
@@ -126,7 +130,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            assertThatThrownBy(() -> eventCapture.registerListener(String.class.getName()))
+            assertThatThrownBy(() -> eventCapture.registerListener(String.class.getName(), List.of()))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("not a Bukkit Event");
         }
@@ -202,8 +206,8 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
 
             // execute
-            eventCapture.registerListener(TestCaptureEvent.class.getName());
-            eventCapture.registerListener(TestCaptureEvent.class.getName());
+            eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
+            eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
         }
 
         // verify: only one registerEvent call despite two registration attempts
@@ -217,6 +221,46 @@ class AgentEventCaptureTest
         );
     }
 
+    @Test
+    void registerListener_shouldNotRegisterTwiceWhenMainThreadWaitTimedOutAfterRegistration()
+        throws Exception
+    {
+        // setup
+        final JavaPlugin plugin = mock();
+        final PluginManager pluginManager = mock();
+        final AgentMainThreadExecutor mainThreadExecutor = mock();
+        when(mainThreadExecutor.callOnMainThread(any()))
+            .thenAnswer(invocation ->
+            {
+                invocation.getArgument(0, Callable.class).call();
+                throw new TimeoutException("main thread too slow");
+            })
+            .thenAnswer(invocation -> invocation.getArgument(0, Callable.class).call());
+        final AgentEventCapture eventCapture = new AgentEventCapture(plugin, mainThreadExecutor, new AtomicLong(0L));
+
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
+            bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
+
+            // execute
+            assertThatThrownBy(() -> eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+            eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
+        }
+
+        // verify: the late first registration is reused instead of hooking the list again
+        verify(pluginManager).registerEvent(
+            eq(TestCaptureEvent.class),
+            any(Listener.class),
+            eq(EventPriority.MONITOR),
+            any(EventExecutor.class),
+            eq(plugin),
+            eq(false)
+        );
+    }
+
     @Test
     void getCapturedEvents_shouldThrowForUnregisteredClass()
     {
@@ -246,7 +290,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            assertThatThrownBy(() -> eventCapture.registerListener("com.example.NonExistentEvent"))
+            assertThatThrownBy(() -> eventCapture.registerListener("com.example.NonExistentEvent", List.of()))
                 .isInstanceOf(ClassNotFoundException.class);
         }
     }
@@ -269,7 +313,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            eventCapture.registerListener(TestCaptureEvent.class.getName());
+            eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
         }
         verify(pluginManager).registerEvent(
             eq(TestCaptureEvent.class),
@@ -291,13 +335,12 @@ class AgentEventCaptureTest
     }
 
     @Test
-    void cancelNextEvents_shouldCancelUpToBudgetThenScheduleUnregisterOnExhaustion()
+    void cancelNextEvents_shouldCancelUpToBudgetThenAllowRearmOnExhaustion()
         throws Exception
     {
         // setup
         final JavaPlugin plugin = mock();
         final PluginManager pluginManager = mock();
-        final BukkitScheduler scheduler = mock();
         final AgentEventCapture eventCapture =
             new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(0L));
         final ArgumentCaptor<EventExecutor> executorCaptor = ArgumentCaptor.forClass(EventExecutor.class);
@@ -307,7 +350,6 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            bukkitMockedStatic.when(Bukkit::getScheduler).thenReturn(scheduler);
 
             // execute
             eventCapture.cancelNextEvents(CancellableTestEvent.class.getName(), 2);
@@ -331,11 +373,16 @@ class AgentEventCaptureTest
             executor.execute(mock(Listener.class), third);
 
             // verify — the budget of 2 cancels the first two events; the third (count+1) is left alone, and
-            // exhaustion schedules the marker listener's removal via the Bukkit scheduler
+            // exhaustion frees the class for a new rule on the same hook
             verify(first).setCancelled(true);
             verify(second).setCancelled(true);
             verify(third, never()).setCancelled(true);
-            verify(scheduler).runTask(eq(plugin), any(Runnable.class));
+            eventCapture.cancelNextEvents(CancellableTestEvent.class.getName(), 1);
+            final CancellableTestEvent fourth = mock(CancellableTestEvent.class);
+            executor.execute(mock(Listener.class), fourth);
+            verify(fourth).setCancelled(true);
+            verify(pluginManager).registerEvent(
+                any(), any(Listener.class), eq(EventPriority.LOWEST), any(EventExecutor.class), eq(plugin), eq(false));
         }
     }
 
@@ -414,7 +461,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            eventCapture.registerListener(MixedFieldsEvent.class.getName());
+            eventCapture.registerListener(MixedFieldsEvent.class.getName(), List.of());
         }
         verify(pluginManager).registerEvent(
             eq(MixedFieldsEvent.class),
@@ -453,7 +500,7 @@ class AgentEventCaptureTest
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            eventCapture.registerListener(MixedFieldsEvent.class.getName());
+            eventCapture.registerListener(MixedFieldsEvent.class.getName(), List.of());
         }
         verify(pluginManager).registerEvent(
             eq(MixedFieldsEvent.class),
@@ -477,12 +524,118 @@ class AgentEventCaptureTest
             new IProtocolValue.PList(List.of(new IProtocolValue.PString("a"), new IProtocolValue.PString("b"))));
     }
 
-    private static void fireOneTestCaptureEvent(
+    @Test
+    void awaitEvents_shouldBeSatisfiedByEventsCapturedBeforeTheCall()
+        throws Exception
+    {
+        // setup — see the getHandlerList() note above
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test"));
+        final PluginManager pluginManager = mock();
+        final AgentEventCapture eventCapture =
+            new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(7L));
+
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
+            bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
+            fireOneTestCaptureEvent(eventCapture, pluginManager, plugin);
+
+            // execute
+            final AwaitEvents.Response response = eventCapture.awaitEvents(
+                TestCaptureEvent.class.getName(), 1, List.of(), 1_000L, 0);
+
+            // verify
+            assertThat(response.satisfied()).isTrue();
+            assertThat(response.tick()).isEqualTo(7L);
+            assertThat(response.events()).hasSize(1);
+        }
+    }
+
+    @Test
+    void awaitEvents_shouldOnlyCountEventsMatchingEveryFilter()
+        throws Exception
+    {
+        // setup — see the getHandlerList() note above
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test"));
+        final PluginManager pluginManager = mock();
+        final AgentEventCapture eventCapture =
+            new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(0L));
+        final List<AwaitEvents.Filter> filters = List.of(new AwaitEvents.Filter("getValue", "wanted"));
+
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
+            bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
+            final EventExecutor executor = registerTestCaptureListener(eventCapture, pluginManager, plugin);
+            executor.execute(mock(Listener.class), new TestCaptureEvent("other", false));
+            executor.execute(mock(Listener.class), new TestCaptureEvent("wanted", false));
+
+            // execute
+            final AwaitEvents.Response satisfied = eventCapture.awaitEvents(
+                TestCaptureEvent.class.getName(), 1, filters, 1_000L, 0);
+            final AwaitEvents.Response timedOut = eventCapture.awaitEvents(
+                TestCaptureEvent.class.getName(), 2, filters, 20L, 0);
+
+            // verify — a missed deadline is reported as unsatisfied with the partial matches, not thrown
+            assertThat(satisfied.satisfied()).isTrue();
+            assertThat(satisfied.events()).singleElement()
+                .satisfies(event -> assertThat(event.values())
+                    .containsEntry("getValue", new IProtocolValue.PString("wanted")));
+            assertThat(timedOut.satisfied()).isFalse();
+            assertThat(timedOut.events()).hasSize(1);
+        }
+    }
+
+    @Test
+    void awaitEvents_shouldWakeWhenMatchingEventIsCapturedDuringWait()
+        throws Exception
+    {
+        // setup — see the getHandlerList() note above
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test"));
+        final PluginManager pluginManager = mock();
+        final AgentEventCapture eventCapture =
+            new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(0L));
+
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
+            bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
+            final EventExecutor executor = registerTestCaptureListener(eventCapture, pluginManager, plugin);
+            final CompletableFuture<AwaitEvents.Response> pending = CompletableFuture.supplyAsync(() ->
+            {
+                try
+                {
+                    return eventCapture.awaitEvents(TestCaptureEvent.class.getName(), 1, List.of(), 30_000L, 0);
+                }
+                catch (InterruptedException exception)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(exception);
+                }
+            });
+
+            // execute
+            executor.execute(mock(Listener.class), new TestCaptureEvent("value", false));
+
+            // verify — woken by the capture itself, well before the 30s deadline
+            final AwaitEvents.Response response = pending.get(10, TimeUnit.SECONDS);
+            assertThat(response.satisfied()).isTrue();
+            assertThat(response.events()).hasSize(1);
+        }
+    }
+
+    private static EventExecutor registerTestCaptureListener(
         AgentEventCapture eventCapture, PluginManager pluginManager, JavaPlugin plugin)
-        throws ClassNotFoundException, EventException
+        throws ClassNotFoundException
     {
         final ArgumentCaptor<EventExecutor> executorCaptor = ArgumentCaptor.forClass(EventExecutor.class);
-        eventCapture.registerListener(TestCaptureEvent.class.getName());
+        eventCapture.registerListener(TestCaptureEvent.class.getName(), List.of());
         verify(pluginManager).registerEvent(
             eq(TestCaptureEvent.class),
             any(Listener.class),
@@ -491,7 +644,15 @@ class AgentEventCaptureTest
             eq(plugin),
             eq(false)
         );
-        executorCaptor.getValue().execute(mock(Listener.class), new TestCaptureEvent("value", false));
+        return executorCaptor.getValue();
+    }
+
+    private static void fireOneTestCaptureEvent(
+        AgentEventCapture eventCapture, PluginManager pluginManager, JavaPlugin plugin)
+        throws ClassNotFoundException, EventException
+    {
+        registerTestCaptureListener(eventCapture, pluginManager, plugin)
+            .execute(mock(Listener.class), new TestCaptureEvent("value", false));
     }
 
     public static class CancellableTestEvent extends Event implements Cancellable
@@ -630,26 +791,91 @@ class AgentEventCaptureTest
         final JavaPlugin plugin = mock();
         when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test-close-disarm"));
         final PluginManager pluginManager = mock();
-        final org.bukkit.scheduler.BukkitScheduler scheduler = mock();
         final AgentEventCapture eventCapture =
             new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(0L));
+        final ArgumentCaptor<EventExecutor> executorCaptor = ArgumentCaptor.forClass(EventExecutor.class);
 
-        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class);
-             MockedStatic<HandlerList> handlerListMockedStatic = mockStatic(HandlerList.class))
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
         {
             bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
             when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
             bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
-            bukkitMockedStatic.when(Bukkit::getScheduler).thenReturn(scheduler);
-            eventCapture.registerListener(CancellableTestEvent.class.getName());
+            eventCapture.registerListener(CancellableTestEvent.class.getName(), List.of());
             eventCapture.cancelNextEvents(CancellableTestEvent.class.getName(), 5);
+            verify(pluginManager).registerEvent(
+                eq(CancellableTestEvent.class),
+                any(Listener.class),
+                eq(EventPriority.LOWEST),
+                executorCaptor.capture(),
+                eq(plugin),
+                eq(false)
+            );
 
             // execute - closing the capture must also disarm the unexhausted cancellation
             eventCapture.unregisterListener(CancellableTestEvent.class.getName());
 
-            // verify - the disarm schedules the cancel marker's unregistration and frees the class for re-arm
-            verify(scheduler, org.mockito.Mockito.times(1)).runTask(eq(plugin), any(Runnable.class));
+            // verify - later events pass uncancelled, and the class is free for a new rule
+            final CancellableTestEvent event = mock(CancellableTestEvent.class);
+            executorCaptor.getValue().execute(mock(Listener.class), event);
+            verify(event, never()).setCancelled(true);
             eventCapture.cancelNextEvents(CancellableTestEvent.class.getName(), 1);
         }
     }
+
+    @Test
+    void registerListener_shouldHookSharedHandlerListOnceAndRouteByEventClass()
+        throws Exception
+    {
+        // setup — DerivedCancellableTestEvent has no handler list of its own and shares its parent's
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test-shared-hook"));
+        final PluginManager pluginManager = mock();
+        final AgentEventCapture eventCapture =
+            new AgentEventCapture(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong(0L));
+        final ArgumentCaptor<EventExecutor> executorCaptor = ArgumentCaptor.forClass(EventExecutor.class);
+
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            when(pluginManager.getPlugins()).thenReturn(new Plugin[0]);
+            bukkitMockedStatic.when(Bukkit::getPluginManager).thenReturn(pluginManager);
+
+            // execute
+            eventCapture.registerListener(CancellableTestEvent.class.getName(), List.of());
+            eventCapture.registerListener(DerivedCancellableTestEvent.class.getName(), List.of());
+            eventCapture.cancelNextEvents(DerivedCancellableTestEvent.class.getName(), 1);
+
+            // verify — one MONITOR hook on the parent's handler list serves both captures
+            verify(pluginManager).registerEvent(
+                eq(CancellableTestEvent.class),
+                any(Listener.class),
+                eq(EventPriority.MONITOR),
+                executorCaptor.capture(),
+                eq(plugin),
+                eq(false)
+            );
+            verify(pluginManager, org.mockito.Mockito.times(2))
+                .registerEvent(any(), any(Listener.class), any(), any(EventExecutor.class), eq(plugin), eq(false));
+
+            final EventExecutor executor = executorCaptor.getValue();
+            executor.execute(mock(Listener.class), new CancellableTestEvent());
+            executor.execute(mock(Listener.class), new DerivedCancellableTestEvent());
+            assertThat(eventCapture.getCapturedEvents(CancellableTestEvent.class.getName())).hasSize(2);
+            assertThat(eventCapture.getCapturedEvents(DerivedCancellableTestEvent.class.getName())).hasSize(1);
+        }
+    }
+
+    @Test
+    void registrationClass_shouldResolveTheClassDeclaringTheHandlerList()
+    {
+        // execute + verify
+        assertThat(AgentEventCapture.registrationClass(DerivedCancellableTestEvent.class))
+            .isEqualTo(CancellableTestEvent.class);
+        assertThat(AgentEventCapture.registrationClass(TestCaptureEvent.class)).isEqualTo(TestCaptureEvent.class);
+        assertThat(AgentEventCapture.registrationClass(Event.class)).isNull();
+    }
+
+    public static final class DerivedCancellableTestEvent extends CancellableTestEvent
+    {
+    }
 }
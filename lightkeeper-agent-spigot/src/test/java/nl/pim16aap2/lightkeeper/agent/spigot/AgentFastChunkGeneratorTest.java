@@ -0,0 +1,122 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import org.bukkit.Material;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.generator.WorldInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AgentFastChunkGeneratorTest
+{
+    @Test
+    void generateNoise_shouldFillLayersFromMinimumHeight()
+    {
+        // setup
+        final AgentFastChunkGenerator generator = new AgentFastChunkGenerator(List.of(
+            new AgentFastChunkGenerator.Layer(Material.BEDROCK, 1),
+            new AgentFastChunkGenerator.Layer(Material.DIRT, 2),
+            new AgentFastChunkGenerator.Layer(Material.GRASS_BLOCK, 1)
+        ));
+        final ChunkGenerator.ChunkData chunkData = chunkData(-64, 320);
+
+        // execute
+        generator.generateNoise(mock(WorldInfo.class), new Random(0L), 3, -2, chunkData);
+
+        // verify
+        verify(chunkData).setRegion(0, -64, 0, 16, -63, 16, Material.BEDROCK);
+        verify(chunkData).setRegion(0, -63, 0, 16, -61, 16, Material.DIRT);
+        verify(chunkData).setRegion(0, -61, 0, 16, -60, 16, Material.GRASS_BLOCK);
+        assertThat(generator.stackHeight()).isEqualTo(4);
+    }
+
+    @Test
+    void generateNoise_shouldClampLayersToMaximumHeight()
+    {
+        // setup
+        final AgentFastChunkGenerator generator = new AgentFastChunkGenerator(List.of(
+            new AgentFastChunkGenerator.Layer(Material.STONE, 10),
+            new AgentFastChunkGenerator.Layer(Material.DIRT, 10)
+        ));
+        final ChunkGenerator.ChunkData chunkData = chunkData(0, 12);
+
+        // execute
+        generator.generateNoise(mock(WorldInfo.class), new Random(0L), 0, 0, chunkData);
+
+        // verify
+        verify(chunkData).setRegion(0, 0, 0, 16, 10, 16, Material.STONE);
+        verify(chunkData).setRegion(0, 10, 0, 16, 12, 16, Material.DIRT);
+        verify(chunkData, times(2)).setRegion(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(),
+            any(Material.class));
+    }
+
+    @Test
+    void generateNoise_shouldLeaveVoidChunksEmpty()
+    {
+        // setup
+        final AgentFastChunkGenerator generator =
+            Objects.requireNonNull(AgentFastChunkGenerator.forWorldType("void", null));
+        final ChunkGenerator.ChunkData chunkData = chunkData(-64, 320);
+
+        // execute
+        generator.generateNoise(mock(WorldInfo.class), new Random(0L), 0, 0, chunkData);
+
+        // verify
+        verify(chunkData, never()).setRegion(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(),
+            any(Material.class));
+        assertThat(generator.shouldGenerateNoise()).isFalse();
+        assertThat(generator.shouldGenerateStructures()).isFalse();
+        assertThat(generator.shouldGenerateMobs()).isFalse();
+    }
+
+    @Test
+    void forWorldType_shouldReturnNullForVanillaWorldTypes()
+    {
+        // execute + verify
+        assertThat(AgentFastChunkGenerator.forWorldType("NORMAL", null)).isNull();
+        assertThat(AgentFastChunkGenerator.forWorldType("FLAT", "minecraft:stone")).isNull();
+    }
+
+    @Test
+    void forWorldType_shouldCreateSingleBedrockLayer()
+    {
+        // execute
+        final AgentFastChunkGenerator generator =
+            Objects.requireNonNull(AgentFastChunkGenerator.forWorldType("BEDROCK", null));
+
+        // verify
+        assertThat(generator.stackHeight()).isEqualTo(1);
+    }
+
+    @Test
+    void forWorldType_shouldRejectLayersWithoutSpecification()
+    {
+        // execute + verify
+        assertThatThrownBy(() -> AgentFastChunkGenerator.forWorldType("LAYERS", "  "))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("generatorLayers");
+    }
+
+    @Test
+    void parseLayers_shouldRejectNonPositiveThickness()
+    {
+        // execute + verify
+        assertThatThrownBy(() -> AgentFastChunkGenerator.parseLayers("0*minecraft:dirt"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid thickness '0'");
+    }
+
+    private static ChunkGenerator.ChunkData chunkData(int minHeight, int maxHeight)
+    {
+        final ChunkGenerator.ChunkData chunkData = mock(ChunkGenerator.ChunkData.class);
+        when(chunkData.getMinHeight()).thenReturn(minHeight);
+        when(chunkData.getMaxHeight()).thenReturn(maxHeight);
+        return chunkData;
+    }
+}
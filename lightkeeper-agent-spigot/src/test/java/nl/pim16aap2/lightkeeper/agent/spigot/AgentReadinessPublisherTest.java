@@ -0,0 +1,110 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AgentReadinessPublisherTest
+{
+    @Test
+    void onServerLoad_shouldSendReadySignalWithRecordedPhasesOnStartup(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path readySocketPath = tempDirectory.resolve("ready.sock");
+        final ServerLoadEvent event = mock();
+        when(event.getType()).thenReturn(ServerLoadEvent.LoadType.STARTUP);
+        try (ServerSocketChannel listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            listener.bind(UnixDomainSocketAddress.of(readySocketPath));
+            final AgentReadinessPublisher publisher = new AgentReadinessPublisher(readySocketPath, 1_000L, mock());
+            publisher.markPhase(AgentReadinessSignal.Phase.PLUGINS_LOADED);
+
+            // execute
+            publisher.onServerLoad(event);
+
+            // verify
+            final AgentReadinessSignal signal = AgentReadinessSignal.decode(readLine(listener));
+            assertThat(signal.isReady()).isTrue();
+            assertThat(signal.phaseEpochMillis()).containsEntry(AgentReadinessSignal.Phase.JVM_START, 1_000L);
+            assertThat(signal.phaseEpochMillis().keySet()).containsExactly(
+                AgentReadinessSignal.Phase.JVM_START,
+                AgentReadinessSignal.Phase.PLUGINS_LOADED,
+                AgentReadinessSignal.Phase.SERVER_LOADED,
+                AgentReadinessSignal.Phase.AGENT_READY
+            );
+        }
+    }
+
+    @Test
+    void publishFailure_shouldSendOnlyTheFirstSignal(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path readySocketPath = tempDirectory.resolve("ready.sock");
+        try (ServerSocketChannel listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            listener.bind(UnixDomainSocketAddress.of(readySocketPath));
+            final AgentReadinessPublisher publisher = new AgentReadinessPublisher(readySocketPath, 1_000L, mock());
+
+            // execute
+            publisher.publishFailure("Required system property 'lightkeeper.agent.authToken' is missing.");
+            publisher.publishReady();
+
+            // verify
+            final AgentReadinessSignal signal = AgentReadinessSignal.decode(readLine(listener));
+            assertThat(signal.isReady()).isFalse();
+            assertThat(signal.failureMessage()).contains("lightkeeper.agent.authToken");
+            listener.configureBlocking(false);
+            assertThat(listener.accept()).isNull();
+        }
+    }
+
+    @Test
+    void onServerLoad_shouldIgnoreReloadAndMissingReadySocket()
+    {
+        // setup
+        final Logger logger = mock();
+        final ServerLoadEvent reloadEvent = mock();
+        final ServerLoadEvent startupEvent = mock();
+        when(reloadEvent.getType()).thenReturn(ServerLoadEvent.LoadType.RELOAD);
+        when(startupEvent.getType()).thenReturn(ServerLoadEvent.LoadType.STARTUP);
+        final AgentReadinessPublisher publisher = new AgentReadinessPublisher(null, 1_000L, logger);
+
+        // execute
+        publisher.onServerLoad(reloadEvent);
+        publisher.onServerLoad(startupEvent);
+
+        // verify
+        verifyNoInteractions(logger);
+    }
+
+    private static String readLine(ServerSocketChannel listener)
+        throws Exception
+    {
+        try (
+            SocketChannel channel = listener.accept();
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)))
+        {
+            return reader.readLine();
+        }
+    }
+}
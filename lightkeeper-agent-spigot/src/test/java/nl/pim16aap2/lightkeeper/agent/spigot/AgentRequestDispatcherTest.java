@@ -43,6 +43,7 @@ import nl.pim16aap2.lightkeeper.protocol.RightClickBlock;
 import nl.pim16aap2.lightkeeper.protocol.SetBlock;
 import nl.pim16aap2.lightkeeper.protocol.TeleportPlayer;
 import nl.pim16aap2.lightkeeper.protocol.UnloadChunk;
+import nl.pim16aap2.lightkeeper.protocol.UnloadWorld;
 import nl.pim16aap2.lightkeeper.protocol.UnregisterEventListener;
 import nl.pim16aap2.lightkeeper.protocol.WaitTicks;
 import org.bukkit.Bukkit;
@@ -52,6 +53,7 @@ import org.mockito.MockedStatic;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
@@ -378,9 +380,11 @@ class AgentRequestDispatcherTest
             .thenReturn(new CancelNextEvents.Response());
         when(fixture.playerActions().handlePlayerChat(any(PlayerChat.Command.class)))
             .thenReturn(new PlayerChat.Response());
+        when(fixture.worldActions().handleUnloadWorld(any(UnloadWorld.Command.class)))
+            .thenReturn(new UnloadWorld.Response(true));
 
         // execute
-        dispatchExpectingSuccess(fixture, toJson(new NewWorld.Command("request-1", "w", "NORMAL", "NORMAL", 0L)));
+        dispatchExpectingSuccess(fixture, toJson(new NewWorld.Command("request-1", "w", "NORMAL", "NORMAL", 0L, null)));
         dispatchExpectingSuccess(fixture,
             toJson(new ExecuteCommand.Command("request-2", CommandSource.CONSOLE, "time set day")));
         dispatchExpectingSuccess(fixture, toJson(new BlockType.Command("request-3", "world", 0, 64, 0)));
@@ -418,7 +422,8 @@ class AgentRequestDispatcherTest
         dispatchExpectingSuccess(fixture, toJson(new GetPlayerInventory.Command("request-21", uuid)));
         dispatchExpectingSuccess(fixture, toJson(new DropItem.Command("request-22", uuid)));
         dispatchExpectingSuccess(fixture,
-            toJson(new RegisterEventListener.Command("request-23", "org.bukkit.event.player.PlayerJoinEvent")));
+            toJson(new RegisterEventListener.Command(
+                "request-23", "org.bukkit.event.player.PlayerJoinEvent", List.of())));
         dispatchExpectingSuccess(fixture,
             toJson(new GetCapturedEvents.Command("request-24", "org.bukkit.event.player.PlayerJoinEvent")));
         dispatchExpectingSuccess(fixture,
@@ -436,6 +441,7 @@ class AgentRequestDispatcherTest
             "request-33", "org.bukkit.event.player.PlayerJoinEvent", 1)));
         dispatchExpectingSuccess(fixture, toJson(new PlayerChat.Command("request-34", uuid, "hello")));
         dispatchExpectingSuccess(fixture, toJson(new GetServerPlugins.Command("request-35", "plugin-name")));
+        dispatchExpectingSuccess(fixture, toJson(new UnloadWorld.Command("request-36", "lk_world_1", true)));
 
         // verify
         verify(fixture.worldActions()).handleNewWorld(any(NewWorld.Command.class));
@@ -473,6 +479,7 @@ class AgentRequestDispatcherTest
         verify(fixture.playerActions()).handleHasPlayerPermission(any(HasPlayerPermission.Command.class));
         verify(fixture.eventActions()).handleCancelNextEvents(any(CancelNextEvents.Command.class));
         verify(fixture.playerActions()).handlePlayerChat(any(PlayerChat.Command.class));
+        verify(fixture.worldActions()).handleUnloadWorld(any(UnloadWorld.Command.class));
     }
 
     @Test
@@ -627,7 +634,7 @@ class AgentRequestDispatcherTest
             nmsAdapter
         );
         final AgentEventCapture eventCapture = mock();
-        final AgentEventActions eventActions = new AgentEventActions(eventCapture);
+        final AgentEventActions eventActions = new AgentEventActions(eventCapture, 120L);
         final AgentServerErrorCapture serverErrorCapture = mock();
         final AgentServerErrorActions serverErrorActions = new AgentServerErrorActions(serverErrorCapture);
 
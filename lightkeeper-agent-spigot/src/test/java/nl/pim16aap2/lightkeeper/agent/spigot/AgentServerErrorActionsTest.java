@@ -25,7 +25,7 @@ class AgentServerErrorActionsTest
     {
         // setup
         final ServerErrorEntry entry = new ServerErrorEntry(
-            1L, "ERROR", "ERROR", "logger", "thread", "message", null, null, List.of());
+            1L, "ERROR", "ERROR", "logger", "thread", "message", null, null, List.of(), 1L, 1L);
         when(serverErrorCapture.snapshot()).thenReturn(List.of(entry));
         when(serverErrorCapture.droppedCount()).thenReturn(3L);
         when(serverErrorCapture.active()).thenReturn(true);
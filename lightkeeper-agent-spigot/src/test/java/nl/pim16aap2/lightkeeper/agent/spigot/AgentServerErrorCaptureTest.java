@@ -20,6 +20,7 @@ import java.util.Objects;
 import java.util.logging.Logger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -178,6 +179,69 @@ class AgentServerErrorCaptureTest
         assertThat(capture.snapshot().getFirst().message()).isEqualTo("capture-test-storm-0");
     }
 
+    @Test
+    void offer_shouldFoldRepeatedThrowablesWithSameStackIntoOneEntry()
+    {
+        // setup
+        capture.install();
+        final org.apache.logging.log4j.Logger logger = LogManager.getLogger("lightkeeper.capture.test");
+
+        // execute — same throw site every iteration, message varies like a per-tick error would
+        for (int i = 0; i < 50; i++)
+            logger.error("capture-test-repeat-" + i, new IllegalStateException("tick " + i));
+
+        // verify — the first occurrence is kept in full; the rest only bump the count
+        final List<ServerErrorEntry> entries = capture.snapshot().stream()
+            .filter(entry -> entry.message().startsWith("capture-test-repeat-"))
+            .toList();
+        assertThat(entries).singleElement().satisfies(entry ->
+        {
+            assertThat(entry.message()).isEqualTo("capture-test-repeat-0");
+            assertThat(entry.throwableMessage()).isEqualTo("tick 0");
+            assertThat(entry.occurrenceCount()).isEqualTo(50L);
+            assertThat(entry.lastTimestampMillis()).isGreaterThanOrEqualTo(entry.timestampMillis());
+        });
+        assertThat(capture.droppedCount()).isZero();
+    }
+
+    @Test
+    void offer_shouldKeepSeparateEntriesForDifferentStackTraces()
+    {
+        // setup
+        capture.install();
+        final org.apache.logging.log4j.Logger logger = LogManager.getLogger("lightkeeper.capture.test");
+        final IllegalStateException first = new IllegalStateException("first-site");
+        final IllegalStateException second = new IllegalStateException("second-site");
+
+        // execute
+        logger.error("capture-test-site", first);
+        logger.error("capture-test-site", second);
+
+        // verify
+        assertThat(capture.snapshot().stream()
+            .filter(entry -> "capture-test-site".equals(entry.message())))
+            .extracting(ServerErrorEntry::throwableMessage)
+            .containsExactly("first-site", "second-site");
+    }
+
+    @Test
+    void offer_shouldKeepSeparateEntriesForDifferentMessagesFromSameSite()
+    {
+        // setup
+        capture.install();
+        final org.apache.logging.log4j.Logger logger = LogManager.getLogger("lightkeeper.capture.test");
+
+        // execute — one throw site and log call, but two distinct failures
+        for (final String key : List.of("alpha", "beta", "alpha"))
+            logger.error("capture-test-same-site", new IllegalStateException("missing key " + key));
+
+        // verify
+        assertThat(capture.snapshot().stream()
+            .filter(entry -> "capture-test-same-site".equals(entry.message())))
+            .extracting(ServerErrorEntry::throwableMessage, ServerErrorEntry::occurrenceCount)
+            .containsExactly(tuple("missing key alpha", 2L), tuple("missing key beta", 1L));
+    }
+
     @Test
     void snapshot_shouldTruncateOverlongStackTraces()
     {
@@ -7,12 +7,14 @@ import nl.pim16aap2.lightkeeper.protocol.CommandSource;
 import nl.pim16aap2.lightkeeper.protocol.ExecuteCommand;
 import nl.pim16aap2.lightkeeper.protocol.GetServerPlugins;
 import nl.pim16aap2.lightkeeper.protocol.GetServerTick;
+import nl.pim16aap2.lightkeeper.protocol.IProtocolValue;
 import nl.pim16aap2.lightkeeper.protocol.IsChunkLoaded;
 import nl.pim16aap2.lightkeeper.protocol.LoadChunk;
 import nl.pim16aap2.lightkeeper.protocol.NewWorld;
 import nl.pim16aap2.lightkeeper.protocol.QueryEntities;
 import nl.pim16aap2.lightkeeper.protocol.SetBlock;
 import nl.pim16aap2.lightkeeper.protocol.UnloadChunk;
+import nl.pim16aap2.lightkeeper.protocol.UnloadWorld;
 import nl.pim16aap2.lightkeeper.protocol.WaitTicks;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -35,10 +37,14 @@ import org.joml.Vector3f;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
@@ -170,6 +176,77 @@ class AgentWorldActionsTest
         assertThat(response.unloaded()).isFalse();
     }
 
+    @Test
+    void handleUnloadWorld_shouldUnloadWithoutSavingAndDeleteFolder(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("test-unload-world"));
+        final AgentWorldActions worldActions =
+            new AgentWorldActions(plugin, new AgentMainThreadExecutor(plugin), new AtomicLong());
+        final Path worldFolder = Files.createDirectories(tempDirectory.resolve("lk_world_1/region"));
+        Files.writeString(worldFolder.resolve("r.0.0.mca"), "data");
+        final World mainWorld = mock();
+        final World world = mock();
+        when(world.getWorldFolder()).thenReturn(tempDirectory.resolve("lk_world_1").toFile());
+
+        // execute
+        final UnloadWorld.Response response;
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("lk_world_1")).thenReturn(world);
+            bukkitMockedStatic.when(Bukkit::getWorlds).thenReturn(List.of(mainWorld, world));
+            bukkitMockedStatic.when(() -> Bukkit.unloadWorld(world, false)).thenReturn(true);
+            response = worldActions.handleUnloadWorld(new UnloadWorld.Command("request-unload", "lk_world_1", true));
+        }
+
+        // verify
+        assertThat(response.unloaded()).isTrue();
+        assertThat(tempDirectory.resolve("lk_world_1")).doesNotExist();
+    }
+
+    @Test
+    void handleUnloadWorld_shouldReportNotUnloadedForUnknownWorld()
+        throws Exception
+    {
+        // setup
+        final AgentWorldActions worldActions = createWorldActions(new AtomicLong());
+
+        // execute
+        final UnloadWorld.Response response;
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("missing")).thenReturn(null);
+            response = worldActions.handleUnloadWorld(new UnloadWorld.Command("request-unload", "missing", true));
+        }
+
+        // verify
+        assertThat(response.unloaded()).isFalse();
+    }
+
+    @Test
+    void handleUnloadWorld_shouldRejectMainWorld()
+    {
+        // setup
+        final AgentWorldActions worldActions = createWorldActions(new AtomicLong());
+        final World mainWorld = mock();
+
+        // execute + verify
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("world")).thenReturn(mainWorld);
+            bukkitMockedStatic.when(Bukkit::getWorlds).thenReturn(List.of(mainWorld));
+            assertThatThrownBy(() -> worldActions.handleUnloadWorld(
+                new UnloadWorld.Command("request-unload", "world", false)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("main world");
+        }
+    }
+
     @Test
     void handleIsChunkLoaded_shouldReturnWorldLoadedResult()
         throws Exception
@@ -291,7 +368,7 @@ class AgentWorldActionsTest
         final Entity entity = mockZombieEntity(entityId, 1.0, 2.0, 3.0, null, Set.of());
         when(world.getEntities()).thenReturn(List.of(entity));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-1", "world", null, false, 0, 0, 0, 0, 0, 0, false);
+            new QueryEntities.Command("request-qe-1", "world", null, false, 0, 0, 0, 0, 0, 0, false, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -326,7 +403,7 @@ class AgentWorldActionsTest
         final BoundingBox expectedBounds = new BoundingBox(0, 1, 2, 11.0, 12.0, 13.0);
         when(world.getNearbyEntities(expectedBounds)).thenReturn(List.of(entity));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-2", "world", null, true, 0, 1, 2, 10, 11, 12, false);
+            new QueryEntities.Command("request-qe-2", "world", null, true, 0, 1, 2, 10, 11, 12, false, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -378,7 +455,8 @@ class AgentWorldActionsTest
         when(creeper.getType()).thenReturn(EntityType.CREEPER);
         when(world.getEntities()).thenReturn(List.of(zombie, creeper));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-filter", "world", entityTypeKey, false, 0, 0, 0, 0, 0, 0, false);
+            new QueryEntities.Command(
+                "request-qe-filter", "world", entityTypeKey, false, 0, 0, 0, 0, 0, 0, false, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -404,7 +482,7 @@ class AgentWorldActionsTest
         final World world = mock();
         when(world.getEntities()).thenReturn(List.of(mock(Entity.class), mock(Entity.class)));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-count", "world", null, false, 0, 0, 0, 0, 0, 0, true);
+            new QueryEntities.Command("request-qe-count", "world", null, false, 0, 0, 0, 0, 0, 0, true, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -433,7 +511,7 @@ class AgentWorldActionsTest
         final Entity entity = mockZombieEntity(entityId, 1.5, 64.0, -2.75, "Bob", pdcKeys);
         when(world.getEntities()).thenReturn(List.of(entity));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-map", "world", null, false, 0, 0, 0, 0, 0, 0, false);
+            new QueryEntities.Command("request-qe-map", "world", null, false, 0, 0, 0, 0, 0, 0, false, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -457,6 +535,35 @@ class AgentWorldActionsTest
         });
     }
 
+    @Test
+    void handleQueryEntities_shouldEncodeProjectedAccessorPathsPerEntity()
+        throws Exception
+    {
+        // setup
+        final AgentWorldActions worldActions = createWorldActions(new AtomicLong());
+        final World world = mock();
+        final Entity entity = mockZombieEntity(UUID.randomUUID(), 1.5, 64.0, -2.75, "Bob", Set.of());
+        when(world.getEntities()).thenReturn(List.of(entity));
+        final QueryEntities.Command command = new QueryEntities.Command(
+            "request-qe-projection", "world", null, false, 0, 0, 0, 0, 0, 0, false,
+            List.of("getCustomName", "getLocation.getY"));
+
+        // execute
+        final QueryEntities.Response response;
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("world")).thenReturn(world);
+            response = worldActions.handleQueryEntities(command);
+        }
+
+        // verify
+        assertThat(response.entities()).singleElement().satisfies(data -> assertThat(data.projected())
+            .containsEntry("getCustomName", new IProtocolValue.PString("Bob"))
+            .containsEntry("getLocation", new IProtocolValue.PRecord(
+                Map.of("getY", new IProtocolValue.PNumber(64.0)))));
+    }
+
     @Test
     void handleQueryEntities_shouldMapTransformDataForDisplayEntity()
         throws Exception
@@ -481,7 +588,7 @@ class AgentWorldActionsTest
         when(display.getTransformation()).thenReturn(transformation);
         when(world.getEntities()).thenReturn(List.of(display));
         final QueryEntities.Command command =
-            new QueryEntities.Command("request-qe-transform", "world", null, false, 0, 0, 0, 0, 0, 0, false);
+            new QueryEntities.Command("request-qe-transform", "world", null, false, 0, 0, 0, 0, 0, 0, false, List.of());
 
         // execute
         final QueryEntities.Response response;
@@ -637,7 +744,7 @@ class AgentWorldActionsTest
     {
         // setup + execute + verify — validation is enforced by the command's compact constructor
         assertThatThrownBy(() ->
-            new NewWorld.Command("request-blank-world", "   ", "NORMAL", "NORMAL", 0L))
+            new NewWorld.Command("request-blank-world", "   ", "NORMAL", "NORMAL", 0L, null))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("worldName");
     }
@@ -0,0 +1,182 @@
+package nl.pim16aap2.lightkeeper.agent.spigot;
+
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
+import nl.pim16aap2.lightkeeper.protocol.SnapshotRegion;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntitySnapshot;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AgentWorldSnapshotsTest
+{
+    @Test
+    void handleRestoreRegion_shouldRewriteOnlyChangedBlocksAndReplaceEntities()
+        throws Exception
+    {
+        // setup
+        final BlockData stone = mock();
+        final BlockData air = mock();
+        final World world = worldWithHeight();
+        final Chunk chunk = mock();
+        when(world.getChunkAt(0, 0)).thenReturn(chunk);
+        final ChunkSnapshot before = chunkSnapshot(stone, stone);
+        final ChunkSnapshot after = chunkSnapshot(stone, air);
+        when(chunk.getChunkSnapshot(false, false, false)).thenReturn(before, after);
+        final BlockState chest = mock();
+        when(chest.getX()).thenReturn(0);
+        when(chest.getY()).thenReturn(64);
+        when(chest.getZ()).thenReturn(0);
+        when(chunk.getTileEntities()).thenReturn(new BlockState[]{chest});
+        final Location zombieLocation = new Location(world, 0.5, 64.0, 0.5);
+        final Entity zombie = mock();
+        when(zombie.getLocation()).thenReturn(zombieLocation);
+        final EntitySnapshot zombieSnapshot = mock();
+        when(zombie.createSnapshot()).thenReturn(zombieSnapshot);
+        final Player player = mock();
+        when(chunk.getEntities()).thenReturn(new Entity[]{zombie, player});
+        final Block changedBlock = mock();
+        when(world.getBlockAt(1, 64, 0)).thenReturn(changedBlock);
+        final AgentWorldSnapshots worldSnapshots = createWorldSnapshots(Long.MAX_VALUE, true);
+
+        // execute
+        final SnapshotRegion.Response snapshotResponse;
+        final RestoreRegion.Response restoreResponse;
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("world")).thenReturn(world);
+            snapshotResponse = worldSnapshots.handleSnapshotRegion(
+                new SnapshotRegion.Command("request-1", "world", 0, 64, 0, 1, 64, 0));
+            restoreResponse = worldSnapshots.handleRestoreRegion(
+                new RestoreRegion.Command("request-2", snapshotResponse.snapshotId()));
+        }
+
+        // verify
+        assertThat(snapshotResponse.blockCount()).isEqualTo(2);
+        assertThat(snapshotResponse.tileStateCount()).isEqualTo(1);
+        assertThat(snapshotResponse.entityCount()).isEqualTo(1);
+        assertThat(restoreResponse).isEqualTo(new RestoreRegion.Response(1, 1, 1, 1));
+        verify(changedBlock).setBlockData(stone, false);
+        verify(chest).update(true, false);
+        verify(zombie).remove();
+        verify(zombieSnapshot).createEntity(zombieLocation);
+        verify(player, never()).remove();
+    }
+
+    @Test
+    void handleRestoreRegion_shouldSpreadWritesOverBatchesWhenBudgetIsExhausted()
+        throws Exception
+    {
+        // setup
+        final BlockData stone = mock();
+        final BlockData air = mock();
+        final World world = worldWithHeight();
+        final Chunk chunk = mock();
+        when(world.getChunkAt(0, 0)).thenReturn(chunk);
+        final ChunkSnapshot before = chunkSnapshot(stone, stone);
+        final ChunkSnapshot after = chunkSnapshot(air, air);
+        when(chunk.getChunkSnapshot(false, false, false)).thenReturn(before, after);
+        when(chunk.getTileEntities()).thenReturn(new BlockState[0]);
+        when(chunk.getEntities()).thenReturn(new Entity[0]);
+        when(world.getBlockAt(0, 64, 0)).thenReturn(mock(Block.class));
+        when(world.getBlockAt(1, 64, 0)).thenReturn(mock(Block.class));
+        final AgentWorldSnapshots worldSnapshots = createWorldSnapshots(0L, true);
+
+        // execute
+        final RestoreRegion.Response restoreResponse;
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("world")).thenReturn(world);
+            final String snapshotId = worldSnapshots.handleSnapshotRegion(
+                new SnapshotRegion.Command("request-1", "world", 0, 64, 0, 1, 64, 0)).snapshotId();
+            restoreResponse = worldSnapshots.handleRestoreRegion(new RestoreRegion.Command("request-2", snapshotId));
+        }
+
+        // verify
+        assertThat(restoreResponse.changedBlocks()).isEqualTo(2);
+        assertThat(restoreResponse.batches()).isEqualTo(2);
+    }
+
+    @Test
+    void handleRestoreRegion_shouldRejectUnknownSnapshot()
+    {
+        // setup
+        final AgentWorldSnapshots worldSnapshots = createWorldSnapshots(Long.MAX_VALUE, false);
+
+        // execute + verify
+        assertThatThrownBy(() -> worldSnapshots.handleRestoreRegion(new RestoreRegion.Command("request-1", "region-9")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("'region-9' does not exist");
+    }
+
+    @Test
+    void handleSnapshotRegion_shouldRejectRegionLargerThanLimit()
+    {
+        // setup
+        final World world = worldWithHeight();
+        final AgentWorldSnapshots worldSnapshots = createWorldSnapshots(Long.MAX_VALUE, false);
+
+        // execute + verify
+        try (MockedStatic<Bukkit> bukkitMockedStatic = mockStatic(Bukkit.class))
+        {
+            bukkitMockedStatic.when(Bukkit::isPrimaryThread).thenReturn(true);
+            bukkitMockedStatic.when(() -> Bukkit.getWorld("world")).thenReturn(world);
+            assertThatThrownBy(() -> worldSnapshots.handleSnapshotRegion(
+                new SnapshotRegion.Command("request-1", "world", -512, -64, -512, 511, 319, 511)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds the snapshot limit");
+        }
+    }
+
+    private static World worldWithHeight()
+    {
+        final World world = mock();
+        when(world.getMinHeight()).thenReturn(-64);
+        when(world.getMaxHeight()).thenReturn(320);
+        return world;
+    }
+
+    /**
+     * Creates a chunk snapshot whose blocks at {@code x=0} and {@code x=1} are the given data, regardless of Y and Z.
+     */
+    private static ChunkSnapshot chunkSnapshot(BlockData atX0, BlockData atX1)
+    {
+        final ChunkSnapshot chunkSnapshot = mock();
+        when(chunkSnapshot.getBlockData(anyInt(), anyInt(), anyInt()))
+            .thenAnswer(invocation -> invocation.<Integer>getArgument(0) == 0 ? atX0 : atX1);
+        return chunkSnapshot;
+    }
+
+    private static AgentWorldSnapshots createWorldSnapshots(long batchBudgetNanos, boolean logs)
+    {
+        final JavaPlugin plugin = mock();
+        if (logs)
+            when(plugin.getLogger()).thenReturn(Logger.getLogger("test-world-snapshots"));
+        return new AgentWorldSnapshots(plugin, new AgentMainThreadExecutor(plugin), batchBudgetNanos);
+    }
+}
@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -354,6 +355,62 @@ class ProtocolValueEncoderTest
         verify(logger, times(1)).log(eq(Level.WARNING), any(Supplier.class));
     }
 
+    @Test
+    void encodeProjection_shouldInvokeOnlyTheRequestedPathsAndWalkThroughReferences()
+    {
+        // setup
+        final Entity entity = mock();
+        when(entity.getName()).thenReturn("Steve");
+        final ProtocolValueEncoder encoder = createEncoder(mock());
+        final ProtocolValueEncoder.Projection projection =
+            ProtocolValueEncoder.Projection.compile(List.of("getEntity.getName"));
+
+        // execute
+        final Map<String, IProtocolValue> result =
+            encoder.encodeProjection(new EntityHolder(entity), projection, "ctx");
+
+        // verify — the full walk would stop at a PRef; a projection walks into the entity instead
+        assertThat(result).containsExactly(Map.entry(
+            "getEntity", new IProtocolValue.PRecord(Map.of("getName", new IProtocolValue.PString("Steve")))));
+        verify(entity, never()).getUniqueId();
+    }
+
+    @Test
+    void encodeProjection_shouldDropMissingAccessorsAndPathsThroughLeaves()
+    {
+        // setup
+        final JavaPlugin plugin = mock();
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("protocol-value-encoder-test-projection"));
+        final ProtocolValueEncoder encoder = createEncoder(plugin);
+        final ProtocolValueEncoder.Projection projection =
+            ProtocolValueEncoder.Projection.compile(List.of("getCount", "getMissing", "getText.getBytes"));
+
+        // execute
+        final Map<String, IProtocolValue> result = encoder.encodeProjection(
+            new LeafFixture(UUID.fromString("00000000-0000-0000-0000-000000000044")), projection, "ctx");
+
+        // verify
+        assertThat(result.keySet()).containsExactly("getCount", "getMissing", "getText");
+        assertThat(result.get("getCount")).isEqualTo(new IProtocolValue.PNumber(5));
+        assertThat(result.get("getMissing")).isInstanceOf(IProtocolValue.PDropped.class);
+        assertThat(result.get("getText"))
+            .isEqualTo(new IProtocolValue.PDropped("getText", "not-navigable: java.lang.String"));
+    }
+
+    @Test
+    void projectionCompile_shouldLetAWholeValueWinOverLongerPathsWithTheSamePrefix()
+    {
+        // execute
+        final ProtocolValueEncoder.Projection projection =
+            ProtocolValueEncoder.Projection.compile(List.of("getBlock.getType", "getBlock", "getPlayer.getName"));
+
+        // verify
+        assertThat(projection.children().keySet()).containsExactly("getBlock", "getPlayer");
+        assertThat(projection.children().get("getBlock")).isEqualTo(ProtocolValueEncoder.Projection.NONE);
+        assertThat(java.util.Objects.requireNonNull(projection.children().get("getPlayer")).children())
+            .containsOnlyKeys("getName");
+    }
+
     // -----------------------------------------------------------------------
     // Fixtures
     // -----------------------------------------------------------------------
@@ -2,6 +2,7 @@ package nl.pim16aap2.lightkeeper.framework;
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -25,6 +26,7 @@ public final class EntityQuery
     private final @Nullable String entityTypeKey;
     private final @Nullable BlockPos boundsMin;
     private final @Nullable BlockPos boundsMax;
+    private final List<String> projection;
 
     /**
      * Creates an unfiltered query for a world.
@@ -36,7 +38,7 @@ public final class EntityQuery
      */
     EntityQuery(IFrameworkGatewayView frameworkGateway, String worldName)
     {
-        this(frameworkGateway, worldName, null, null, null);
+        this(frameworkGateway, worldName, null, null, null, List.of());
     }
 
     private EntityQuery(
@@ -44,13 +46,15 @@ public final class EntityQuery
         String worldName,
         @Nullable String entityTypeKey,
         @Nullable BlockPos boundsMin,
-        @Nullable BlockPos boundsMax)
+        @Nullable BlockPos boundsMax,
+        List<String> projection)
     {
         this.frameworkGateway = Objects.requireNonNull(frameworkGateway, "frameworkGateway may not be null.");
         this.worldName = Objects.requireNonNull(worldName, "worldName may not be null.");
         this.entityTypeKey = entityTypeKey;
         this.boundsMin = boundsMin;
         this.boundsMax = boundsMax;
+        this.projection = projection;
     }
 
     /**
@@ -66,7 +70,7 @@ public final class EntityQuery
         final String trimmed = Objects.requireNonNull(typeKey, "typeKey may not be null.").trim();
         if (trimmed.isEmpty())
             throw new IllegalArgumentException("typeKey may not be blank.");
-        return new EntityQuery(frameworkGateway, worldName, trimmed, boundsMin, boundsMax);
+        return new EntityQuery(frameworkGateway, worldName, trimmed, boundsMin, boundsMax, projection);
     }
 
     /**
@@ -88,7 +92,27 @@ public final class EntityQuery
         Objects.requireNonNull(max, "max may not be null.");
         if (min.x() > max.x() || min.y() > max.y() || min.z() > max.z())
             throw new IllegalArgumentException("min must be <= max on every axis.");
-        return new EntityQuery(frameworkGateway, worldName, entityTypeKey, min, max);
+        return new EntityQuery(frameworkGateway, worldName, entityTypeKey, min, max, projection);
+    }
+
+    /**
+     * Returns a copy of this query whose snapshots also carry the values of the given accessor paths.
+     *
+     * <p>Each path is a dot-separated chain of zero-arg accessors on the server-side entity, e.g.
+     * {@code getHealth} or {@code getVehicle.getType}. Only those accessors are invoked; the results land in
+     * {@link EntitySnapshot#projected()}, nested as records along each path. Replaces any earlier projection.
+     *
+     * @param accessorPaths
+     *     The accessor paths to read per entity.
+     * @return A new query with the projection applied.
+     */
+    public EntityQuery project(String... accessorPaths)
+    {
+        Objects.requireNonNull(accessorPaths, "accessorPaths may not be null.");
+        final List<String> paths = Arrays.stream(accessorPaths)
+            .map(path -> Objects.requireNonNull(path, "accessorPaths may not contain null."))
+            .toList();
+        return new EntityQuery(frameworkGateway, worldName, entityTypeKey, boundsMin, boundsMax, paths);
     }
 
     /**
@@ -108,6 +132,6 @@ public final class EntityQuery
      */
     public List<EntitySnapshot> snapshot()
     {
-        return frameworkGateway.snapshotEntities(worldName, entityTypeKey, boundsMin, boundsMax);
+        return frameworkGateway.snapshotEntities(worldName, entityTypeKey, boundsMin, boundsMax, projection);
     }
 }
@@ -1,8 +1,12 @@
 package nl.pim16aap2.lightkeeper.framework;
 
+import nl.pim16aap2.lightkeeper.protocol.IProtocolValue;
 import org.jspecify.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -24,6 +28,9 @@ import java.util.UUID;
  *     The display transformation for display entities, or {@code null} for all other entities.
  * @param tick
  *     The server tick of the query burst.
+ * @param projected
+ *     Values of the query's {@link EntityQuery#project(String...) projected} accessor paths, nested as records
+ *     along each path; empty when the query had no projection.
  */
 public record EntitySnapshot(
     UUID uuid,
@@ -32,12 +39,13 @@ public record EntitySnapshot(
     @Nullable String customName,
     List<String> pdcKeys,
     @Nullable Transform transform,
-    long tick
+    long tick,
+    Map<String, IProtocolValue> projected
 )
 {
     /**
      * Validates and defensively copies the fields; sorts {@code pdcKeys} so the documented ordering holds
-     * regardless of the source.
+     * regardless of the source, and keeps {@code projected} in projection order.
      */
     public EntitySnapshot
     {
@@ -45,6 +53,7 @@ public record EntitySnapshot(
         Objects.requireNonNull(typeKey, "typeKey may not be null.");
         Objects.requireNonNull(position, "position may not be null.");
         pdcKeys = pdcKeys == null ? List.of() : pdcKeys.stream().sorted().toList();
+        projected = projected == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(projected));
     }
 
     /**
@@ -1,6 +1,8 @@
 package nl.pim16aap2.lightkeeper.framework;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -27,6 +29,79 @@ public final class EventCaptureHandle implements AutoCloseable
         return frameworkGateway.getCapturedEvents(eventClassName);
     }
 
+    /**
+     * Waits until at least {@code count} events have been captured.
+     *
+     * @param count
+     *     Number of captured events to wait for; must be positive.
+     * @param timeout
+     *     Maximum time to wait; at most the synchronous operation timeout.
+     * @return The captured events that satisfied the wait, oldest first.
+     * @throws IllegalStateException
+     *     When fewer than {@code count} events were captured within the timeout.
+     * @see #awaitEvents(int, Map, Duration)
+     */
+    public List<CapturedEventSnapshot> awaitEvents(int count, Duration timeout)
+    {
+        return awaitEvents(count, Map.of(), timeout);
+    }
+
+    /**
+     * Waits until at least {@code count} captured events match every filter.
+     *
+     * <p>The wait happens on the agent, which wakes it as soon as the matching event is captured, so this
+     * replaces polling {@link #getCapturedEvents()} in a {@code waitUntil} loop. Events captured before the call
+     * count too, so the action under test may be triggered first.
+     *
+     * <p>Each filter maps a dot-separated accessor path (e.g. {@code getBlock.getType}) to the expected value:
+     * an entity or world reference matches on its id, an enum on its constant name, and anything else on its
+     * display string.
+     *
+     * @param count
+     *     Number of matching events to wait for; must be positive.
+     * @param filters
+     *     Accessor-path equality filters every counted event must satisfy.
+     * @param timeout
+     *     Maximum time to wait; at most the synchronous operation timeout.
+     * @return The matching events, oldest first.
+     * @throws IllegalStateException
+     *     When fewer than {@code count} matching events were captured within the timeout.
+     */
+    public List<CapturedEventSnapshot> awaitEvents(int count, Map<String, String> filters, Duration timeout)
+    {
+        return awaitEvents(count, filters, timeout, 0);
+    }
+
+    /**
+     * Waits until at least {@code count} captured events match every filter, bounded by server ticks as well.
+     *
+     * <p>The tick deadline makes the wait independent of how fast the machine running the server is: a test that
+     * expects an event within a number of game ticks fails as soon as those ticks pass, rather than only after a
+     * wall-clock timeout sized for the slowest CI runner.
+     *
+     * @param count
+     *     Number of matching events to wait for; must be positive.
+     * @param filters
+     *     Accessor-path equality filters every counted event must satisfy.
+     * @param timeout
+     *     Maximum time to wait; at most the synchronous operation timeout.
+     * @param timeoutTicks
+     *     Maximum number of server ticks to wait; {@code 0} waits for {@code timeout} only. Whichever deadline
+     *     passes first ends the wait.
+     * @return The matching events, oldest first.
+     * @throws IllegalStateException
+     *     When fewer than {@code count} matching events were captured before a deadline passed.
+     * @see #awaitEvents(int, Map, Duration)
+     */
+    public List<CapturedEventSnapshot> awaitEvents(
+        int count,
+        Map<String, String> filters,
+        Duration timeout,
+        int timeoutTicks)
+    {
+        return frameworkGateway.awaitEvents(eventClassName, count, filters, timeout, timeoutTicks);
+    }
+
     /**
      * Arms cancellation of the next {@code count} fired events of this capture's class.
      *
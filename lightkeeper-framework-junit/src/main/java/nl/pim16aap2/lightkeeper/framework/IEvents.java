@@ -1,5 +1,7 @@
 package nl.pim16aap2.lightkeeper.framework;
 
+import java.util.List;
+
 /**
  * Events facet of the framework: capture Bukkit events for later inspection.
  *
@@ -15,4 +17,20 @@ public interface IEvents
      * @return A handle to manage the capture session.
      */
     EventCaptureHandle capture(String eventClassName);
+
+    /**
+     * Starts capturing Bukkit events of the specified type, recording only the given accessor paths.
+     *
+     * <p>Each path is a dot-separated chain of zero-arg accessors on the event, e.g. {@code getPlayer.getName}
+     * or {@code getBlock.getType}. Only those accessors are invoked per event, so capture cost and payload size
+     * scale with what the test asserts on; the captured values are nested as records along each path. An empty
+     * list captures the full bounded accessor walk, like {@link #capture(String)}.
+     *
+     * @param eventClassName
+     *     The full class name of the event to capture.
+     * @param accessorPaths
+     *     The accessor paths to record per event.
+     * @return A handle to manage the capture session.
+     */
+    EventCaptureHandle capture(String eventClassName, List<String> accessorPaths);
 }
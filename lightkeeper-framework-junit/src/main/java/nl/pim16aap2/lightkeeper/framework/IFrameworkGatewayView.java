@@ -5,6 +5,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -163,15 +164,31 @@ public interface IFrameworkGatewayView
     DropResult dropItem(UUID playerId);
 
     /**
-     * Registers an event listener.
+     * Registers an event listener, optionally capturing only the given accessor paths.
      */
-    void registerEventListener(String eventClassName);
+    void registerEventListener(String eventClassName, List<String> projection);
 
     /**
      * Gets captured events for a class.
      */
     List<CapturedEventSnapshot> getCapturedEvents(String eventClassName);
 
+    /**
+     * Blocks on the agent until {@code count} captured events of a class match every accessor-path filter.
+     *
+     * @param timeoutTicks
+     *     Server-tick deadline, ending the wait before {@code timeout} when the server ticks faster than expected;
+     *     {@code 0} waits for the wall-clock timeout only.
+     * @throws IllegalStateException
+     *     When a deadline passes first.
+     */
+    List<CapturedEventSnapshot> awaitEvents(
+        String eventClassName,
+        int count,
+        Map<String, String> filters,
+        Duration timeout,
+        int timeoutTicks);
+
     /**
      * Clears captured events for a class.
      */
@@ -207,13 +224,15 @@ public interface IFrameworkGatewayView
         @Nullable BlockPos boundsMax);
 
     /**
-     * Snapshots entities in a world matching the optional type and bounds filters, in one main-thread burst.
+     * Snapshots entities in a world matching the optional type and bounds filters, in one main-thread burst,
+     * reading the given accessor paths of each entity as well.
      */
     List<EntitySnapshot> snapshotEntities(
         String worldName,
         @Nullable String entityTypeKey,
         @Nullable BlockPos boundsMin,
-        @Nullable BlockPos boundsMax);
+        @Nullable BlockPos boundsMax,
+        List<String> projection);
 
     /**
      * Gets all captured server errors: structured log events plus raw stderr stack-trace detections.
@@ -30,6 +30,16 @@ public interface IWorldBuilder
      */
     IWorldBuilder withWorldType(WorldSpec.WorldType worldType);
 
+    /**
+     * Generates the world from a fixed layer stack, using {@link WorldSpec.WorldType#LAYERS}.
+     *
+     * @param layers
+     *     Layers in the vanilla superflat format from bottom to top, for example
+     *     {@code minecraft:bedrock,2*minecraft:dirt,minecraft:grass_block}.
+     * @return This builder.
+     */
+    IWorldBuilder withLayers(String layers);
+
     /**
      * Sets the world environment.
      *
@@ -24,4 +24,30 @@ public final class Lightkeeper
     {
         return DefaultLightkeeperFramework.start(runtimeManifestPath);
     }
+
+    /**
+     * Creates and starts a framework instance on one server of a provisioned fleet.
+     *
+     * @param runtimeManifestPath
+     *     Path to the runtime manifest generated by {@code prepare-server}.
+     * @param serverIndex
+     *     Index of the server to start, from {@code 0} (inclusive) to {@link #serverCount(Path)} (exclusive).
+     * @return A started framework.
+     */
+    public static ILightkeeperFramework start(Path runtimeManifestPath, int serverIndex)
+    {
+        return DefaultLightkeeperFramework.start(runtimeManifestPath, serverIndex);
+    }
+
+    /**
+     * Reads how many servers {@code prepare-server} provisioned ({@code lightkeeper.serverCount}).
+     *
+     * @param runtimeManifestPath
+     *     Path to the runtime manifest generated by {@code prepare-server}.
+     * @return The number of servers that can run side by side.
+     */
+    public static int serverCount(Path runtimeManifestPath)
+    {
+        return DefaultLightkeeperFramework.serverCount(runtimeManifestPath);
+    }
 }
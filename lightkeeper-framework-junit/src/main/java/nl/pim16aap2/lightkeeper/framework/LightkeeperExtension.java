@@ -13,12 +13,25 @@ import org.junit.jupiter.api.extension.ParameterResolver;
 import org.jspecify.annotations.Nullable;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
 /**
  * JUnit extension for framework lifecycle management.
  *
+ * <p>Test classes without {@link FreshServer} share one warm server across the whole run: each class leases it from
+ * a {@link WarmServerPool} in the root store and hands it back afterwards, when its players, event captures, server
+ * errors and created worlds are reset. Only {@link FreshServer} tests, or a reset that reports an unrecoverable
+ * server, cause a full restart. Regions a test changes can instead be rolled back per method with
+ * {@link RollbackWorld}.
+ *
+ * <p>When {@code prepare-server} provisioned a fleet ({@code lightkeeper.serverCount}) and JUnit runs test classes
+ * concurrently ({@code junit.jupiter.execution.parallel.enabled} with a {@code concurrent} class execution mode), the
+ * pool holds one server per fleet member and concurrent classes each lease their own. Classes beyond the fleet size
+ * wait for a server to be released. With sequential classes only the primary server is ever started.
+ *
  * <p>On test failure the extension writes a diagnostics bundle (test outcome, captured server errors, server
  * console output) before any cleanup runs — see {@link FailureDiagnosticsWriter}. Two system properties control
  * this: {@code lightkeeper.diagnostics} ({@code on-failure} (default) | {@code always} | {@code off}) and
@@ -36,13 +49,14 @@ public final class LightkeeperExtension implements
 
     private static final ExtensionContext.Namespace NAMESPACE =
         ExtensionContext.Namespace.create(LightkeeperExtension.class);
+    private static final String KEY_SERVER_POOL = "server-pool";
     private static final String KEY_SHARED_FRAMEWORK = "shared-framework";
     private static final String KEY_METHOD_FRAMEWORK = "method-framework";
     private static final String KEY_CLASS_USES_FRESH_LIFECYCLE = "class-uses-fresh-lifecycle";
     private static final String KEY_CLASS_HAS_METHOD_FRESH_SERVERS = "class-has-method-fresh-servers";
 
     /**
-     * Starts a shared framework when tests are not configured for per-method fresh servers.
+     * Leases the shared framework when tests are not configured for per-method fresh servers.
      *
      * <p>Also validates the diagnostics configuration up front: a typo in {@code lightkeeper.diagnostics} must
      * fail loudly here, before any server is provisioned — not during cleanup.
@@ -53,7 +67,7 @@ public final class LightkeeperExtension implements
         diagnosticsMode();
         if (usesFreshLifecycleForClass(context) || hasMethodLevelFreshServers(context))
             return;
-        getClassStore(context).put(KEY_SHARED_FRAMEWORK, startFramework());
+        getClassStore(context).put(KEY_SHARED_FRAMEWORK, serverPool(context).lease());
     }
 
     /**
@@ -65,13 +79,13 @@ public final class LightkeeperExtension implements
         if (usesFreshLifecycleForMethod(context))
         {
             closeSharedFrameworkIfPresent(context);
-            getMethodStore(context).put(KEY_METHOD_FRAMEWORK, startFramework());
+            getMethodStore(context).put(KEY_METHOD_FRAMEWORK, serverPool(context).startFresh());
             return;
         }
 
         final ILightkeeperFramework sharedFramework = getOrStartSharedFramework(context);
         if (sharedFramework instanceof DefaultLightkeeperFramework defaultLightkeeperFramework)
-            defaultLightkeeperFramework.beginMethodScope(context.getUniqueId());
+            defaultLightkeeperFramework.beginMethodScope(context.getUniqueId(), rollbackRegions(context));
     }
 
     /**
@@ -102,11 +116,11 @@ public final class LightkeeperExtension implements
             ILightkeeperFramework.class
         );
         if (framework != null)
-            framework.close();
+            serverPool(context).discard(framework);
     }
 
     /**
-     * Closes shared framework state after all tests in the class.
+     * Returns the shared framework to the warm server pool after all tests in the class.
      */
     @Override
     public void afterAll(ExtensionContext context)
@@ -116,7 +130,7 @@ public final class LightkeeperExtension implements
             ILightkeeperFramework.class
         );
         if (framework != null)
-            framework.close();
+            serverPool(context).release(framework);
     }
 
     /**
@@ -167,6 +181,18 @@ public final class LightkeeperExtension implements
         return hasMethodLevelFreshServers;
     }
 
+    /**
+     * Collects the {@link RollbackWorld} regions of the test class followed by those of the test method.
+     */
+    private static List<RollbackWorld> rollbackRegions(ExtensionContext context)
+    {
+        final List<RollbackWorld> rollbackRegions =
+            new ArrayList<>(List.of(context.getRequiredTestClass().getAnnotationsByType(RollbackWorld.class)));
+        context.getTestMethod().ifPresent(
+            testMethod -> rollbackRegions.addAll(List.of(testMethod.getAnnotationsByType(RollbackWorld.class))));
+        return rollbackRegions;
+    }
+
     private static boolean usesFreshLifecycleForMethod(ExtensionContext context)
     {
         if (usesFreshLifecycleForClass(context))
@@ -188,7 +214,7 @@ public final class LightkeeperExtension implements
         if (usesFreshLifecycleForMethod(context))
         {
             closeSharedFrameworkIfPresent(context);
-            final ILightkeeperFramework startedFramework = startFramework();
+            final ILightkeeperFramework startedFramework = serverPool(context).startFresh();
             getMethodStore(context).put(KEY_METHOD_FRAMEWORK, startedFramework);
             return startedFramework;
         }
@@ -203,7 +229,7 @@ public final class LightkeeperExtension implements
         if (sharedFramework != null)
             return sharedFramework;
 
-        final ILightkeeperFramework startedFramework = startFramework();
+        final ILightkeeperFramework startedFramework = serverPool(context).lease();
         store.put(KEY_SHARED_FRAMEWORK, startedFramework);
         return startedFramework;
     }
@@ -215,7 +241,51 @@ public final class LightkeeperExtension implements
             ILightkeeperFramework.class
         );
         if (sharedFramework != null)
-            sharedFramework.close();
+            serverPool(context).discard(sharedFramework);
+    }
+
+    /**
+     * Returns the run-wide pool, creating it on first use; the root store closes it when the run ends.
+     *
+     * <p>The pool holds one slot per provisioned server when test classes run concurrently, and a single slot
+     * otherwise: sequential classes never need more than one server at a time.
+     */
+    private static WarmServerPool serverPool(ExtensionContext context)
+    {
+        return context.getRoot().getStore(NAMESPACE).computeIfAbsent(
+            KEY_SERVER_POOL,
+            ignored ->
+            {
+                final Path runtimeManifestPath = runtimeManifestPath();
+                final int capacity = runsClassesConcurrently(context)
+                    ? Lightkeeper.serverCount(runtimeManifestPath)
+                    : 1;
+                return new WarmServerPool(capacity, serverIndex -> Lightkeeper.start(runtimeManifestPath, serverIndex));
+            },
+            WarmServerPool.class
+        );
+    }
+
+    /**
+     * Checks whether JUnit is configured to execute test classes concurrently.
+     *
+     * <p>Mirrors JUnit's own resolution: parallel execution must be enabled, and the class execution mode falls back
+     * to the default execution mode, which itself defaults to {@code same_thread}.
+     */
+    static boolean runsClassesConcurrently(ExtensionContext context)
+    {
+        final boolean parallelEnabled = context.getConfigurationParameter("junit.jupiter.execution.parallel.enabled")
+            .map(value -> Boolean.parseBoolean(value.trim()))
+            .orElse(false);
+        if (!parallelEnabled)
+            return false;
+
+        final String defaultMode = context.getConfigurationParameter("junit.jupiter.execution.parallel.mode.default")
+            .orElse("same_thread");
+        final String classesMode =
+            context.getConfigurationParameter("junit.jupiter.execution.parallel.mode.classes.default")
+                .orElse(defaultMode);
+        return "concurrent".equals(classesMode.trim().toLowerCase(Locale.ROOT));
     }
 
     private static ExtensionContext.Store getMethodStore(ExtensionContext context)
@@ -232,12 +302,12 @@ public final class LightkeeperExtension implements
             .orElseGet(() -> context.getStore(NAMESPACE));
     }
 
-    private static ILightkeeperFramework startFramework()
+    private static Path runtimeManifestPath()
     {
         final String runtimeManifestPath = System.getProperty("lightkeeper.runtimeManifestPath", "").trim();
         if (runtimeManifestPath.isBlank())
             throw new IllegalStateException("System property 'lightkeeper.runtimeManifestPath' is not set.");
-        return Lightkeeper.start(Path.of(runtimeManifestPath));
+        return Path.of(runtimeManifestPath);
     }
 
     /**
@@ -18,8 +18,12 @@ import java.util.Objects;
  *     {@link #LOGGER_NAME_STDERR} as {@link #loggerName()}.</li>
  * </ul>
  *
+ * <p>Structured entries fold repeated occurrences of the same error into one snapshot; {@link #occurrenceCount()}
+ * and {@link #lastTimestampMillis()} describe the repeats while the remaining fields describe the first occurrence.
+ *
  * @param timestampMillis
- *     Epoch milliseconds at which the event was created (structured events) or captured (raw stderr output).
+ *     Epoch milliseconds at which the (first) event was created (structured events) or captured (raw stderr
+ *     output).
  * @param severity
  *     Severity bucket; only {@link Severity#ERROR} entries fail
  *     {@code LightkeeperAssertions.assertThat(framework).hasNoServerErrors()}.
@@ -38,6 +42,10 @@ import java.util.Objects;
  * @param stackTrace
  *     Rendered stack trace lines including the cause chain (possibly truncated); empty when no throwable was
  *     attached.
+ * @param occurrenceCount
+ *     Number of occurrences folded into this snapshot; at least {@code 1}.
+ * @param lastTimestampMillis
+ *     Epoch milliseconds of the most recent occurrence; equals {@link #timestampMillis()} for a single occurrence.
  */
 public record ServerErrorSnapshot(
     long timestampMillis,
@@ -48,7 +56,9 @@ public record ServerErrorSnapshot(
     String message,
     @Nullable String throwableClass,
     @Nullable String throwableMessage,
-    List<String> stackTrace
+    List<String> stackTrace,
+    long occurrenceCount,
+    long lastTimestampMillis
 )
 {
     /**
@@ -81,12 +91,15 @@ public record ServerErrorSnapshot(
         Objects.requireNonNull(loggerName, "loggerName may not be null.");
         Objects.requireNonNull(threadName, "threadName may not be null.");
         Objects.requireNonNull(message, "message may not be null.");
+        if (occurrenceCount < 1L)
+            throw new IllegalArgumentException("occurrenceCount must be >= 1.");
         stackTrace = stackTrace == null ? List.of() : List.copyOf(stackTrace);
     }
 
     /**
      * Renders this entry as human-readable text: one header line plus indented stack-trace lines, capped at the
-     * given limit with a {@code "... (N more stack trace lines)"} tail when truncated.
+     * given limit with a {@code "... (N more stack trace lines)"} tail when truncated. Repeated entries carry a
+     * {@code " (repeated N times)"} suffix on the header line.
      *
      * @param maxStackTraceLines
      *     Maximum number of stack-trace lines to render; use {@link Integer#MAX_VALUE} for the full trace.
@@ -103,8 +116,10 @@ public record ServerErrorSnapshot(
                 levelName,
                 loggerName,
                 threadName.isEmpty() ? "?" : threadName,
-                message))
-            .append(System.lineSeparator());
+                message));
+        if (occurrenceCount > 1L)
+            rendered.append(" (repeated %d times)".formatted(occurrenceCount));
+        rendered.append(System.lineSeparator());
 
         stackTrace.stream()
             .limit(maxStackTraceLines)
@@ -0,0 +1,223 @@
+package nl.pim16aap2.lightkeeper.framework;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import nl.pim16aap2.lightkeeper.framework.internal.DefaultLightkeeperFramework;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Suite-wide pool of warm servers that test classes hand over to each other.
+ *
+ * <p>Lives in the JUnit root store, which closes it once the whole run has finished. The pool owns a fixed number of
+ * server slots, one per server of the fleet provisioned by {@code prepare-server}: every slot has its own server
+ * directory, port and socket, so at most one framework may be alive per slot. A test class leases a framework
+ * before its first test and releases it after its last; the release resets the server through
+ * {@link DefaultLightkeeperFramework#resetForReuse()} and keeps it warm for the next class, or closes it and frees
+ * its slot when the reset reports an unrecoverable state. When every slot is leased, further leases block until a
+ * class releases its server.
+ */
+final class WarmServerPool implements AutoCloseable
+{
+    private final IntFunction<ILightkeeperFramework> frameworkStarter;
+
+    /**
+     * Slots without a running server.
+     */
+    @GuardedBy("this")
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    /**
+     * Started frameworks that are not leased, oldest release first.
+     */
+    @GuardedBy("this")
+    private final Deque<ILightkeeperFramework> idleFrameworks = new ArrayDeque<>();
+
+    /**
+     * The slot of every framework started by this pool that has not been closed yet, leased or idle.
+     */
+    @GuardedBy("this")
+    private final Map<ILightkeeperFramework, Integer> slotsByFramework = new IdentityHashMap<>();
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * @param capacity
+     *     The number of servers that may run at the same time; must be positive.
+     * @param frameworkStarter
+     *     Boots a new framework on the given slot, from {@code 0} (inclusive) to {@code capacity} (exclusive).
+     */
+    WarmServerPool(int capacity, IntFunction<ILightkeeperFramework> frameworkStarter)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Pool capacity must be positive, but was %d.".formatted(capacity));
+        this.frameworkStarter = Objects.requireNonNull(frameworkStarter, "frameworkStarter may not be null.");
+        for (int slot = 0; slot < capacity; ++slot)
+            freeSlots.addLast(slot);
+    }
+
+    /**
+     * Hands out a warm framework, booting one on a free slot when none is idle.
+     *
+     * <p>Blocks while every slot is leased.
+     *
+     * @return A started framework owned by the caller until {@link #release(ILightkeeperFramework)}.
+     */
+    ILightkeeperFramework lease()
+    {
+        final int slot;
+        synchronized (this)
+        {
+            awaitIdleFrameworkOrFreeSlot();
+            final @Nullable ILightkeeperFramework idleFramework = idleFrameworks.pollFirst();
+            if (idleFramework != null)
+                return idleFramework;
+            slot = freeSlots.removeFirst();
+        }
+        return startOnSlot(slot);
+    }
+
+    /**
+     * Boots a framework that is never reused.
+     *
+     * <p>Takes the slot of an idle framework, closing it first, when no slot is free, so two servers never share a
+     * slot. Blocks while every slot is leased. The caller hands the framework back through
+     * {@link #discard(ILightkeeperFramework)}.
+     *
+     * @return A freshly started framework.
+     */
+    ILightkeeperFramework startFresh()
+    {
+        final int slot;
+        final @Nullable ILightkeeperFramework evictedFramework;
+        synchronized (this)
+        {
+            awaitIdleFrameworkOrFreeSlot();
+            final @Nullable Integer freeSlot = freeSlots.pollFirst();
+            if (freeSlot != null)
+            {
+                slot = freeSlot;
+                evictedFramework = null;
+            }
+            else
+            {
+                evictedFramework = idleFrameworks.removeFirst();
+                slot = Objects.requireNonNull(slotsByFramework.remove(evictedFramework));
+            }
+        }
+        if (evictedFramework != null)
+            evictedFramework.close();
+        return startOnSlot(slot);
+    }
+
+    /**
+     * Takes back a leased framework, keeping it warm when its reset succeeds and discarding it otherwise.
+     *
+     * @param framework
+     *     The framework returned by {@link #lease()}.
+     */
+    void release(ILightkeeperFramework framework)
+    {
+        // The reset runs outside the lock: it talks to the server, and other classes may lease or release meanwhile.
+        final boolean reusable = framework instanceof DefaultLightkeeperFramework defaultLightkeeperFramework
+            && defaultLightkeeperFramework.resetForReuse();
+        synchronized (this)
+        {
+            if (reusable && !closed && slotsByFramework.containsKey(framework))
+            {
+                idleFrameworks.addLast(framework);
+                notifyAll();
+                return;
+            }
+        }
+        discard(framework);
+    }
+
+    /**
+     * Closes a framework handed out by this pool and frees its slot.
+     *
+     * @param framework
+     *     The framework returned by {@link #lease()} or {@link #startFresh()}.
+     */
+    void discard(ILightkeeperFramework framework)
+    {
+        framework.close();
+        synchronized (this)
+        {
+            final @Nullable Integer slot = slotsByFramework.remove(framework);
+            if (slot != null)
+            {
+                freeSlots.addLast(slot);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Closes every idle framework and frees their slots.
+     */
+    void evict()
+    {
+        final Deque<ILightkeeperFramework> evictedFrameworks;
+        synchronized (this)
+        {
+            evictedFrameworks = new ArrayDeque<>(idleFrameworks);
+            idleFrameworks.clear();
+        }
+        evictedFrameworks.forEach(this::discard);
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            closed = true;
+        }
+        evict();
+    }
+
+    @GuardedBy("this")
+    private void awaitIdleFrameworkOrFreeSlot()
+    {
+        try
+        {
+            while (idleFrameworks.isEmpty() && freeSlots.isEmpty())
+                wait();
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a server to become available.", exception);
+        }
+    }
+
+    private ILightkeeperFramework startOnSlot(int slot)
+    {
+        final ILightkeeperFramework framework;
+        try
+        {
+            framework = frameworkStarter.apply(slot);
+        }
+        catch (RuntimeException exception)
+        {
+            synchronized (this)
+            {
+                freeSlots.addFirst(slot);
+                notifyAll();
+            }
+            throw exception;
+        }
+        synchronized (this)
+        {
+            slotsByFramework.put(framework, slot);
+        }
+        return framework;
+    }
+}
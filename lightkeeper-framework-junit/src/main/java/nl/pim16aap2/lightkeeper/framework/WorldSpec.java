@@ -1,5 +1,7 @@
 package nl.pim16aap2.lightkeeper.framework;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * World creation specification.
  *
@@ -11,18 +13,51 @@ package nl.pim16aap2.lightkeeper.framework;
  *     World environment.
  * @param seed
  *     World seed.
+ * @param layers
+ *     Layer stack for {@link WorldType#LAYERS}, in the vanilla superflat format from bottom to top, for example
+ *     {@code minecraft:bedrock,2*minecraft:dirt,minecraft:grass_block}. Ignored for other world types.
  */
 public record WorldSpec(
     String name,
     WorldType worldType,
     WorldEnvironment environment,
-    long seed
+    long seed,
+    @Nullable String layers
 )
 {
+    /**
+     * Creates a specification without a layer stack.
+     *
+     * @param name
+     *     World name.
+     * @param worldType
+     *     World type.
+     * @param environment
+     *     World environment.
+     * @param seed
+     *     World seed.
+     */
+    public WorldSpec(String name, WorldType worldType, WorldEnvironment environment, long seed)
+    {
+        this(name, worldType, environment, seed, null);
+    }
+
     public enum WorldType
     {
         NORMAL,
-        FLAT
+        FLAT,
+        /**
+         * Empty chunks, generated by the agent without any vanilla generation steps.
+         */
+        VOID,
+        /**
+         * A single bedrock layer at the bottom of the world, generated by the agent.
+         */
+        BEDROCK,
+        /**
+         * The layer stack from {@link WorldSpec#layers()}, generated by the agent.
+         */
+        LAYERS
     }
 
     public enum WorldEnvironment
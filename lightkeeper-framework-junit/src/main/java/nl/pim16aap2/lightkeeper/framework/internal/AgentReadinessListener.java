@@ -0,0 +1,167 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * One-shot Unix domain socket on which the framework awaits the agent's {@link AgentReadinessSignal}.
+ *
+ * <p>The socket is bound before the server is launched, so the agent can connect as soon as the server finished
+ * starting. Startup then ends on the first of three events: the signal arrives, the server process exits, or the
+ * startup timeout elapses.
+ */
+final class AgentReadinessListener implements AutoCloseable
+{
+    private static final System.Logger LOG = System.getLogger(AgentReadinessListener.class.getName());
+
+    private final Path socketPath;
+    private final ServerSocketChannel serverSocketChannel;
+
+    private AgentReadinessListener(Path socketPath, ServerSocketChannel serverSocketChannel)
+    {
+        this.socketPath = socketPath;
+        this.serverSocketChannel = serverSocketChannel;
+    }
+
+    /**
+     * Binds the readiness socket, replacing a stale socket file left behind by a killed run.
+     *
+     * @param socketPath
+     *     Path to bind; handed to the agent through
+     *     {@link nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol#PROPERTY_READY_SOCKET_PATH}.
+     * @return The bound listener.
+     * @throws IOException
+     *     When the socket cannot be bound.
+     */
+    static AgentReadinessListener open(Path socketPath)
+        throws IOException
+    {
+        Files.deleteIfExists(socketPath);
+        final ServerSocketChannel serverSocketChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try
+        {
+            serverSocketChannel.bind(UnixDomainSocketAddress.of(socketPath));
+        }
+        catch (IOException exception)
+        {
+            serverSocketChannel.close();
+            throw exception;
+        }
+        return new AgentReadinessListener(socketPath, serverSocketChannel);
+    }
+
+    /**
+     * Waits for the agent to signal that the server is ready.
+     *
+     * @param process
+     *     The launched server process.
+     * @param timeout
+     *     Maximum time to wait for the signal.
+     * @param outputTail
+     *     Supplies the latest server output for failure messages.
+     * @return The ready signal.
+     * @throws InterruptedException
+     *     When interrupted while waiting.
+     * @throws IllegalStateException
+     *     When the agent reports a failure, the process exits first, or the timeout elapses.
+     */
+    AgentReadinessSignal await(Process process, Duration timeout, Supplier<String> outputTail)
+        throws InterruptedException
+    {
+        final CompletableFuture<AgentReadinessSignal> signal = new CompletableFuture<>();
+        Thread.ofVirtual().name("lightkeeper-agent-readiness").start(() -> acceptSignal(signal));
+        process.onExit().thenRun(() -> signal.completeExceptionally(new IllegalStateException(
+            "Minecraft server exited before the agent signalled readiness. Exit code: %d. Tail:%n%s"
+                .formatted(process.exitValue(), outputTail.get())
+        )));
+
+        final AgentReadinessSignal receivedSignal;
+        try
+        {
+            receivedSignal = signal.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        catch (TimeoutException exception)
+        {
+            throw new IllegalStateException(
+                "Minecraft server did not start within timeout. Tail:%n%s".formatted(outputTail.get()), exception);
+        }
+        catch (ExecutionException exception)
+        {
+            if (exception.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException("Failed to receive the agent readiness signal.", exception.getCause());
+        }
+
+        if (!receivedSignal.isReady())
+        {
+            throw new IllegalStateException(
+                "LightKeeper agent failed to start: %s Tail:%n%s"
+                    .formatted(receivedSignal.failureMessage(), outputTail.get())
+            );
+        }
+        return receivedSignal;
+    }
+
+    /**
+     * Closes the socket, which also ends a pending accept, and removes the socket file.
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            serverSocketChannel.close();
+            Files.deleteIfExists(socketPath);
+        }
+        catch (IOException exception)
+        {
+            LOG.log(
+                System.Logger.Level.TRACE,
+                () -> "Failed to clean up agent readiness socket '%s': %s".formatted(socketPath, exception.getMessage())
+            );
+        }
+    }
+
+    private void acceptSignal(CompletableFuture<AgentReadinessSignal> signal)
+    {
+        try (
+            SocketChannel channel = serverSocketChannel.accept();
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)))
+        {
+            final @Nullable String line = reader.readLine();
+            if (line == null)
+                throw new IOException("Agent closed the readiness socket without sending a signal.");
+            signal.complete(AgentReadinessSignal.decode(line));
+        }
+        catch (AsynchronousCloseException exception)
+        {
+            // Closed by close() once startup ended some other way.
+            signal.cancel(false);
+        }
+        catch (IOException | RuntimeException exception)
+        {
+            signal.completeExceptionally(
+                new IllegalStateException("Failed to receive the agent readiness signal.", exception));
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Dynamic class-data (AppCDS) archive of one server, recorded on its first boot and mapped on every later boot.
+ *
+ * <p>The JVM only maps an archive that the same JVM build dumped for the same class path. The archive file is
+ * therefore named after the server jar and the launching JVM, inside the manifest's archive directory that
+ * {@code prepare-server} already keys by server jar and plugin set. A recording boot dumps into a staging file
+ * that is only promoted once the server exited cleanly, so a killed or crashed server never leaves a truncated
+ * archive behind. The startup time of the recording boot is stored next to the archive; later boots report their
+ * startup delta against it.
+ *
+ * <p>Every boot and every stop request updates the modification time of the archive directory. The cache budget of
+ * {@code prepare-server} treats that as the entry's last access and spares entries accessed within its grace period.
+ * A server running longer than that can still lose its archive directory to a concurrent build's eviction. The
+ * directory is then recreated right before the server is asked to stop, so a recording boot can still dump its
+ * archive; a mapped archive that was evicted is recorded again on a later boot.
+ */
+final class ClassDataArchive
+{
+    private static final System.Logger LOG = System.getLogger(ClassDataArchive.class.getName());
+
+    private final Path archiveDirectory;
+    private final Path archiveFile;
+    private final Path stagingFile;
+    private final Path baselineFile;
+    private boolean recording;
+    private long recordingStartupMillis = -1L;
+
+    ClassDataArchive(Path archiveDirectory, Path serverJar)
+    {
+        final String identity = serverJar.toAbsolutePath().normalize()
+            + "|" + System.getProperty("java.home")
+            + "|" + System.getProperty("java.vm.version");
+        final String fileName = "server-" + UUID.nameUUIDFromBytes(identity.getBytes(StandardCharsets.UTF_8));
+        this.archiveDirectory = archiveDirectory;
+        this.archiveFile = archiveDirectory.resolve(fileName + ".jsa");
+        this.stagingFile = archiveDirectory.resolve(fileName + ".jsa.part");
+        this.baselineFile = archiveDirectory.resolve(fileName + ".startup-millis");
+    }
+
+    /**
+     * Creates the archive of the manifest's server.
+     *
+     * @param runtimeManifest
+     *     The single-server manifest of the server to launch.
+     * @return The archive, or {@code null} when {@code prepare-server} disabled class-data archives.
+     */
+    static @Nullable ClassDataArchive forManifest(RuntimeManifest runtimeManifest)
+    {
+        final @Nullable String archiveDirectory = runtimeManifest.classDataArchiveDirectory();
+        if (archiveDirectory == null || archiveDirectory.isBlank())
+            return null;
+        return new ClassDataArchive(Path.of(archiveDirectory), Path.of(runtimeManifest.serverJar()));
+    }
+
+    /**
+     * Returns the JVM arguments for the next boot: map the archive when it exists, record it otherwise.
+     */
+    List<String> jvmArguments()
+    {
+        markUsed();
+        recording = !Files.isRegularFile(archiveFile);
+        recordingStartupMillis = -1L;
+        if (!recording)
+            return List.of("-XX:SharedArchiveFile=" + archiveFile);
+
+        deleteQuietly(stagingFile);
+        return List.of("-XX:ArchiveClassesAtExit=" + stagingFile);
+    }
+
+    /**
+     * Reports the startup time of the boot launched with {@link #jvmArguments()}.
+     *
+     * @param startupDuration
+     *     Time from launching the process until the server reported it was ready.
+     */
+    void onStarted(Duration startupDuration)
+    {
+        final long startupMillis = startupDuration.toMillis();
+        if (recording)
+        {
+            recordingStartupMillis = startupMillis;
+            LOG.log(
+                System.Logger.Level.INFO,
+                () -> "LK_FRAMEWORK: Server started in %d ms; recording class-data archive '%s' for later boots."
+                    .formatted(startupMillis, archiveFile)
+            );
+            return;
+        }
+
+        final OptionalLong baselineMillis = readBaselineMillis();
+        if (baselineMillis.isEmpty())
+        {
+            LOG.log(
+                System.Logger.Level.INFO,
+                () -> "LK_FRAMEWORK: Server started in %d ms with class-data archive.".formatted(startupMillis)
+            );
+            return;
+        }
+        LOG.log(
+            System.Logger.Level.INFO,
+            () -> "LK_FRAMEWORK: Server started in %d ms with class-data archive (%d ms without it, %+d ms)."
+                .formatted(startupMillis, baselineMillis.getAsLong(), startupMillis - baselineMillis.getAsLong())
+        );
+    }
+
+    /**
+     * Marks the archive directory as used again right before the server is asked to stop.
+     * <p>
+     * A recording boot only writes its staging file while the JVM exits, into a directory that may have been evicted
+     * while the server ran.
+     */
+    void onStopping()
+    {
+        markUsed();
+    }
+
+    /**
+     * Promotes the archive recorded by the boot that just ended, or discards it when the server did not exit cleanly.
+     *
+     * @param exitedCleanly
+     *     Whether the server process exited with status {@code 0}; the JVM only finishes the dump on a clean exit.
+     */
+    void onStopped(boolean exitedCleanly)
+    {
+        if (!recording)
+            return;
+        recording = false;
+
+        if (!exitedCleanly || !Files.isRegularFile(stagingFile))
+        {
+            deleteQuietly(stagingFile);
+            return;
+        }
+
+        try
+        {
+            Files.move(stagingFile, archiveFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (recordingStartupMillis >= 0L)
+                Files.writeString(baselineFile, Long.toString(recordingStartupMillis), StandardCharsets.UTF_8);
+        }
+        catch (IOException exception)
+        {
+            LOG.log(
+                System.Logger.Level.WARNING,
+                "LK_FRAMEWORK: Failed to store class-data archive '%s'.".formatted(archiveFile),
+                exception
+            );
+            deleteQuietly(stagingFile);
+        }
+    }
+
+    /**
+     * Marks the archive directory as used, recreating it when a cache budget evicted it.
+     */
+    private void markUsed()
+    {
+        try
+        {
+            Files.createDirectories(archiveDirectory);
+            Files.setLastModifiedTime(archiveDirectory, FileTime.from(Instant.now()));
+        }
+        catch (IOException exception)
+        {
+            LOG.log(
+                System.Logger.Level.WARNING,
+                "LK_FRAMEWORK: Failed to mark class-data archive directory '%s' as used.".formatted(archiveDirectory),
+                exception
+            );
+        }
+    }
+
+    Path archiveFile()
+    {
+        return archiveFile;
+    }
+
+    private OptionalLong readBaselineMillis()
+    {
+        try
+        {
+            if (!Files.isRegularFile(baselineFile))
+                return OptionalLong.empty();
+            return OptionalLong.of(Long.parseLong(Files.readString(baselineFile, StandardCharsets.UTF_8).trim()));
+        }
+        catch (IOException | NumberFormatException exception)
+        {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static void deleteQuietly(Path file)
+    {
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException exception)
+        {
+            LOG.log(
+                System.Logger.Level.WARNING,
+                "LK_FRAMEWORK: Failed to delete stale class-data archive file '%s'.".formatted(file),
+                exception
+            );
+        }
+    }
+}
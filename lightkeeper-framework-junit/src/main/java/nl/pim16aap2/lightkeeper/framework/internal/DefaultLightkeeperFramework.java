@@ -13,14 +13,17 @@ import nl.pim16aap2.lightkeeper.framework.IWorlds;
 import nl.pim16aap2.lightkeeper.framework.InventorySnapshot;
 import nl.pim16aap2.lightkeeper.framework.MenuSnapshot;
 import nl.pim16aap2.lightkeeper.framework.PlayerHandle;
+import nl.pim16aap2.lightkeeper.framework.RollbackWorld;
 import nl.pim16aap2.lightkeeper.framework.ServerErrorSnapshot;
 import nl.pim16aap2.lightkeeper.framework.Vec3;
 import nl.pim16aap2.lightkeeper.framework.WorldHandle;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.DropResult;
 import nl.pim16aap2.lightkeeper.protocol.GetServerErrors;
 import nl.pim16aap2.lightkeeper.protocol.MutatePlayerPermission;
 import nl.pim16aap2.lightkeeper.protocol.QueryEntities;
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
 import nl.pim16aap2.lightkeeper.protocol.ServerErrorEntry;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifestReader;
@@ -33,9 +36,14 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -69,10 +77,27 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
      */
     private final AtomicBoolean serverDown = new AtomicBoolean(false);
     /**
-     * Total-line-count watermark delimiting the raw stderr scan window; advanced on every
+     * Stderr stack-trace watermark delimiting the raw stderr detections reported; advanced on every
      * {@link #clearServerErrors()}.
      */
     private final AtomicLong stderrScanWatermark = new AtomicLong(0L);
+    /**
+     * Server output watermark at the start of the current test method; {@code 0} covers the whole boot.
+     */
+    private final AtomicLong methodOutputWatermark = new AtomicLong(0L);
+    /**
+     * Agent snapshot ids of the {@link RollbackWorld} regions of the current test method, in snapshot order.
+     */
+    private final Deque<String> methodRegionSnapshots = new ConcurrentLinkedDeque<>();
+    /**
+     * Event classes with an open capture, unregistered by {@link #resetForReuse()}.
+     */
+    private final Set<String> activeEventCaptures = ConcurrentHashMap.newKeySet();
+    /**
+     * Worlds loaded through {@link IWorlds} since the last reset, mapped to whether {@link #resetForReuse()} may
+     * delete their folder. Worlds preloaded from the runtime manifest are not tracked.
+     */
+    private final Map<String, Boolean> createdWorlds = new ConcurrentHashMap<>();
 
     private final ServerControlFacade serverControlFacade;
     private final WorldsFacade worldsFacade;
@@ -96,7 +121,7 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
             this, runtimeManifest, minecraftServerProcess, agentClient, playerScopeRegistry);
         this.worldsFacade = new WorldsFacade(this, runtimeManifest, agentClient);
         this.botsFacade = new BotsFacade(this, agentClient, playerScopeRegistry);
-        this.eventsFacade = new EventsFacade(this, agentClient);
+        this.eventsFacade = new EventsFacade(this);
     }
 
     /**
@@ -111,7 +136,21 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
      */
     public static DefaultLightkeeperFramework start(Path runtimeManifestPath)
     {
-        final RuntimeManifest runtimeManifest = readRuntimeManifest(runtimeManifestPath);
+        return start(runtimeManifestPath, 0);
+    }
+
+    /**
+     * Starts a framework on one server of the fleet described by a runtime manifest.
+     *
+     * @param runtimeManifestPath
+     *     Path to runtime manifest.
+     * @param serverIndex
+     *     Index of the server to start; {@code 0} is the primary server, see {@link RuntimeManifest#forServer(int)}.
+     * @return Started framework.
+     */
+    public static DefaultLightkeeperFramework start(Path runtimeManifestPath, int serverIndex)
+    {
+        final RuntimeManifest runtimeManifest = readRuntimeManifest(runtimeManifestPath).forServer(serverIndex);
         RuntimeManifestValidator.validateForRuntimeStartup(runtimeManifest, RuntimeProtocol.VERSION);
 
         final Path serverDirectory = Path.of(runtimeManifest.serverDirectory());
@@ -130,13 +169,15 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
 
             agentClient = new UdsAgentClient(
                 Path.of(runtimeManifest.udsSocketPath()),
-                AGENT_CONNECT_TIMEOUT
+                AGENT_CONNECT_TIMEOUT,
+                UdsAgentClient.sendTimeoutMillis(runtimeManifest.syncOperationTimeoutSeconds())
             );
             agentClient.handshake(
                 runtimeManifest.agentAuthToken(),
                 runtimeManifest.runtimeProtocolVersion(),
                 Objects.requireNonNullElse(runtimeManifest.agentJarSha256(), "")
             );
+            minecraftServerProcess.onAgentHandshake();
 
             final FrameworkInternalComponent component = DaggerFrameworkInternalComponent.factory().create(
                 runtimeManifest,
@@ -151,7 +192,14 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
         {
             if (agentClient != null)
                 agentClient.close();
-            minecraftServerProcess.stop(SHUTDOWN_TIMEOUT);
+            try
+            {
+                minecraftServerProcess.stop(SHUTDOWN_TIMEOUT);
+            }
+            finally
+            {
+                minecraftServerProcess.close();
+            }
             throw exception;
         }
     }
@@ -470,10 +518,11 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     }
 
     @Override
-    public void registerEventListener(String eventClassName)
+    public void registerEventListener(String eventClassName, List<String> projection)
     {
         ensureOpen();
-        agentClient.registerEventListener(eventClassName);
+        agentClient.registerEventListener(eventClassName, projection);
+        activeEventCaptures.add(eventClassName);
     }
 
     @Override
@@ -485,6 +534,49 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
             .toList();
     }
 
+    @Override
+    public List<CapturedEventSnapshot> awaitEvents(
+        String eventClassName,
+        int count,
+        Map<String, String> filters,
+        Duration timeout,
+        int timeoutTicks)
+    {
+        ensureOpen();
+        Objects.requireNonNull(eventClassName, "eventClassName may not be null.");
+        Objects.requireNonNull(filters, "filters may not be null.");
+        Objects.requireNonNull(timeout, "timeout may not be null.");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive.");
+        if (timeout.isNegative() || timeout.isZero())
+            throw new IllegalArgumentException("timeout must be positive.");
+        if (timeoutTicks < 0)
+            throw new IllegalArgumentException("timeoutTicks may not be negative.");
+        // The wait runs on the agent inside a single request, so it must fit the agent's operation timeout and with
+        // that the transport's response watchdog, which is derived from it.
+        final long maxTimeoutSeconds = runtimeManifest.syncOperationTimeoutSeconds();
+        if (timeout.compareTo(Duration.ofSeconds(maxTimeoutSeconds)) > 0)
+            throw new IllegalArgumentException("timeout may not exceed " + maxTimeoutSeconds + " seconds.");
+
+        final List<AwaitEvents.Filter> protocolFilters = filters.entrySet().stream()
+            .map(entry -> new AwaitEvents.Filter(entry.getKey(), entry.getValue()))
+            .toList();
+        final AwaitEvents.Response response =
+            agentClient.awaitEvents(eventClassName, count, protocolFilters, timeout.toMillis(), timeoutTicks);
+        final List<CapturedEventSnapshot> events = response.events().stream()
+            .map(event -> new CapturedEventSnapshot(eventClassName, event.tick(), event.values()))
+            .toList();
+        if (!response.satisfied())
+        {
+            final String deadline =
+                timeoutTicks > 0 ? "%s or %d ticks".formatted(timeout, timeoutTicks) : timeout.toString();
+            throw new IllegalStateException(
+                "Expected %d '%s' event(s) matching %s within %s, but only %d matched by tick %d."
+                    .formatted(count, eventClassName, filters, deadline, events.size(), response.tick()));
+        }
+        return events;
+    }
+
     @Override
     public void cancelNextEvents(String eventClassName, int count)
     {
@@ -523,7 +615,7 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     {
         ensureOpen();
         Objects.requireNonNull(worldName, "worldName may not be null.");
-        return agentClient.queryEntities(worldName, entityTypeKey, boundsMin, boundsMax, true).count();
+        return agentClient.queryEntities(worldName, entityTypeKey, boundsMin, boundsMax, true, List.of()).count();
     }
 
     @Override
@@ -531,12 +623,14 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
         String worldName,
         @Nullable String entityTypeKey,
         @Nullable BlockPos boundsMin,
-        @Nullable BlockPos boundsMax)
+        @Nullable BlockPos boundsMax,
+        List<String> projection)
     {
         ensureOpen();
         Objects.requireNonNull(worldName, "worldName may not be null.");
+        Objects.requireNonNull(projection, "projection may not be null.");
         final QueryEntities.Response response =
-            agentClient.queryEntities(worldName, entityTypeKey, boundsMin, boundsMax, false);
+            agentClient.queryEntities(worldName, entityTypeKey, boundsMin, boundsMax, false, projection);
         return response.entities().stream()
             .map(entity -> toEntitySnapshot(entity, response.tick()))
             .toList();
@@ -551,7 +645,8 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
             entity.customName(),
             entity.pdcKeys(),
             entity.transform() == null ? null : toTransform(entity.transform()),
-            tick
+            tick,
+            entity.projected()
         );
     }
 
@@ -587,6 +682,7 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     {
         ensureOpen();
         agentClient.unregisterEventListener(eventClassName);
+        activeEventCaptures.remove(eventClassName);
     }
 
     @Override
@@ -608,8 +704,7 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
         final List<ServerErrorSnapshot> snapshots = new ArrayList<>(response.errors().size());
         for (final ServerErrorEntry entry : response.errors())
             snapshots.add(toServerErrorSnapshot(entry));
-        snapshots.addAll(ServerStderrErrorScanner.scan(
-            minecraftServerProcess.snapshotStderrLinesFrom(stderrScanWatermark.get())));
+        snapshots.addAll(minecraftServerProcess.detectedStderrErrorsFrom(stderrScanWatermark.get()));
         return List.copyOf(snapshots);
     }
 
@@ -617,9 +712,9 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     public void clearServerErrors()
     {
         ensureOpen();
-        // Snapshot the watermark before the RPC: stderr lines written during the round trip must
+        // Snapshot the watermark before the RPC: stack traces written to stderr during the round trip must
         // stay above the watermark so they still surface in later capturedServerErrors() calls.
-        final long watermark = minecraftServerProcess.totalOutputLineCount();
+        final long watermark = minecraftServerProcess.stderrErrorWatermark();
         agentClient.clearServerErrors();
         stderrScanWatermark.set(watermark);
     }
@@ -637,7 +732,9 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
             entry.message(),
             entry.throwableClass(),
             entry.throwableMessage(),
-            entry.stackTrace()
+            entry.stackTrace(),
+            entry.occurrenceCount(),
+            entry.lastTimestampMillis()
         );
     }
 
@@ -679,11 +776,31 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
                 System.Logger.Level.INFO,
                 "LK_FRAMEWORK: Stopping Minecraft server."
             );
-            minecraftServerProcess.stop(SHUTDOWN_TIMEOUT);
+            try
+            {
+                minecraftServerProcess.stop(SHUTDOWN_TIMEOUT);
+            }
+            finally
+            {
+                minecraftServerProcess.close();
+            }
         }
     }
 
     public void beginMethodScope(String methodExecutionId)
+    {
+        beginMethodScope(methodExecutionId, List.of());
+    }
+
+    /**
+     * Scopes framework state to a test method and snapshots the regions it rolls back.
+     *
+     * @param methodExecutionId
+     *     Unique id of the test method execution.
+     * @param rollbackRegions
+     *     Regions to snapshot now and restore in {@link #endMethodScope(String)}.
+     */
+    public void beginMethodScope(String methodExecutionId, List<RollbackWorld> rollbackRegions)
     {
         ensureOpen();
         if (serverDown.get())
@@ -692,6 +809,95 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
                     + "without starting it again. Call server().start() (or server().restart()) before the test "
                     + "ends, or annotate the test with @FreshServer so each method receives a fresh server.");
         playerScopeRegistry.beginMethodScope(methodExecutionId);
+        methodOutputWatermark.set(minecraftServerProcess.outputWatermark());
+        // Snapshots left over by a method scope that never ended still hold agent memory; restoring releases them.
+        restoreRegions();
+        try
+        {
+            for (final RollbackWorld rollbackRegion : rollbackRegions)
+                methodRegionSnapshots.addLast(snapshotRegion(rollbackRegion));
+        }
+        catch (RuntimeException exception)
+        {
+            try
+            {
+                restoreRegions();
+            }
+            catch (RuntimeException releaseException)
+            {
+                exception.addSuppressed(releaseException);
+            }
+            throw exception;
+        }
+    }
+
+    private String snapshotRegion(RollbackWorld rollbackRegion)
+    {
+        final int[] from = requireCorner(rollbackRegion.from(), "from");
+        final int[] to = requireCorner(rollbackRegion.to(), "to");
+        final String worldName = rollbackRegion.world().isBlank() ? agentClient.mainWorld() : rollbackRegion.world();
+        return agentClient.snapshotRegion(
+            worldName,
+            new BlockPos(Math.min(from[0], to[0]), Math.min(from[1], to[1]), Math.min(from[2], to[2])),
+            new BlockPos(Math.max(from[0], to[0]), Math.max(from[1], to[1]), Math.max(from[2], to[2]))
+        );
+    }
+
+    private static int[] requireCorner(int[] corner, String name)
+    {
+        if (corner.length != 3)
+            throw new IllegalArgumentException(
+                "@RollbackWorld '%s' must be {x, y, z} but has %d values.".formatted(name, corner.length));
+        return corner;
+    }
+
+    /**
+     * Restores and thereby releases every pending region snapshot.
+     * <p>
+     * A failing restore does not stop the others from being sent: the agent drops a snapshot as soon as it receives
+     * its restore command, so skipping an id would leak its copy of the region until the server stops. The first
+     * failure is rethrown once the deque is drained, with later failures attached as suppressed exceptions.
+     */
+    private void restoreRegions()
+    {
+        @Nullable RuntimeException failure = null;
+        // Newest first, so overlapping regions end up in the state of the first snapshot.
+        while (!methodRegionSnapshots.isEmpty())
+        {
+            final String snapshotId = methodRegionSnapshots.removeLast();
+            try
+            {
+                final RestoreRegion.Response response = agentClient.restoreRegion(snapshotId);
+                LOG.log(
+                    System.Logger.Level.DEBUG,
+                    () -> "LK_FRAMEWORK: Rolled back region snapshot '%s': %d changed blocks over %d ticks."
+                        .formatted(snapshotId, response.changedBlocks(), response.batches())
+                );
+            }
+            catch (RuntimeException exception)
+            {
+                if (failure == null)
+                    failure = exception;
+                else
+                    failure.addSuppressed(exception);
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Gets the server output captured since the current test method started.
+     *
+     * <p>Unlike {@link IServerControl#output()}, which returns everything retained for the server, this slice only
+     * covers the current method on a shared server, or the whole boot on a fresh one.
+     *
+     * @return Server output lines of the current test method, oldest first.
+     */
+    public List<String> methodOutput()
+    {
+        ensureOpen();
+        return minecraftServerProcess.outputLinesFrom(methodOutputWatermark.get());
     }
 
     public void endMethodScope(String methodExecutionId)
@@ -700,9 +906,88 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
         playerScopeRegistry.endMethodScope(methodExecutionId, agentClient::removePlayer);
         // Clear captured server errors at the END of each method (not the start): boot-window errors stay
         // visible to the first test's assertions, and every later test only observes its own window. Skipped
-        // while the server is down (crashed or stopped), when the agent connection is gone.
-        if (!serverDown.get())
+        // while the server is down (crashed or stopped), when the agent connection is gone. Region snapshots of a
+        // server that went down in between were already discarded by markServerDown/markServerUp.
+        if (serverDown.get())
+            return;
+        try
+        {
+            restoreRegions();
+        }
+        finally
+        {
+            clearServerErrors();
+        }
+    }
+
+    /**
+     * Returns the server to the state a freshly started one presents, so the next test class can reuse it
+     * instead of paying a full boot.
+     *
+     * <p>Removes every remaining synthetic player, closes the open event captures, unloads the worlds created
+     * through {@link IWorlds} (deleting the folders of generated ones) and clears the captured server errors.
+     * Worlds preloaded from the runtime manifest stay loaded.
+     *
+     * @return {@code true} when the server is ready for reuse; {@code false} when the framework is closed, the
+     *     server is down, a created world could not be unloaded, or another reset step failed, in which case the
+     *     caller must close the framework instead.
+     */
+    public boolean resetForReuse()
+    {
+        if (closed.get() || serverDown.get() || !minecraftServerProcess.isRunning())
+            return false;
+
+        try
+        {
+            playerScopeRegistry.cleanupAll(agentClient::removePlayer);
+            for (final String eventClassName : List.copyOf(activeEventCaptures))
+            {
+                agentClient.unregisterEventListener(eventClassName);
+                activeEventCaptures.remove(eventClassName);
+            }
+            for (final Map.Entry<String, Boolean> world : Map.copyOf(createdWorlds).entrySet())
+            {
+                // A world the server refused to unload, or that is no longer loaded under its name, would leak
+                // into the next test class; a restart is the only reset that is known to be clean.
+                if (!agentClient.unloadWorld(world.getKey(), world.getValue()))
+                {
+                    LOG.log(
+                        System.Logger.Level.WARNING,
+                        () -> "LK_FRAMEWORK: World '" + world.getKey()
+                            + "' could not be unloaded for reuse; the server will be restarted instead."
+                    );
+                    return false;
+                }
+                createdWorlds.remove(world.getKey());
+            }
             clearServerErrors();
+            return true;
+        }
+        catch (RuntimeException exception)
+        {
+            LOG.log(
+                System.Logger.Level.WARNING,
+                "LK_FRAMEWORK: Resetting the server for reuse failed; it will be restarted instead.",
+                exception
+            );
+            return false;
+        }
+    }
+
+    /**
+     * Records a world loaded through {@link IWorlds} so {@link #resetForReuse()} unloads it.
+     *
+     * @param worldName
+     *     Name of the loaded world.
+     * @param generated
+     *     Whether the world was generated for the test rather than loaded from provisioned data; only the folders
+     *     of generated worlds are deleted.
+     */
+    void trackCreatedWorld(String worldName, boolean generated)
+    {
+        final boolean provisioned = runtimeManifest.provisionedWorlds().stream()
+            .anyMatch(provisionedWorld -> provisionedWorld.name().equals(worldName));
+        createdWorlds.merge(worldName, generated && !provisioned, Boolean::logicalAnd);
     }
 
     /**
@@ -731,6 +1016,7 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     void markServerDown()
     {
         serverDown.set(true);
+        discardRegionSnapshots();
     }
 
     /**
@@ -739,6 +1025,24 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
     void markServerUp()
     {
         serverDown.set(false);
+        // Also covers a process that exited on its own, so markServerDown never ran.
+        discardRegionSnapshots();
+    }
+
+    /**
+     * Forgets the region snapshots of the current method: they lived in the agent that just went away, and a new
+     * agent would reject their ids. The regions keep whatever the method changed before the server went down.
+     */
+    private void discardRegionSnapshots()
+    {
+        final int discarded = methodRegionSnapshots.size();
+        methodRegionSnapshots.clear();
+        if (discarded > 0)
+            LOG.log(
+                System.Logger.Level.WARNING,
+                () -> "LK_FRAMEWORK: Discarded " + discarded + " @RollbackWorld region snapshot(s) because the "
+                    + "server went down; those regions are not rolled back."
+            );
     }
 
     void ensureOpen()
@@ -747,6 +1051,18 @@ public final class DefaultLightkeeperFramework implements ILightkeeperFramework,
             throw new IllegalStateException("Framework is already closed.");
     }
 
+    /**
+     * Reads the number of servers provisioned for a runtime manifest.
+     *
+     * @param runtimeManifestPath
+     *     Path to runtime manifest.
+     * @return The fleet size; {@code 1} when {@code prepare-server} provisioned a single server.
+     */
+    public static int serverCount(Path runtimeManifestPath)
+    {
+        return readRuntimeManifest(runtimeManifestPath).serverCount();
+    }
+
     private static RuntimeManifest readRuntimeManifest(Path runtimeManifestPath)
     {
         try
@@ -3,6 +3,7 @@ package nl.pim16aap2.lightkeeper.framework.internal;
 import nl.pim16aap2.lightkeeper.framework.IWorldBuilder;
 import nl.pim16aap2.lightkeeper.framework.WorldHandle;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
+import org.jspecify.annotations.Nullable;
 
 import java.util.Objects;
 
@@ -14,6 +15,7 @@ final class DefaultWorldBuilder implements IWorldBuilder
     private WorldSpec.WorldType worldType = DefaultLightkeeperFramework.DEFAULT_WORLD_TYPE;
     private WorldSpec.WorldEnvironment environment = DefaultLightkeeperFramework.DEFAULT_WORLD_ENVIRONMENT;
     private long seed = DefaultLightkeeperFramework.DEFAULT_WORLD_SEED;
+    private @Nullable String layers;
 
     DefaultWorldBuilder(DefaultLightkeeperFramework framework)
     {
@@ -41,6 +43,14 @@ final class DefaultWorldBuilder implements IWorldBuilder
         return this;
     }
 
+    @Override
+    public IWorldBuilder withLayers(String layers)
+    {
+        this.layers = Objects.requireNonNull(layers, "layers may not be null.");
+        this.worldType = WorldSpec.WorldType.LAYERS;
+        return this;
+    }
+
     @Override
     public IWorldBuilder withEnvironment(WorldSpec.WorldEnvironment environment)
     {
@@ -59,6 +69,6 @@ final class DefaultWorldBuilder implements IWorldBuilder
     public WorldHandle build()
     {
         framework.ensureOpen();
-        return framework.createWorldFromBuilder(new WorldSpec(name, worldType, environment, seed));
+        return framework.createWorldFromBuilder(new WorldSpec(name, worldType, environment, seed, layers));
     }
 }
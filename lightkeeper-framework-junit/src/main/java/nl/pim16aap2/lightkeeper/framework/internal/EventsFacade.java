@@ -4,31 +4,37 @@ import nl.pim16aap2.lightkeeper.framework.EventCaptureHandle;
 import nl.pim16aap2.lightkeeper.framework.FrameworkHandleFactory;
 import nl.pim16aap2.lightkeeper.framework.IEvents;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Default {@link IEvents} implementation.
  *
  * <p>Wraps the shared framework internals handed to it by {@link DefaultLightkeeperFramework}: it registers event
- * listeners through the agent client, deferring the shared open-state gate to the owning framework.
+ * listeners through the owning framework, which tracks the open captures and the shared open-state gate.
  */
 final class EventsFacade implements IEvents
 {
     private final DefaultLightkeeperFramework framework;
-    private final UdsAgentClient agentClient;
 
-    EventsFacade(DefaultLightkeeperFramework framework, UdsAgentClient agentClient)
+    EventsFacade(DefaultLightkeeperFramework framework)
     {
         this.framework = Objects.requireNonNull(framework, "framework may not be null.");
-        this.agentClient = Objects.requireNonNull(agentClient, "agentClient may not be null.");
     }
 
     @Override
     public EventCaptureHandle capture(String eventClassName)
+    {
+        return capture(eventClassName, List.of());
+    }
+
+    @Override
+    public EventCaptureHandle capture(String eventClassName, List<String> accessorPaths)
     {
         framework.ensureOpen();
         Objects.requireNonNull(eventClassName, "eventClassName may not be null.");
-        agentClient.registerEventListener(eventClassName);
+        Objects.requireNonNull(accessorPaths, "accessorPaths may not be null.");
+        framework.registerEventListener(eventClassName, accessorPaths);
         return FrameworkHandleFactory.eventCaptureHandle(framework, eventClassName);
     }
 }
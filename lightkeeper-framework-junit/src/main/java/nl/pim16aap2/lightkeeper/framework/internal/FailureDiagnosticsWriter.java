@@ -19,9 +19,8 @@ import java.util.List;
  * {@code <root>/<TestClass>/<testMethod>-<timestamp>/} containing the test outcome and failure
  * ({@code outcome.txt}), all captured server errors ({@code server-errors.txt}), and the captured server
  * console output ({@code server-output.log}). The timestamp suffix keeps repeated runs (and repeated
- * invocations of parameterized tests) from colliding; in shared-server mode the console output is the full
- * bounded buffer for the server, not just the failing test's own window (unlike the server errors, which are
- * cleared per method).
+ * invocations of parameterized tests) from colliding; in shared-server mode the console output is the test's own
+ * slice of the server's output log, read from the watermark taken when the method started.
  *
  * <p>Writing is strictly best-effort: diagnostics must never fail (or further fail) a test run. Every data
  * source is captured independently, so one broken source (e.g. a dead agent connection) still leaves the other
@@ -152,7 +151,10 @@ public final class FailureDiagnosticsWriter
 
     private static String renderServerOutput(ILightkeeperFramework framework)
     {
-        return String.join(System.lineSeparator(), framework.server().output()) + System.lineSeparator();
+        final List<String> output = framework instanceof DefaultLightkeeperFramework defaultLightkeeperFramework
+            ? defaultLightkeeperFramework.methodOutput()
+            : framework.server().output();
+        return String.join(System.lineSeparator(), output) + System.lineSeparator();
     }
 
     /**
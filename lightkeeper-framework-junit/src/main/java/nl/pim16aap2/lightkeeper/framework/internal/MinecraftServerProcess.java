@@ -1,6 +1,7 @@
 package nl.pim16aap2.lightkeeper.framework.internal;
 
-import com.google.errorprone.annotations.concurrent.GuardedBy;
+import nl.pim16aap2.lightkeeper.framework.ServerErrorSnapshot;
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.jspecify.annotations.Nullable;
@@ -23,11 +24,9 @@ import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -41,7 +40,7 @@ final class MinecraftServerProcess
 {
     private static final System.Logger LOG = System.getLogger(MinecraftServerProcess.class.getName());
 
-    private static final int MAX_CAPTURED_OUTPUT_LINES = 10_000;
+    private static final int OUTPUT_TAIL_LINES = 40;
     private static final Duration SESSION_LOCK_RELEASE_TIMEOUT = Duration.ofSeconds(10);
 
     /**
@@ -53,15 +52,20 @@ final class MinecraftServerProcess
 
     private final RuntimeManifest runtimeManifest;
     private final Path diagnosticsDirectory;
-    private final Object outputLinesLock = new Object();
-    @GuardedBy("outputLinesLock")
-    private final ArrayDeque<OutputLine> outputLines = new ArrayDeque<>(MAX_CAPTURED_OUTPUT_LINES);
-    @GuardedBy("outputLinesLock")
-    private long discardedOutputLineCount = 0L;
+    private final @Nullable ClassDataArchive classDataArchive;
+    /**
+     * Captured stdout and stderr lines in arrival order; outlives restarts like the stderr scanner below.
+     */
+    private final ServerOutputLog outputLog;
+    /**
+     * Stack-trace detector fed by the stderr reader thread; outlives restarts so its watermarks stay monotonic.
+     */
+    private final ServerStderrErrorScanner stderrErrorScanner = new ServerStderrErrorScanner();
     private @Nullable Process process;
     private @Nullable Thread outputThread;
     private @Nullable Thread errorThread;
     private @Nullable Process orphanReaperProcess;
+    private volatile @Nullable StartupTimeline startupTimeline;
 
     /**
      * A single captured server output line with its file-descriptor provenance.
@@ -87,6 +91,9 @@ final class MinecraftServerProcess
         this.runtimeManifest = Objects.requireNonNull(runtimeManifest, "runtimeManifest may not be null.");
         this.diagnosticsDirectory =
             Objects.requireNonNull(diagnosticsDirectory, "diagnosticsDirectory may not be null.");
+        this.classDataArchive = ClassDataArchive.forManifest(runtimeManifest);
+        this.outputLog = new ServerOutputLog(diagnosticsDirectory.resolve(
+            "server-output-" + Path.of(runtimeManifest.serverDirectory()).getFileName()));
     }
 
     void start(Duration timeout)
@@ -101,12 +108,14 @@ final class MinecraftServerProcess
 
         final Path javaExecutable = Path.of(System.getProperty("java.home"), "bin", "java");
         final ProcessBuilder processBuilder = getProcessBuilder(javaExecutable);
-        final CountDownLatch startLatch = new CountDownLatch(1);
+        startupTimeline = null;
 
-        try
+        try (AgentReadinessListener readinessListener = AgentReadinessListener.open(readySocketPath()))
         {
+            final long launchEpochMillis = System.currentTimeMillis();
+            final long launchNanos = System.nanoTime();
             final Process startedProcess = processBuilder.start();
-            final Thread startedOutputThread = createOutputReaderThread(startedProcess, startLatch);
+            final Thread startedOutputThread = createOutputReaderThread(startedProcess);
             final Thread startedErrorThread = createErrorReaderThread(startedProcess);
             process = startedProcess;
             outputThread = startedOutputThread;
@@ -117,7 +126,11 @@ final class MinecraftServerProcess
             orphanReaperProcess = OrphanReaperLauncher.launch(ProcessHandle.current().pid(), startedProcess.pid());
             startedOutputThread.start();
             startedErrorThread.start();
-            awaitStartupOrFail(startedProcess, startLatch, timeout);
+            final AgentReadinessSignal readinessSignal =
+                readinessListener.await(startedProcess, timeout, this::outputTail);
+            startupTimeline = new StartupTimeline(launchEpochMillis, readinessSignal);
+            if (classDataArchive != null)
+                classDataArchive.onStarted(Duration.ofNanos(System.nanoTime() - launchNanos));
         }
         catch (Exception exception)
         {
@@ -132,27 +145,24 @@ final class MinecraftServerProcess
         return process != null && process.isAlive();
     }
 
-    private void awaitStartupOrFail(Process runningProcess, CountDownLatch startLatch, Duration timeout)
-        throws InterruptedException
+    /**
+     * Completes and logs the startup timeline of the running server once the agent handshake succeeded.
+     */
+    void onAgentHandshake()
     {
-        final long startupDeadlineNanos = System.nanoTime() + timeout.toNanos();
-        while (System.nanoTime() < startupDeadlineNanos)
-        {
-            if (startLatch.await(200L, TimeUnit.MILLISECONDS))
-                return;
-
-            if (!runningProcess.isAlive())
-            {
-                throw new IllegalStateException(
-                    "Minecraft server exited before readiness marker. Exit code: %d. Tail:%n%s"
-                        .formatted(runningProcess.exitValue(), outputTail())
-                );
-            }
-        }
+        final @Nullable StartupTimeline timeline = startupTimeline;
+        if (timeline == null)
+            return;
+        timeline.markHandshake(System.currentTimeMillis());
+        LOG.log(System.Logger.Level.INFO, () -> "LK_FRAMEWORK: Startup timeline: " + timeline.describe() + ".");
+    }
 
-        throw new IllegalStateException(
-            "Minecraft server did not start within timeout. Tail:%n%s".formatted(outputTail())
-        );
+    /**
+     * @return The readiness socket of the agent, next to its request socket.
+     */
+    private Path readySocketPath()
+    {
+        return Path.of(runtimeManifest.udsSocketPath() + ".ready");
     }
 
     private ProcessBuilder getProcessBuilder(Path javaExecutable)
@@ -164,12 +174,17 @@ final class MinecraftServerProcess
         command.add(javaExecutable.toString());
         command.add("-Xmx" + memoryMb + "M");
         command.add("-Xms" + memoryMb + "M");
+        if (classDataArchive != null)
+            command.addAll(classDataArchive.jvmArguments());
         appendExtraJvmArgs(command, runtimeManifest.extraJvmArgs());
         command.add("-D" + RuntimeProtocol.PROPERTY_SOCKET_PATH + "=" + runtimeManifest.udsSocketPath());
         command.add("-D" + RuntimeProtocol.PROPERTY_AUTH_TOKEN + "=" + runtimeManifest.agentAuthToken());
+        command.add("-D" + RuntimeProtocol.PROPERTY_READY_SOCKET_PATH + "=" + readySocketPath());
         command.add("-D" + RuntimeProtocol.PROPERTY_PROTOCOL_VERSION + "=" + runtimeManifest.runtimeProtocolVersion());
         command.add("-D" + RuntimeProtocol.PROPERTY_EXPECTED_AGENT_SHA256 + "=" +
             Objects.requireNonNullElse(runtimeManifest.agentJarSha256(), ""));
+        command.add("-D" + RuntimeProtocol.PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS + "=" +
+            runtimeManifest.syncOperationTimeoutSeconds());
         // Suppresses Spigot's stale-build warning so non-latest Spigot builds don't hang on startup.
         command.add("-DIReallyKnowWhatIAmDoingISwear=true");
         command.add("-jar");
@@ -208,6 +223,8 @@ final class MinecraftServerProcess
         finally
         {
             joinOutputThread(Duration.ofSeconds(5));
+            if (classDataArchive != null)
+                classDataArchive.onStopped(false);
             try
             {
                 waitForWorldSessionLockRelease(SESSION_LOCK_RELEASE_TIMEOUT);
@@ -229,6 +246,8 @@ final class MinecraftServerProcess
         {
             if (currentProcess.isAlive())
             {
+                if (classDataArchive != null)
+                    classDataArchive.onStopping();
                 try (
                     BufferedWriter writer = new BufferedWriter(
                         new OutputStreamWriter(currentProcess.getOutputStream(), StandardCharsets.UTF_8)))
@@ -256,6 +275,8 @@ final class MinecraftServerProcess
         finally
         {
             joinOutputThread(Duration.ofSeconds(5));
+            if (classDataArchive != null)
+                classDataArchive.onStopped(!currentProcess.isAlive() && currentProcess.exitValue() == 0);
             try
             {
                 waitForWorldSessionLockRelease(SESSION_LOCK_RELEASE_TIMEOUT);
@@ -267,6 +288,14 @@ final class MinecraftServerProcess
         }
     }
 
+    /**
+     * Releases the captured output once the server is stopped for good; the process must not be started again.
+     */
+    void close()
+    {
+        outputLog.close();
+    }
+
     private void handleShutdownFailure(Process currentProcess, Throwable failure)
     {
         LOG.log(System.Logger.Level.WARNING, "Graceful shutdown of the Minecraft server process failed.", failure);
@@ -466,11 +495,9 @@ final class MinecraftServerProcess
 
     private String outputTail()
     {
-        final List<String> outputLinesSnapshot = snapshotOutputLines();
-        final int startIndex = Math.max(0, outputLinesSnapshot.size() - 40);
         return String.join(
             System.lineSeparator(),
-            outputLinesSnapshot.subList(startIndex, outputLinesSnapshot.size())
+            outputLinesFrom(Math.max(0L, outputLog.watermark() - OUTPUT_TAIL_LINES))
         );
     }
 
@@ -508,86 +535,85 @@ final class MinecraftServerProcess
 
     List<String> snapshotOutputLines()
     {
-        synchronized (outputLinesLock)
-        {
-            final List<String> snapshot = new ArrayList<>(outputLines.size() + 1);
-            if (discardedOutputLineCount > 0L)
-                snapshot.add(
-                    "[lightkeeper] Discarded %d older server log lines before this captured tail."
-                        .formatted(discardedOutputLineCount)
-                );
-            for (final OutputLine outputLine : outputLines)
-                snapshot.add(outputLine.text());
-            return List.copyOf(snapshot);
-        }
+        final long discardedLineCount = outputLog.discardedLineCount();
+        final List<String> retainedLines = outputLinesFrom(0L);
+        if (discardedLineCount == 0L)
+            return retainedLines;
+
+        final List<String> snapshot = new ArrayList<>(retainedLines.size() + 1);
+        snapshot.add(
+            "[lightkeeper] Discarded %d older server log lines before this captured tail."
+                .formatted(discardedLineCount)
+        );
+        snapshot.addAll(retainedLines);
+        return List.copyOf(snapshot);
     }
 
     /**
-     * Returns the total number of lines ever captured, including lines already discarded from the bounded
-     * buffer. Stable across evictions, so it can serve as a watermark for windowed scans.
+     * Returns a watermark that excludes every output line captured so far.
      *
      * @return
-     *     Total captured line count since process start.
+     *     Watermark for {@link #outputLinesFrom(long)}.
      */
-    long totalOutputLineCount()
+    long outputWatermark()
     {
-        synchronized (outputLinesLock)
-        {
-            return discardedOutputLineCount + outputLines.size();
-        }
+        return outputLog.watermark();
     }
 
     /**
-     * Returns the still-buffered stderr lines whose total line index is at or past the given watermark.
+     * Returns the captured output lines at or past the given watermark, without blocking the reader threads.
      *
-     * @param fromTotalLineIndex
-     *     Watermark obtained from an earlier {@link #totalOutputLineCount()} call.
+     * @param fromWatermark
+     *     Watermark obtained from an earlier {@link #outputWatermark()} call, or {@code 0} for everything retained.
      * @return
-     *     Captured stderr lines in arrival order.
-      * <p>
-     * The scan window rides the bounded output buffer: under extreme stdout flooding, stderr lines older
-     * than the retained window can be evicted before they are scanned.
+     *     The lines in arrival order, both pipes merged.
      */
-    List<OutputLine> snapshotStderrLinesFrom(long fromTotalLineIndex)
+    List<String> outputLinesFrom(long fromWatermark)
     {
-        synchronized (outputLinesLock)
-        {
-            final List<OutputLine> stderrLines = new ArrayList<>();
-            long totalLineIndex = discardedOutputLineCount;
-            for (final OutputLine outputLine : outputLines)
-            {
-                if (totalLineIndex >= fromTotalLineIndex && outputLine.fromStderr())
-                    stderrLines.add(outputLine);
-                totalLineIndex++;
-            }
-            return List.copyOf(stderrLines);
-        }
+        return outputLog.linesFrom(fromWatermark).stream().map(OutputLine::text).toList();
     }
 
-    private void appendOutputLine(String line, boolean fromStderr)
+    /**
+     * Returns a watermark that excludes every stack trace detected on stderr so far.
+     *
+     * @return
+     *     Watermark for {@link #detectedStderrErrorsFrom(long)}.
+     */
+    long stderrErrorWatermark()
     {
-        synchronized (outputLinesLock)
-        {
-            if (outputLines.size() == MAX_CAPTURED_OUTPUT_LINES)
-            {
-                outputLines.removeFirst();
-                discardedOutputLineCount++;
-            }
-            outputLines.addLast(new OutputLine(line, fromStderr, System.currentTimeMillis()));
-        }
+        return stderrErrorScanner.watermark();
     }
 
-    private Thread createOutputReaderThread(Process process, CountDownLatch startLatch)
+    /**
+     * Returns the stack traces detected on stderr at or past the given watermark.
+     *
+     * <p>Detection happens on the stderr reader thread as lines arrive, so this call neither copies the captured
+     * output buffer nor re-scans old lines. A trace that is still receiving lines is included as detected so far.
+     *
+     * @param fromWatermark
+     *     Watermark obtained from an earlier {@link #stderrErrorWatermark()} call, or {@code 0} for everything
+     *     retained.
+     * @return
+     *     One snapshot per detected stack-trace block, in arrival order.
+     */
+    List<ServerErrorSnapshot> detectedStderrErrorsFrom(long fromWatermark)
+    {
+        return stderrErrorScanner.detectedFrom(fromWatermark);
+    }
+
+    private OutputLine appendOutputLine(String line, boolean fromStderr)
+    {
+        return outputLog.append(line, fromStderr);
+    }
+
+    private Thread createOutputReaderThread(Process process)
     {
         return createReaderThread(
             "lightkeeper-minecraft-output-reader",
             process.getInputStream(),
             false,
-            line ->
-            {
-                if (line.contains("Done (") && line.endsWith(")! For help, type \"help\""))
-                    startLatch.countDown();
-            }
+            null,
+            null
         );
     }
 
@@ -597,17 +623,26 @@ final class MinecraftServerProcess
             "lightkeeper-minecraft-stderr-reader",
             process.getErrorStream(),
             true,
-            line ->
-            {
-            }
+            line -> stderrErrorScanner.accept(line.text(), line.timestampMillis()),
+            stderrErrorScanner::endOfStream
         );
     }
 
+    /**
+     * Creates a thread that appends every line of a server stream to the output log.
+     *
+     * @param lineObserver
+     *     Receives each line after it was logged, or {@code null} when the stream is only logged. Readiness is
+     *     signalled over the agent's readiness socket, so stdout needs no observer.
+     * @param endOfStreamObserver
+     *     Runs once the stream ends or fails, or {@code null} when nothing needs to be notified.
+     */
     private Thread createReaderThread(
         String threadName,
         InputStream stream,
         boolean fromStderr,
-        Consumer<String> lineObserver)
+        @Nullable Consumer<OutputLine> lineObserver,
+        @Nullable Runnable endOfStreamObserver)
     {
         return Thread.ofPlatform()
             .name(threadName)
@@ -621,8 +656,9 @@ final class MinecraftServerProcess
                     String line;
                     while ((line = reader.readLine()) != null)
                     {
-                        appendOutputLine(line, fromStderr);
-                        lineObserver.accept(line);
+                        final OutputLine outputLine = appendOutputLine(line, fromStderr);
+                        if (lineObserver != null)
+                            lineObserver.accept(outputLine);
                     }
                 }
                 catch (IOException exception)
@@ -632,6 +668,11 @@ final class MinecraftServerProcess
                         () -> "Minecraft reader '" + threadName + "' stopped: " + exception.getMessage()
                     );
                 }
+                finally
+                {
+                    if (endOfStreamObserver != null)
+                        endOfStreamObserver.run();
+                }
             });
     }
 }
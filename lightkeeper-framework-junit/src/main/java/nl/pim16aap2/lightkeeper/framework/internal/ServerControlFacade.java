@@ -171,6 +171,7 @@ final class ServerControlFacade implements IServerControl
                 runtimeManifest.runtimeProtocolVersion(),
                 Objects.requireNonNullElse(runtimeManifest.agentJarSha256(), "")
             );
+            minecraftServerProcess.onAgentHandshake();
             framework.preloadConfiguredWorlds();
         }
         catch (Exception exception)
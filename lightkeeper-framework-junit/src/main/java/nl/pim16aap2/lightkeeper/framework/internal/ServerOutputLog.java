@@ -0,0 +1,385 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, disk-backed log of the server's console output.
+ *
+ * <p>Lines are appended to fixed-size, memory-mapped segment files, so the captured output lives in the page cache
+ * instead of the test JVM's heap. Once {@code maxSegments} segments are full the oldest one is deleted, which bounds
+ * the disk footprint while retaining far more lines than an in-memory tail could.
+ *
+ * <p>Every line gets a sequence number; {@link #watermark()} returns the sequence number of the next line, so a
+ * caller can remember where a test started and later read just that test's slice. A sparse index — every
+ * {@value #INDEX_INTERVAL}th line plus the first line of each segment — maps sequence numbers to segment offsets, so
+ * a slice is located without scanning the segments before it.
+ *
+ * <p>The reader threads append under this log's monitor. Readers never take it: a line only becomes visible once
+ * its segment's committed size, a volatile, covers it, and segments are never rewritten, so a reader sees either a
+ * complete line or none of it.
+ *
+ * <p>{@link #close()} deletes the segment files once the server process is gone for good.
+ */
+final class ServerOutputLog
+{
+    private static final System.Logger LOG = System.getLogger(ServerOutputLog.class.getName());
+
+    static final int DEFAULT_SEGMENT_BYTES = 4 * 1024 * 1024;
+    static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    /**
+     * Number of lines between two sparse index entries.
+     */
+    static final int INDEX_INTERVAL = 256;
+
+    /**
+     * Longer lines are truncated, so any line fits in a segment: a char encodes to at most 3 UTF-8 bytes.
+     */
+    private static final int MAX_LINE_CHARS = 16_384;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES + 1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    /**
+     * Retained segments, oldest first; replaced as a whole so readers can iterate it without locking.
+     */
+    private volatile List<Segment> segments = List.of();
+    /**
+     * Sequence number of the next line; published after the line's segment committed it.
+     */
+    private volatile long nextSequence;
+    /**
+     * Sequence number of the oldest retained line; equals the number of lines discarded with old segments.
+     */
+    private volatile long firstRetainedSequence;
+
+    private final ConcurrentSkipListMap<Long, Position> sequenceIndex = new ConcurrentSkipListMap<>();
+
+    @GuardedBy("this")
+    private int nextSegmentNumber;
+    @GuardedBy("this")
+    private long lastTimestampMillis;
+    @GuardedBy("this")
+    private boolean directoryPrepared;
+    @GuardedBy("this")
+    private long unwritableLineCount;
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * @param directory
+     *     Directory holding the segment files; created on the first append, and cleared of segments left behind by
+     *     an earlier run.
+     * @param segmentBytes
+     *     Size of one segment file.
+     * @param maxSegments
+     *     Number of segments to retain; must be at least {@code 2}.
+     */
+    ServerOutputLog(Path directory, int segmentBytes, int maxSegments)
+    {
+        if (segmentBytes < RECORD_HEADER_BYTES + 3 * MAX_LINE_CHARS)
+            throw new IllegalArgumentException("Segment size %d is too small.".formatted(segmentBytes));
+        if (maxSegments < 2)
+            throw new IllegalArgumentException(
+                "At least 2 segments must be retained, but got %d.".formatted(maxSegments));
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    ServerOutputLog(Path directory)
+    {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * Appends one line.
+     *
+     * <p>A line that cannot be written because the segment file cannot be created is dropped with a warning; the
+     * server output must never stall or fail the reader threads. Lines appended after {@link #close()} are dropped.
+     *
+     * @param text
+     *     The captured line.
+     * @param fromStderr
+     *     Whether the line arrived on the process's stderr pipe.
+     * @return The captured line with its capture timestamp.
+     */
+    synchronized MinecraftServerProcess.OutputLine append(String text, boolean fromStderr)
+    {
+        final long timestampMillis = Math.max(lastTimestampMillis, System.currentTimeMillis());
+        lastTimestampMillis = timestampMillis;
+        final MinecraftServerProcess.OutputLine outputLine =
+            new MinecraftServerProcess.OutputLine(text, fromStderr, timestampMillis);
+        if (closed)
+            return outputLine;
+
+        final String storedText = text.length() > MAX_LINE_CHARS ? text.substring(0, MAX_LINE_CHARS) : text;
+        final byte[] bytes = storedText.getBytes(StandardCharsets.UTF_8);
+        final int recordBytes = RECORD_HEADER_BYTES + bytes.length;
+        try
+        {
+            final Segment segment = writableSegment(recordBytes);
+            final int offset = segment.committedBytes;
+            segment.buffer.putInt(offset, bytes.length);
+            segment.buffer.putLong(offset + Integer.BYTES, timestampMillis);
+            segment.buffer.put(offset + Integer.BYTES + Long.BYTES, (byte) (fromStderr ? 1 : 0));
+            segment.buffer.put(offset + RECORD_HEADER_BYTES, bytes);
+
+            final long sequence = nextSequence;
+            if (offset == 0 || sequence % INDEX_INTERVAL == 0)
+                sequenceIndex.put(sequence, new Position(segment, offset, sequence));
+            segment.committedBytes = offset + recordBytes;
+            nextSequence = sequence + 1;
+        }
+        catch (IOException exception)
+        {
+            if (unwritableLineCount++ == 0L)
+                LOG.log(
+                    System.Logger.Level.WARNING,
+                    "LK_FRAMEWORK: Failed to write server output to '%s'; dropping lines.".formatted(directory),
+                    exception
+                );
+        }
+        return outputLine;
+    }
+
+    /**
+     * @return The sequence number the next appended line will get.
+     */
+    long watermark()
+    {
+        return nextSequence;
+    }
+
+    /**
+     * @return The number of lines discarded together with the oldest segments.
+     */
+    long discardedLineCount()
+    {
+        return firstRetainedSequence;
+    }
+
+    /**
+     * Reads the retained lines from a watermark onward.
+     *
+     * @param fromSequence
+     *     Watermark obtained from {@link #watermark()}, or {@code 0} for every retained line.
+     * @return The lines in arrival order; starts at the oldest retained line when older lines were discarded.
+     */
+    List<MinecraftServerProcess.OutputLine> linesFrom(long fromSequence)
+    {
+        final long endSequence = nextSequence;
+        final long startSequence = Math.max(fromSequence, firstRetainedSequence);
+        final Map.@Nullable Entry<Long, Position> indexEntry = sequenceIndex.floorEntry(startSequence);
+        // Taken after the index lookup: an appender publishes a segment before indexing lines in it, so the entry's
+        // segment is in this snapshot unless a rotation discarded it in between.
+        final List<Segment> segmentsSnapshot = segments;
+        @Nullable Position start = indexEntry == null ? null : indexEntry.getValue();
+        if (start != null && !segmentsSnapshot.contains(start.segment()))
+            start = null;
+        return read(segmentsSnapshot, start, endSequence, line -> line.sequence() >= startSequence);
+    }
+
+    /**
+     * Deletes the segment files and drops the log's references to their mappings.
+     *
+     * <p>A {@link MappedByteBuffer} cannot be unmapped explicitly; it is unmapped once the garbage collector reclaims
+     * it, and deleting the file while it is still mapped only defers freeing its storage until then. Afterwards the
+     * log reads as empty and drops appended lines, and {@link #watermark()} stays where it was.
+     */
+    synchronized void close()
+    {
+        if (closed)
+            return;
+        closed = true;
+
+        final List<Segment> closedSegments = segments;
+        segments = List.of();
+        sequenceIndex.clear();
+        firstRetainedSequence = nextSequence;
+        for (final Segment segment : closedSegments)
+            deleteSegmentFile(segment);
+        try
+        {
+            if (directoryPrepared)
+                Files.deleteIfExists(directory);
+        }
+        catch (IOException exception)
+        {
+            // Something other than segments was put in the directory; leave it.
+            LOG.log(
+                System.Logger.Level.DEBUG,
+                "LK_FRAMEWORK: Keeping server output directory '%s': %s".formatted(directory, exception.getMessage())
+            );
+        }
+    }
+
+    private static List<MinecraftServerProcess.OutputLine> read(
+        List<Segment> segmentsSnapshot,
+        @Nullable Position start,
+        long endSequence,
+        Predicate<SequencedLine> filter)
+    {
+        final List<MinecraftServerProcess.OutputLine> lines = new ArrayList<>();
+        boolean started = false;
+        for (final Segment segment : segmentsSnapshot)
+        {
+            int offset = 0;
+            long sequence = segment.firstSequence;
+            if (!started && start != null)
+            {
+                if (segment != start.segment())
+                    continue;
+                offset = start.offset();
+                sequence = start.sequence();
+            }
+            started = true;
+
+            final int committedBytes = segment.committedBytes;
+            while (offset < committedBytes && sequence < endSequence)
+            {
+                final int length = segment.buffer.getInt(offset);
+                final long timestampMillis = segment.buffer.getLong(offset + Integer.BYTES);
+                final boolean fromStderr = segment.buffer.get(offset + Integer.BYTES + Long.BYTES) != 0;
+                final byte[] bytes = new byte[length];
+                segment.buffer.get(offset + RECORD_HEADER_BYTES, bytes);
+                final SequencedLine line = new SequencedLine(
+                    sequence,
+                    new MinecraftServerProcess.OutputLine(
+                        new String(bytes, StandardCharsets.UTF_8), fromStderr, timestampMillis)
+                );
+                if (filter.test(line))
+                    lines.add(line.line());
+                offset += RECORD_HEADER_BYTES + length;
+                ++sequence;
+            }
+        }
+        return lines;
+    }
+
+    @GuardedBy("this")
+    private Segment writableSegment(int recordBytes)
+        throws IOException
+    {
+        final List<Segment> currentSegments = segments;
+        if (!currentSegments.isEmpty())
+        {
+            final Segment last = currentSegments.getLast();
+            if (last.committedBytes + recordBytes <= segmentBytes)
+                return last;
+        }
+
+        prepareDirectory();
+        final Path file = directory.resolve(SEGMENT_PREFIX + nextSegmentNumber++ + SEGMENT_SUFFIX);
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            // The mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        final Segment segment = new Segment(file, buffer, nextSequence);
+
+        final List<Segment> updatedSegments = new ArrayList<>(currentSegments);
+        updatedSegments.add(segment);
+        while (updatedSegments.size() > maxSegments)
+            discard(updatedSegments.removeFirst(), updatedSegments.getFirst());
+        segments = List.copyOf(updatedSegments);
+        return segment;
+    }
+
+    @GuardedBy("this")
+    private void discard(Segment discardedSegment, Segment oldestRetainedSegment)
+    {
+        firstRetainedSequence = oldestRetainedSegment.firstSequence;
+        sequenceIndex.headMap(oldestRetainedSegment.firstSequence).clear();
+        // Readers still holding the old segment list keep reading the mapping; only the file goes away.
+        deleteSegmentFile(discardedSegment);
+    }
+
+    private static void deleteSegmentFile(Segment segment)
+    {
+        try
+        {
+            Files.deleteIfExists(segment.file);
+        }
+        catch (IOException exception)
+        {
+            LOG.log(
+                System.Logger.Level.WARNING,
+                "LK_FRAMEWORK: Failed to delete server output segment '%s'.".formatted(segment.file),
+                exception
+            );
+        }
+    }
+
+    @GuardedBy("this")
+    private void prepareDirectory()
+        throws IOException
+    {
+        if (directoryPrepared)
+            return;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory))
+        {
+            for (final Path file : files.toList())
+            {
+                final String fileName = file.getFileName().toString();
+                if (fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX))
+                    Files.deleteIfExists(file);
+            }
+        }
+        directoryPrepared = true;
+    }
+
+    /**
+     * One memory-mapped segment file.
+     */
+    private static final class Segment
+    {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        /**
+         * Number of bytes holding complete lines; written by the appending thread only.
+         */
+        private volatile int committedBytes;
+
+        private Segment(Path file, MappedByteBuffer buffer, long firstSequence)
+        {
+            this.file = file;
+            this.buffer = buffer;
+            this.firstSequence = firstSequence;
+        }
+    }
+
+    /**
+     * Sparse index entry: where the line with the given sequence number starts.
+     */
+    private record Position(Segment segment, int offset, long sequence)
+    {
+    }
+
+    private record SequencedLine(long sequence, MinecraftServerProcess.OutputLine line)
+    {
+    }
+}
@@ -5,6 +5,8 @@ import org.jspecify.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,7 +23,13 @@ import java.util.regex.Pattern;
  * <p>Grouping is line-based and best-effort: a block starts at a throwable header line (e.g.
  * {@code java.util.concurrent.TimeoutException} or {@code Exception in thread "main" java.lang...}) and extends
  * over its {@code at ...}/{@code Caused by: ...} continuation lines. Continuation lines without a preceding
- * header (a window that begins mid-trace) are ignored.
+ * header are ignored.
+ *
+ * <p>The scanner is a streaming state machine fed by the stderr reader thread as lines arrive, so every line is
+ * matched exactly once and nothing re-copies the captured output buffer. Completed blocks are published to a
+ * lock-free queue, each tagged with a sequence number that callers use as a watermark. Threading contract: only one
+ * thread at a time may call {@link #accept(String, long)} and {@link #endOfStream()}; every other method may be
+ * called from any thread.
  */
 final class ServerStderrErrorScanner
 {
@@ -33,6 +41,10 @@ final class ServerStderrErrorScanner
      * Maximum number of continuation lines retained per detected block.
      */
     static final int MAX_BLOCK_LINES = 100;
+    /**
+     * Maximum number of completed blocks retained; the oldest are evicted first.
+     */
+    static final int MAX_RETAINED_BLOCKS = 1_000;
 
     /**
      * Matches the header line of a rendered throwable: an optional {@code Exception in thread "..."} prefix,
@@ -51,99 +63,192 @@ final class ServerStderrErrorScanner
         "^(?:\\s+at\\s.+|Caused by:\\s.+|\\s+Suppressed:\\s.+|\\s*\\.\\.\\. \\d+ more)$"
     );
 
-    private ServerStderrErrorScanner()
+    /**
+     * Completed blocks in detection order.
+     */
+    private final ConcurrentLinkedQueue<DetectedBlock> detectedBlocks = new ConcurrentLinkedQueue<>();
+    /**
+     * Number of entries in {@link #detectedBlocks}; tracked separately because the queue's size is linear.
+     */
+    private final AtomicInteger retainedBlockCount = new AtomicInteger();
+    /**
+     * Sequence number the next detected block receives; written by the feeding thread only.
+     */
+    private volatile long nextBlockSequence;
+    /**
+     * The block currently receiving continuation lines, if any; written by the feeding thread only.
+     */
+    private volatile @Nullable BlockBuilder openBlock;
+
+    /**
+     * Feeds one stderr line into the state machine.
+     *
+     * @param text
+     *     The captured line.
+     * @param timestampMillis
+     *     Epoch milliseconds at which the line was captured.
+     */
+    void accept(String text, long timestampMillis)
+    {
+        final Matcher headerMatcher = THROWABLE_HEADER.matcher(text);
+        if (headerMatcher.matches())
+        {
+            closeOpenBlock();
+            final long sequence = nextBlockSequence;
+            openBlock = new BlockBuilder(
+                sequence, text, timestampMillis, headerMatcher.group(1), headerMatcher.group(2));
+            nextBlockSequence = sequence + 1;
+            return;
+        }
+
+        final BlockBuilder currentBlock = openBlock;
+        if (currentBlock == null)
+            return;
+        if (THROWABLE_CONTINUATION.matcher(text).matches())
+            currentBlock.addContinuation(text);
+        else
+            closeOpenBlock();
+    }
+
+    /**
+     * Completes the open block, if any; called when the stderr stream ends.
+     */
+    void endOfStream()
     {
+        closeOpenBlock();
     }
 
     /**
-     * Scans captured stderr lines for rendered stack traces.
+     * Returns a watermark that excludes every block detected so far, including a block still in progress.
      *
-     * @param stderrLines
-     *     Captured stderr lines in arrival order.
+     * @return
+     *     The sequence number the next detected block will receive.
+     */
+    long watermark()
+    {
+        return nextBlockSequence;
+    }
+
+    /**
+     * Returns the detected blocks at or past a watermark, including a block still receiving continuation lines.
+     *
+     * @param fromSequence
+     *     Watermark obtained from an earlier {@link #watermark()} call, or {@code 0} for everything retained.
      * @return
      *     One snapshot per detected stack-trace block, in arrival order.
      */
-    static List<ServerErrorSnapshot> scan(List<MinecraftServerProcess.OutputLine> stderrLines)
+    List<ServerErrorSnapshot> detectedFrom(long fromSequence)
     {
+        // Read the open block before the queue: a block is queued before it stops being open, so one that
+        // completes in between is found in the queue and the sequence check below skips the stale open copy.
+        final BlockBuilder currentBlock = openBlock;
         final List<ServerErrorSnapshot> snapshots = new ArrayList<>();
-        @Nullable BlockBuilder currentBlock = null;
-
-        for (final MinecraftServerProcess.OutputLine line : stderrLines)
+        long lastQueuedSequence = -1L;
+        for (final DetectedBlock detectedBlock : detectedBlocks)
         {
-            final Matcher headerMatcher = THROWABLE_HEADER.matcher(line.text());
-            if (headerMatcher.matches())
-            {
-                if (currentBlock != null)
-                    snapshots.add(currentBlock.build());
-                currentBlock = new BlockBuilder(line, headerMatcher.group(1), headerMatcher.group(2));
-                continue;
-            }
+            lastQueuedSequence = detectedBlock.sequence();
+            if (detectedBlock.sequence() >= fromSequence)
+                snapshots.add(detectedBlock.snapshot());
+        }
+        if (currentBlock != null && currentBlock.sequence >= fromSequence && currentBlock.sequence > lastQueuedSequence)
+            snapshots.add(currentBlock.build());
+        return List.copyOf(snapshots);
+    }
 
-            if (currentBlock != null && THROWABLE_CONTINUATION.matcher(line.text()).matches())
-            {
-                currentBlock.addContinuation(line.text());
-                continue;
-            }
+    private void closeOpenBlock()
+    {
+        final BlockBuilder currentBlock = openBlock;
+        if (currentBlock == null)
+            return;
 
-            if (currentBlock != null)
-            {
-                snapshots.add(currentBlock.build());
-                currentBlock = null;
-            }
+        detectedBlocks.add(new DetectedBlock(currentBlock.sequence, currentBlock.build()));
+        openBlock = null;
+        if (retainedBlockCount.incrementAndGet() > MAX_RETAINED_BLOCKS)
+        {
+            detectedBlocks.poll();
+            retainedBlockCount.decrementAndGet();
         }
+    }
 
-        if (currentBlock != null)
-            snapshots.add(currentBlock.build());
-        return List.copyOf(snapshots);
+    /**
+     * A completed block with its detection sequence number.
+     *
+     * @param sequence
+     *     Detection order of the block.
+     * @param snapshot
+     *     The block's snapshot.
+     */
+    private record DetectedBlock(long sequence, ServerErrorSnapshot snapshot)
+    {
     }
 
     /**
      * Accumulates the lines of one detected stack-trace block.
+     *
+     * <p>Written by the feeding thread only. Lines are stored in a fixed array and published through the volatile
+     * {@link #lineCount}, so other threads can {@link #build()} a consistent prefix of an open block without
+     * locking.
      */
     private static final class BlockBuilder
     {
-        private final MinecraftServerProcess.OutputLine headerLine;
+        private final long sequence;
+        private final long timestampMillis;
         private final String throwableClass;
         private final @Nullable String throwableMessage;
-        private final List<String> blockLines = new ArrayList<>();
-        private int truncatedLineCount;
+        private final String[] blockLines = new String[MAX_BLOCK_LINES];
+        private volatile int lineCount;
+        private volatile int truncatedLineCount;
 
         BlockBuilder(
-            MinecraftServerProcess.OutputLine headerLine,
+            long sequence,
+            String headerText,
+            long timestampMillis,
             String throwableClass,
             @Nullable String throwableMessage)
         {
-            this.headerLine = headerLine;
+            this.sequence = sequence;
+            this.timestampMillis = timestampMillis;
             this.throwableClass = throwableClass;
             this.throwableMessage = throwableMessage;
-            blockLines.add(headerLine.text());
+            blockLines[0] = headerText;
+            lineCount = 1;
         }
 
         void addContinuation(String text)
         {
-            if (blockLines.size() >= MAX_BLOCK_LINES)
+            // Single writer: plain read-then-write on the volatiles is safe and keeps the publication order.
+            final int currentLineCount = lineCount;
+            if (currentLineCount >= MAX_BLOCK_LINES)
             {
-                truncatedLineCount++;
+                final int currentTruncatedLineCount = truncatedLineCount;
+                truncatedLineCount = currentTruncatedLineCount + 1;
                 return;
             }
-            blockLines.add(text);
+            blockLines[currentLineCount] = text;
+            lineCount = currentLineCount + 1;
         }
 
         ServerErrorSnapshot build()
         {
-            final List<String> stackTrace = new ArrayList<>(blockLines);
-            if (truncatedLineCount > 0)
-                stackTrace.add("... (%d more lines truncated)".formatted(truncatedLineCount));
+            final int currentLineCount = lineCount;
+            final int currentTruncatedLineCount = truncatedLineCount;
+            final List<String> stackTrace = new ArrayList<>(currentLineCount + 1);
+            for (int index = 0; index < currentLineCount; index++)
+                stackTrace.add(blockLines[index]);
+            if (currentTruncatedLineCount > 0)
+                stackTrace.add("... (%d more lines truncated)".formatted(currentTruncatedLineCount));
             return new ServerErrorSnapshot(
-                headerLine.timestampMillis(),
+                timestampMillis,
                 ServerErrorSnapshot.Severity.ERROR,
                 LEVEL_NAME_STDERR,
                 ServerErrorSnapshot.LOGGER_NAME_STDERR,
                 "",
-                headerLine.text(),
+                blockLines[0],
                 throwableClass,
                 throwableMessage == null || throwableMessage.isBlank() ? null : throwableMessage,
-                stackTrace
+                stackTrace,
+                1L,
+                timestampMillis
             );
         }
     }
@@ -0,0 +1,65 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Per-phase timeline of one server startup, relative to the moment the framework launched the process.
+ *
+ * <p>Combines the phases the agent reported in its {@link AgentReadinessSignal} with the framework's own handshake,
+ * so a slow boot can be attributed to the JVM, plugin loading, world loading or the agent itself.
+ */
+final class StartupTimeline
+{
+    private final long launchEpochMillis;
+    private final Map<AgentReadinessSignal.Phase, Long> agentPhaseEpochMillis;
+    private volatile long handshakeEpochMillis = -1L;
+
+    /**
+     * @param launchEpochMillis
+     *     Epoch milliseconds at which the framework launched the server process.
+     * @param readinessSignal
+     *     The ready signal sent by the agent.
+     */
+    StartupTimeline(long launchEpochMillis, AgentReadinessSignal readinessSignal)
+    {
+        this.launchEpochMillis = launchEpochMillis;
+        this.agentPhaseEpochMillis =
+            Objects.requireNonNull(readinessSignal, "readinessSignal may not be null.").phaseEpochMillis();
+    }
+
+    /**
+     * Records that the framework completed the agent handshake.
+     *
+     * @param epochMillis
+     *     Epoch milliseconds at which the handshake completed.
+     */
+    void markHandshake(long epochMillis)
+    {
+        handshakeEpochMillis = epochMillis;
+    }
+
+    /**
+     * Describes every recorded phase as an offset from the launch, for example
+     * {@code jvm-start +80 ms, plugins-loaded +2100 ms, ..., handshake +9500 ms}.
+     *
+     * @return The timeline description.
+     */
+    String describe()
+    {
+        final StringJoiner joiner = new StringJoiner(", ");
+        agentPhaseEpochMillis.forEach((phase, epochMillis) -> joiner.add(describePhase(phase.label(), epochMillis)));
+        final long handshake = handshakeEpochMillis;
+        if (handshake >= 0L)
+            joiner.add(describePhase("handshake", handshake));
+        return joiner.toString();
+    }
+
+    private String describePhase(String label, long epochMillis)
+    {
+        return "%s +%d ms".formatted(label, epochMillis - launchEpochMillis);
+    }
+}
@@ -6,6 +6,7 @@ import nl.pim16aap2.lightkeeper.framework.MenuItemSnapshot;
 import nl.pim16aap2.lightkeeper.framework.MenuSnapshot;
 import nl.pim16aap2.lightkeeper.framework.Platform;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.BlockType;
 import nl.pim16aap2.lightkeeper.protocol.CancelNextEvents;
 import nl.pim16aap2.lightkeeper.protocol.ClearCapturedEvents;
@@ -44,12 +45,15 @@ import nl.pim16aap2.lightkeeper.protocol.PlayerChat;
 import nl.pim16aap2.lightkeeper.protocol.QueryEntities;
 import nl.pim16aap2.lightkeeper.protocol.RegisterEventListener;
 import nl.pim16aap2.lightkeeper.protocol.RemovePlayer;
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
 import nl.pim16aap2.lightkeeper.protocol.RightClickBlock;
 import nl.pim16aap2.lightkeeper.protocol.ServerPluginSnapshot;
 import nl.pim16aap2.lightkeeper.protocol.SetBlock;
+import nl.pim16aap2.lightkeeper.protocol.SnapshotRegion;
 import nl.pim16aap2.lightkeeper.protocol.TabCompletePlayer;
 import nl.pim16aap2.lightkeeper.protocol.TeleportPlayer;
 import nl.pim16aap2.lightkeeper.protocol.UnloadChunk;
+import nl.pim16aap2.lightkeeper.protocol.UnloadWorld;
 import nl.pim16aap2.lightkeeper.protocol.UnregisterEventListener;
 import nl.pim16aap2.lightkeeper.protocol.WaitTicks;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
@@ -83,8 +87,7 @@ final class UdsAgentClient implements AutoCloseable
      * <p>Unix Domain Sockets do not support SO_TIMEOUT, so the transport enforces this with a watchdog.
      */
     private static final long DEFAULT_SEND_TIMEOUT_MS =
-        RuntimeProtocol.DEFAULT_SYNC_OPERATION_TIMEOUT_SECONDS * 1_000L
-            + RuntimeProtocol.CLIENT_RESPONSE_TIMEOUT_MARGIN_MILLIS;
+        sendTimeoutMillis(RuntimeProtocol.DEFAULT_SYNC_OPERATION_TIMEOUT_SECONDS);
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final UdsAgentTransport transport;
@@ -96,7 +99,8 @@ final class UdsAgentClient implements AutoCloseable
     }
 
     /**
-     * Creates a client with an explicit response timeout, primarily so tests can drive the watchdog quickly.
+     * Creates a client with an explicit response timeout, either derived from the agent's configured operation
+     * timeout through {@link #sendTimeoutMillis(long)} or short so tests can drive the watchdog quickly.
      *
      * @param socketPath
      *     Path of the Unix domain socket to connect to.
@@ -110,6 +114,20 @@ final class UdsAgentClient implements AutoCloseable
         this.transport = new UdsAgentTransport(socketPath, connectTimeout, sendTimeoutMillis);
     }
 
+    /**
+     * Derives the response timeout from the agent's synchronous operation timeout, keeping it strictly larger so the
+     * agent reports its own {@code TIMEOUT} first.
+     *
+     * @param syncOperationTimeoutSeconds
+     *     The agent's synchronous operation timeout, see
+     *     {@link nl.pim16aap2.lightkeeper.runtime.RuntimeManifest#syncOperationTimeoutSeconds()}.
+     * @return The response timeout in milliseconds.
+     */
+    static long sendTimeoutMillis(long syncOperationTimeoutSeconds)
+    {
+        return syncOperationTimeoutSeconds * 1_000L + RuntimeProtocol.CLIENT_RESPONSE_TIMEOUT_MARGIN_MILLIS;
+    }
+
     void handshake(String token, int protocolVersion, String agentSha256)
     {
         final Handshake.Command command = new Handshake.Command(nextRequestId(), token, protocolVersion, agentSha256);
@@ -129,11 +147,38 @@ final class UdsAgentClient implements AutoCloseable
             worldSpec.name(),
             worldSpec.worldType().name(),
             worldSpec.environment().name(),
-            worldSpec.seed()
+            worldSpec.seed(),
+            worldSpec.layers()
         );
         return send(command).worldName();
     }
 
+    boolean unloadWorld(String worldName, boolean deleteFolder)
+    {
+        final UnloadWorld.Command command = new UnloadWorld.Command(nextRequestId(), worldName, deleteFolder);
+        return send(command).unloaded();
+    }
+
+    String snapshotRegion(String worldName, BlockPos min, BlockPos max)
+    {
+        final SnapshotRegion.Command command = new SnapshotRegion.Command(
+            nextRequestId(),
+            worldName,
+            min.x(),
+            min.y(),
+            min.z(),
+            max.x(),
+            max.y(),
+            max.z()
+        );
+        return send(command).snapshotId();
+    }
+
+    RestoreRegion.Response restoreRegion(String snapshotId)
+    {
+        return send(new RestoreRegion.Command(nextRequestId(), snapshotId));
+    }
+
     boolean executeCommand(CommandSource source, String command)
     {
         final ExecuteCommand.Command cmd = new ExecuteCommand.Command(nextRequestId(), source, command);
@@ -400,10 +445,10 @@ final class UdsAgentClient implements AutoCloseable
         return send(command).result();
     }
 
-    void registerEventListener(String eventClassName)
+    void registerEventListener(String eventClassName, List<String> projection)
     {
         final RegisterEventListener.Command command =
-            new RegisterEventListener.Command(nextRequestId(), eventClassName);
+            new RegisterEventListener.Command(nextRequestId(), eventClassName, projection);
         send(command);
     }
 
@@ -413,6 +458,18 @@ final class UdsAgentClient implements AutoCloseable
         return send(command).events();
     }
 
+    AwaitEvents.Response awaitEvents(
+        String eventClassName,
+        int minCount,
+        List<AwaitEvents.Filter> filters,
+        long timeoutMillis,
+        int timeoutTicks)
+    {
+        final AwaitEvents.Command command =
+            new AwaitEvents.Command(nextRequestId(), eventClassName, minCount, filters, timeoutMillis, timeoutTicks);
+        return send(command);
+    }
+
     void cancelNextEvents(String eventClassName, int count)
     {
         final CancelNextEvents.Command command =
@@ -431,7 +488,8 @@ final class UdsAgentClient implements AutoCloseable
         @Nullable String entityTypeKey,
         @Nullable BlockPos boundsMin,
         @Nullable BlockPos boundsMax,
-        boolean countOnly)
+        boolean countOnly,
+        List<String> projection)
     {
         if ((boundsMin == null) != (boundsMax == null))
             throw new IllegalArgumentException("Bounds must be both present or both absent.");
@@ -448,7 +506,8 @@ final class UdsAgentClient implements AutoCloseable
                 boundsMax.x(),
                 boundsMax.y(),
                 boundsMax.z(),
-                countOnly
+                countOnly,
+                projection
             ));
         }
         return send(new QueryEntities.Command(
@@ -457,7 +516,8 @@ final class UdsAgentClient implements AutoCloseable
             entityTypeKey,
             false,
             0, 0, 0, 0, 0, 0,
-            countOnly
+            countOnly,
+            projection
         ));
     }
 
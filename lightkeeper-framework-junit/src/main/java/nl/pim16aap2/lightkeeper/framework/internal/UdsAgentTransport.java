@@ -55,7 +55,8 @@ final class UdsAgentTransport implements AutoCloseable
      * @param socketPath
      *     Path of the Unix domain socket to connect to.
      * @param connectTimeout
-     *     How long to keep retrying the initial connection.
+     *     How long to keep retrying the initial connection. The server only signals readiness once the agent socket
+     *     is bound, so the first attempt after startup normally succeeds.
      * @param sendTimeoutMillis
      *     Maximum time to wait for one response before closing the channel.
      */
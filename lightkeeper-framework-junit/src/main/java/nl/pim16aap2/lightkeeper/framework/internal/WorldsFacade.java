@@ -6,6 +6,7 @@ import nl.pim16aap2.lightkeeper.framework.IWorlds;
 import nl.pim16aap2.lightkeeper.framework.WorldHandle;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
+import org.jspecify.annotations.Nullable;
 
 import java.util.Objects;
 
@@ -53,6 +54,7 @@ final class WorldsFacade implements IWorlds
         framework.ensureOpen();
         final WorldSpec validatedWorldSpec = validateWorldSpec(worldSpec);
         final String worldName = agentClient.newWorld(validatedWorldSpec);
+        framework.trackCreatedWorld(worldName, true);
         LOG.log(
             System.Logger.Level.INFO,
             () -> "LK_FRAMEWORK: Created world '" + worldName + "'."
@@ -81,6 +83,7 @@ final class WorldsFacade implements IWorlds
         // Pass the template's own provisioned spec: folders that lack complete world data are generated with
         // the configured settings, while folders with real world data load from their own files and ignore it.
         final String worldName = agentClient.newWorld(DefaultLightkeeperFramework.toWorldSpec(template));
+        framework.trackCreatedWorld(worldName, false);
         LOG.log(
             System.Logger.Level.INFO,
             () -> "LK_FRAMEWORK: Loaded world '" + worldName + "' from a provisioned template."
@@ -106,7 +109,10 @@ final class WorldsFacade implements IWorlds
             Objects.requireNonNull(worldSpec.worldType(), "worldSpec.worldType may not be null.");
         final WorldSpec.WorldEnvironment worldEnvironment =
             Objects.requireNonNull(worldSpec.environment(), "worldSpec.environment may not be null.");
-        return new WorldSpec(worldName, worldType, worldEnvironment, worldSpec.seed());
+        final @Nullable String layers = worldType == WorldSpec.WorldType.LAYERS ? worldSpec.layers() : null;
+        if (worldType == WorldSpec.WorldType.LAYERS && (layers == null || layers.isBlank()))
+            throw new IllegalArgumentException("worldSpec.layers may not be blank for world type LAYERS.");
+        return new WorldSpec(worldName, worldType, worldEnvironment, worldSpec.seed(), layers);
     }
 
     private static WorldSpec defaultWorldSpec()
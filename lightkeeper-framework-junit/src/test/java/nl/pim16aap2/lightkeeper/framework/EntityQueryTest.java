@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -186,8 +187,8 @@ class EntityQueryTest
         final BlockPos max = new BlockPos(10, 10, 10);
         final EntityQuery bounded = entityQuery.ofType("minecraft:zombie").within(min, max);
         final EntitySnapshot snapshot = new EntitySnapshot(
-            java.util.UUID.randomUUID(), "minecraft:zombie", new Vec3(1, 2, 3), null, List.of(), null, 5L);
-        when(frameworkGateway.snapshotEntities(eq("world"), eq("minecraft:zombie"), eq(min), eq(max)))
+            java.util.UUID.randomUUID(), "minecraft:zombie", new Vec3(1, 2, 3), null, List.of(), null, 5L, Map.of());
+        when(frameworkGateway.snapshotEntities(eq("world"), eq("minecraft:zombie"), eq(min), eq(max), eq(List.of())))
             .thenReturn(List.of(snapshot));
 
         // execute
@@ -196,4 +197,18 @@ class EntityQueryTest
         // verify
         assertThat(result).containsExactly(snapshot);
     }
+
+    @Test
+    void project_shouldPassAccessorPathsToGatewayAndKeepFilters()
+    {
+        // setup
+        final EntityQuery projected = entityQuery.ofType("minecraft:zombie").project("getHealth", "getVehicle.getType");
+
+        // execute
+        projected.snapshot();
+
+        // verify
+        verify(frameworkGateway).snapshotEntities(
+            "world", "minecraft:zombie", null, null, List.of("getHealth", "getVehicle.getType"));
+    }
 }
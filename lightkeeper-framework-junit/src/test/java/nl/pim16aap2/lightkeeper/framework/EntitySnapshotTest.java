@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -17,7 +18,7 @@ class EntitySnapshotTest
     {
         // execute + verify
         assertThatThrownBy(() -> new EntitySnapshot(
-            null, "minecraft:zombie", new Vec3(0, 0, 0), null, List.of(), null, 0L))
+            null, "minecraft:zombie", new Vec3(0, 0, 0), null, List.of(), null, 0L, Map.of()))
             .isInstanceOf(NullPointerException.class)
             .hasMessageContaining("uuid");
     }
@@ -28,7 +29,7 @@ class EntitySnapshotTest
     {
         // execute + verify
         assertThatThrownBy(() -> new EntitySnapshot(
-            UUID.randomUUID(), null, new Vec3(0, 0, 0), null, List.of(), null, 0L))
+            UUID.randomUUID(), null, new Vec3(0, 0, 0), null, List.of(), null, 0L, Map.of()))
             .isInstanceOf(NullPointerException.class)
             .hasMessageContaining("typeKey");
     }
@@ -39,7 +40,7 @@ class EntitySnapshotTest
     {
         // execute + verify
         assertThatThrownBy(() -> new EntitySnapshot(
-            UUID.randomUUID(), "minecraft:zombie", null, null, List.of(), null, 0L))
+            UUID.randomUUID(), "minecraft:zombie", null, null, List.of(), null, 0L, Map.of()))
             .isInstanceOf(NullPointerException.class)
             .hasMessageContaining("position");
     }
@@ -50,7 +51,7 @@ class EntitySnapshotTest
         // setup
         final List<String> source = new ArrayList<>(List.of("plugin:alpha"));
         final EntitySnapshot snapshot = new EntitySnapshot(
-            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, source, null, 0L);
+            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, source, null, 0L, Map.of());
 
         // execute
         source.add("plugin:beta");
@@ -69,7 +70,7 @@ class EntitySnapshotTest
 
         // execute
         final EntitySnapshot snapshot = new EntitySnapshot(
-            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, source, null, 0L);
+            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, source, null, 0L, Map.of());
 
         // verify
         assertThat(snapshot.pdcKeys()).containsExactly("plugin:alpha", "plugin:beta", "plugin:gamma");
@@ -81,7 +82,7 @@ class EntitySnapshotTest
     {
         // setup + execute
         final EntitySnapshot snapshot = new EntitySnapshot(
-            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, null, null, 0L);
+            UUID.randomUUID(), "minecraft:zombie", new Vec3(0, 0, 0), null, null, null, 0L, Map.of());
 
         // verify
         assertThat(snapshot.pdcKeys()).isEmpty();
@@ -96,7 +97,7 @@ class EntitySnapshotTest
 
         // execute
         final EntitySnapshot snapshot = new EntitySnapshot(
-            uuid, "minecraft:zombie", position, "Bob", List.of("plugin:alpha"), null, 42L);
+            uuid, "minecraft:zombie", position, "Bob", List.of("plugin:alpha"), null, 42L, Map.of());
 
         // verify
         assertThat(snapshot.uuid()).isEqualTo(uuid);
@@ -4,6 +4,7 @@ import nl.pim16aap2.lightkeeper.protocol.IProtocolValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,50 @@ class EventCaptureHandleTest
         verify(frameworkGateway).getCapturedEvents(EVENT_CLASS_NAME);
     }
 
+    @Test
+    void awaitEvents_shouldDelegateWithoutFiltersWhenNoneGiven()
+    {
+        // setup
+        final Duration timeout = Duration.ofSeconds(5);
+        final List<CapturedEventSnapshot> events = List.of(
+            new CapturedEventSnapshot(EVENT_CLASS_NAME, 2L, Map.of("isCancelled", new IProtocolValue.PBool(false)))
+        );
+        when(frameworkGateway.awaitEvents(EVENT_CLASS_NAME, 1, Map.of(), timeout, 0)).thenReturn(events);
+
+        // execute
+        final List<CapturedEventSnapshot> result = eventCaptureHandle.awaitEvents(1, timeout);
+
+        // verify
+        assertThat(result).isSameAs(events);
+    }
+
+    @Test
+    void awaitEvents_shouldDelegateFiltersToGateway()
+    {
+        // setup
+        final Duration timeout = Duration.ofSeconds(5);
+        final Map<String, String> filters = Map.of("getItemDrop.getItemStack.getType", "DIAMOND");
+
+        // execute
+        eventCaptureHandle.awaitEvents(2, filters, timeout);
+
+        // verify
+        verify(frameworkGateway).awaitEvents(EVENT_CLASS_NAME, 2, filters, timeout, 0);
+    }
+
+    @Test
+    void awaitEvents_shouldDelegateTickTimeoutToGateway()
+    {
+        // setup
+        final Duration timeout = Duration.ofSeconds(5);
+
+        // execute
+        eventCaptureHandle.awaitEvents(1, Map.of(), timeout, 40);
+
+        // verify
+        verify(frameworkGateway).awaitEvents(EVENT_CLASS_NAME, 1, Map.of(), timeout, 40);
+    }
+
     @Test
     void cancelNext_shouldDelegateToGatewayWithClassNameAndReturnSelf()
     {
@@ -23,7 +23,9 @@ class ServerErrorSnapshotTest
             "boom",
             null,
             null,
-            null
+            null,
+            1L,
+            1L
         );
 
         // verify
@@ -78,6 +80,22 @@ class ServerErrorSnapshotTest
         assertThat(rendered).contains("(thread: ?)");
     }
 
+    @Test
+    void toDisplayString_shouldReportRepeatCountForFoldedOccurrences()
+    {
+        // setup
+        final ServerErrorSnapshot snapshot = new ServerErrorSnapshot(
+            1L, ServerErrorSnapshot.Severity.ERROR, "ERROR", "net.example.SomePlugin", "Server thread", "boom",
+            null, null, List.of(), 40L, 2_000L);
+
+        // execute
+        final String rendered = snapshot.toDisplayString(Integer.MAX_VALUE);
+
+        // verify
+        assertThat(rendered)
+            .contains("[ERROR] net.example.SomePlugin (thread: Server thread): boom (repeated 40 times)");
+    }
+
     @Test
     void toDisplayString_shouldRejectNegativeMaxStackTraceLines()
     {
@@ -101,7 +119,9 @@ class ServerErrorSnapshotTest
             "boom",
             null,
             null,
-            stackTrace
+            stackTrace,
+            1L,
+            1L
         );
     }
 }
@@ -35,7 +35,9 @@ class ServerErrorsHandleTest
             "boom",
             null,
             null,
-            List.of()
+            List.of(),
+            1L,
+            1L
         ));
         when(frameworkGateway.capturedServerErrors()).thenReturn(errors);
 
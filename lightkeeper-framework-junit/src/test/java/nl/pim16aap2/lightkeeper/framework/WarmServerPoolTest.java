@@ -0,0 +1,163 @@
+package nl.pim16aap2.lightkeeper.framework;
+
+import nl.pim16aap2.lightkeeper.framework.internal.DefaultLightkeeperFramework;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmServerPoolTest
+{
+    @Test
+    void lease_shouldReuseFrameworkWhoseResetSucceeded()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = mock();
+        when(framework.resetForReuse()).thenReturn(true);
+        final Deque<ILightkeeperFramework> started = new ArrayDeque<>(List.of(framework));
+        final WarmServerPool pool = new WarmServerPool(1, ignored -> started.pop());
+
+        // execute
+        final ILightkeeperFramework first = pool.lease();
+        pool.release(first);
+        final ILightkeeperFramework second = pool.lease();
+
+        // verify
+        assertThat(second).isSameAs(framework);
+        verify(framework, never()).close();
+    }
+
+    @Test
+    void release_shouldCloseFrameworkWhoseResetFailed()
+    {
+        // setup
+        final DefaultLightkeeperFramework broken = mock();
+        when(broken.resetForReuse()).thenReturn(false);
+        final DefaultLightkeeperFramework replacement = mock();
+        final Deque<ILightkeeperFramework> started = new ArrayDeque<>(List.of(broken, replacement));
+        final WarmServerPool pool = new WarmServerPool(1, ignored -> started.pop());
+
+        // execute
+        pool.release(pool.lease());
+        final ILightkeeperFramework next = pool.lease();
+
+        // verify
+        verify(broken).close();
+        assertThat(next).isSameAs(replacement);
+    }
+
+    @Test
+    void startFresh_shouldCloseWarmFrameworkBeforeStarting()
+    {
+        // setup
+        final DefaultLightkeeperFramework warm = mock();
+        when(warm.resetForReuse()).thenReturn(true);
+        final DefaultLightkeeperFramework fresh = mock();
+        final Deque<ILightkeeperFramework> started = new ArrayDeque<>(List.of(warm, fresh));
+        final WarmServerPool pool = new WarmServerPool(1, ignored ->
+        {
+            // Only one server may be alive: the warm one must be gone before the fresh one boots.
+            if (started.size() == 1)
+                verify(warm).close();
+            return started.pop();
+        });
+        pool.release(pool.lease());
+
+        // execute
+        final ILightkeeperFramework result = pool.startFresh();
+
+        // verify
+        assertThat(result).isSameAs(fresh);
+    }
+
+    @Test
+    void close_shouldCloseWarmFramework()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = mock();
+        when(framework.resetForReuse()).thenReturn(true);
+        final WarmServerPool pool = new WarmServerPool(1, ignored -> framework);
+        pool.release(pool.lease());
+
+        // execute
+        pool.close();
+
+        // verify
+        verify(framework).close();
+    }
+
+    @Test
+    void lease_shouldStartConcurrentLeasesOnDistinctSlots()
+    {
+        // setup
+        final List<Integer> startedSlots = new ArrayList<>();
+        final WarmServerPool pool = new WarmServerPool(2, slot ->
+        {
+            startedSlots.add(slot);
+            return mock(DefaultLightkeeperFramework.class);
+        });
+
+        // execute
+        final ILightkeeperFramework first = pool.lease();
+        final ILightkeeperFramework second = pool.lease();
+
+        // verify
+        assertThat(first).isNotSameAs(second);
+        assertThat(startedSlots).containsExactly(0, 1);
+    }
+
+    @Test
+    void lease_shouldBlockUntilLeasedFrameworkIsReleasedWhenAllSlotsAreLeased()
+        throws Exception
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = mock();
+        when(framework.resetForReuse()).thenReturn(true);
+        final WarmServerPool pool = new WarmServerPool(1, ignored -> framework);
+        final ILightkeeperFramework leased = pool.lease();
+        final CompletableFuture<ILightkeeperFramework> waitingLease = CompletableFuture.supplyAsync(pool::lease);
+
+        // execute
+        Thread.sleep(100L);
+        final boolean doneBeforeRelease = waitingLease.isDone();
+        pool.release(leased);
+
+        // verify
+        assertThat(doneBeforeRelease).isFalse();
+        assertThat(waitingLease.get(5, TimeUnit.SECONDS)).isSameAs(framework);
+    }
+
+    @Test
+    void discard_shouldCloseFrameworkAndFreeItsSlot()
+    {
+        // setup
+        final DefaultLightkeeperFramework fresh = mock();
+        final DefaultLightkeeperFramework next = mock();
+        final List<Integer> startedSlots = new ArrayList<>();
+        final Deque<ILightkeeperFramework> started = new ArrayDeque<>(List.of(fresh, next));
+        final WarmServerPool pool = new WarmServerPool(1, slot ->
+        {
+            startedSlots.add(slot);
+            return started.pop();
+        });
+
+        // execute
+        pool.discard(pool.startFresh());
+        final ILightkeeperFramework result = pool.lease();
+
+        // verify
+        verify(fresh).close();
+        assertThat(result).isSameAs(next);
+        assertThat(startedSlots).containsExactly(0, 0);
+    }
+}
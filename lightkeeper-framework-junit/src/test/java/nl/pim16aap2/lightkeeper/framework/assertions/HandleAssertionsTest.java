@@ -187,7 +187,9 @@ class HandleAssertionsTest
             "boom",
             "java.lang.IllegalStateException",
             "boom",
-            List.of("java.lang.IllegalStateException: boom", "\tat net.example.SomePlugin.on(SomePlugin.java:1)")
+            List.of("java.lang.IllegalStateException: boom", "\tat net.example.SomePlugin.on(SomePlugin.java:1)"),
+            1L,
+            1L
         )));
 
         // execute + verify — the failure message carries the structured context, including the stack trace
@@ -236,7 +238,9 @@ class HandleAssertionsTest
             "boom",
             "java.lang.IllegalStateException",
             "boom",
-            stackTrace
+            stackTrace,
+            1L,
+            1L
         )));
 
         // execute + verify
@@ -256,7 +260,7 @@ class HandleAssertionsTest
         when(serverControl.errors()).thenReturn(serverErrorsHandle);
         when(serverErrorsHandle.getCaptured()).thenReturn(List.of(new ServerErrorSnapshot(
             1L, ServerErrorSnapshot.Severity.ERROR, "ERROR", "net.example.SomePlugin", "", "boom",
-            null, null, List.of())));
+            null, null, List.of(), 1L, 1L)));
 
         // execute + verify
         assertThatThrownBy(() -> LightkeeperAssertions.assertThat(framework).hasNoServerErrors())
@@ -270,7 +274,7 @@ class HandleAssertionsTest
         String message)
     {
         return new ServerErrorSnapshot(
-            1L, severity, levelName, "net.example.SomePlugin", "Server thread", message, null, null, List.of());
+            1L, severity, levelName, "net.example.SomePlugin", "Server thread", message, null, null, List.of(), 1L, 1L);
     }
 
     @Test
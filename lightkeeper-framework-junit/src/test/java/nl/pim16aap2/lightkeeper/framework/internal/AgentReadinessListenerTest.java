@@ -0,0 +1,114 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgentReadinessListenerTest
+{
+    @Test
+    void await_shouldReturnReadySignalSentByAgent(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path socketPath = tempDirectory.resolve("agent.sock.ready");
+        final Process process = runningProcess();
+        try (AgentReadinessListener listener = AgentReadinessListener.open(socketPath))
+        {
+            send(socketPath, AgentReadinessSignal.ready(Map.of(AgentReadinessSignal.Phase.AGENT_READY, 42L)));
+
+            // execute
+            final AgentReadinessSignal signal = listener.await(process, Duration.ofSeconds(10), () -> "tail");
+
+            // verify
+            assertThat(signal.isReady()).isTrue();
+            assertThat(signal.phaseEpochMillis()).containsEntry(AgentReadinessSignal.Phase.AGENT_READY, 42L);
+        }
+        assertThat(socketPath).doesNotExist();
+    }
+
+    @Test
+    void await_shouldThrowExceptionWhenAgentSignalsFailure(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path socketPath = tempDirectory.resolve("agent.sock.ready");
+        final Process process = runningProcess();
+        try (AgentReadinessListener listener = AgentReadinessListener.open(socketPath))
+        {
+            send(socketPath, AgentReadinessSignal.failed("Unsupported Bukkit version '1.8'."));
+
+            // execute + verify
+            assertThatThrownBy(() -> listener.await(process, Duration.ofSeconds(10), () -> "tail"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("LightKeeper agent failed to start: Unsupported Bukkit version '1.8'.");
+        }
+    }
+
+    @Test
+    void await_shouldThrowExceptionWhenProcessExitsBeforeSignal(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Process process = mock();
+        when(process.onExit()).thenReturn(CompletableFuture.completedFuture(process));
+        when(process.exitValue()).thenReturn(1);
+        try (AgentReadinessListener listener = AgentReadinessListener.open(tempDirectory.resolve("agent.sock.ready")))
+        {
+            // execute + verify
+            assertThatThrownBy(() -> listener.await(process, Duration.ofSeconds(10), () -> "last line"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exited before the agent signalled readiness. Exit code: 1")
+                .hasMessageContaining("last line");
+        }
+    }
+
+    @Test
+    void await_shouldThrowExceptionWhenNoSignalArrivesWithinTimeout(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Process process = runningProcess();
+        try (AgentReadinessListener listener = AgentReadinessListener.open(tempDirectory.resolve("agent.sock.ready")))
+        {
+            // execute + verify
+            assertThatThrownBy(() -> listener.await(process, Duration.ofMillis(50), () -> "tail"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not start within timeout");
+        }
+    }
+
+    private static Process runningProcess()
+    {
+        final Process process = mock();
+        when(process.onExit()).thenReturn(new CompletableFuture<>());
+        return process;
+    }
+
+    private static void send(Path socketPath, AgentReadinessSignal signal)
+        throws Exception
+    {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            final ByteBuffer buffer = ByteBuffer.wrap((signal.encode() + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+}
@@ -213,7 +213,10 @@ class BotsFacadeTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
@@ -0,0 +1,120 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassDataArchiveTest
+{
+    private static final String RECORD_PREFIX = "-XX:ArchiveClassesAtExit=";
+
+    @Test
+    void jvmArguments_shouldRecordArchiveUntilCleanStopPromotesIt(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ClassDataArchive archive =
+            new ClassDataArchive(tempDirectory, tempDirectory.resolve("server").resolve("paper.jar"));
+        final List<String> recordingArguments = archive.jvmArguments();
+        simulateDump(recordingArguments);
+        archive.onStarted(Duration.ofMillis(4_000L));
+
+        // execute
+        archive.onStopped(true);
+        final List<String> mappingArguments = archive.jvmArguments();
+
+        // verify
+        assertThat(recordingArguments).singleElement().asString().startsWith(RECORD_PREFIX);
+        assertThat(archive.archiveFile()).isRegularFile();
+        assertThat(mappingArguments).containsExactly("-XX:SharedArchiveFile=" + archive.archiveFile());
+    }
+
+    @Test
+    void onStopped_shouldDiscardRecordingWhenServerDidNotExitCleanly(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ClassDataArchive archive =
+            new ClassDataArchive(tempDirectory, tempDirectory.resolve("server").resolve("paper.jar"));
+        final Path stagingFile = simulateDump(archive.jvmArguments());
+
+        // execute
+        archive.onStopped(false);
+
+        // verify
+        assertThat(stagingFile).doesNotExist();
+        assertThat(archive.archiveFile()).doesNotExist();
+        assertThat(archive.jvmArguments()).singleElement().asString().startsWith(RECORD_PREFIX);
+    }
+
+    @Test
+    void jvmArguments_shouldMarkArchiveDirectoryAsUsed(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archiveDirectory = Files.createDirectories(tempDirectory.resolve("cds").resolve("key"));
+        final FileTime stale = FileTime.from(Instant.now().minus(Duration.ofDays(7)));
+        Files.setLastModifiedTime(archiveDirectory, stale);
+        final ClassDataArchive archive =
+            new ClassDataArchive(archiveDirectory, tempDirectory.resolve("server").resolve("paper.jar"));
+
+        // execute
+        archive.jvmArguments();
+
+        // verify
+        assertThat(Files.getLastModifiedTime(archiveDirectory)).isGreaterThan(stale);
+    }
+
+    @Test
+    void onStopping_shouldRecreateArchiveDirectoryEvictedWhileServerRan(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archiveDirectory = tempDirectory.resolve("cds").resolve("key");
+        final ClassDataArchive archive =
+            new ClassDataArchive(archiveDirectory, tempDirectory.resolve("server").resolve("paper.jar"));
+        archive.jvmArguments();
+        Files.delete(archiveDirectory);
+
+        // execute
+        archive.onStopping();
+
+        // verify
+        assertThat(archiveDirectory).isDirectory();
+    }
+
+    @Test
+    void constructor_shouldUseDistinctArchivesForDistinctServerJars(@TempDir Path tempDirectory)
+    {
+        // setup
+        final Path firstJar = tempDirectory.resolve("server").resolve("paper.jar");
+        final Path secondJar = tempDirectory.resolve("server-1").resolve("paper.jar");
+
+        // execute
+        final ClassDataArchive first = new ClassDataArchive(tempDirectory, firstJar);
+        final ClassDataArchive second = new ClassDataArchive(tempDirectory, secondJar);
+
+        // verify
+        assertThat(first.archiveFile()).isNotEqualTo(second.archiveFile());
+        assertThat(first.archiveFile()).isEqualTo(new ClassDataArchive(tempDirectory, firstJar).archiveFile());
+    }
+
+    /**
+     * Writes the staging file the JVM would dump on exit.
+     */
+    private static Path simulateDump(List<String> recordingArguments)
+        throws Exception
+    {
+        final Path stagingFile = Path.of(recordingArguments.getFirst().substring(RECORD_PREFIX.length()));
+        Files.writeString(stagingFile, "archive");
+        return stagingFile;
+    }
+}
@@ -5,6 +5,7 @@ import nl.pim16aap2.lightkeeper.framework.CapturedEventSnapshot;
 import nl.pim16aap2.lightkeeper.framework.EntitySnapshot;
 import nl.pim16aap2.lightkeeper.framework.WorldHandle;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
+import nl.pim16aap2.lightkeeper.protocol.AwaitEvents;
 import nl.pim16aap2.lightkeeper.protocol.DropResult;
 import nl.pim16aap2.lightkeeper.protocol.GetCapturedEvents;
 import nl.pim16aap2.lightkeeper.protocol.IProtocolValue;
@@ -14,6 +15,7 @@ import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -718,7 +720,7 @@ class DefaultLightkeeperFrameworkGatewayTest
         final UdsAgentClient agentClient = mock(UdsAgentClient.class);
         final BlockPos min = new BlockPos(0, 0, 0);
         final BlockPos max = new BlockPos(10, 10, 10);
-        when(agentClient.queryEntities(eq("world"), eq("minecraft:zombie"), eq(min), eq(max), eq(true)))
+        when(agentClient.queryEntities(eq("world"), eq("minecraft:zombie"), eq(min), eq(max), eq(true), eq(List.of())))
             .thenReturn(new QueryEntities.Response(5L, 3, List.of()));
         final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
             runtimeManifest(),
@@ -761,8 +763,8 @@ class DefaultLightkeeperFrameworkGatewayTest
             1.0, 2.0, 3.0, 1.5, 1.5, 1.5, List.of(0.1, 0.2, 0.3, 0.4), List.of(0.5, 0.6, 0.7, 0.8));
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
             entityId, "minecraft:block_display", 10.0, 64.0, -5.0, "Display",
-            List.of("plugin:alpha"), transformData);
-        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false)))
+            List.of("plugin:alpha"), transformData, Map.of("getHealth", new IProtocolValue.PNumber(20.0)));
+        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false), eq(List.of())))
             .thenReturn(new QueryEntities.Response(99L, 1, List.of(entityData)));
         final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
             runtimeManifest(),
@@ -772,7 +774,7 @@ class DefaultLightkeeperFrameworkGatewayTest
         );
 
         // execute
-        final List<EntitySnapshot> result = framework.snapshotEntities("world", null, null, null);
+        final List<EntitySnapshot> result = framework.snapshotEntities("world", null, null, null, List.of());
 
         // verify
         assertThat(result).singleElement().satisfies(snapshot ->
@@ -783,6 +785,7 @@ class DefaultLightkeeperFrameworkGatewayTest
             assertThat(snapshot.customName()).isEqualTo("Display");
             assertThat(snapshot.pdcKeys()).containsExactly("plugin:alpha");
             assertThat(snapshot.tick()).isEqualTo(99L);
+            assertThat(snapshot.projected()).containsEntry("getHealth", new IProtocolValue.PNumber(20.0));
             final EntitySnapshot.Transform transform = Objects.requireNonNull(snapshot.transform());
             assertThat(transform.translation())
                 .isEqualTo(new nl.pim16aap2.lightkeeper.framework.Vec3(1.0, 2.0, 3.0));
@@ -801,8 +804,8 @@ class DefaultLightkeeperFrameworkGatewayTest
         // setup
         final UdsAgentClient agentClient = mock(UdsAgentClient.class);
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            UUID.randomUUID(), "minecraft:zombie", 1.0, 2.0, 3.0, null, List.of(), null);
-        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false)))
+            UUID.randomUUID(), "minecraft:zombie", 1.0, 2.0, 3.0, null, List.of(), null, Map.of());
+        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false), eq(List.of())))
             .thenReturn(new QueryEntities.Response(1L, 1, List.of(entityData)));
         final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
             runtimeManifest(),
@@ -812,7 +815,7 @@ class DefaultLightkeeperFrameworkGatewayTest
         );
 
         // execute
-        final List<EntitySnapshot> result = framework.snapshotEntities("world", null, null, null);
+        final List<EntitySnapshot> result = framework.snapshotEntities("world", null, null, null, List.of());
 
         // verify
         assertThat(result).singleElement().extracting(EntitySnapshot::transform).isNull();
@@ -826,8 +829,8 @@ class DefaultLightkeeperFrameworkGatewayTest
         final QueryEntities.TransformData badTransform = new QueryEntities.TransformData(
             0.0, 0.0, 0.0, 1.0, 1.0, 1.0, List.of(0.1, 0.2, 0.3), List.of(0.0, 0.0, 0.0, 1.0));
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            UUID.randomUUID(), "minecraft:block_display", 0.0, 0.0, 0.0, null, List.of(), badTransform);
-        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false)))
+            UUID.randomUUID(), "minecraft:block_display", 0.0, 0.0, 0.0, null, List.of(), badTransform, Map.of());
+        when(agentClient.queryEntities(eq("world"), isNull(), isNull(), isNull(), eq(false), eq(List.of())))
             .thenReturn(new QueryEntities.Response(1L, 1, List.of(entityData)));
         final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
             runtimeManifest(),
@@ -837,7 +840,7 @@ class DefaultLightkeeperFrameworkGatewayTest
         );
 
         // execute + verify
-        assertThatThrownBy(() -> framework.snapshotEntities("world", null, null, null))
+        assertThatThrownBy(() -> framework.snapshotEntities("world", null, null, null, List.of()))
             .isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("4");
     }
@@ -855,10 +858,91 @@ class DefaultLightkeeperFrameworkGatewayTest
         );
 
         // execute + verify
-        assertThatThrownBy(() -> framework.snapshotEntities(null, null, null, null))
+        assertThatThrownBy(() -> framework.snapshotEntities(null, null, null, null, List.of()))
             .isInstanceOf(NullPointerException.class);
     }
 
+    @Test
+    void awaitEvents_shouldAllowTimeoutUpToConfiguredAgentOperationTimeout()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.awaitEvents("org.bukkit.event.Event", 1, List.of(), 200_000L, 0))
+            .thenReturn(new AwaitEvents.Response(true, 5L, List.of()));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifestWithSyncOperationTimeout(300L),
+            mock(MinecraftServerProcess.class),
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+
+        // execute
+        final List<CapturedEventSnapshot> result =
+            framework.awaitEvents("org.bukkit.event.Event", 1, Map.of(), Duration.ofSeconds(200), 0);
+
+        // verify
+        assertThat(result).isEmpty();
+        verify(agentClient).awaitEvents("org.bukkit.event.Event", 1, List.of(), 200_000L, 0);
+    }
+
+    @Test
+    void awaitEvents_shouldPassTickTimeoutToAgent()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.awaitEvents("org.bukkit.event.Event", 1, List.of(), 5_000L, 40))
+            .thenReturn(new AwaitEvents.Response(false, 45L, List.of()));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+
+        // execute + verify
+        assertThatThrownBy(
+            () -> framework.awaitEvents("org.bukkit.event.Event", 1, Map.of(), Duration.ofSeconds(5), 40))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("PT5S or 40 ticks")
+            .hasMessageContaining("by tick 45");
+    }
+
+    @Test
+    void awaitEvents_shouldRejectNegativeTickTimeout()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            mock(UdsAgentClient.class),
+            new PlayerScopeRegistry()
+        );
+
+        // execute + verify
+        assertThatThrownBy(
+            () -> framework.awaitEvents("org.bukkit.event.Event", 1, Map.of(), Duration.ofSeconds(5), -1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("timeoutTicks may not be negative.");
+    }
+
+    @Test
+    void awaitEvents_shouldRejectTimeoutAboveDefaultAgentOperationTimeout()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            mock(UdsAgentClient.class),
+            new PlayerScopeRegistry()
+        );
+
+        // execute + verify
+        assertThatThrownBy(
+            () -> framework.awaitEvents("org.bukkit.event.Event", 1, Map.of(), Duration.ofSeconds(200), 0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("timeout may not exceed 120 seconds.");
+    }
+
     private static RuntimeManifest runtimeManifest()
     {
         return new RuntimeManifest(
@@ -876,7 +960,10 @@ class DefaultLightkeeperFrameworkGatewayTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 
@@ -898,7 +985,34 @@ class DefaultLightkeeperFrameworkGatewayTest
             1,
             "agent-cache-identity",
             null,
-            provisionedWorlds
+            provisionedWorlds,
+            List.of(),
+            null,
+            120L
+        );
+    }
+
+    private static RuntimeManifest runtimeManifestWithSyncOperationTimeout(long syncOperationTimeoutSeconds)
+    {
+        return new RuntimeManifest(
+            "paper",
+            "1.21.11",
+            1L,
+            "cache-key",
+            "/tmp/lightkeeper/server",
+            "/tmp/lightkeeper/server/server.jar",
+            1024,
+            "/tmp/lightkeeper/agent.sock",
+            "auth-token",
+            "/tmp/lightkeeper/agent.jar",
+            "agent-sha256",
+            1,
+            "agent-cache-identity",
+            null,
+            List.of(),
+            List.of(),
+            null,
+            syncOperationTimeoutSeconds
         );
     }
 }
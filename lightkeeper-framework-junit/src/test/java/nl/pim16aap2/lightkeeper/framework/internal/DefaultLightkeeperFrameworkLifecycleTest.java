@@ -1,6 +1,9 @@
 package nl.pim16aap2.lightkeeper.framework.internal;
 
+import nl.pim16aap2.lightkeeper.framework.BlockPos;
+import nl.pim16aap2.lightkeeper.framework.RollbackWorld;
 import nl.pim16aap2.lightkeeper.framework.WorldSpec;
+import nl.pim16aap2.lightkeeper.protocol.RestoreRegion;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
@@ -11,7 +14,9 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -47,6 +52,7 @@ class DefaultLightkeeperFrameworkLifecycleTest
         verify(agentClient, times(1)).removePlayer(playerId);
         verify(agentClient, times(1)).close();
         verify(minecraftServerProcess, times(1)).stop(java.time.Duration.ofSeconds(45));
+        verify(minecraftServerProcess, times(1)).close();
     }
 
     @Test
@@ -89,6 +95,155 @@ class DefaultLightkeeperFrameworkLifecycleTest
         assertThat(serverOutput).containsExactly("line one", "line two");
     }
 
+    @Test
+    void methodOutput_shouldReturnOutputSinceMethodScopeBegan()
+    {
+        // setup
+        final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
+        when(minecraftServerProcess.outputWatermark()).thenReturn(42L);
+        when(minecraftServerProcess.outputLinesFrom(42L)).thenReturn(List.of("method line"));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            minecraftServerProcess,
+            mock(UdsAgentClient.class),
+            new PlayerScopeRegistry()
+        );
+        framework.beginMethodScope("method");
+
+        // execute
+        final List<String> methodOutput = framework.methodOutput();
+
+        // verify
+        assertThat(methodOutput).containsExactly("method line");
+    }
+
+    @Test
+    void endMethodScope_shouldRestoreRollbackRegionsNewestFirst()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.mainWorld()).thenReturn("world");
+        when(agentClient.snapshotRegion("world", new BlockPos(-63, 60, 0), new BlockPos(0, 70, 63)))
+            .thenReturn("region-1");
+        when(agentClient.snapshotRegion("arena", new BlockPos(1, 2, 3), new BlockPos(4, 5, 6)))
+            .thenReturn("region-2");
+        when(agentClient.restoreRegion(any())).thenReturn(new RestoreRegion.Response(0, 0, 0, 0));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+        framework.beginMethodScope("method", List.of(RollbackFixture.class.getAnnotationsByType(RollbackWorld.class)));
+
+        // execute
+        framework.endMethodScope("method");
+
+        // verify
+        final InOrder inOrder = inOrder(agentClient);
+        inOrder.verify(agentClient).restoreRegion("region-2");
+        inOrder.verify(agentClient).restoreRegion("region-1");
+        inOrder.verify(agentClient).clearServerErrors();
+    }
+
+    @Test
+    void endMethodScope_shouldRestoreRemainingRollbackRegionsWhenOneRestoreFails()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.mainWorld()).thenReturn("world");
+        when(agentClient.snapshotRegion(any(), any(), any())).thenReturn("region-1", "region-2");
+        when(agentClient.restoreRegion("region-2")).thenThrow(new IllegalStateException("restore failed"));
+        when(agentClient.restoreRegion("region-1")).thenReturn(new RestoreRegion.Response(0, 0, 0, 0));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+        framework.beginMethodScope("method", List.of(RollbackFixture.class.getAnnotationsByType(RollbackWorld.class)));
+
+        // execute + verify
+        assertThatThrownBy(() -> framework.endMethodScope("method"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("restore failed");
+        verify(agentClient).restoreRegion("region-1");
+        verify(agentClient).clearServerErrors();
+    }
+
+    @Test
+    void beginMethodScope_shouldReleaseTakenSnapshotsWhenLaterSnapshotFails()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.mainWorld()).thenReturn("world");
+        when(agentClient.snapshotRegion(any(), any(), any()))
+            .thenReturn("region-1")
+            .thenThrow(new IllegalStateException("snapshot failed"));
+        when(agentClient.restoreRegion(any())).thenReturn(new RestoreRegion.Response(0, 0, 0, 0));
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+        final List<RollbackWorld> rollbackRegions =
+            List.of(RollbackFixture.class.getAnnotationsByType(RollbackWorld.class));
+
+        // execute + verify
+        assertThatThrownBy(() -> framework.beginMethodScope("method", rollbackRegions))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("snapshot failed");
+        verify(agentClient).restoreRegion("region-1");
+        framework.endMethodScope("method");
+        verify(agentClient, times(1)).restoreRegion(any());
+    }
+
+    @Test
+    void endMethodScope_shouldNotRestoreRollbackRegionsSnapshottedBeforeRestart()
+    {
+        // setup
+        final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
+        when(minecraftServerProcess.isRunning()).thenReturn(true, false);
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.mainWorld()).thenReturn("world");
+        when(agentClient.snapshotRegion(any(), any(), any())).thenReturn("region-1", "region-2");
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            minecraftServerProcess,
+            agentClient,
+            new PlayerScopeRegistry()
+        );
+        framework.beginMethodScope("method", List.of(RollbackFixture.class.getAnnotationsByType(RollbackWorld.class)));
+        framework.server().restart();
+
+        // execute
+        framework.endMethodScope("method");
+
+        // verify
+        verify(agentClient, never()).restoreRegion(any());
+        verify(agentClient).clearServerErrors();
+    }
+
+    @Test
+    void beginMethodScope_shouldRejectRollbackCornerWithoutThreeCoordinates()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(),
+            mock(MinecraftServerProcess.class),
+            mock(UdsAgentClient.class),
+            new PlayerScopeRegistry()
+        );
+        final List<RollbackWorld> rollbackRegions =
+            List.of(MalformedRollbackFixture.class.getAnnotationsByType(RollbackWorld.class));
+
+        // execute + verify
+        assertThatThrownBy(() -> framework.beginMethodScope("method", rollbackRegions))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("'to' must be {x, y, z}");
+    }
+
     @Test
     void crashServer_shouldInvalidatePlayersAndKillProcess()
     {
@@ -432,6 +587,87 @@ class DefaultLightkeeperFrameworkLifecycleTest
         verify(playerScopeRegistry, never()).beginMethodScope("method-3");
     }
 
+    @Test
+    void resetForReuse_shouldRemovePlayersCapturesCreatedWorldsAndErrors()
+    {
+        // setup
+        final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
+        when(minecraftServerProcess.isRunning()).thenReturn(true);
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.newWorld(any(WorldSpec.class))).thenAnswer(invocation ->
+            invocation.<WorldSpec>getArgument(0).name());
+        when(agentClient.unloadWorld(anyString(), anyBoolean())).thenReturn(true);
+        final PlayerScopeRegistry playerScopeRegistry = new PlayerScopeRegistry();
+        final UUID playerId = UUID.randomUUID();
+        playerScopeRegistry.register(playerId);
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifestWithPreloadedWorld(),
+            minecraftServerProcess,
+            agentClient,
+            playerScopeRegistry
+        );
+        framework.events().capture("org.bukkit.event.player.PlayerJoinEvent");
+        framework.worlds().create(
+            new WorldSpec("generated", WorldSpec.WorldType.FLAT, WorldSpec.WorldEnvironment.NORMAL, 0L));
+        framework.worlds().fromTemplate("template_world");
+
+        // execute
+        final boolean reusable = framework.resetForReuse();
+
+        // verify
+        assertThat(reusable).isTrue();
+        verify(agentClient).removePlayer(playerId);
+        verify(agentClient).unregisterEventListener("org.bukkit.event.player.PlayerJoinEvent");
+        verify(agentClient).unloadWorld("generated", true);
+        verify(agentClient).unloadWorld("template_world", false);
+        verify(agentClient, never()).unloadWorld("preload_world", true);
+        verify(agentClient).clearServerErrors();
+        verify(minecraftServerProcess, never()).stop(any());
+    }
+
+    @Test
+    void resetForReuse_shouldReportUnrecoverableWhenServerIsDownOrResetFails()
+    {
+        // setup
+        final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
+        when(minecraftServerProcess.isRunning()).thenReturn(true);
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        doThrow(new IllegalStateException("agent gone")).when(agentClient).clearServerErrors();
+        final DefaultLightkeeperFramework failingReset = new DefaultLightkeeperFramework(
+            runtimeManifest(), minecraftServerProcess, agentClient, new PlayerScopeRegistry());
+        final DefaultLightkeeperFramework crashed = new DefaultLightkeeperFramework(
+            runtimeManifest(), mock(MinecraftServerProcess.class), mock(UdsAgentClient.class),
+            new PlayerScopeRegistry());
+        crashed.server().crash();
+
+        // execute + verify
+        assertThat(failingReset.resetForReuse()).isFalse();
+        assertThat(crashed.resetForReuse()).isFalse();
+    }
+
+    @Test
+    void resetForReuse_shouldReportUnrecoverableWhenCreatedWorldFailsToUnload()
+    {
+        // setup
+        final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
+        when(minecraftServerProcess.isRunning()).thenReturn(true);
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.newWorld(any(WorldSpec.class))).thenAnswer(invocation ->
+            invocation.<WorldSpec>getArgument(0).name());
+        when(agentClient.unloadWorld("generated", true)).thenReturn(false);
+        final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
+            runtimeManifest(), minecraftServerProcess, agentClient, new PlayerScopeRegistry());
+        framework.worlds().create(
+            new WorldSpec("generated", WorldSpec.WorldType.FLAT, WorldSpec.WorldEnvironment.NORMAL, 0L));
+
+        // execute
+        final boolean reusable = framework.resetForReuse();
+
+        // verify
+        assertThat(reusable).isFalse();
+        verify(agentClient, never()).clearServerErrors();
+    }
+
     private static RuntimeManifest runtimeManifest()
     {
         return new RuntimeManifest(
@@ -449,7 +685,10 @@ class DefaultLightkeeperFrameworkLifecycleTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 
@@ -473,7 +712,21 @@ class DefaultLightkeeperFrameworkLifecycleTest
             List.of(
                 new RuntimeManifest.ProvisionedWorld("preload_world", "NORMAL", "NORMAL", 42L, true),
                 new RuntimeManifest.ProvisionedWorld("template_world", "NETHER", "FLAT", 7L, false)
-            )
+            ),
+            List.of(),
+            null,
+            120L
         );
     }
+
+    @RollbackWorld(from = {0, 70, 63}, to = {-63, 60, 0})
+    @RollbackWorld(world = "arena", from = {1, 2, 3}, to = {4, 5, 6})
+    private static final class RollbackFixture
+    {
+    }
+
+    @RollbackWorld(from = {0, 0, 0}, to = {1, 1})
+    private static final class MalformedRollbackFixture
+    {
+    }
 }
@@ -49,7 +49,7 @@ class DefaultLightkeeperFrameworkServerErrorsTest
         // setup — the handle must delegate back through the very framework that created it
         final DefaultLightkeeperFramework framework = framework();
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(), 0L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(0L)).thenReturn(List.of());
+        when(minecraftServerProcess.detectedStderrErrorsFrom(0L)).thenReturn(List.of());
 
         // execute
         final ServerErrorsHandle handle = framework.server().errors();
@@ -65,11 +65,13 @@ class DefaultLightkeeperFrameworkServerErrorsTest
         final DefaultLightkeeperFramework framework = framework();
         final ServerErrorEntry entry = new ServerErrorEntry(
             10L, "ERROR", "ERROR", "net.example.SomePlugin", "Server thread", "boom",
-            "java.lang.IllegalStateException", "boom", List.of("java.lang.IllegalStateException: boom"));
+            "java.lang.IllegalStateException", "boom", List.of("java.lang.IllegalStateException: boom"), 3L, 30L);
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(entry), 0L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(0L)).thenReturn(List.of(
-            new MinecraftServerProcess.OutputLine(
-                "java.lang.RuntimeException: raw", true, 20L)));
+        when(minecraftServerProcess.detectedStderrErrorsFrom(0L)).thenReturn(List.of(
+            new ServerErrorSnapshot(
+                20L, ServerErrorSnapshot.Severity.ERROR, "STDERR", ServerErrorSnapshot.LOGGER_NAME_STDERR, "",
+                "java.lang.RuntimeException: raw", "java.lang.RuntimeException", "raw",
+                List.of("java.lang.RuntimeException: raw"), 1L, 20L)));
 
         // execute
         final List<ServerErrorSnapshot> snapshots = framework.capturedServerErrors();
@@ -78,6 +80,8 @@ class DefaultLightkeeperFrameworkServerErrorsTest
         assertThat(snapshots).hasSize(2);
         assertThat(snapshots.get(0).message()).isEqualTo("boom");
         assertThat(snapshots.get(0).severity()).isEqualTo(ServerErrorSnapshot.Severity.ERROR);
+        assertThat(snapshots.get(0).occurrenceCount()).isEqualTo(3L);
+        assertThat(snapshots.get(0).lastTimestampMillis()).isEqualTo(30L);
         assertThat(snapshots.get(1).message()).isEqualTo("java.lang.RuntimeException: raw");
         assertThat(snapshots.get(1).loggerName()).isEqualTo(ServerErrorSnapshot.LOGGER_NAME_STDERR);
     }
@@ -88,9 +92,10 @@ class DefaultLightkeeperFrameworkServerErrorsTest
         // setup
         final DefaultLightkeeperFramework framework = framework();
         final ServerErrorEntry entry = new ServerErrorEntry(
-            10L, "WARNING", "WARN", "net.example.SomePlugin", "Server thread", "careful", null, null, List.of());
+            10L, "WARNING", "WARN", "net.example.SomePlugin", "Server thread", "careful", null, null, List.of(),
+            1L, 10L);
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(entry), 0L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(0L)).thenReturn(List.of());
+        when(minecraftServerProcess.detectedStderrErrorsFrom(0L)).thenReturn(List.of());
 
         // execute
         final List<ServerErrorSnapshot> snapshots = framework.capturedServerErrors();
@@ -120,7 +125,7 @@ class DefaultLightkeeperFrameworkServerErrorsTest
         // setup — a full buffer must not fail the call, only be reported
         final DefaultLightkeeperFramework framework = framework();
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(), 7L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(0L)).thenReturn(List.of());
+        when(minecraftServerProcess.detectedStderrErrorsFrom(0L)).thenReturn(List.of());
 
         // execute
         final List<ServerErrorSnapshot> snapshots = framework.capturedServerErrors();
@@ -132,17 +137,17 @@ class DefaultLightkeeperFrameworkServerErrorsTest
     @Test
     void clearServerErrors_shouldSnapshotWatermarkBeforeSendingClearRpc()
     {
-        // setup — the watermark must be taken before the RPC so stderr lines written during the round trip
+        // setup — the watermark must be taken before the RPC so stack traces written to stderr during the round trip
         // stay above it and still surface in later capturedServerErrors() calls
         final DefaultLightkeeperFramework framework = framework();
-        when(minecraftServerProcess.totalOutputLineCount()).thenReturn(42L);
+        when(minecraftServerProcess.stderrErrorWatermark()).thenReturn(42L);
 
         // execute
         framework.clearServerErrors();
 
         // verify
         final InOrder callOrder = inOrder(minecraftServerProcess, agentClient);
-        callOrder.verify(minecraftServerProcess).totalOutputLineCount();
+        callOrder.verify(minecraftServerProcess).stderrErrorWatermark();
         callOrder.verify(agentClient).clearServerErrors();
     }
 
@@ -151,16 +156,16 @@ class DefaultLightkeeperFrameworkServerErrorsTest
     {
         // setup
         final DefaultLightkeeperFramework framework = framework();
-        when(minecraftServerProcess.totalOutputLineCount()).thenReturn(42L);
+        when(minecraftServerProcess.stderrErrorWatermark()).thenReturn(42L);
         framework.clearServerErrors();
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(), 0L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(42L)).thenReturn(List.of());
+        when(minecraftServerProcess.detectedStderrErrorsFrom(42L)).thenReturn(List.of());
 
         // execute
         framework.capturedServerErrors();
 
-        // verify — the scan window starts at the watermark set by the earlier clear, not at zero
-        verify(minecraftServerProcess).snapshotStderrLinesFrom(eq(42L));
+        // verify — the detection window starts at the watermark set by the earlier clear, not at zero
+        verify(minecraftServerProcess).detectedStderrErrorsFrom(eq(42L));
     }
 
     @Test
@@ -168,7 +173,7 @@ class DefaultLightkeeperFrameworkServerErrorsTest
     {
         // setup
         final DefaultLightkeeperFramework framework = framework();
-        when(minecraftServerProcess.totalOutputLineCount()).thenReturn(5L);
+        when(minecraftServerProcess.stderrErrorWatermark()).thenReturn(5L);
         framework.beginMethodScope("method-1");
 
         // execute
@@ -210,7 +215,10 @@ class DefaultLightkeeperFrameworkServerErrorsTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
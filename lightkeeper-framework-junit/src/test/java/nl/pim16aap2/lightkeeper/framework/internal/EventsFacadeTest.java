@@ -26,7 +26,22 @@ class EventsFacadeTest
 
         // verify
         assertThat(handle).isNotNull();
-        verify(agentClient).registerEventListener("org.bukkit.event.player.PlayerJoinEvent");
+        verify(agentClient).registerEventListener("org.bukkit.event.player.PlayerJoinEvent", List.of());
+    }
+
+    @Test
+    void capture_shouldRegisterListenerWithProjection()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        final DefaultLightkeeperFramework framework = framework(agentClient);
+
+        // execute
+        framework.events().capture("org.bukkit.event.block.BlockBreakEvent", List.of("getBlock.getType"));
+
+        // verify
+        verify(agentClient)
+            .registerEventListener("org.bukkit.event.block.BlockBreakEvent", List.of("getBlock.getType"));
     }
 
     @Test
@@ -64,7 +79,10 @@ class EventsFacadeTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
@@ -37,7 +37,9 @@ class FailureDiagnosticsWriterTest
             "boom happened",
             "java.lang.IllegalStateException",
             "boom",
-            List.of("at example.Foo.bar(Foo.java:1)")
+            List.of("at example.Foo.bar(Foo.java:1)"),
+            1L,
+            123L
         )));
         when(serverControl.output()).thenReturn(List.of("line one", "line two"));
         final RuntimeException failure = new RuntimeException("test assertion failed");
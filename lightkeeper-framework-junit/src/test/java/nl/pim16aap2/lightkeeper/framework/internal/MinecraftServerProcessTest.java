@@ -20,7 +20,6 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -222,7 +221,48 @@ class MinecraftServerProcessTest
     }
 
     @Test
-    void createOutputReaderThread_shouldCaptureLinesAndSignalStartupOnReadyMarker(@TempDir Path tempDirectory)
+    void getProcessBuilder_shouldPassReadySocketNextToAgentSocket(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final RuntimeManifest runtimeManifest = runtimeManifest(tempDirectory);
+        final MinecraftServerProcess serverProcess =
+            new MinecraftServerProcess(runtimeManifest, tempDirectory.resolve("diagnostics"));
+        final Method getProcessBuilder =
+            MinecraftServerProcess.class.getDeclaredMethod("getProcessBuilder", Path.class);
+        getProcessBuilder.setAccessible(true);
+
+        // execute
+        final ProcessBuilder processBuilder =
+            (ProcessBuilder) getProcessBuilder.invoke(serverProcess, Path.of("java"));
+
+        // verify
+        assertThat(processBuilder.command()).contains(
+            "-D" + RuntimeProtocol.PROPERTY_READY_SOCKET_PATH + "=" + runtimeManifest.udsSocketPath() + ".ready");
+    }
+
+    @Test
+    void getProcessBuilder_shouldPassSyncOperationTimeoutFromManifest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final MinecraftServerProcess serverProcess =
+            new MinecraftServerProcess(runtimeManifest(tempDirectory), tempDirectory.resolve("diagnostics"));
+        final Method getProcessBuilder =
+            MinecraftServerProcess.class.getDeclaredMethod("getProcessBuilder", Path.class);
+        getProcessBuilder.setAccessible(true);
+
+        // execute
+        final ProcessBuilder processBuilder =
+            (ProcessBuilder) getProcessBuilder.invoke(serverProcess, Path.of("java"));
+
+        // verify
+        assertThat(processBuilder.command())
+            .contains("-D" + RuntimeProtocol.PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS + "=120");
+    }
+
+    @Test
+    void createOutputReaderThread_shouldCaptureLinesWithStdoutProvenance(@TempDir Path tempDirectory)
         throws Exception
     {
         // setup
@@ -235,21 +275,19 @@ class MinecraftServerProcessTest
             + "Done (1.234s)! For help, type \"help\"" + System.lineSeparator();
         when(process.getInputStream())
             .thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
-        final CountDownLatch startLatch = new CountDownLatch(1);
-        final Method createOutputReaderThread = MinecraftServerProcess.class
-            .getDeclaredMethod("createOutputReaderThread", Process.class, CountDownLatch.class);
+        final Method createOutputReaderThread =
+            MinecraftServerProcess.class.getDeclaredMethod("createOutputReaderThread", Process.class);
         createOutputReaderThread.setAccessible(true);
-        final Thread readerThread = (Thread) createOutputReaderThread.invoke(serverProcess, process, startLatch);
+        final Thread readerThread = (Thread) createOutputReaderThread.invoke(serverProcess, process);
 
         // execute
         readerThread.start();
         readerThread.join(Duration.ofSeconds(5).toMillis());
 
-        // verify — the readiness marker line signals startup, and both lines land on the stdout pipe
-        assertThat(startLatch.getCount()).isZero();
+        // verify — both lines land on the stdout pipe; readiness is signalled by the agent, not by this output
         assertThat(serverProcess.snapshotOutputLines())
             .containsExactly("Starting server", "Done (1.234s)! For help, type \"help\"");
-        assertThat(serverProcess.snapshotStderrLinesFrom(0L)).isEmpty();
+        assertThat(serverProcess.detectedStderrErrorsFrom(0L)).isEmpty();
     }
 
     @Test
@@ -262,7 +300,8 @@ class MinecraftServerProcessTest
             tempDirectory.resolve("diagnostics")
         );
         final Process process = mock();
-        final String content = "java.lang.RuntimeException: raw" + System.lineSeparator();
+        final String content = "java.lang.RuntimeException: raw" + System.lineSeparator()
+            + "\tat net.example.Foo.bar(Foo.java:1)" + System.lineSeparator();
         when(process.getErrorStream())
             .thenReturn(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
         final Method createErrorReaderThread =
@@ -274,14 +313,17 @@ class MinecraftServerProcessTest
         readerThread.start();
         readerThread.join(Duration.ofSeconds(5).toMillis());
 
-        // verify — the line is captured with stderr provenance, distinct from the stdout pipe
-        assertThat(serverProcess.snapshotStderrLinesFrom(0L))
+        // verify — the trace is detected as the lines arrive and completed when the stream ends
+        assertThat(serverProcess.snapshotOutputLines())
+            .containsExactly("java.lang.RuntimeException: raw", "\tat net.example.Foo.bar(Foo.java:1)");
+        assertThat(serverProcess.detectedStderrErrorsFrom(0L))
             .singleElement()
-            .satisfies(line ->
+            .satisfies(snapshot ->
             {
-                assertThat(line.text()).isEqualTo("java.lang.RuntimeException: raw");
-                assertThat(line.fromStderr()).isTrue();
+                assertThat(snapshot.throwableClass()).isEqualTo("java.lang.RuntimeException");
+                assertThat(snapshot.stackTrace()).hasSize(2);
             });
+        assertThat(serverProcess.detectedStderrErrorsFrom(serverProcess.stderrErrorWatermark())).isEmpty();
     }
 
     @Test
@@ -371,7 +413,7 @@ class MinecraftServerProcessTest
     }
 
     @Test
-    void snapshotOutputLines_shouldPrependDiscardNoteWhenLinesWereEvicted(@TempDir Path tempDirectory)
+    void outputLinesFrom_shouldReturnOnlyLinesPastWatermark(@TempDir Path tempDirectory)
         throws Exception
     {
         // setup
@@ -379,24 +421,19 @@ class MinecraftServerProcessTest
             runtimeManifest(tempDirectory),
             tempDirectory.resolve("diagnostics")
         );
-        final java.lang.reflect.Field discardedField =
-            MinecraftServerProcess.class.getDeclaredField("discardedOutputLineCount");
-        discardedField.setAccessible(true);
-        discardedField.set(serverProcess, 5L);
-
-        appendOutputLine(serverProcess, "survivor line", false);
+        appendOutputLine(serverProcess, "previous test", false);
+        final long watermark = serverProcess.outputWatermark();
+        appendOutputLine(serverProcess, "current test", true);
 
         // execute
-        final List<String> lines = serverProcess.snapshotOutputLines();
+        final List<String> lines = serverProcess.outputLinesFrom(watermark);
 
         // verify
-        assertThat(lines).hasSize(2);
-        assertThat(lines.getFirst()).contains("Discarded").contains("5");
-        assertThat(lines.get(1)).isEqualTo("survivor line");
+        assertThat(lines).containsExactly("current test");
     }
 
     @Test
-    void totalOutputLineCount_shouldIncludeDiscardedLines(@TempDir Path tempDirectory)
+    void snapshotOutputLines_shouldPrependDiscardNoteWhenLinesWereEvicted(@TempDir Path tempDirectory)
         throws Exception
     {
         // setup
@@ -404,48 +441,18 @@ class MinecraftServerProcessTest
             runtimeManifest(tempDirectory),
             tempDirectory.resolve("diagnostics")
         );
-        final java.lang.reflect.Field discardedField =
-            MinecraftServerProcess.class.getDeclaredField("discardedOutputLineCount");
-        discardedField.setAccessible(true);
-        discardedField.set(serverProcess, 7L);
-        appendOutputLine(serverProcess, "line one", false);
-        appendOutputLine(serverProcess, "line two", true);
+        setField(serverProcess, "outputLog", new ServerOutputLog(tempDirectory.resolve("output"), 64 * 1024, 2));
+        for (int idx = 0; idx < 10_000; ++idx)
+            appendOutputLine(serverProcess, "line " + idx, false);
 
         // execute
-        final long totalLineCount = serverProcess.totalOutputLineCount();
+        final List<String> lines = serverProcess.snapshotOutputLines();
 
         // verify
-        assertThat(totalLineCount).isEqualTo(9L);
-    }
-
-    @Test
-    void snapshotStderrLinesFrom_shouldFilterByProvenanceAndWatermark(@TempDir Path tempDirectory)
-        throws Exception
-    {
-        // setup
-        final MinecraftServerProcess serverProcess = new MinecraftServerProcess(
-            runtimeManifest(tempDirectory),
-            tempDirectory.resolve("diagnostics")
-        );
-        appendOutputLine(serverProcess, "stdout before", false);
-        appendOutputLine(serverProcess, "stderr before", true);
-        final long watermark = serverProcess.totalOutputLineCount();
-        appendOutputLine(serverProcess, "stdout after", false);
-        appendOutputLine(serverProcess, "stderr after", true);
-
-        // execute
-        final List<MinecraftServerProcess.OutputLine> stderrLines =
-            serverProcess.snapshotStderrLinesFrom(watermark);
-
-        // verify — only stderr lines at or past the watermark are returned
-        assertThat(stderrLines)
-            .singleElement()
-            .satisfies(line ->
-            {
-                assertThat(line.text()).isEqualTo("stderr after");
-                assertThat(line.fromStderr()).isTrue();
-                assertThat(line.timestampMillis()).isPositive();
-            });
+        assertThat(lines.getFirst()).contains("Discarded");
+        assertThat(lines.get(1)).startsWith("line ");
+        assertThat(lines.getLast()).isEqualTo("line 9999");
+        assertThat(lines).hasSizeLessThan(10_000);
     }
 
     private static void appendOutputLine(MinecraftServerProcess serverProcess, String line, boolean fromStderr)
@@ -474,7 +481,10 @@ class MinecraftServerProcessTest
             RuntimeProtocol.VERSION,
             "agent-cache",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 
@@ -86,7 +86,7 @@ class ServerControlFacadeTest
         final MinecraftServerProcess minecraftServerProcess = mock(MinecraftServerProcess.class);
         final UdsAgentClient agentClient = mock(UdsAgentClient.class);
         when(agentClient.getServerErrors()).thenReturn(new GetServerErrors.Response(List.of(), 0L, true));
-        when(minecraftServerProcess.snapshotStderrLinesFrom(0L)).thenReturn(List.of());
+        when(minecraftServerProcess.detectedStderrErrorsFrom(0L)).thenReturn(List.of());
         final DefaultLightkeeperFramework framework = new DefaultLightkeeperFramework(
             runtimeManifest(), minecraftServerProcess, agentClient, new PlayerScopeRegistry());
 
@@ -120,7 +120,10 @@ class ServerControlFacadeTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
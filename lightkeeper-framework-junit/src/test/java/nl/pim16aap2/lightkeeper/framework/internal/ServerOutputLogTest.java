@@ -0,0 +1,104 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServerOutputLogTest
+{
+    private static final int SMALL_SEGMENT_BYTES = 64 * 1024;
+
+    @Test
+    void linesFrom_shouldReadSliceThroughSparseIndexAcrossSegments(@TempDir Path tempDirectory)
+    {
+        // setup
+        final ServerOutputLog outputLog = new ServerOutputLog(tempDirectory, SMALL_SEGMENT_BYTES, 8);
+        for (int idx = 0; idx < 5_000; ++idx)
+            outputLog.append("line " + idx, idx % 2 == 0);
+
+        // execute
+        final List<MinecraftServerProcess.OutputLine> lines = outputLog.linesFrom(3_333L);
+
+        // verify
+        assertThat(outputLog.watermark()).isEqualTo(5_000L);
+        assertThat(lines).hasSize(1_667);
+        assertThat(lines.getFirst().text()).isEqualTo("line 3333");
+        assertThat(lines.getFirst().fromStderr()).isFalse();
+        assertThat(lines.getLast().text()).isEqualTo("line 4999");
+        assertThat(outputLog.linesFrom(outputLog.watermark())).isEmpty();
+    }
+
+    @Test
+    void close_shouldDeleteSegmentsAndDropLaterLines(@TempDir Path tempDirectory)
+    {
+        // setup
+        final Path directory = tempDirectory.resolve("server-output");
+        final ServerOutputLog outputLog = new ServerOutputLog(directory, SMALL_SEGMENT_BYTES, 2);
+        for (int idx = 0; idx < 3_000; ++idx)
+            outputLog.append("line " + idx, false);
+        final long watermark = outputLog.watermark();
+
+        // execute
+        outputLog.close();
+        outputLog.append("after close", false);
+
+        // verify
+        assertThat(directory).doesNotExist();
+        assertThat(outputLog.linesFrom(0L)).isEmpty();
+        assertThat(outputLog.watermark()).isEqualTo(watermark);
+    }
+
+    @Test
+    void append_shouldDiscardOldestSegmentWhenRetentionIsExceeded(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ServerOutputLog outputLog = new ServerOutputLog(tempDirectory, SMALL_SEGMENT_BYTES, 2);
+
+        // execute
+        for (int idx = 0; idx < 10_000; ++idx)
+            outputLog.append("line " + idx, false);
+
+        // verify
+        final List<MinecraftServerProcess.OutputLine> retained = outputLog.linesFrom(0L);
+        assertThat(outputLog.discardedLineCount()).isPositive();
+        assertThat(retained.getFirst().text()).isEqualTo("line " + outputLog.discardedLineCount());
+        assertThat(retained.getLast().text()).isEqualTo("line 9999");
+        assertThat(outputLog.discardedLineCount() + retained.size()).isEqualTo(10_000L);
+        try (Stream<Path> segmentFiles = Files.list(tempDirectory))
+        {
+            assertThat(segmentFiles).hasSize(2);
+        }
+    }
+
+    @Test
+    void append_shouldReplaceSegmentsLeftByEarlierRun(@TempDir Path tempDirectory)
+    {
+        // setup
+        new ServerOutputLog(tempDirectory, SMALL_SEGMENT_BYTES, 2).append("old run", false);
+
+        // execute
+        final ServerOutputLog outputLog = new ServerOutputLog(tempDirectory, SMALL_SEGMENT_BYTES, 2);
+        outputLog.append("new run", false);
+
+        // verify
+        assertThat(outputLog.linesFrom(0L)).extracting(MinecraftServerProcess.OutputLine::text)
+            .containsExactly("new run");
+    }
+
+    @Test
+    void constructor_shouldRejectSegmentsTooSmallForLongestLine(@TempDir Path tempDirectory)
+    {
+        // execute + verify
+        assertThatThrownBy(() -> new ServerOutputLog(tempDirectory, 1024, 2))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("too small");
+    }
+}
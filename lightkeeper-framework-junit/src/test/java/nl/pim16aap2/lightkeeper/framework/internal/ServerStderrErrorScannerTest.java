@@ -17,6 +17,15 @@ class ServerStderrErrorScannerTest
         return new OutputLine(text, true, 1_720_000_000_000L);
     }
 
+    private static List<ServerErrorSnapshot> scan(List<OutputLine> lines)
+    {
+        final ServerStderrErrorScanner scanner = new ServerStderrErrorScanner();
+        for (final OutputLine line : lines)
+            scanner.accept(line.text(), line.timestampMillis());
+        scanner.endOfStream();
+        return scanner.detectedFrom(0L);
+    }
+
     @Test
     void scan_shouldGroupBareThrowableWithFramesIntoOneSnapshot()
     {
@@ -28,7 +37,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(1);
@@ -56,7 +65,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(1);
@@ -78,7 +87,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(1);
@@ -98,7 +107,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(2);
@@ -118,7 +127,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).isEmpty();
@@ -136,7 +145,7 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify — the trailing orphan frame after the block ended is not attached to anything
         assertThat(snapshots).hasSize(1);
@@ -154,7 +163,7 @@ class ServerStderrErrorScannerTest
         ).toList();
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(1);
@@ -166,7 +175,7 @@ class ServerStderrErrorScannerTest
     void scan_shouldReturnEmptyListForEmptyInput()
     {
         // execute + verify
-        assertThat(ServerStderrErrorScanner.scan(List.of())).isEmpty();
+        assertThat(scan(List.of())).isEmpty();
     }
 
     @Test
@@ -179,10 +188,68 @@ class ServerStderrErrorScannerTest
         );
 
         // execute
-        final List<ServerErrorSnapshot> snapshots = ServerStderrErrorScanner.scan(lines);
+        final List<ServerErrorSnapshot> snapshots = scan(lines);
 
         // verify
         assertThat(snapshots).hasSize(1);
         assertThat(snapshots.getFirst().throwableMessage()).isNull();
     }
+
+    @Test
+    void detectedFrom_shouldIncludeBlockStillReceivingLines()
+    {
+        // setup
+        final ServerStderrErrorScanner scanner = new ServerStderrErrorScanner();
+        scanner.accept("java.lang.IllegalStateException: in progress", 1L);
+        scanner.accept("\tat net.example.Foo.a(Foo.java:1)", 1L);
+
+        // execute
+        final List<ServerErrorSnapshot> beforeMoreLines = scanner.detectedFrom(0L);
+        scanner.accept("\tat net.example.Foo.b(Foo.java:2)", 2L);
+        final List<ServerErrorSnapshot> afterMoreLines = scanner.detectedFrom(0L);
+
+        // verify — each call sees the open block as detected so far, never twice
+        assertThat(beforeMoreLines).singleElement()
+            .satisfies(snapshot -> assertThat(snapshot.stackTrace()).hasSize(2));
+        assertThat(afterMoreLines).singleElement()
+            .satisfies(snapshot -> assertThat(snapshot.stackTrace()).hasSize(3));
+    }
+
+    @Test
+    void detectedFrom_shouldExcludeBlocksBeforeWatermarkIncludingOpenOne()
+    {
+        // setup
+        final ServerStderrErrorScanner scanner = new ServerStderrErrorScanner();
+        scanner.accept("java.lang.IllegalStateException: before", 1L);
+        scanner.accept("\tat net.example.Foo.a(Foo.java:1)", 1L);
+        final long watermark = scanner.watermark();
+
+        // execute — the open block completes after the watermark was taken, then a new block arrives
+        scanner.accept("\tat net.example.Foo.b(Foo.java:2)", 2L);
+        scanner.accept("java.lang.IllegalArgumentException: after", 3L);
+        scanner.endOfStream();
+
+        // verify
+        assertThat(scanner.detectedFrom(watermark))
+            .extracting(ServerErrorSnapshot::throwableMessage)
+            .containsExactly("after");
+        assertThat(scanner.detectedFrom(0L)).hasSize(2);
+    }
+
+    @Test
+    void detectedFrom_shouldEvictOldestBlocksBeyondRetentionLimit()
+    {
+        // setup
+        final ServerStderrErrorScanner scanner = new ServerStderrErrorScanner();
+
+        // execute
+        for (int i = 0; i < ServerStderrErrorScanner.MAX_RETAINED_BLOCKS + 3; i++)
+            scanner.accept("java.lang.RuntimeException: block-" + i, i);
+        scanner.endOfStream();
+
+        // verify
+        final List<ServerErrorSnapshot> snapshots = scanner.detectedFrom(0L);
+        assertThat(snapshots).hasSize(ServerStderrErrorScanner.MAX_RETAINED_BLOCKS);
+        assertThat(snapshots.getFirst().throwableMessage()).isEqualTo("block-3");
+    }
 }
@@ -0,0 +1,34 @@
+package nl.pim16aap2.lightkeeper.framework.internal;
+
+import nl.pim16aap2.lightkeeper.runtime.AgentReadinessSignal;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineTest
+{
+    @Test
+    void describe_shouldListPhasesRelativeToLaunchAndAppendHandshake()
+    {
+        // setup
+        final StartupTimeline timeline = new StartupTimeline(
+            10_000L,
+            AgentReadinessSignal.ready(Map.of(
+                AgentReadinessSignal.Phase.JVM_START, 10_080L,
+                AgentReadinessSignal.Phase.WORLDS_LOADED, 14_500L,
+                AgentReadinessSignal.Phase.AGENT_READY, 15_000L
+            ))
+        );
+
+        // execute
+        final String beforeHandshake = timeline.describe();
+        timeline.markHandshake(15_020L);
+        final String afterHandshake = timeline.describe();
+
+        // verify
+        assertThat(beforeHandshake).isEqualTo("jvm-start +80 ms, worlds-loaded +4500 ms, agent-ready +5000 ms");
+        assertThat(afterHandshake).endsWith(", agent-ready +5000 ms, handshake +5020 ms");
+    }
+}
@@ -693,6 +693,27 @@ class UdsAgentClientTest
         }
     }
 
+    @Test
+    void unloadWorld_shouldSendUnloadWorldRequest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path socketPath = tempDirectory.resolve("unload-world.sock");
+        final String responseJson = "{\"requestId\":\"1\",\"success\":true,\"unloaded\":true}";
+        try (AgentSocketServer server = AgentSocketServer.start(socketPath, responseJson);
+             UdsAgentClient client = new UdsAgentClient(socketPath, Duration.ofSeconds(3)))
+        {
+            // execute
+            final boolean unloaded = client.unloadWorld("lk_world_1", true);
+
+            // verify
+            assertThat(unloaded).isTrue();
+            assertThat(server.capturedRequest())
+                .contains("\"action\":\"UNLOAD_WORLD\"")
+                .contains("\"deleteFolder\":true");
+        }
+    }
+
     @Test
     void registerEventListener_shouldSendRegisterRequest(@TempDir Path tempDirectory)
         throws Exception
@@ -704,12 +725,13 @@ class UdsAgentClientTest
              UdsAgentClient client = new UdsAgentClient(socketPath, Duration.ofSeconds(3)))
         {
             // execute
-            client.registerEventListener("org.bukkit.event.player.PlayerJoinEvent");
+            client.registerEventListener("org.bukkit.event.player.PlayerJoinEvent", List.of("getPlayer.getName"));
 
             // verify
             assertThat(server.capturedRequest())
                 .contains("\"action\":\"REGISTER_EVENT_LISTENER\"")
-                .contains("PlayerJoinEvent");
+                .contains("PlayerJoinEvent")
+                .contains("\"projection\":[\"getPlayer.getName\"]");
         }
     }
 
@@ -957,7 +979,7 @@ class UdsAgentClientTest
              UdsAgentClient client = new UdsAgentClient(socketPath, Duration.ofSeconds(3)))
         {
             // execute
-            final var response = client.queryEntities("world", null, null, null, false);
+            final var response = client.queryEntities("world", null, null, null, false, List.of());
 
             // verify
             assertThat(response.tick()).isEqualTo(10L);
@@ -984,7 +1006,8 @@ class UdsAgentClientTest
         {
             // execute
             final var response = client.queryEntities(
-                "world", "minecraft:zombie", new BlockPos(0, 1, 2), new BlockPos(10, 11, 12), false);
+                "world", "minecraft:zombie", new BlockPos(0, 1, 2), new BlockPos(10, 11, 12), false,
+                List.of("getHealth"));
 
             // verify
             assertThat(response.count()).isEqualTo(2);
@@ -997,7 +1020,8 @@ class UdsAgentClientTest
                 .contains("\"minZ\":2")
                 .contains("\"maxX\":10")
                 .contains("\"maxY\":11")
-                .contains("\"maxZ\":12");
+                .contains("\"maxZ\":12")
+                .contains("\"projection\":[\"getHealth\"]");
         }
     }
 
@@ -1013,7 +1037,8 @@ class UdsAgentClientTest
         {
             // execute
             final Throwable thrown =
-                catchThrowable(() -> client.queryEntities("world", null, new BlockPos(0, 1, 2), null, false));
+                catchThrowable(() -> client.queryEntities(
+                    "world", null, new BlockPos(0, 1, 2), null, false, List.of()));
 
             // verify
             assertThat(thrown)
@@ -1033,7 +1058,7 @@ class UdsAgentClientTest
              UdsAgentClient client = new UdsAgentClient(socketPath, Duration.ofSeconds(3)))
         {
             // execute
-            final var response = client.queryEntities("world", null, null, null, true);
+            final var response = client.queryEntities("world", null, null, null, true, List.of());
 
             // verify
             assertThat(response.count()).isEqualTo(5);
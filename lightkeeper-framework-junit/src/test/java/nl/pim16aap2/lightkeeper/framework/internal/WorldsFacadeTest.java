@@ -87,6 +87,43 @@ class WorldsFacadeTest
             .hasMessageContaining("blank");
     }
 
+    @Test
+    void create_shouldThrowExceptionWhenLayersWorldHasNoLayers()
+    {
+        // setup
+        final DefaultLightkeeperFramework framework = framework(mock(UdsAgentClient.class));
+
+        // execute + verify
+        assertThatThrownBy(() -> framework.worlds().create(new WorldSpec(
+            "layers", WorldSpec.WorldType.LAYERS, WorldSpec.WorldEnvironment.NORMAL, 0L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("layers");
+    }
+
+    @Test
+    void builder_shouldCreateLayersWorldWhenLayersAreSet()
+    {
+        // setup
+        final UdsAgentClient agentClient = mock(UdsAgentClient.class);
+        when(agentClient.newWorld(any(WorldSpec.class))).thenReturn("created");
+        final DefaultLightkeeperFramework framework = framework(agentClient);
+
+        // execute
+        framework.worlds().builder()
+            .withName("layers")
+            .withLayers("minecraft:bedrock,2*minecraft:dirt")
+            .build();
+
+        // verify
+        verify(agentClient).newWorld(new WorldSpec(
+            "layers",
+            WorldSpec.WorldType.LAYERS,
+            WorldSpec.WorldEnvironment.NORMAL,
+            DefaultLightkeeperFramework.DEFAULT_WORLD_SEED,
+            "minecraft:bedrock,2*minecraft:dirt"
+        ));
+    }
+
     @Test
     void builder_shouldReturnWorldBuilder()
     {
@@ -136,7 +173,10 @@ class WorldsFacadeTest
             1,
             "agent-cache-identity",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
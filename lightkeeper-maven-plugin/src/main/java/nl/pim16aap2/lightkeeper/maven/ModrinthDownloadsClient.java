@@ -8,6 +8,7 @@ import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.PropertyNamingStrategies;
 import nl.pim16aap2.lightkeeper.maven.provisioning.PluginArtifactSpec;
+import nl.pim16aap2.lightkeeper.maven.util.HttpMetadataCache;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.jspecify.annotations.Nullable;
@@ -17,7 +18,6 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Comparator;
@@ -37,6 +37,7 @@ public final class ModrinthDownloadsClient
     private final String userAgent;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final HttpMetadataCache metadataCache;
 
     /**
      * Creates a Modrinth downloads client.
@@ -63,6 +64,11 @@ public final class ModrinthDownloadsClient
     }
 
     public ModrinthDownloadsClient(Log log, String userAgent, HttpClient httpClient)
+    {
+        this(log, userAgent, httpClient, HttpMetadataCache.disabled());
+    }
+
+    public ModrinthDownloadsClient(Log log, String userAgent, HttpClient httpClient, HttpMetadataCache metadataCache)
     {
         this(
             log,
@@ -71,16 +77,28 @@ public final class ModrinthDownloadsClient
             JsonMapper.builder()
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
                 .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
-                .build()
+                .build(),
+            metadataCache
         );
     }
 
     ModrinthDownloadsClient(Log log, String userAgent, HttpClient httpClient, ObjectMapper objectMapper)
+    {
+        this(log, userAgent, httpClient, objectMapper, HttpMetadataCache.disabled());
+    }
+
+    ModrinthDownloadsClient(
+        Log log,
+        String userAgent,
+        HttpClient httpClient,
+        ObjectMapper objectMapper,
+        HttpMetadataCache metadataCache)
     {
         this.log = Objects.requireNonNull(log, "log");
         this.userAgent = validateUserAgent(userAgent);
         this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
         this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.metadataCache = Objects.requireNonNull(metadataCache, "metadataCache");
     }
 
     /**
@@ -305,10 +323,10 @@ public final class ModrinthDownloadsClient
             .GET()
             .build();
 
-        final HttpResponse<String> response;
+        final HttpMetadataCache.Response response;
         try
         {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            response = metadataCache.get(httpClient, request);
         }
         catch (InterruptedException exception)
         {
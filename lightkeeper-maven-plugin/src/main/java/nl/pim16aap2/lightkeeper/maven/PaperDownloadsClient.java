@@ -6,6 +6,7 @@ import tools.jackson.databind.DeserializationFeature;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
+import nl.pim16aap2.lightkeeper.maven.util.HttpMetadataCache;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -14,7 +15,6 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
@@ -39,6 +39,7 @@ public final class PaperDownloadsClient
     private final String userAgent;
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final HttpMetadataCache metadataCache;
 
     /**
      * Creates a client for querying Paper metadata and downloads.
@@ -49,6 +50,21 @@ public final class PaperDownloadsClient
      *     HTTP user-agent header value.
      */
     public PaperDownloadsClient(Log log, String userAgent)
+    {
+        this(log, userAgent, HttpMetadataCache.disabled());
+    }
+
+    /**
+     * Creates a client for querying Paper metadata and downloads that caches metadata responses.
+     *
+     * @param log
+     *     Maven log sink.
+     * @param userAgent
+     *     HTTP user-agent header value.
+     * @param metadataCache
+     *     Cache for build metadata responses.
+     */
+    public PaperDownloadsClient(Log log, String userAgent, HttpMetadataCache metadataCache)
     {
         this(
             log,
@@ -59,16 +75,28 @@ public final class PaperDownloadsClient
                 .build(),
             JsonMapper.builder()
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-                .build()
+                .build(),
+            metadataCache
         );
     }
 
     PaperDownloadsClient(Log log, String userAgent, HttpClient httpClient, ObjectMapper objectMapper)
+    {
+        this(log, userAgent, httpClient, objectMapper, HttpMetadataCache.disabled());
+    }
+
+    PaperDownloadsClient(
+        Log log,
+        String userAgent,
+        HttpClient httpClient,
+        ObjectMapper objectMapper,
+        HttpMetadataCache metadataCache)
     {
         this.log = Objects.requireNonNull(log, "log");
         this.userAgent = validateUserAgent(userAgent);
         this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
         this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.metadataCache = Objects.requireNonNull(metadataCache, "metadataCache");
     }
 
     /**
@@ -194,10 +222,10 @@ public final class PaperDownloadsClient
             .GET()
             .build();
 
-        final HttpResponse<String> response;
+        final HttpMetadataCache.Response response;
         try
         {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            response = metadataCache.get(httpClient, request);
         }
         catch (InterruptedException exception)
         {
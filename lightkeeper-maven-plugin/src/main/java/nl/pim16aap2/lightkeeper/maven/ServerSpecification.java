@@ -1,5 +1,6 @@
 package nl.pim16aap2.lightkeeper.maven;
 
+import nl.pim16aap2.lightkeeper.maven.serverprovider.ServerProfile;
 import org.jspecify.annotations.Nullable;
 
 import java.nio.file.Path;
@@ -45,6 +46,11 @@ import java.nio.file.Path;
  *     If null, the default Java executable will be used based on the system's PATH.
  * @param extraJvmArgs
  *     Additional JVM arguments to pass when starting the server.
+ * @param spawnPregenerationRadius
+ *     The radius, in chunks, of the overworld spawn area pre-generated in the base server. Values up to the server
+ *     default of 2 disable pre-generation.
+ * @param serverProfile
+ *     The configuration profile applied to the base server before the target server's config overlay.
  */
 public record ServerSpecification(
     String serverVersion,
@@ -69,7 +75,9 @@ public record ServerSpecification(
     @Nullable String agentJarSha256,
     String agentAuthToken,
     int runtimeProtocolVersion,
-    String agentCacheIdentity
+    String agentCacheIdentity,
+    int spawnPregenerationRadius,
+    ServerProfile serverProfile
 )
 {
 }
@@ -5,6 +5,7 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.DeserializationFeature;
+import nl.pim16aap2.lightkeeper.maven.util.HttpMetadataCache;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -13,7 +14,6 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
@@ -41,6 +41,7 @@ public final class SpigotDownloadsClient
     private final ObjectMapper objectMapper;
     private final URI buildToolsUri;
     private final URI buildToolsMetadataUri;
+    private final HttpMetadataCache metadataCache;
 
     /**
      * Creates a resolver for Spigot BuildTools metadata.
@@ -51,12 +52,28 @@ public final class SpigotDownloadsClient
      *     HTTP user-agent used for BuildTools metadata requests.
      */
     public SpigotDownloadsClient(Log log, String userAgent)
+    {
+        this(log, userAgent, HttpMetadataCache.disabled());
+    }
+
+    /**
+     * Creates a resolver for Spigot BuildTools metadata that caches metadata responses.
+     *
+     * @param log
+     *     Maven log for diagnostics.
+     * @param userAgent
+     *     HTTP user-agent used for BuildTools metadata requests.
+     * @param metadataCache
+     *     Cache for BuildTools metadata responses.
+     */
+    public SpigotDownloadsClient(Log log, String userAgent, HttpMetadataCache metadataCache)
     {
         this(
             log,
             userAgent,
             DEFAULT_BUILDTOOLS_URI,
-            DEFAULT_BUILDTOOLS_METADATA_URI
+            DEFAULT_BUILDTOOLS_METADATA_URI,
+            metadataCache
         );
     }
 
@@ -77,6 +94,16 @@ public final class SpigotDownloadsClient
         String userAgent,
         URI buildToolsUri,
         URI buildToolsMetadataUri)
+    {
+        this(log, userAgent, buildToolsUri, buildToolsMetadataUri, HttpMetadataCache.disabled());
+    }
+
+    SpigotDownloadsClient(
+        Log log,
+        String userAgent,
+        URI buildToolsUri,
+        URI buildToolsMetadataUri,
+        HttpMetadataCache metadataCache)
     {
         this.log = Objects.requireNonNull(log, "log may not be null.");
         this.userAgent = validateUserAgent(userAgent);
@@ -90,6 +117,7 @@ public final class SpigotDownloadsClient
         this.objectMapper = JsonMapper.builder()
             .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
             .build();
+        this.metadataCache = Objects.requireNonNull(metadataCache, "metadataCache may not be null.");
     }
 
     /**
@@ -136,10 +164,10 @@ public final class SpigotDownloadsClient
             .GET()
             .build();
 
-        final HttpResponse<String> response;
+        final HttpMetadataCache.Response response;
         try
         {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            response = metadataCache.get(httpClient, request);
         }
         catch (InterruptedException exception)
         {
@@ -0,0 +1,129 @@
+package nl.pim16aap2.lightkeeper.maven.mojo.cachestats;
+
+import nl.pim16aap2.lightkeeper.maven.util.CacheManager;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reports the disk usage of the server jar, base server, world and class-data archive caches.
+ * <p>
+ * Lists every cache entry in eviction order, with its size, idle time and creation cost, followed by the total per
+ * kind of cache and the configured budget. Jar and base server entries are listed once a {@code prepare-server} build
+ * has used them, because their directories depend on the server type and version. The report refreshes the cache
+ * index but never evicts anything.
+ */
+@Mojo(name = "cache-stats", requiresProject = false)
+public final class CacheStatsMojo extends AbstractMojo
+{
+    /**
+     * Directory holding the cache index; the same as {@code prepare-server}'s.
+     */
+    @Parameter(
+        property = "lightkeeper.cacheIndexDirectory",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache",
+        required = true
+    )
+    private @Nullable Path cacheIndexDirectory;
+
+    @Parameter(
+        property = "lightkeeper.worldArchiveCacheDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/worlds"
+    )
+    private @Nullable Path worldArchiveCacheDirectoryRoot;
+
+    @Parameter(
+        property = "lightkeeper.classDataArchiveDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/cds"
+    )
+    private @Nullable Path classDataArchiveDirectoryRoot;
+
+    /**
+     * The budget to report usage against, in MiB; {@code 0} for none.
+     */
+    @Parameter(property = "lightkeeper.cacheSizeBudgetMb", defaultValue = "0")
+    private long cacheSizeBudgetMb;
+
+    /**
+     * Creates a cache-stats mojo instance for Maven execution.
+     */
+    public CacheStatsMojo()
+    {
+    }
+
+    @Override
+    public void execute()
+        throws MojoExecutionException
+    {
+        final Map<String, Path> roots = new LinkedHashMap<>();
+        if (worldArchiveCacheDirectoryRoot != null)
+            roots.put("world", worldArchiveCacheDirectoryRoot);
+        if (classDataArchiveDirectoryRoot != null)
+            roots.put("cds", classDataArchiveDirectoryRoot);
+        final CacheManager cacheManager = CacheManager.open(
+            Objects.requireNonNull(cacheIndexDirectory, "cacheIndexDirectory may not be null."),
+            roots,
+            cacheSizeBudgetMb * 1024L * 1024L,
+            getLog()
+        );
+
+        final Instant now = Instant.now();
+        final List<CacheManager.Entry> entries = cacheManager.scan();
+        final Map<String, long[]> totals = new TreeMap<>();
+        for (final CacheManager.Entry entry : entries)
+        {
+            getLog().info("LK_CACHE: %-6s %10s  idle %6s  cost %6s  %s".formatted(
+                entry.kind(),
+                CacheManager.formatBytes(entry.sizeBytes()),
+                formatDuration(Duration.between(entry.lastAccess(), now)),
+                formatDuration(entry.cost()),
+                entry.directory()
+            ));
+            final long[] total = totals.computeIfAbsent(entry.kind(), ignored -> new long[2]);
+            ++total[0];
+            total[1] += entry.sizeBytes();
+        }
+
+        long totalBytes = 0L;
+        for (final Map.Entry<String, long[]> total : totals.entrySet())
+        {
+            getLog().info("LK_CACHE: %s cache: %d entries, %s.".formatted(
+                total.getKey(), total.getValue()[0], CacheManager.formatBytes(total.getValue()[1])));
+            totalBytes += total.getValue()[1];
+        }
+
+        if (cacheManager.budgetBytes() > 0)
+            getLog().info("LK_CACHE: Total: %s of the %s budget (%d%%).".formatted(
+                CacheManager.formatBytes(totalBytes),
+                CacheManager.formatBytes(cacheManager.budgetBytes()),
+                totalBytes * 100L / cacheManager.budgetBytes()
+            ));
+        else
+            getLog().info("LK_CACHE: Total: %s; no budget configured.".formatted(CacheManager.formatBytes(totalBytes)));
+    }
+
+    /**
+     * Formats a duration compactly, like {@code 45s}, {@code 12m}, {@code 5h} or {@code 3d}.
+     */
+    private static String formatDuration(Duration duration)
+    {
+        if (duration.isNegative() || duration.toMinutes() == 0)
+            return Math.max(0L, duration.toSeconds()) + "s";
+        if (duration.toHours() == 0)
+            return duration.toMinutes() + "m";
+        if (duration.toDays() == 0)
+            return duration.toHours() + "h";
+        return duration.toDays() + "d";
+    }
+}
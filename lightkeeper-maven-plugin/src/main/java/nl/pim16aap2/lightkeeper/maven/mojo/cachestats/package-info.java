@@ -0,0 +1,6 @@
+/**
+ * Cache-stats mojo implementation.
+ * <p>
+ * This package reports the disk usage of the caches shared by every build on the machine.
+ */
+package nl.pim16aap2.lightkeeper.maven.mojo.cachestats;
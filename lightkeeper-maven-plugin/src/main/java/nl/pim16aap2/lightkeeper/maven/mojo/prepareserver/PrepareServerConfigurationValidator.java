@@ -34,6 +34,8 @@ final class PrepareServerConfigurationValidator
         int configuredServerStartMaxAttempts,
         int configuredJarCacheExpiryDays,
         int configuredBaseServerCacheExpiryDays,
+        int configuredServerCount,
+        long configuredSyncOperationTimeoutSeconds,
         @Nullable String configuredExtraJvmArgs
     )
         throws MojoExecutionException
@@ -67,6 +69,12 @@ final class PrepareServerConfigurationValidator
         if (configuredBaseServerCacheExpiryDays < 0)
             throw new MojoExecutionException("`lightkeeper.baseServerCacheExpiryDays` must be at least 0.");
 
+        if (configuredServerCount < 1)
+            throw new MojoExecutionException("`lightkeeper.serverCount` must be at least 1.");
+
+        if (configuredSyncOperationTimeoutSeconds < 1)
+            throw new MojoExecutionException("`lightkeeper.syncOperationTimeoutSeconds` must be at least 1.");
+
         PrepareServerRuntimeSupport.validateExtraJvmArgs(configuredExtraJvmArgs);
     }
 }
@@ -3,6 +3,7 @@ package nl.pim16aap2.lightkeeper.maven.mojo.prepareserver;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import nl.pim16aap2.lightkeeper.maven.provisioning.LoopbackLoginGuard;
+import nl.pim16aap2.lightkeeper.maven.provisioning.PaperRemappedPluginCache;
 import nl.pim16aap2.lightkeeper.maven.provisioning.PluginArtifactSpec;
 import nl.pim16aap2.lightkeeper.maven.provisioning.ResolvedPluginArtifact;
 import nl.pim16aap2.lightkeeper.maven.provisioning.ServerAssetInstaller;
@@ -15,9 +16,15 @@ import nl.pim16aap2.lightkeeper.maven.SpigotBuildMetadata;
 import nl.pim16aap2.lightkeeper.maven.SpigotDownloadsClient;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.PaperServerProvider;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.ServerProvider;
+import nl.pim16aap2.lightkeeper.maven.serverprovider.ServerProfile;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.SpigotServerProvider;
+import nl.pim16aap2.lightkeeper.maven.util.ArchiveExtractionCache;
 import nl.pim16aap2.lightkeeper.maven.util.CacheKeyUtil;
+import nl.pim16aap2.lightkeeper.maven.util.CacheManager;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.DirectorySync;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
+import nl.pim16aap2.lightkeeper.maven.util.HttpMetadataCache;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.apache.maven.plugin.AbstractMojo;
@@ -34,7 +41,11 @@ import org.jspecify.annotations.Nullable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -89,6 +100,72 @@ public class PrepareServerMojo extends AbstractMojo
     @Nullable
     private Path pluginArtifactCacheDirectoryRoot;
 
+    /**
+     * Maximum number of plugin artifacts resolved and downloaded at the same time.
+     */
+    @Parameter(property = "lightkeeper.pluginResolutionParallelism", defaultValue = "4")
+    private int pluginResolutionParallelism;
+
+    /**
+     * Root of the content-addressed store shared by all builds on the machine.
+     * <p>
+     * Plugin jars are stored once per distinct SHA-256 and hard-linked into the target server. The store's index
+     * remembers the hash of every file it has read, so unchanged jars are not hashed again on later builds.
+     */
+    @Parameter(
+        property = "lightkeeper.contentStoreDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/cas"
+    )
+    @Nullable
+    private Path contentStoreDirectoryRoot;
+
+    /**
+     * Whether to hash every file again even when the content store's index says it is unchanged.
+     * <p>
+     * Index entries whose hash turns out to be wrong are reported as a warning. Meant for diagnosing a suspected stale
+     * index, for example on filesystems that do not update modification times.
+     */
+    @Parameter(property = "lightkeeper.verifyHashIndex", defaultValue = "false")
+    private boolean verifyHashIndex;
+
+    private @Nullable ContentStore contentStore;
+
+    /**
+     * Root of the cache of extracted world archives, keyed by archive SHA-256.
+     * <p>
+     * An unchanged world archive is inflated only once; later builds copy the world out of this cache.
+     */
+    @Parameter(
+        property = "lightkeeper.worldArchiveCacheDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/worlds"
+    )
+    @Nullable
+    private Path worldArchiveCacheDirectoryRoot;
+
+    /**
+     * Root of the cache of Paper, Spigot and Modrinth metadata responses.
+     */
+    @Parameter(
+        property = "lightkeeper.httpMetadataCacheDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/http"
+    )
+    @Nullable
+    private Path httpMetadataCacheDirectoryRoot;
+
+    /**
+     * How long cached metadata is used before the server is asked, with a conditional request, whether it changed.
+     */
+    @Parameter(property = "lightkeeper.httpMetadataCacheTtlMinutes", defaultValue = "60")
+    private int httpMetadataCacheTtlMinutes;
+
+    /**
+     * Serves cached metadata of any age and never queries metadata APIs. Defaults to Maven's offline mode.
+     */
+    @Parameter(property = "lightkeeper.offline", defaultValue = "${settings.offline}")
+    private boolean offline;
+
+    private @Nullable HttpMetadataCache httpMetadataCache;
+
     @Parameter(
         property = "lightkeeper.serverWorkDirectoryRoot",
         defaultValue = "${project.build.directory}/lightkeeper-server", required = true
@@ -131,6 +208,46 @@ public class PrepareServerMojo extends AbstractMojo
     @Parameter(property = "lightkeeper.cleanupUnusedCacheDirectories", defaultValue = "true")
     private boolean cleanupUnusedCacheDirectories;
 
+    /**
+     * Maximum total size, in MiB, of the server jar, base server, world and class-data archive caches. {@code 0}
+     * disables the budget.
+     * <p>
+     * When set, the least recently used entries are evicted after preparation until the caches fit, weighted by how
+     * long each entry took to create, and the budget replaces the age-based pruning of the jar and base server caches.
+     */
+    @Parameter(property = "lightkeeper.cacheSizeBudgetMb", defaultValue = "0")
+    private long cacheSizeBudgetMb;
+
+    /**
+     * Directory holding the cache index that records the size, last access and creation cost of every cache entry.
+     */
+    @Parameter(
+        property = "lightkeeper.cacheIndexDirectory",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache"
+    )
+    @Nullable
+    private Path cacheIndexDirectory;
+
+    /**
+     * Whether the target server is synchronized with its desired state instead of being re-created.
+     * <p>
+     * The desired state is the base server plus worlds, plugins and the config overlay. Only files that differ from
+     * it are rewritten, so a build that only changed the plugin under test re-links one jar instead of copying the
+     * whole server and its worlds again.
+     */
+    @Parameter(property = "lightkeeper.incrementalTargetSync", defaultValue = "true")
+    private boolean incrementalTargetSync;
+
+    /**
+     * Whether plugin jars Paper remapped in an earlier run are installed in the target server before it starts.
+     * <p>
+     * Paper remaps Spigot-mapped plugin jars, including the agent, into {@code plugins/.paper-remapped} on startup.
+     * The remapped jars of the previous run are kept in the content store per Paper build, so a fresh target server
+     * does not remap unchanged plugins again. Requires a content store.
+     */
+    @Parameter(property = "lightkeeper.reusePaperRemappedPlugins", defaultValue = "true")
+    private boolean reusePaperRemappedPlugins;
+
     @Parameter(property = "lightkeeper.serverInitTimeoutSeconds", defaultValue = "120")
     private int serverInitTimeoutSeconds;
 
@@ -140,6 +257,46 @@ public class PrepareServerMojo extends AbstractMojo
     @Parameter(property = "lightkeeper.serverStartMaxAttempts", defaultValue = "2")
     private int serverStartMaxAttempts;
 
+    /**
+     * Radius, in chunks, of the overworld spawn area to pre-generate in the cached base server, so target servers and
+     * tests load those chunks instead of generating them. {@code 0} disables pre-generation; the maximum is 32.
+     */
+    @Parameter(property = "lightkeeper.spawnPregenerationRadius", defaultValue = "0")
+    private int spawnPregenerationRadius;
+
+    /**
+     * Configuration profile applied to the cached base server, before the config overlay. {@code FAST_TEST} lowers
+     * view and simulation distance, unloads the spawn area, disables auto-save, statistics and advancement saving and
+     * the chat-signing checks, and shrinks entity activation ranges; see the README for the individual settings.
+     */
+    @Parameter(property = "lightkeeper.serverProfile", defaultValue = "DEFAULT")
+    private ServerProfile serverProfile;
+
+    /**
+     * Number of independent servers to provision from the cached base server.
+     * <p>
+     * Every server beyond the first is a clone of the fully provisioned target server in a sibling directory, with
+     * its own port, agent socket and auth token. The framework leases them to test classes that run in parallel.
+     */
+    @Parameter(property = "lightkeeper.serverCount", defaultValue = "1")
+    private int serverCount;
+
+    /**
+     * Whether test servers boot with a dynamic class-data (AppCDS) archive.
+     * <p>
+     * The first boot of each server directory records the loaded classes into an archive keyed by the server jar and
+     * the exact plugin set; later boots map that archive instead of loading and verifying every class again.
+     */
+    @Parameter(property = "lightkeeper.classDataArchive", defaultValue = "true")
+    private boolean classDataArchive;
+
+    @Parameter(
+        property = "lightkeeper.classDataArchiveDirectoryRoot",
+        defaultValue = "${settings.localRepository}/nl/pim16aap2/lightkeeper/cache/cds"
+    )
+    @Nullable
+    private Path classDataArchiveDirectoryRoot;
+
     @Parameter(property = "lightkeeper.memoryMb", defaultValue = "2048")
     private int memoryMb;
 
@@ -151,6 +308,13 @@ public class PrepareServerMojo extends AbstractMojo
     @Nullable
     private String extraJvmArgs;
 
+    /**
+     * Maximum time, in seconds, the agent waits for a synchronous server operation, such as a main-thread task or a
+     * server-side event wait, before reporting a timeout.
+     */
+    @Parameter(property = "lightkeeper.syncOperationTimeoutSeconds", defaultValue = "120")
+    private long syncOperationTimeoutSeconds;
+
     @Parameter(property = "lightkeeper.userAgent", required = true)
     @Nullable
     private String userAgent;
@@ -206,13 +370,37 @@ public class PrepareServerMojo extends AbstractMojo
 
         final PrepareServerRuntimePreparation runtimePreparation = prepareRuntimePreparation(executionContext);
         final ServerProvider serverProvider = runtimePreparation.resolvedServerSetup().serverProvider();
-        serverProvider.prepareServer();
-
         final Path targetServerDirectory = serverProvider.targetServerDirectoryPath();
-        installServerAssets(targetServerDirectory, executionContext, executionContext.pluginArtifactSpecs());
+        final @Nullable CacheManager cacheManager = cacheManager(serverProvider);
+        // The provider only decides whether to reuse its jar and base server once it prepares the server, so these
+        // accesses are recorded before that decision and a concurrent build's eviction skips both entries.
+        if (cacheManager != null)
+            cacheManager.touch(
+                List.of(serverProvider.jarCacheDirectoryPath(), serverProvider.baseServerDirectoryPath()));
+        final @Nullable PaperRemappedPluginCache paperRemappedPluginCache = paperRemappedPluginCache();
+        // Harvested before provisioning: syncing or re-creating the target server deletes the remapped jars.
+        if (paperRemappedPluginCache != null)
+            paperRemappedPluginCache.harvest(executionContext.runtimeManifestPath());
+        if (incrementalTargetSync)
+        {
+            syncTargetServer(serverProvider, executionContext);
+        }
+        else
+        {
+            serverProvider.prepareServer();
+            installServerAssets(targetServerDirectory, executionContext, executionContext.pluginArtifactSpecs());
+        }
+        if (paperRemappedPluginCache != null)
+            paperRemappedPluginCache.seed(
+                targetServerDirectory, runtimePreparation.resolvedServerSetup().manifestBuildId());
         // Runs after ALL provisioning mutations (base copy, plugins, overlay): a config overlay is the one
         // vector through which online-mode/proxy-forwarding could enter and silently break FULL_LOGIN joins.
         LoopbackLoginGuard.validate(targetServerDirectory, getLog());
+        final List<RuntimeManifest.FleetServer> fleetServers = provisionFleetServers(serverProvider, executionContext);
+        final @Nullable Path classDataArchiveDirectory = resolveClassDataArchiveDirectory(
+            runtimePreparation.resolvedServerSetup().cacheKey(),
+            targetServerDirectory
+        );
 
         final RuntimeManifest runtimeManifest = createRuntimeManifest(
             executionContext.normalizedServerType(),
@@ -226,9 +414,21 @@ public class PrepareServerMojo extends AbstractMojo
             runtimePreparation.agentAuthToken(),
             runtimePreparation.agentMetadata(),
             runtimePreparation.runtimeProtocolVersion(),
-            executionContext.worldInputSpecs()
+            executionContext.worldInputSpecs(),
+            fleetServers,
+            classDataArchiveDirectory
         );
         writeRuntimeManifest(runtimeManifest, executionContext.runtimeManifestPath());
+        if (contentStore != null)
+        {
+            contentStore.saveIndex();
+            if (verifyHashIndex)
+                logHashIndexVerification(contentStore);
+        }
+        if (cacheManager != null)
+            enforceCacheBudget(cacheManager, serverProvider, classDataArchiveDirectory);
+        if (httpMetadataCache != null)
+            getLog().info("LK_CACHE: HTTP metadata cache: %s.".formatted(httpMetadataCache.describeStatistics()));
     }
 
     /**
@@ -257,6 +457,156 @@ public class PrepareServerMojo extends AbstractMojo
         }
     }
 
+    /**
+     * Clones the provisioned target server once for every additional server of the fleet.
+     * <p>
+     * Runs after all provisioning of the target server, so every clone carries the same worlds, plugins and config
+     * overlay. Each clone gets its own port, agent auth token and socket path.
+     *
+     * @param serverProvider
+     *     The provider that prepared the target server.
+     * @param executionContext
+     *     The resolved execution context, used for the agent socket directory.
+     * @return The additional fleet servers; empty when {@code lightkeeper.serverCount} is {@code 1}.
+     * @throws MojoExecutionException
+     *     When a clone could not be created.
+     */
+    List<RuntimeManifest.FleetServer> provisionFleetServers(
+        ServerProvider serverProvider,
+        PrepareServerExecutionContext executionContext)
+        throws MojoExecutionException
+    {
+        final List<RuntimeManifest.FleetServer> fleetServers = new ArrayList<>(Math.max(0, serverCount - 1));
+        for (int fleetIndex = 1; fleetIndex < serverCount; ++fleetIndex)
+        {
+            final Path fleetServerDirectory = serverProvider.cloneTargetServer(fleetIndex);
+            final String fleetAuthToken = UUID.randomUUID().toString();
+            final Path fleetSocketPath =
+                resolveUdsSocketPath(executionContext.configuredAgentSocketDirectory(), fleetAuthToken);
+            fleetServers.add(new RuntimeManifest.FleetServer(
+                fleetServerDirectory.toAbsolutePath().toString(),
+                fleetServerDirectory.resolve(serverProvider.targetJarFilePath().getFileName()).toAbsolutePath()
+                    .toString(),
+                fleetSocketPath.toAbsolutePath().toString(),
+                fleetAuthToken,
+                fleetServerDirectory.resolve("plugins").resolve(LightkeeperEmbeddedAgent.FILE_NAME).toAbsolutePath()
+                    .toString()
+            ));
+            getLog().info("Provisioned fleet server %d at '%s'.".formatted(fleetIndex, fleetServerDirectory));
+        }
+        return fleetServers;
+    }
+
+    /**
+     * Resolves the class-data archive directory for the provisioned server, or {@code null} when archives are
+     * disabled through {@code lightkeeper.classDataArchive}.
+     */
+    @Nullable Path resolveClassDataArchiveDirectory(String cacheKey, Path targetServerDirectory)
+        throws MojoExecutionException
+    {
+        if (!classDataArchive)
+            return null;
+        return runtimeSupport().resolveClassDataArchiveDirectory(
+            Objects.requireNonNull(classDataArchiveDirectoryRoot),
+            cacheKey,
+            targetServerDirectory,
+            baseServerCacheExpiryDays,
+            contentStore()
+        );
+    }
+
+    /**
+     * Opens the cache manager for the caches this build uses, or returns {@code null} when no cache index directory
+     * is configured.
+     */
+    private @Nullable CacheManager cacheManager(ServerProvider serverProvider)
+        throws MojoExecutionException
+    {
+        final @Nullable Path indexDirectory = cacheIndexDirectory;
+        if (indexDirectory == null)
+            return null;
+
+        final Map<String, Path> roots = new LinkedHashMap<>();
+        roots.put("jar", Objects.requireNonNull(serverProvider.jarCacheDirectoryPath().getParent()));
+        roots.put("server", Objects.requireNonNull(serverProvider.baseServerDirectoryPath().getParent()));
+        roots.put("world", worldArchiveCacheDirectoryRoot());
+        if (classDataArchive)
+            roots.put("cds", Objects.requireNonNull(classDataArchiveDirectoryRoot));
+        return CacheManager.open(
+            indexDirectory,
+            roots,
+            cacheSizeBudgetMb * 1024L * 1024L,
+            getLog()
+        );
+    }
+
+    /**
+     * Records the creation cost of the entries this build created and evicts entries that exceed the cache budget.
+     * <p>
+     * Without a budget, only the accesses and costs are recorded; measuring the cache sizes is left to
+     * {@code cache-stats}, so builds do not walk every cache entry for nothing.
+     */
+    private void enforceCacheBudget(
+        CacheManager cacheManager,
+        ServerProvider serverProvider,
+        @Nullable Path classDataArchiveDirectory)
+        throws MojoExecutionException
+    {
+        cacheManager.recordCost(serverProvider.jarCacheDirectoryPath(), serverProvider.jarCreationTime());
+        cacheManager.recordCost(serverProvider.baseServerDirectoryPath(), serverProvider.baseServerCreationTime());
+        final List<Path> usedEntries = new ArrayList<>(
+            List.of(serverProvider.jarCacheDirectoryPath(), serverProvider.baseServerDirectoryPath()));
+        if (classDataArchiveDirectory != null)
+            usedEntries.add(classDataArchiveDirectory);
+        cacheManager.touch(usedEntries);
+        if (cacheManager.budgetBytes() <= 0)
+            return;
+
+        final CacheManager.EvictionResult result = cacheManager.enforceBudget();
+        getLog().info("LK_CACHE: Caches use %s of the %s budget; evicted %d cache entries."
+            .formatted(
+                CacheManager.formatBytes(result.totalBytes()),
+                CacheManager.formatBytes(cacheManager.budgetBytes()),
+                result.evicted().size()
+            ));
+    }
+
+    /**
+     * Creates the Paper remapped plugin cache, or returns {@code null} when reuse is disabled or no content store is
+     * configured.
+     */
+    private @Nullable PaperRemappedPluginCache paperRemappedPluginCache()
+        throws MojoExecutionException
+    {
+        if (!reusePaperRemappedPlugins)
+            return null;
+        final @Nullable ContentStore store = contentStore();
+        return store == null ? null : new PaperRemappedPluginCache(store, getLog());
+    }
+
+    /**
+     * Opens the content store on first use, or returns {@code null} when no store directory is configured.
+     */
+    @Nullable ContentStore contentStore()
+        throws MojoExecutionException
+    {
+        if (contentStore == null && contentStoreDirectoryRoot != null)
+            contentStore = ContentStore.open(contentStoreDirectoryRoot, verifyHashIndex);
+        return contentStore;
+    }
+
+    private void logHashIndexVerification(ContentStore store)
+    {
+        final int staleIndexEntries = store.staleIndexEntries();
+        if (staleIndexEntries == 0)
+            getLog().info("LK_CACHE: Hash index verified; all indexed hashes were up to date.");
+        else
+            getLog().warn(
+                "LK_CACHE: Hash index verification found %d stale entries; they have been re-hashed."
+                    .formatted(staleIndexEntries)
+            );
+    }
+
     PrepareServerRuntimePreparation prepareRuntimePreparation(PrepareServerExecutionContext executionContext)
         throws MojoExecutionException
     {
@@ -442,16 +792,60 @@ public class PrepareServerMojo extends AbstractMojo
         List<PluginArtifactSpec> pluginArtifactSpecs)
         throws MojoExecutionException
     {
-        ServerAssetInstaller.installWorlds(targetServerDirectory, executionContext.worldInputSpecs(), getLog());
+        ServerAssetInstaller.installWorlds(
+            targetServerDirectory,
+            executionContext.worldInputSpecs(),
+            worldArchiveCache(),
+            getLog()
+        );
         ServerAssetInstaller.installPluginArtifacts(
             targetServerDirectory,
             resolvePluginArtifacts(pluginArtifactSpecs),
+            contentStore(),
             getLog()
         );
         if (configOverlayPath != null)
             ServerAssetInstaller.applyConfigOverlay(configOverlayPath, targetServerDirectory, getLog());
     }
 
+    /**
+     * Prepares the base server and synchronizes the target server with it and the configured assets.
+     */
+    void syncTargetServer(ServerProvider serverProvider, PrepareServerExecutionContext executionContext)
+        throws MojoExecutionException
+    {
+        final DirectorySync desiredState = serverProvider.prepareServerSync(contentStore());
+        ServerAssetInstaller.addWorlds(
+            desiredState,
+            serverProvider.targetServerDirectoryPath(),
+            executionContext.worldInputSpecs(),
+            worldArchiveCache(),
+            getLog()
+        );
+        ServerAssetInstaller.addPluginArtifacts(
+            desiredState,
+            resolvePluginArtifacts(executionContext.pluginArtifactSpecs()),
+            contentStore(),
+            getLog()
+        );
+        if (configOverlayPath != null)
+            ServerAssetInstaller.addConfigOverlay(configOverlayPath, desiredState, getLog());
+        serverProvider.syncTargetServer(desiredState);
+    }
+
+    private ArchiveExtractionCache worldArchiveCache()
+        throws MojoExecutionException
+    {
+        return ArchiveExtractionCache.open(worldArchiveCacheDirectoryRoot(), contentStore());
+    }
+
+    private Path worldArchiveCacheDirectoryRoot()
+    {
+        return worldArchiveCacheDirectoryRoot == null
+            ? Path.of(System.getProperty("java.io.tmpdir"), "lightkeeper-world-cache")
+            : worldArchiveCacheDirectoryRoot;
+    }
+
     RuntimeManifest createRuntimeManifest(
         String normalizedServerType,
         String resolvedManifestServerVersion,
@@ -464,7 +858,9 @@ public class PrepareServerMojo extends AbstractMojo
         String agentAuthToken,
         PrepareServerAgentMetadata agentMetadata,
         int runtimeProtocolVersion,
-        List<WorldInputSpec> worldInputSpecs)
+        List<WorldInputSpec> worldInputSpecs,
+        List<RuntimeManifest.FleetServer> fleetServers,
+        @Nullable Path classDataArchiveDirectory)
     {
         final List<RuntimeManifest.ProvisionedWorld> provisionedWorlds = worldInputSpecs.stream()
             .map(worldInput -> new RuntimeManifest.ProvisionedWorld(
@@ -492,18 +888,39 @@ public class PrepareServerMojo extends AbstractMojo
             runtimeProtocolVersion,
             agentMetadata.cacheIdentity(),
             PrepareServerInputResolver.normalizeOptionalString(extraJvmArgs),
-            provisionedWorlds
+            provisionedWorlds,
+            fleetServers,
+            classDataArchiveDirectory == null ? null : classDataArchiveDirectory.toAbsolutePath().toString(),
+            syncOperationTimeoutSeconds
         );
     }
 
     protected PaperDownloadsClient createPaperDownloadsClient(String effectiveUserAgent)
     {
-        return new PaperDownloadsClient(getLog(), effectiveUserAgent);
+        return new PaperDownloadsClient(getLog(), effectiveUserAgent, httpMetadataCache());
     }
 
     protected SpigotDownloadsClient createSpigotDownloadsClient(String effectiveUserAgent)
     {
-        return new SpigotDownloadsClient(getLog(), effectiveUserAgent);
+        return new SpigotDownloadsClient(getLog(), effectiveUserAgent, httpMetadataCache());
+    }
+
+    /**
+     * Opens the metadata cache on first use, or returns a pass-through cache when no cache directory is configured.
+     */
+    HttpMetadataCache httpMetadataCache()
+    {
+        if (httpMetadataCache == null)
+        {
+            httpMetadataCache = httpMetadataCacheDirectoryRoot == null
+                ? HttpMetadataCache.disabled()
+                : HttpMetadataCache.open(
+                    httpMetadataCacheDirectoryRoot,
+                    Duration.ofMinutes(Math.max(0, httpMetadataCacheTtlMinutes)),
+                    offline
+                );
+        }
+        return httpMetadataCache;
     }
 
     static void writeRuntimeManifest(RuntimeManifest runtimeManifest, Path runtimeManifestPathValue)
@@ -535,7 +952,8 @@ public class PrepareServerMojo extends AbstractMojo
             forceRebuildJar,
             baseServerCacheExpiryDays,
             forceRecreateBaseServer,
-            cleanupUnusedCacheDirectories,
+            // A byte budget replaces age-based pruning of the jar and base server caches.
+            cleanupUnusedCacheDirectories && cacheSizeBudgetMb <= 0,
             serverInitTimeoutSeconds,
             serverStopTimeoutSeconds,
             serverStartMaxAttempts,
@@ -547,7 +965,9 @@ public class PrepareServerMojo extends AbstractMojo
             agentMetadata.sha256(),
             agentAuthToken,
             runtimeProtocolVersion,
-            agentMetadata.cacheIdentity()
+            agentMetadata.cacheIdentity(),
+            spawnPregenerationRadius,
+            serverProfile
         );
     }
 
@@ -566,6 +986,8 @@ public class PrepareServerMojo extends AbstractMojo
             serverStartMaxAttempts,
             jarCacheExpiryDays,
             baseServerCacheExpiryDays,
+            serverCount,
+            syncOperationTimeoutSeconds,
             extraJvmArgs
         );
     }
@@ -631,7 +1053,12 @@ public class PrepareServerMojo extends AbstractMojo
     }
 
     private PrepareServerPluginArtifactResolver pluginArtifactResolver()
+        throws MojoExecutionException
     {
-        return new PrepareServerPluginArtifactResolver();
+        return new PrepareServerPluginArtifactResolver(
+            Math.max(1, pluginResolutionParallelism),
+            httpMetadataCache(),
+            contentStore()
+        );
     }
 }
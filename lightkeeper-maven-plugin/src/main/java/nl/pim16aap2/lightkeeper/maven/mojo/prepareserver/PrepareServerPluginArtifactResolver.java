@@ -4,9 +4,13 @@ import nl.pim16aap2.lightkeeper.maven.ModrinthDownloadsClient;
 import nl.pim16aap2.lightkeeper.maven.ModrinthPluginMetadata;
 import nl.pim16aap2.lightkeeper.maven.provisioning.PluginArtifactSpec;
 import nl.pim16aap2.lightkeeper.maven.provisioning.ResolvedPluginArtifact;
+import nl.pim16aap2.lightkeeper.maven.util.ArtifactDownloader;
 import nl.pim16aap2.lightkeeper.maven.util.CacheKeyUtil;
+import nl.pim16aap2.lightkeeper.maven.util.CacheLock;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
 import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
+import nl.pim16aap2.lightkeeper.maven.util.HttpMetadataCache;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.eclipse.aether.RepositorySystem;
@@ -23,12 +27,11 @@ import org.eclipse.aether.resolution.DependencyRequest;
 import org.eclipse.aether.resolution.DependencyResolutionException;
 import org.eclipse.aether.resolution.DependencyResult;
 import org.eclipse.aether.util.artifact.JavaScopes;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Path;
 import java.nio.file.Files;
 import java.nio.file.AtomicMoveNotSupportedException;
@@ -38,12 +41,65 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Resolves plugin artifacts from local paths, Maven coordinates, URL downloads, and Modrinth downloads.
  */
 final class PrepareServerPluginArtifactResolver
 {
+    static final int DEFAULT_PARALLELISM = 4;
+
+    private final int parallelism;
+    private final HttpMetadataCache metadataCache;
+    private final @Nullable ContentStore contentStore;
+
+    PrepareServerPluginArtifactResolver()
+    {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    PrepareServerPluginArtifactResolver(int parallelism)
+    {
+        this(parallelism, HttpMetadataCache.disabled());
+    }
+
+    /**
+     * @param parallelism
+     *     The maximum number of plugin specs resolved and downloaded at the same time.
+     * @param metadataCache
+     *     Cache for Modrinth metadata responses.
+     */
+    PrepareServerPluginArtifactResolver(int parallelism, HttpMetadataCache metadataCache)
+    {
+        this(parallelism, metadataCache, null);
+    }
+
+    /**
+     * @param parallelism
+     *     The maximum number of plugin specs resolved and downloaded at the same time.
+     * @param metadataCache
+     *     Cache for Modrinth metadata responses.
+     * @param contentStore
+     *     Store whose hash index is used to verify unchanged cached SHA-256 artifacts without reading them again, or
+     *     {@code null} to always hash them.
+     */
+    PrepareServerPluginArtifactResolver(
+        int parallelism,
+        HttpMetadataCache metadataCache,
+        @Nullable ContentStore contentStore)
+    {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was %d.".formatted(parallelism));
+        this.parallelism = parallelism;
+        this.metadataCache = metadataCache;
+        this.contentStore = contentStore;
+    }
+
     List<ResolvedPluginArtifact> resolvePluginArtifacts(
         List<PluginArtifactSpec> specs,
         RepositorySystem repositorySystem,
@@ -58,7 +114,8 @@ final class PrepareServerPluginArtifactResolver
             .followRedirects(HttpClient.Redirect.NORMAL)
             .connectTimeout(Duration.ofSeconds(15))
             .build();
-        final ModrinthDownloadsClient modrinthDownloadsClient = new ModrinthDownloadsClient(log, userAgent, httpClient);
+        final ModrinthDownloadsClient modrinthDownloadsClient =
+            new ModrinthDownloadsClient(log, userAgent, httpClient, metadataCache);
         return resolvePluginArtifacts(
             specs,
             repositorySystem,
@@ -78,56 +135,128 @@ final class PrepareServerPluginArtifactResolver
         RepositorySystemSession repositorySystemSession,
         List<RemoteRepository> remoteProjectRepositories,
         Path pluginArtifactCacheDirectoryRoot,
-        String userAgent,
-        HttpClient httpClient,
+        ArtifactDownloader downloader,
         ModrinthDownloadsClient modrinthDownloadsClient,
         Log log)
         throws MojoExecutionException
     {
+        final ArtifactDownloader downloader = new ArtifactDownloader(log, userAgent, httpClient);
+        final Semaphore permits = new Semaphore(parallelism);
+        final List<Future<List<ResolvedPluginArtifact>>> futures = new ArrayList<>(specs.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (final PluginArtifactSpec spec : specs)
+                futures.add(executor.submit(() ->
+                {
+                    permits.acquire();
+                    try
+                    {
+                        return resolvePluginArtifact(
+                            spec,
+                            repositorySystem,
+                            repositorySystemSession,
+                            remoteProjectRepositories,
+                            pluginArtifactCacheDirectoryRoot,
+                            downloader,
+                            modrinthDownloadsClient,
+                            log
+                        );
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                }));
+        }
+
+        // All tasks have finished once the executor is closed. Collecting in spec order keeps both the output and
+        // the reported failure independent of which download happened to finish first.
         final List<ResolvedPluginArtifact> resolvedPluginArtifacts = new ArrayList<>();
-        for (final PluginArtifactSpec spec : specs)
+        @Nullable Exception failure = null;
+        for (final Future<List<ResolvedPluginArtifact>> future : futures)
         {
-            switch (spec.sourceType())
+            try
             {
-                case PATH ->
-                {
-                    final Path sourceJar = Objects.requireNonNull(spec.path());
-                    final String outputFileName = spec.renameTo() == null
-                        ? sourceJar.getFileName().toString()
-                        : spec.renameTo();
-                    resolvedPluginArtifacts.add(new ResolvedPluginArtifact(
-                        sourceJar,
-                        outputFileName,
-                        "path:" + sourceJar
-                    ));
-                }
-                case MAVEN -> resolvedPluginArtifacts.addAll(resolveMavenPluginArtifacts(
-                    spec,
-                    repositorySystem,
-                    repositorySystemSession,
-                    remoteProjectRepositories
-                ));
-                case URL -> resolvedPluginArtifacts.add(resolveUrlPluginArtifact(
-                    spec,
-                    pluginArtifactCacheDirectoryRoot,
-                    userAgent,
-                    httpClient,
-                    log
-                ));
-                case MODRINTH -> resolvedPluginArtifacts.add(resolveModrinthPluginArtifact(
-                    spec,
-                    pluginArtifactCacheDirectoryRoot,
-                    userAgent,
-                    httpClient,
-                    modrinthDownloadsClient,
-                    log
-                ));
+                resolvedPluginArtifacts.addAll(future.get());
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("Interrupted while resolving plugin artifacts.", exception);
+            }
+            catch (ExecutionException exception)
+            {
+                final Exception cause = asException(exception.getCause());
+                if (failure == null)
+                    failure = cause;
+                else
+                    failure.addSuppressed(cause);
             }
         }
 
+        if (failure instanceof MojoExecutionException mojoExecutionException)
+            throw mojoExecutionException;
+        if (failure instanceof RuntimeException runtimeException)
+            throw runtimeException;
+        if (failure != null)
+            throw new MojoExecutionException("Failed to resolve plugin artifacts.", failure);
         return resolvedPluginArtifacts;
     }
 
+    private List<ResolvedPluginArtifact> resolvePluginArtifact(
+        PluginArtifactSpec spec,
+        RepositorySystem repositorySystem,
+        RepositorySystemSession repositorySystemSession,
+        List<RemoteRepository> remoteProjectRepositories,
+        Path pluginArtifactCacheDirectoryRoot,
+        ArtifactDownloader downloader,
+        ModrinthDownloadsClient modrinthDownloadsClient,
+        Log log)
+        throws MojoExecutionException
+    {
+        return switch (spec.sourceType())
+        {
+            case PATH ->
+            {
+                final Path sourceJar = Objects.requireNonNull(spec.path());
+                final String outputFileName = spec.renameTo() == null
+                    ? sourceJar.getFileName().toString()
+                    : spec.renameTo();
+                yield List.of(new ResolvedPluginArtifact(
+                    sourceJar,
+                    outputFileName,
+                    "path:" + sourceJar
+                ));
+            }
+            case MAVEN -> resolveMavenPluginArtifacts(
+                spec,
+                repositorySystem,
+                repositorySystemSession,
+                remoteProjectRepositories
+            );
+            case URL -> List.of(resolveUrlPluginArtifact(
+                spec,
+                pluginArtifactCacheDirectoryRoot,
+                downloader,
+                log
+            ));
+            case MODRINTH -> List.of(resolveModrinthPluginArtifact(
+                spec,
+                pluginArtifactCacheDirectoryRoot,
+                downloader,
+                modrinthDownloadsClient,
+                log
+            ));
+        };
+    }
+
+    private static Exception asException(Throwable throwable)
+    {
+        if (throwable instanceof Error error)
+            throw error;
+        return (Exception) throwable;
+    }
+
     private List<ResolvedPluginArtifact> resolveMavenPluginArtifacts(
         PluginArtifactSpec spec,
         RepositorySystem repositorySystem,
@@ -206,8 +335,7 @@ final class PrepareServerPluginArtifactResolver
     private ResolvedPluginArtifact resolveUrlPluginArtifact(
         PluginArtifactSpec spec,
         Path pluginArtifactCacheDirectoryRoot,
-        String userAgent,
-        HttpClient httpClient,
+        ArtifactDownloader downloader,
         Log log)
         throws MojoExecutionException
     {
@@ -219,8 +347,7 @@ final class PrepareServerPluginArtifactResolver
             "sha256",
             Objects.requireNonNull(spec.sha256()),
             pluginArtifactCacheDirectoryRoot,
-            userAgent,
-            httpClient,
+            downloader,
             log
         );
     }
@@ -228,8 +355,7 @@ final class PrepareServerPluginArtifactResolver
     private ResolvedPluginArtifact resolveModrinthPluginArtifact(
         PluginArtifactSpec spec,
         Path pluginArtifactCacheDirectoryRoot,
-        String userAgent,
-        HttpClient httpClient,
+        ArtifactDownloader downloader,
         ModrinthDownloadsClient modrinthDownloadsClient,
         Log log)
         throws MojoExecutionException
@@ -245,8 +371,7 @@ final class PrepareServerPluginArtifactResolver
             "sha512",
             metadata.sha512(),
             pluginArtifactCacheDirectoryRoot,
-            userAgent,
-            httpClient,
+            downloader,
             log
         );
     }
@@ -258,8 +383,7 @@ final class PrepareServerPluginArtifactResolver
         String hashAlgorithm,
         String expectedHash,
         Path pluginArtifactCacheDirectoryRoot,
-        String userAgent,
-        HttpClient httpClient,
+        ArtifactDownloader downloader,
         Log log)
         throws MojoExecutionException
     {
@@ -280,27 +404,52 @@ final class PrepareServerPluginArtifactResolver
         }
 
         FileUtil.createDirectories(cacheDirectory, "plugin artifact cache directory");
-        final Path temporaryDownload;
-        try
+        // A fixed staging name lets an interrupted download resume in the next build, see ArtifactDownloader. The lock
+        // keeps concurrent builds, and duplicate specs resolved in parallel, from writing the same staging files.
+        final Path stagedDownload = cacheDirectory.resolve(outputFileName + ".download");
+        try (CacheLock ignored = CacheLock.acquire(
+            cacheDirectory.resolve(outputFileName + ".download.lock"), "plugin artifact download", log))
         {
-            temporaryDownload = Files.createTempFile(cacheDirectory, outputFileName, ".tmp");
-        }
-        catch (IOException exception)
-        {
-            throw new MojoExecutionException(
-                "Failed to create temporary plugin artifact download in '%s'.".formatted(cacheDirectory),
-                exception
+            if (Files.isRegularFile(cachedJar))
+            {
+                verifyHash(cachedJar, hashAlgorithm, normalizedHash, "cached plugin artifact");
+                log.info("LK_PLUGIN: Reusing plugin artifact '%s' cached by a concurrent build.".formatted(cachedJar));
+                return new ResolvedPluginArtifact(cachedJar, outputFileName, identity);
+            }
+            return downloadAndPromote(
+                uri,
+                stagedDownload,
+                cachedJar,
+                outputFileName,
+                identity,
+                hashAlgorithm,
+                normalizedHash,
+                downloader,
+                log
             );
         }
+    }
 
+    private ResolvedPluginArtifact downloadAndPromote(
+        URI uri,
+        Path stagedDownload,
+        Path cachedJar,
+        String outputFileName,
+        String identity,
+        String hashAlgorithm,
+        String normalizedHash,
+        ArtifactDownloader downloader,
+        Log log)
+        throws MojoExecutionException
+    {
         try
         {
-            download(uri, temporaryDownload, userAgent, httpClient);
-            verifyHash(temporaryDownload, hashAlgorithm, normalizedHash, "downloaded plugin artifact");
+            final String actualHash = downloader.download(uri, stagedDownload, displayHashAlgorithm(hashAlgorithm));
+            checkHash(stagedDownload, hashAlgorithm, normalizedHash, actualHash, "downloaded plugin artifact");
             try
             {
                 Files.move(
-                    temporaryDownload,
+                    stagedDownload,
                     cachedJar,
                     StandardCopyOption.ATOMIC_MOVE,
                     StandardCopyOption.REPLACE_EXISTING
@@ -309,7 +458,7 @@ final class PrepareServerPluginArtifactResolver
             catch (AtomicMoveNotSupportedException exception)
             {
                 Files.move(
-                    temporaryDownload,
+                    stagedDownload,
                     cachedJar,
                     StandardCopyOption.REPLACE_EXISTING
                 );
@@ -328,52 +477,36 @@ final class PrepareServerPluginArtifactResolver
         {
             try
             {
-                Files.deleteIfExists(temporaryDownload);
+                Files.deleteIfExists(stagedDownload);
             }
             catch (IOException ignored)
             {
-                log.debug("Failed to delete temporary plugin artifact download '%s'.".formatted(temporaryDownload));
+                log.debug("Failed to delete staged plugin artifact download '%s'.".formatted(stagedDownload));
             }
         }
     }
 
-    private static void download(URI uri, Path target, String userAgent, HttpClient httpClient)
-        throws MojoExecutionException
-    {
-        final HttpRequest request = HttpRequest.newBuilder(uri)
-            .header("User-Agent", userAgent)
-            .timeout(Duration.ofMinutes(2))
-            .GET()
-            .build();
-        final HttpResponse<Path> response;
-        try
-        {
-            response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(target));
-        }
-        catch (InterruptedException exception)
-        {
-            Thread.currentThread().interrupt();
-            throw new MojoExecutionException("Failed to download plugin artifact from '%s'.".formatted(uri), exception);
-        }
-        catch (IOException exception)
-        {
-            throw new MojoExecutionException("Failed to download plugin artifact from '%s'.".formatted(uri), exception);
-        }
-        if (response.statusCode() < 200 || response.statusCode() >= 300)
-            throw new MojoExecutionException(
-                "Plugin artifact download from '%s' failed with status %d.".formatted(uri, response.statusCode())
-            );
-    }
-
-    private static void verifyHash(Path path, String hashAlgorithm, String expectedHash, String description)
+    private void verifyHash(Path path, String hashAlgorithm, String expectedHash, String description)
         throws MojoExecutionException
     {
+        final @Nullable ContentStore store = contentStore;
         final String actualHash = switch (hashAlgorithm)
         {
-            case "sha256" -> HashUtil.sha256(path);
+            case "sha256" -> store == null ? HashUtil.sha256(path) : store.sha256(path);
             case "sha512" -> HashUtil.sha512(path);
             default -> throw new IllegalArgumentException("Unsupported hash algorithm: " + hashAlgorithm);
         };
+        checkHash(path, hashAlgorithm, expectedHash, actualHash, description);
+    }
+
+    private static void checkHash(
+        Path path,
+        String hashAlgorithm,
+        String expectedHash,
+        String actualHash,
+        String description)
+        throws MojoExecutionException
+    {
         if (!expectedHash.equalsIgnoreCase(actualHash))
         {
             throw new MojoExecutionException(
@@ -1,10 +1,13 @@
 package nl.pim16aap2.lightkeeper.maven.mojo.prepareserver;
 
 import nl.pim16aap2.lightkeeper.maven.LightkeeperEmbeddedAgent;
+import nl.pim16aap2.lightkeeper.maven.util.CacheKeyUtil;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
 import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import nl.pim16aap2.lightkeeper.runtime.RuntimeManifestWriter;
+import nl.pim16aap2.lightkeeper.runtime.RuntimeProtocol;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.jspecify.annotations.Nullable;
@@ -19,9 +22,12 @@ import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Handles runtime-specific concerns for the prepare-server flow.
@@ -83,6 +89,17 @@ final class PrepareServerRuntimeSupport
                     + "Ensure referenced properties are initialized before 'prepare-server' runs."
             );
         }
+
+        // The framework passes the manifest's timeout to the server after these arguments, so a value set here would
+        // be silently overridden.
+        if (normalizedExtraJvmArgs.contains("-D" + RuntimeProtocol.PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS + "="))
+        {
+            throw new MojoExecutionException(
+                "Configured 'lightkeeper.extraJvmArgs' sets '%s'. Configure 'lightkeeper.syncOperationTimeoutSeconds' "
+                    .formatted(RuntimeProtocol.PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS)
+                    + "instead."
+            );
+        }
     }
 
     static void writeRuntimeManifest(RuntimeManifest runtimeManifest, Path runtimeManifestPathValue)
@@ -102,6 +119,86 @@ final class PrepareServerRuntimeSupport
         }
     }
 
+    Path resolveClassDataArchiveDirectory(
+        Path directoryRoot,
+        String serverCacheKey,
+        Path targetServerDirectory,
+        int expiryDays)
+        throws MojoExecutionException
+    {
+        return resolveClassDataArchiveDirectory(directoryRoot, serverCacheKey, targetServerDirectory, expiryDays, null);
+    }
+
+    /**
+     * Resolves and creates the class-data archive directory for the prepared server and its plugin set.
+     * <p>
+     * The directory is keyed by the server cache key and the name and SHA-256 of every jar in the target server's
+     * {@code plugins} directory, including the embedded agent. Changing any plugin therefore starts a new archive
+     * instead of mapping classes that no longer match their jars. Archive directories of other keys that expired
+     * are pruned on the way.
+     *
+     * @param directoryRoot
+     *     Root directory holding one directory per archive key.
+     * @param serverCacheKey
+     *     The cache key of the prepared server jar.
+     * @param targetServerDirectory
+     *     The fully provisioned target server directory.
+     * @param expiryDays
+     *     Age in days after which archive directories of other keys are pruned.
+     * @param contentStore
+     *     The store whose index supplies the hashes of unchanged plugin jars, or {@code null} to hash every jar.
+     * @return The archive directory for this server and plugin set.
+     * @throws MojoExecutionException
+     *     When the plugin jars could not be hashed or the directory could not be created.
+     */
+    Path resolveClassDataArchiveDirectory(
+        Path directoryRoot,
+        String serverCacheKey,
+        Path targetServerDirectory,
+        int expiryDays,
+        @Nullable ContentStore contentStore)
+        throws MojoExecutionException
+    {
+        final List<String> pluginJarIdentities = new ArrayList<>();
+        final Path pluginsDirectory = targetServerDirectory.resolve("plugins");
+        if (Files.isDirectory(pluginsDirectory))
+        {
+            final List<Path> pluginJars;
+            try (Stream<Path> stream = Files.list(pluginsDirectory))
+            {
+                pluginJars = stream
+                    .filter(path -> path.toString().endsWith(".jar"))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+            }
+            catch (IOException exception)
+            {
+                throw new MojoExecutionException(
+                    "Failed to list plugin jars in '%s'.".formatted(pluginsDirectory), exception);
+            }
+            for (final Path pluginJar : pluginJars)
+            {
+                final String sha256 = contentStore == null
+                    ? HashUtil.sha256(pluginJar)
+                    : contentStore.sha256(pluginJar);
+                pluginJarIdentities.add(pluginJar.getFileName() + "=" + sha256);
+            }
+        }
+
+        final Path archiveDirectory = directoryRoot.resolve(
+            CacheKeyUtil.createClassDataArchiveCacheKey(serverCacheKey, pluginJarIdentities));
+        FileUtil.createDirectories(archiveDirectory, "class-data archive directory");
+
+        final FileUtil.PruneResult pruneResult =
+            FileUtil.pruneSiblingDirectoriesOlderThan(archiveDirectory, expiryDays);
+        for (final Path deletedDirectory : pruneResult.deletedDirectories())
+            log.info("Pruned expired class-data archive directory '%s'.".formatted(deletedDirectory));
+        for (final Path failedDirectory : pruneResult.failedDirectories())
+            log.warn("Failed to prune expired class-data archive directory '%s'.".formatted(failedDirectory));
+        return archiveDirectory;
+    }
+
     PrepareServerAgentMetadata resolveAgentMetadata()
         throws MojoExecutionException
     {
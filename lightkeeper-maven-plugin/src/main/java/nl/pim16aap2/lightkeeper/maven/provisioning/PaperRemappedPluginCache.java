@@ -0,0 +1,353 @@
+package nl.pim16aap2.lightkeeper.maven.provisioning;
+
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reuses the plugin jars Paper remapped in earlier runs, so a fresh target server does not remap them again.
+ * <p>
+ * Paper remaps Spigot-mapped plugin jars into {@code plugins/.paper-remapped} on startup and records them in that
+ * directory's {@code index.json}, keyed by the SHA-256 of the original jar. Because target servers are recreated from
+ * the base server, that work was repeated on every fresh target, including for the embedded agent.
+ * <p>
+ * {@link #harvest(Path)} reads the index of the target server described by the previous runtime manifest and stores
+ * each remapped jar in the content store, per Paper build and original jar hash. {@link #seed(Path, long)} installs
+ * the stored jars for the plugins of a newly provisioned target server and writes an index that points Paper at them.
+ * Remapped jars are only reused for the Paper build that produced them, as recorded in the runtime manifest's
+ * {@code paperBuildId}, because the mappings can change between builds.
+ * <p>
+ * The entries of a build are kept in {@code paper-remapped/<build>.tsv} below the content store, next to the index of
+ * that build with its entries removed, which serves as the template for seeded indexes. Concurrent builds may
+ * overwrite each other's entries, which only costs a remap on a later boot.
+ */
+public final class PaperRemappedPluginCache
+{
+    /**
+     * The directory Paper writes remapped plugin jars to, relative to the server directory.
+     */
+    static final String REMAPPED_PLUGINS_DIRECTORY = "plugins/.paper-remapped";
+    private static final String PAPER_INDEX_FILE_NAME = "index.json";
+    private static final String HASHES_FIELD = "hashes";
+    private static final String SKIPPED_HASHES_FIELD = "skippedHashes";
+    private static final String SKIPPED_MARKER = "skipped";
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final ContentStore contentStore;
+    private final Path cacheDirectory;
+    private final Log log;
+
+    /**
+     * @param contentStore
+     *     The store holding the remapped jars and the cache entries.
+     * @param log
+     *     Logger for lifecycle messages.
+     */
+    public PaperRemappedPluginCache(ContentStore contentStore, Log log)
+    {
+        this.contentStore = contentStore;
+        this.cacheDirectory = contentStore.root().resolve("paper-remapped");
+        this.log = log;
+    }
+
+    /**
+     * Stores the plugin jars Paper remapped in the target server of the previous run.
+     * <p>
+     * Does nothing when the manifest does not exist or does not describe a Paper server that was started and remapped
+     * plugins. Entries whose remapped jar is missing are skipped.
+     *
+     * @param runtimeManifestPath
+     *     The runtime manifest written by the previous run.
+     * @throws MojoExecutionException
+     *     If a remapped jar cannot be stored or the cache entries cannot be written.
+     */
+    public void harvest(Path runtimeManifestPath)
+        throws MojoExecutionException
+    {
+        final @Nullable JsonNode manifest = readJson(runtimeManifestPath);
+        if (manifest == null || !"paper".equals(manifest.path("serverType").asString("")))
+            return;
+        final long paperBuildId = manifest.path("paperBuildId").asLong(0L);
+        final String serverDirectory = manifest.path("serverDirectory").asString("");
+        if (paperBuildId <= 0 || serverDirectory.isBlank())
+            return;
+
+        final Path remappedDirectory = Path.of(serverDirectory).resolve(REMAPPED_PLUGINS_DIRECTORY);
+        final @Nullable JsonNode paperIndex = readJson(remappedDirectory.resolve(PAPER_INDEX_FILE_NAME));
+        if (!(paperIndex instanceof ObjectNode paperIndexObject))
+            return;
+
+        final Map<String, @Nullable Entry> entries = readEntries(paperBuildId);
+        int harvested = 0;
+        for (final Map.Entry<String, JsonNode> hash : paperIndexObject.path(HASHES_FIELD).properties())
+        {
+            final String fileName = hash.getValue().asString("");
+            final Path remappedJar = remappedDirectory.resolve(fileName);
+            if (!SHA256_PATTERN.matcher(hash.getKey()).matches() || !isPlainFileName(fileName) ||
+                !Files.isRegularFile(remappedJar))
+                continue;
+
+            final String remappedSha256 = contentStore.ingest(remappedJar).getFileName().toString();
+            entries.put(hash.getKey(), new Entry(fileName, remappedSha256));
+            ++harvested;
+        }
+        for (final JsonNode skippedHash : paperIndexObject.path(SKIPPED_HASHES_FIELD))
+        {
+            final String sha256 = skippedHash.asString("");
+            if (SHA256_PATTERN.matcher(sha256).matches())
+                entries.put(sha256, null);
+        }
+
+        // The template keeps every field of Paper's index except its entries, so seeded indexes have its format.
+        final ObjectNode template = paperIndexObject.deepCopy();
+        template.putObject(HASHES_FIELD);
+        template.putArray(SKIPPED_HASHES_FIELD);
+        writeAtomically(templateFile(paperBuildId), objectMapper.writeValueAsString(template));
+        writeEntries(paperBuildId, entries);
+        log.info("LK_CACHE: Stored %d Paper-remapped plugin jar(s) of Paper build %d from '%s'."
+            .formatted(harvested, paperBuildId, remappedDirectory));
+    }
+
+    /**
+     * Installs the stored remapped jars of the server's plugins and writes the Paper index that lists them.
+     * <p>
+     * Does nothing when no jar of the server's {@code plugins} directory has a stored remapped jar for this Paper
+     * build. Paper remaps the remaining plugins on startup as usual.
+     *
+     * @param serverDirectory
+     *     The provisioned target server directory, with all plugins installed.
+     * @param paperBuildId
+     *     The Paper build the server runs; {@code 0} or less for servers that are not Paper.
+     * @throws MojoExecutionException
+     *     If the plugins cannot be hashed or the remapped jars or index cannot be installed.
+     */
+    public void seed(Path serverDirectory, long paperBuildId)
+        throws MojoExecutionException
+    {
+        if (paperBuildId <= 0 || Files.notExists(templateFile(paperBuildId)))
+            return;
+        final @Nullable JsonNode template = readJson(templateFile(paperBuildId));
+        if (!(template instanceof ObjectNode index))
+            return;
+
+        final Map<String, @Nullable Entry> entries = readEntries(paperBuildId);
+        final Path remappedDirectory = serverDirectory.resolve(REMAPPED_PLUGINS_DIRECTORY);
+        final ObjectNode hashes = index.putObject(HASHES_FIELD);
+        final ArrayNode skippedHashes = index.putArray(SKIPPED_HASHES_FIELD);
+        final List<Path> pluginJars = listPluginJars(serverDirectory.resolve("plugins"));
+        int seeded = 0;
+        for (final Path pluginJar : pluginJars)
+        {
+            final String sha256 = contentStore.sha256(pluginJar);
+            if (!entries.containsKey(sha256))
+                continue;
+
+            final @Nullable Entry entry = entries.get(sha256);
+            if (entry == null)
+            {
+                skippedHashes.add(sha256);
+                ++seeded;
+                continue;
+            }
+
+            final Path remappedObject = contentStore.objectPath(entry.remappedSha256());
+            if (!Files.isRegularFile(remappedObject))
+                continue;
+            FileUtil.createDirectories(remappedDirectory, "Paper remapped plugins directory");
+            final Path target = remappedDirectory.resolve(entry.fileName());
+            deleteIfExists(target);
+            contentStore.install(remappedObject, target);
+            hashes.put(sha256, entry.fileName());
+            ++seeded;
+        }
+        if (seeded == 0)
+            return;
+
+        // Written as a new file rather than linked: Paper rewrites its index in place.
+        final Path indexFile = remappedDirectory.resolve(PAPER_INDEX_FILE_NAME);
+        FileUtil.createDirectories(remappedDirectory, "Paper remapped plugins directory");
+        deleteIfExists(indexFile);
+        writeAtomically(indexFile, objectMapper.writeValueAsString(index));
+        log.info("LK_CACHE: Seeded %d of %d plugin jar(s) with Paper-remapped copies for Paper build %d."
+            .formatted(seeded, pluginJars.size(), paperBuildId));
+    }
+
+    private Path templateFile(long paperBuildId)
+    {
+        return cacheDirectory.resolve(paperBuildId + "-index.json");
+    }
+
+    private Path entriesFile(long paperBuildId)
+    {
+        return cacheDirectory.resolve(paperBuildId + ".tsv");
+    }
+
+    /**
+     * Reads the entries of a Paper build, mapping original jar hashes to their remapped jar, or to {@code null} for
+     * jars Paper does not remap. Malformed lines are skipped.
+     */
+    private Map<String, @Nullable Entry> readEntries(long paperBuildId)
+        throws MojoExecutionException
+    {
+        final Map<String, @Nullable Entry> entries = new HashMap<>();
+        final Path entriesFile = entriesFile(paperBuildId);
+        if (!Files.isRegularFile(entriesFile))
+            return entries;
+
+        try
+        {
+            for (final String line : Files.readAllLines(entriesFile, StandardCharsets.UTF_8))
+            {
+                final String[] parts = line.split("\t");
+                if (parts.length == 2 && SHA256_PATTERN.matcher(parts[0]).matches() &&
+                    SKIPPED_MARKER.equals(parts[1]))
+                    entries.put(parts[0], null);
+                else if (parts.length == 3 && SHA256_PATTERN.matcher(parts[0]).matches() &&
+                    SHA256_PATTERN.matcher(parts[1]).matches() && isPlainFileName(parts[2]))
+                    entries.put(parts[0], new Entry(parts[2], parts[1]));
+            }
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to read Paper remapped plugin cache '%s'.".formatted(entriesFile), exception);
+        }
+        return entries;
+    }
+
+    private void writeEntries(long paperBuildId, Map<String, @Nullable Entry> entries)
+        throws MojoExecutionException
+    {
+        final List<String> lines = new ArrayList<>(entries.size());
+        entries.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry ->
+            {
+                final @Nullable Entry value = entry.getValue();
+                lines.add(value == null
+                    ? entry.getKey() + "\t" + SKIPPED_MARKER
+                    : entry.getKey() + "\t" + value.remappedSha256() + "\t" + value.fileName());
+            });
+        writeAtomically(entriesFile(paperBuildId), String.join("\n", lines) + "\n");
+    }
+
+    private @Nullable JsonNode readJson(Path file)
+    {
+        if (!Files.isRegularFile(file))
+            return null;
+        try
+        {
+            return objectMapper.readTree(Files.readString(file, StandardCharsets.UTF_8));
+        }
+        catch (IOException | JacksonException exception)
+        {
+            log.warn("LK_CACHE: Ignoring unreadable JSON file '%s': %s".formatted(file, exception.getMessage()));
+            return null;
+        }
+    }
+
+    private static List<Path> listPluginJars(Path pluginsDirectory)
+        throws MojoExecutionException
+    {
+        if (!Files.isDirectory(pluginsDirectory))
+            return List.of();
+        try (Stream<Path> files = Files.list(pluginsDirectory))
+        {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(file -> file.getFileName().toString().endsWith(".jar"))
+                .sorted()
+                .toList();
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to list plugins directory '%s'.".formatted(pluginsDirectory), exception);
+        }
+    }
+
+    private static void writeAtomically(Path file, String content)
+        throws MojoExecutionException
+    {
+        FileUtil.createDirectories(file.getParent(), "Paper remapped plugin cache directory");
+        final Path temporary = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try
+        {
+            Files.writeString(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to write '%s'.".formatted(file), exception);
+        }
+        finally
+        {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private static void deleteIfExists(Path file)
+        throws MojoExecutionException
+    {
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to delete '%s'.".formatted(file), exception);
+        }
+    }
+
+    private static void deleteQuietly(Path file)
+    {
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException ignored)
+        {
+            // A leftover temporary file only wastes space; its random name never collides.
+        }
+    }
+
+    private static boolean isPlainFileName(String fileName)
+    {
+        return !fileName.isBlank() && !fileName.contains("/") && !fileName.contains("\\") &&
+            !fileName.equals(".") && !fileName.equals("..");
+    }
+
+    /**
+     * A remapped jar in the content store.
+     *
+     * @param fileName
+     *     The file name Paper gave the remapped jar.
+     * @param remappedSha256
+     *     The SHA-256 of the remapped jar.
+     */
+    private record Entry(String fileName, String remappedSha256)
+    {
+    }
+}
@@ -1,11 +1,15 @@
 package nl.pim16aap2.lightkeeper.maven.provisioning;
 
+import nl.pim16aap2.lightkeeper.maven.util.ArchiveExtractionCache;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.DirectoryMaterializer;
+import nl.pim16aap2.lightkeeper.maven.util.DirectorySync;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -17,8 +21,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  * Applies worlds, plugin artifacts, and config overlays to a prepared target server directory.
@@ -31,6 +33,17 @@ public final class ServerAssetInstaller
 
     public static void installWorlds(Path targetServerDirectory, List<WorldInputSpec> worlds, Log log)
         throws MojoExecutionException
+    {
+        installWorlds(targetServerDirectory, worlds, null, log);
+    }
+
+    public static void installWorlds(
+        Path targetServerDirectory,
+        List<WorldInputSpec> worlds,
+        @Nullable ArchiveExtractionCache worldArchiveCache,
+        Log log
+    )
+        throws MojoExecutionException
     {
         for (final WorldInputSpec world : worlds)
         {
@@ -55,7 +68,13 @@ public final class ServerAssetInstaller
             switch (world.sourceType())
             {
                 case FOLDER -> installWorldFromFolder(world, targetWorldDirectory);
-                case ARCHIVE -> installWorldFromArchive(world, targetWorldDirectory);
+                case ARCHIVE ->
+                {
+                    if (worldArchiveCache == null)
+                        installWorldFromArchive(world, targetWorldDirectory);
+                    else
+                        installWorldFromCachedArchive(world, targetWorldDirectory, worldArchiveCache, log);
+                }
             }
 
             final long durationMillis = (System.nanoTime() - startTimeNanos) / 1_000_000L;
@@ -70,6 +89,17 @@ public final class ServerAssetInstaller
         Log log
     )
         throws MojoExecutionException
+    {
+        installPluginArtifacts(targetServerDirectory, pluginArtifacts, null, log);
+    }
+
+    public static void installPluginArtifacts(
+        Path targetServerDirectory,
+        List<ResolvedPluginArtifact> pluginArtifacts,
+        @Nullable ContentStore contentStore,
+        Log log
+    )
+        throws MojoExecutionException
     {
         if (pluginArtifacts.isEmpty())
             return;
@@ -81,24 +111,7 @@ public final class ServerAssetInstaller
         for (final ResolvedPluginArtifact pluginArtifact : pluginArtifacts)
         {
             final Path sourceJar = pluginArtifact.sourceJar();
-            if (!Files.isRegularFile(sourceJar))
-            {
-                throw new MojoExecutionException(
-                    "Resolved plugin artifact '%s' does not exist as a regular file."
-                        .formatted(sourceJar)
-                );
-            }
-
-            final String outputFileName = validatePluginOutputFileName(pluginArtifact.outputFileName());
-            final String outputFileNameLowerCase = outputFileName.toLowerCase(Locale.ROOT);
-            if (!usedFileNames.add(outputFileNameLowerCase))
-            {
-                throw new MojoExecutionException(
-                    "Duplicate plugin output filename '%s' detected while installing additional plugins."
-                        .formatted(outputFileName)
-                );
-            }
-
+            final String outputFileName = validatePluginArtifact(pluginArtifact, usedFileNames);
             final Path targetPath = pluginsDirectory.resolve(outputFileName);
             if (Files.exists(targetPath))
             {
@@ -107,6 +120,14 @@ public final class ServerAssetInstaller
                         .formatted(targetPath)
                 );
             }
+            if (contentStore != null)
+            {
+                final String action = contentStore.install(sourceJar, targetPath) ? "Linked" : "Copied";
+                log.info("LK_PLUGIN: %s plugin '%s' from '%s' to '%s' through the content store."
+                    .formatted(action, pluginArtifact.sourceDescription(), sourceJar, targetPath));
+                continue;
+            }
+
             log.info("LK_PLUGIN: Copying plugin '%s' from '%s' to '%s'."
                 .formatted(pluginArtifact.sourceDescription(), sourceJar, targetPath));
 
@@ -128,20 +149,7 @@ public final class ServerAssetInstaller
     public static void applyConfigOverlay(Path configOverlayPath, Path targetServerDirectory, Log log)
         throws MojoExecutionException
     {
-        if (Files.notExists(configOverlayPath))
-        {
-            throw new MojoExecutionException(
-                "Configured configOverlayPath '%s' does not exist."
-                    .formatted(configOverlayPath)
-            );
-        }
-        if (!Files.isDirectory(configOverlayPath))
-        {
-            throw new MojoExecutionException(
-                "Configured configOverlayPath '%s' is not a directory."
-                    .formatted(configOverlayPath)
-            );
-        }
+        validateConfigOverlayPath(configOverlayPath);
 
         final AtomicLong copiedFileCount = new AtomicLong(0L);
         log.info("LK_CONFIG: Applying configuration overlay from '%s' to '%s'."
@@ -202,50 +210,238 @@ public final class ServerAssetInstaller
         log.info("LK_CONFIG: Applied overlay with %d file(s).".formatted(copiedFileCount.get()));
     }
 
-    private static void installWorldFromFolder(WorldInputSpec world, Path targetWorldDirectory)
+    /**
+     * Adds worlds to the desired state of a target server, replacing the files the base server has under their names.
+     *
+     * @param desiredState
+     *     The desired state of the target server.
+     * @param targetServerDirectory
+     *     The target server directory, to validate the world names against.
+     * @param worlds
+     *     The worlds to add.
+     * @param worldArchiveCache
+     *     The cache to extract world archives into; its entries are copied, never linked, into the target server.
+     * @param log
+     *     The log to report progress to.
+     * @throws MojoExecutionException
+     *     If a world is invalid, collides with a base server directory without {@code overwrite}, or cannot be read.
+     */
+    public static void addWorlds(
+        DirectorySync desiredState,
+        Path targetServerDirectory,
+        List<WorldInputSpec> worlds,
+        ArchiveExtractionCache worldArchiveCache,
+        Log log
+    )
         throws MojoExecutionException
     {
-        if (!Files.isDirectory(world.sourcePath()))
+        final Path normalizedTarget = targetServerDirectory.toAbsolutePath().normalize();
+        for (final WorldInputSpec world : worlds)
+        {
+            final Path targetWorldDirectory = resolveChildPath(normalizedTarget, world.name(), "world name");
+            final String worldPath =
+                normalizedTarget.relativize(targetWorldDirectory).toString().replace('\\', '/');
+
+            log.info("LK_WORLD: Adding world '%s' from '%s' (%s) to the target server state."
+                .formatted(world.name(), world.sourcePath(), world.sourceType()));
+
+            if (desiredState.containsDirectory(worldPath))
+            {
+                if (!world.overwrite())
+                {
+                    throw new MojoExecutionException(
+                        "World target directory '%s' already exists and overwrite=false for world '%s'."
+                            .formatted(targetWorldDirectory, world.name())
+                    );
+                }
+                desiredState.removeDirectory(worldPath);
+            }
+
+            final Path worldSource = switch (world.sourceType())
+            {
+                case FOLDER -> requireWorldFolder(world);
+                case ARCHIVE -> extractCachedWorldArchive(world, worldArchiveCache, log);
+            };
+            desiredState.addTree(worldSource, worldPath, relative -> false);
+        }
+    }
+
+    /**
+     * Adds plugin artifacts to the desired state of a target server.
+     *
+     * @param desiredState
+     *     The desired state of the target server.
+     * @param pluginArtifacts
+     *     The plugin artifacts to add.
+     * @param contentStore
+     *     The store to link the plugin jars from, or {@code null} to copy them.
+     * @param log
+     *     The log to report progress to.
+     * @throws MojoExecutionException
+     *     If a plugin artifact is missing or its output filename is invalid or taken.
+     */
+    public static void addPluginArtifacts(
+        DirectorySync desiredState,
+        List<ResolvedPluginArtifact> pluginArtifacts,
+        @Nullable ContentStore contentStore,
+        Log log
+    )
+        throws MojoExecutionException
+    {
+        final Set<String> usedFileNames = new HashSet<>();
+        for (final ResolvedPluginArtifact pluginArtifact : pluginArtifacts)
+        {
+            final String outputFileName = validatePluginArtifact(pluginArtifact, usedFileNames);
+            final String targetPath = "plugins/" + outputFileName;
+            if (desiredState.containsFile(targetPath))
+            {
+                throw new MojoExecutionException(
+                    "Plugin target path '%s' already exists. Use a unique renameTo value."
+                        .formatted(targetPath)
+                );
+            }
+            log.info("LK_PLUGIN: Adding plugin '%s' from '%s' as '%s' to the target server state."
+                .formatted(pluginArtifact.sourceDescription(), pluginArtifact.sourceJar(), targetPath));
+
+            if (contentStore == null)
+                desiredState.addFile(targetPath, pluginArtifact.sourceJar(), false);
+            else
+                desiredState.addFile(targetPath, contentStore.ingest(pluginArtifact.sourceJar()), true);
+        }
+    }
+
+    /**
+     * Adds a configuration overlay to the desired state of a target server; its files replace all others.
+     *
+     * @param configOverlayPath
+     *     The overlay directory.
+     * @param desiredState
+     *     The desired state of the target server.
+     * @param log
+     *     The log to report progress to.
+     * @throws MojoExecutionException
+     *     If the overlay is not a directory, contains symbolic links or cannot be read.
+     */
+    public static void addConfigOverlay(Path configOverlayPath, DirectorySync desiredState, Log log)
+        throws MojoExecutionException
+    {
+        validateConfigOverlayPath(configOverlayPath);
+        log.info("LK_CONFIG: Adding configuration overlay from '%s' to the target server state."
+            .formatted(configOverlayPath));
+        desiredState.addTree(configOverlayPath.toAbsolutePath().normalize(), "", relative -> false);
+    }
+
+    private static void validateConfigOverlayPath(Path configOverlayPath)
+        throws MojoExecutionException
+    {
+        if (Files.notExists(configOverlayPath))
         {
             throw new MojoExecutionException(
-                "World sourcePath '%s' is not a directory for world '%s'."
-                    .formatted(world.sourcePath(), world.name())
+                "Configured configOverlayPath '%s' does not exist."
+                    .formatted(configOverlayPath)
+            );
+        }
+        if (!Files.isDirectory(configOverlayPath))
+        {
+            throw new MojoExecutionException(
+                "Configured configOverlayPath '%s' is not a directory."
+                    .formatted(configOverlayPath)
             );
         }
-
-        FileUtil.copyDirectoryRecursively(world.sourcePath(), targetWorldDirectory);
     }
 
-    private static void installWorldFromArchive(WorldInputSpec world, Path targetWorldDirectory)
+    /**
+     * Validates a plugin artifact and claims its output filename.
+     *
+     * @return The validated output filename.
+     */
+    private static String validatePluginArtifact(ResolvedPluginArtifact pluginArtifact, Set<String> usedFileNames)
         throws MojoExecutionException
     {
-        final String normalizedName = world.sourcePath().getFileName() == null
-            ? world.sourcePath().toString().toLowerCase(Locale.ROOT)
-            : world.sourcePath().getFileName().toString().toLowerCase(Locale.ROOT);
-        if (!normalizedName.endsWith(".zip"))
+        final Path sourceJar = pluginArtifact.sourceJar();
+        if (!Files.isRegularFile(sourceJar))
         {
             throw new MojoExecutionException(
-                "World archive '%s' is not a .zip file for world '%s'."
-                    .formatted(world.sourcePath(), world.name())
+                "Resolved plugin artifact '%s' does not exist as a regular file."
+                    .formatted(sourceJar)
             );
         }
 
-        if (!Files.isRegularFile(world.sourcePath()))
+        final String outputFileName = validatePluginOutputFileName(pluginArtifact.outputFileName());
+        final String outputFileNameLowerCase = outputFileName.toLowerCase(Locale.ROOT);
+        if (!usedFileNames.add(outputFileNameLowerCase))
         {
             throw new MojoExecutionException(
-                "World archive sourcePath '%s' does not exist for world '%s'."
+                "Duplicate plugin output filename '%s' detected while installing additional plugins."
+                    .formatted(outputFileName)
+            );
+        }
+        return outputFileName;
+    }
+
+    private static void installWorldFromFolder(WorldInputSpec world, Path targetWorldDirectory)
+        throws MojoExecutionException
+    {
+        FileUtil.copyDirectoryRecursively(requireWorldFolder(world), targetWorldDirectory);
+    }
+
+    private static Path requireWorldFolder(WorldInputSpec world)
+        throws MojoExecutionException
+    {
+        if (!Files.isDirectory(world.sourcePath()))
+        {
+            throw new MojoExecutionException(
+                "World sourcePath '%s' is not a directory for world '%s'."
                     .formatted(world.sourcePath(), world.name())
             );
         }
+        return world.sourcePath();
+    }
 
+    private static void installWorldFromCachedArchive(
+        WorldInputSpec world,
+        Path targetWorldDirectory,
+        ArchiveExtractionCache worldArchiveCache,
+        Log log
+    )
+        throws MojoExecutionException
+    {
+        final Path worldRoot = extractCachedWorldArchive(world, worldArchiveCache, log);
+        final DirectoryMaterializer.Result result =
+            DirectoryMaterializer.materialize(worldRoot, targetWorldDirectory, relative -> false);
+        log.info("LK_WORLD: Materialized world '%s' (%s).".formatted(world.name(), result.describe()));
+    }
+
+    /**
+     * Extracts a world archive into the cache, unless it was extracted before, and returns the root of the world.
+     */
+    private static Path extractCachedWorldArchive(
+        WorldInputSpec world,
+        ArchiveExtractionCache worldArchiveCache,
+        Log log
+    )
+        throws MojoExecutionException
+    {
+        validateWorldArchive(world);
+        final ArchiveExtractionCache.Extraction extraction = worldArchiveCache.extract(world.sourcePath());
+        log.info("LK_WORLD: %s world archive '%s' at '%s' in %d ms.".formatted(
+            extraction.reused() ? "Reused extracted" : "Extracted",
+            world.sourcePath(),
+            extraction.directory(),
+            extraction.elapsed().toMillis()
+        ));
+        return resolveExtractedWorldRoot(extraction.directory(), world.sourcePath());
+    }
+
+    private static void installWorldFromArchive(WorldInputSpec world, Path targetWorldDirectory)
+        throws MojoExecutionException
+    {
         try
         {
             final Path extractionRoot = Files.createTempDirectory("lightkeeper-world-import-");
             try
             {
-                extractZipArchive(world.sourcePath(), extractionRoot);
-                final Path extractedWorldRoot = resolveExtractedWorldRoot(extractionRoot, world.sourcePath());
-                FileUtil.copyDirectoryRecursively(extractedWorldRoot, targetWorldDirectory);
+                FileUtil.copyDirectoryRecursively(extractWorldArchive(world, extractionRoot), targetWorldDirectory);
             }
             finally
             {
@@ -262,45 +458,39 @@ public final class ServerAssetInstaller
         }
     }
 
-    private static void extractZipArchive(Path archivePath, Path extractionRoot)
+    /**
+     * Extracts a world archive and returns the root of the extracted world.
+     */
+    private static Path extractWorldArchive(WorldInputSpec world, Path extractionRoot)
         throws MojoExecutionException
     {
-        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(archivePath)))
-        {
-            ZipEntry entry;
-            while ((entry = zipInputStream.getNextEntry()) != null)
-            {
-                final String entryName = entry.getName();
-                if (entryName == null || entryName.isBlank())
-                    continue;
-
-                final Path entryPath = extractionRoot.resolve(entryName).normalize();
-                ensureInsideRoot(entryPath, extractionRoot, "zip entry");
+        validateWorldArchive(world);
+        ArchiveExtractionCache.extractZip(world.sourcePath(), extractionRoot);
+        return resolveExtractedWorldRoot(extractionRoot, world.sourcePath());
+    }
 
-                if (entry.isDirectory())
-                {
-                    Files.createDirectories(entryPath);
-                }
-                else
-                {
-                    if (entryPath.getParent() != null)
-                        Files.createDirectories(entryPath.getParent());
-                    try (OutputStream outputStream = Files.newOutputStream(entryPath))
-                    {
-                        zipInputStream.transferTo(outputStream);
-                    }
-                }
-                zipInputStream.closeEntry();
-            }
+    private static void validateWorldArchive(WorldInputSpec world)
+        throws MojoExecutionException
+    {
+        final String normalizedName = world.sourcePath().getFileName() == null
+            ? world.sourcePath().toString().toLowerCase(Locale.ROOT)
+            : world.sourcePath().getFileName().toString().toLowerCase(Locale.ROOT);
+        if (!normalizedName.endsWith(".zip"))
+        {
+            throw new MojoExecutionException(
+                "World archive '%s' is not a .zip file for world '%s'."
+                    .formatted(world.sourcePath(), world.name())
+            );
         }
-        catch (IOException exception)
+
+        if (!Files.isRegularFile(world.sourcePath()))
         {
             throw new MojoExecutionException(
-                "Failed to extract world archive '%s'."
-                    .formatted(archivePath),
-                exception
+                "World archive sourcePath '%s' does not exist for world '%s'."
+                    .formatted(world.sourcePath(), world.name())
             );
         }
+
     }
 
     private static Path resolveExtractedWorldRoot(Path extractionRoot, Path archivePath)
@@ -7,6 +7,7 @@ import org.jspecify.annotations.Nullable;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UncheckedIOException;
@@ -23,6 +24,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Represents a Minecraft server process that can perform operations such as starting, stopping, and checking if it is
@@ -43,6 +45,7 @@ public class MinecraftServerProcess
     private final @Nullable String extraJvmArgs;
     private final int memoryMb;
     private @Nullable Process process;
+    private @Nullable Consumer<String> startupOutputListener;
 
     public void start(int timeoutSeconds)
         throws MojoExecutionException
@@ -109,6 +112,45 @@ public class MinecraftServerProcess
         }
     }
 
+    /**
+     * Sends a console command to the running server without waiting for its result.
+     *
+     * @param command
+     *     The command, without a leading slash.
+     * @throws MojoExecutionException
+     *     If the server is not running or the command could not be written.
+     */
+    public void sendCommand(String command)
+        throws MojoExecutionException
+    {
+        if (!isRunning())
+            throw new MojoExecutionException("Server is not running");
+
+        final OutputStream stdin = requireRunningProcess().getOutputStream();
+        try
+        {
+            // Unlike stop(), keep stdin open so later commands can still be sent.
+            stdin.write((command + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            stdin.flush();
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to send command '%s' to server process".formatted(command), exception);
+        }
+    }
+
+    /**
+     * Sets the listener that receives every server output line read while waiting for startup to complete.
+     *
+     * @param listener
+     *     The listener, or {@code null} to remove it.
+     */
+    public void startupOutputListener(@Nullable Consumer<String> listener)
+    {
+        this.startupOutputListener = listener;
+    }
+
     public boolean isRunning()
     {
         return process != null && process.isAlive();
@@ -151,6 +193,10 @@ public class MinecraftServerProcess
                 final String line = outputLines.poll(pollMillis, TimeUnit.MILLISECONDS);
                 if (line != null)
                 {
+                    final @Nullable Consumer<String> listener = startupOutputListener;
+                    if (listener != null)
+                        listener.accept(line);
+
                     if (line.endsWith(")! For help, type \"help\"") && line.contains("Done ("))
                         return;
 
@@ -5,7 +5,6 @@ import nl.pim16aap2.lightkeeper.maven.PaperBuildMetadata;
 import nl.pim16aap2.lightkeeper.maven.ServerSpecification;
 import nl.pim16aap2.lightkeeper.maven.serverprocess.MinecraftServerProcess;
 import nl.pim16aap2.lightkeeper.maven.serverprocess.PaperServerProcess;
-import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
@@ -35,9 +34,7 @@ public class PaperServerProvider extends ServerProvider
             "Downloading Paper build %d for version %s."
                 .formatted(paperBuildMetadata.buildId(), paperBuildMetadata.minecraftVersion())
         );
-        downloadFile(paperBuildMetadata.downloadUri().toString(), targetFile);
-
-        final String actualHash = HashUtil.sha256(targetFile);
+        final String actualHash = downloadFile(paperBuildMetadata.downloadUri().toString(), targetFile);
         if (!actualHash.equalsIgnoreCase(paperBuildMetadata.sha256()))
         {
             throw new MojoExecutionException(
@@ -68,6 +65,7 @@ public class PaperServerProvider extends ServerProvider
                 );
                 serverProcess.start(serverSpecification().serverInitTimeoutSeconds());
                 log().info("LK_SERVER: Paper base server started successfully.");
+                prepareSpawnChunks(serverProcess);
                 log().info("LK_SERVER: Stopping Paper base server process.");
                 serverProcess.stop(serverSpecification().serverStopTimeoutSeconds());
                 log().info("LK_SERVER: Paper base server stopped successfully.");
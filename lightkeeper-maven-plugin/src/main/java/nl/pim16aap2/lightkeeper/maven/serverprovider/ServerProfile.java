@@ -0,0 +1,39 @@
+package nl.pim16aap2.lightkeeper.maven.serverprovider;
+
+/**
+ * Server configuration profile applied to the cached base server.
+ * <p>
+ * The profile is applied before worlds, plugins and the config overlay are installed in the target server, so a user
+ * overlay can still override every setting of a profile.
+ */
+public enum ServerProfile
+{
+    /**
+     * The server's own defaults, apart from the settings LightKeeper always needs.
+     */
+    DEFAULT(2),
+
+    /**
+     * Settings that trade gameplay fidelity for faster boots and cheaper ticks in integration tests.
+     * <p>
+     * See {@code ServerProfileConfigurer} for the individual settings and their effect.
+     */
+    FAST_TEST(0);
+
+    private final int spawnChunkRadius;
+
+    ServerProfile(int spawnChunkRadius)
+    {
+        this.spawnChunkRadius = spawnChunkRadius;
+    }
+
+    /**
+     * The value of the {@code spawnChunkRadius} game rule in the base server's overworld.
+     *
+     * @return The radius, in chunks, of the spawn area kept loaded while the server runs.
+     */
+    int spawnChunkRadius()
+    {
+        return spawnChunkRadius;
+    }
+}
@@ -0,0 +1,276 @@
+package nl.pim16aap2.lightkeeper.maven.serverprovider;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the configuration files of a {@link ServerProfile} to a server directory.
+ * <p>
+ * The {@link ServerProfile#FAST_TEST} settings, and why each one is there:
+ * <ul>
+ *     <li>{@code server.properties}:
+ *     <ul>
+ *         <li>{@code view-distance=2} sends a 5x5 chunk area to each joining bot instead of 21x21, which is most of
+ *         the chunk loading and sending a bot join causes.</li>
+ *         <li>{@code simulation-distance=2} ticks the 5x5 area around each bot instead of 21x21, so entity, block
+ *         and random ticks cost a fraction of the default per tick.</li>
+ *         <li>{@code sync-chunk-writes=false} lets region files be written without a synchronous flush per chunk,
+ *         which dominates world saves on slow disks.</li>
+ *         <li>{@code enforce-secure-profile=false} skips the chat-signing and chat-report profile key handling for
+ *         every join and chat message.</li>
+ *     </ul></li>
+ *     <li>{@code bukkit.yml}: {@code ticks-per.autosave: 0} disables the periodic save of all loaded chunks, which
+ *     causes tick spikes in long test runs. Worlds are still saved on shutdown.</li>
+ *     <li>{@code spigot.yml}:
+ *     <ul>
+ *         <li>{@code stats.disable-saving} and {@code advancements.disable-saving} stop writing per-player statistics
+ *         and advancement files for every bot that leaves.</li>
+ *         <li>{@code world-settings.default.entity-activation-range} shrinks the range in which entities are fully
+ *         ticked to a few blocks around bots, and stops ticking inactive villagers, so mobs around fixtures cost
+ *         little when the test does not look at them.</li>
+ *     </ul></li>
+ *     <li>{@code config/paper-world-defaults.yml} (Paper only): {@code environment.optimize-explosions} caches
+ *     explosion density lookups and {@code tick-rates.grass-spread: 4} runs grass spreading every fourth tick.</li>
+ * </ul>
+ * The profile also sets the overworld's {@code spawnChunkRadius} game rule to {@code 0}; see
+ * {@link ServerProfile#spawnChunkRadius()}.
+ * <p>
+ * No profile touches {@code online-mode} or proxy forwarding, so the result always passes the loopback-login guard.
+ * Files that do not exist yet are skipped, like the Paper files on a Spigot server. The edits are line-level: a
+ * present key is replaced in place, a missing one is added to its section, and every other line is kept as is.
+ */
+final class ServerProfileConfigurer
+{
+    /**
+     * Matches a YAML mapping key line, capturing its indentation and key.
+     */
+    private static final Pattern YAML_KEY_PATTERN = Pattern.compile("^(\\s*)([A-Za-z0-9_.\\-]+):(?:\\s.*)?$");
+
+    private static final List<Setting> FAST_TEST_SERVER_PROPERTIES = List.of(
+        new Setting("view-distance", "2"),
+        new Setting("simulation-distance", "2"),
+        new Setting("sync-chunk-writes", "false"),
+        new Setting("enforce-secure-profile", "false")
+    );
+
+    private static final List<Setting> FAST_TEST_BUKKIT_CONFIGURATION = List.of(
+        new Setting("ticks-per.autosave", "0")
+    );
+
+    private static final List<Setting> FAST_TEST_SPIGOT_CONFIGURATION = List.of(
+        new Setting("stats.disable-saving", "true"),
+        new Setting("advancements.disable-saving", "true"),
+        new Setting("world-settings.default.entity-activation-range.animals", "8"),
+        new Setting("world-settings.default.entity-activation-range.monsters", "8"),
+        new Setting("world-settings.default.entity-activation-range.raiders", "16"),
+        new Setting("world-settings.default.entity-activation-range.misc", "4"),
+        new Setting("world-settings.default.entity-activation-range.water", "4"),
+        new Setting("world-settings.default.entity-activation-range.villagers", "8"),
+        new Setting("world-settings.default.entity-activation-range.flying-monsters", "8"),
+        new Setting("world-settings.default.entity-activation-range.tick-inactive-villagers", "false")
+    );
+
+    private static final List<Setting> FAST_TEST_PAPER_WORLD_CONFIGURATION = List.of(
+        new Setting("environment.optimize-explosions", "true"),
+        new Setting("tick-rates.grass-spread", "4")
+    );
+
+    private ServerProfileConfigurer()
+    {
+    }
+
+    /**
+     * Applies the configuration files of a profile to a server directory.
+     *
+     * @param log
+     *     Logger for lifecycle messages.
+     * @param serverDirectory
+     *     The server directory to configure.
+     * @param profile
+     *     The profile to apply.
+     * @throws MojoExecutionException
+     *     If a present configuration file cannot be read or written.
+     */
+    static void apply(Log log, Path serverDirectory, ServerProfile profile)
+        throws MojoExecutionException
+    {
+        if (profile == ServerProfile.DEFAULT)
+            return;
+
+        updateFile(serverDirectory.resolve("server.properties"), lines ->
+        {
+            for (final Setting setting : FAST_TEST_SERVER_PROPERTIES)
+                setProperty(lines, setting.key(), setting.value());
+        });
+        updateYamlFile(serverDirectory.resolve("bukkit.yml"), FAST_TEST_BUKKIT_CONFIGURATION);
+        updateYamlFile(serverDirectory.resolve("spigot.yml"), FAST_TEST_SPIGOT_CONFIGURATION);
+        updateYamlFile(
+            serverDirectory.resolve("config").resolve("paper-world-defaults.yml"),
+            FAST_TEST_PAPER_WORLD_CONFIGURATION
+        );
+        log.info("LK_SERVER: Applied server profile %s to '%s'.".formatted(profile, serverDirectory));
+    }
+
+    /**
+     * Sets a {@code key=value} entry in the lines of a properties file, replacing an existing entry for the key.
+     *
+     * @param lines
+     *     The mutable lines of the properties file.
+     * @param key
+     *     The property key.
+     * @param value
+     *     The property value.
+     */
+    static void setProperty(List<String> lines, String key, String value)
+    {
+        final String prefix = key + "=";
+        for (int index = 0; index < lines.size(); ++index)
+        {
+            if (lines.get(index).startsWith(prefix))
+            {
+                lines.set(index, prefix + value);
+                return;
+            }
+        }
+        lines.add(prefix + value);
+    }
+
+    /**
+     * Sets a scalar value in the lines of a YAML file.
+     * <p>
+     * The key is a dot-separated path of mapping keys. An existing entry is replaced in place. Otherwise the missing
+     * part of the path is appended to the end of the deepest existing section, indented like that section's children.
+     *
+     * @param lines
+     *     The mutable lines of the YAML file.
+     * @param path
+     *     The dot-separated key path, for example {@code settings.timeout-time}.
+     * @param value
+     *     The scalar value, written as is.
+     */
+    static void setYamlValue(List<String> lines, String path, String value)
+    {
+        final String[] keys = path.split("\\.");
+        final List<String> stackKeys = new ArrayList<>();
+        final List<Integer> stackIndents = new ArrayList<>();
+
+        // The deepest section on the path found so far: its depth, the line its block ends on and its children's
+        // indentation. Depth 0 is the document itself.
+        int matchedDepth = 0;
+        int blockEnd = lines.size() - 1;
+        int childIndent = 0;
+        boolean childIndentKnown = false;
+
+        for (int index = 0; index < lines.size(); ++index)
+        {
+            final String line = lines.get(index);
+            final String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#"))
+                continue;
+
+            final int indent = line.length() - line.stripLeading().length();
+            while (!stackIndents.isEmpty() && stackIndents.getLast() >= indent)
+            {
+                stackIndents.removeLast();
+                stackKeys.removeLast();
+            }
+
+            // Every line nested under the matched section extends its block.
+            if (matchedDepth > 0 && stackKeys.size() >= matchedDepth &&
+                stackKeys.subList(0, matchedDepth).equals(List.of(keys).subList(0, matchedDepth)))
+            {
+                blockEnd = index;
+                if (!childIndentKnown && stackKeys.size() == matchedDepth)
+                {
+                    childIndent = indent;
+                    childIndentKnown = true;
+                }
+            }
+
+            final Matcher matcher = YAML_KEY_PATTERN.matcher(line);
+            if (!matcher.matches())
+                continue;
+
+            stackKeys.add(matcher.group(2));
+            stackIndents.add(indent);
+            if (stackKeys.size() == matchedDepth + 1 && matchedDepth < keys.length &&
+                stackKeys.equals(List.of(keys).subList(0, matchedDepth + 1)))
+            {
+                if (stackKeys.size() == keys.length)
+                {
+                    lines.set(index, matcher.group(1) + keys[keys.length - 1] + ": " + value);
+                    return;
+                }
+                matchedDepth = stackKeys.size();
+                blockEnd = index;
+                childIndent = indent + 2;
+                childIndentKnown = false;
+            }
+        }
+
+        int insertIndex = matchedDepth == 0 ? lines.size() : blockEnd + 1;
+        for (int depth = matchedDepth; depth < keys.length; ++depth)
+        {
+            final int indent = childIndent + 2 * (depth - matchedDepth);
+            final String entry = depth == keys.length - 1 ? keys[depth] + ": " + value : keys[depth] + ":";
+            lines.add(insertIndex++, " ".repeat(indent) + entry);
+        }
+    }
+
+    private static void updateYamlFile(Path file, List<Setting> settings)
+        throws MojoExecutionException
+    {
+        updateFile(file, lines ->
+        {
+            for (final Setting setting : settings)
+                setYamlValue(lines, setting.key(), setting.value());
+        });
+    }
+
+    private static void updateFile(Path file, LinesUpdate update)
+        throws MojoExecutionException
+    {
+        if (Files.notExists(file))
+            return;
+
+        final List<String> lines;
+        try
+        {
+            lines = new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to read server configuration '%s'.".formatted(file), exception);
+        }
+
+        update.apply(lines);
+
+        try
+        {
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to write server configuration '%s'.".formatted(file), exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LinesUpdate
+    {
+        void apply(List<String> lines);
+    }
+
+    private record Setting(String key, String value)
+    {
+    }
+}
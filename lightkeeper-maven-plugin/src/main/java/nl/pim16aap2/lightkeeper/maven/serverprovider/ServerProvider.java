@@ -6,11 +6,18 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import nl.pim16aap2.lightkeeper.maven.LightkeeperEmbeddedAgent;
 import nl.pim16aap2.lightkeeper.maven.ServerSpecification;
+import nl.pim16aap2.lightkeeper.maven.serverprocess.MinecraftServerProcess;
+import nl.pim16aap2.lightkeeper.maven.util.ArtifactDownloader;
+import nl.pim16aap2.lightkeeper.maven.util.CacheKeyUtil;
+import nl.pim16aap2.lightkeeper.maven.util.CacheLock;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.DirectoryMaterializer;
+import nl.pim16aap2.lightkeeper.maven.util.DirectorySync;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
 import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
-import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,6 +30,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -43,6 +52,15 @@ public abstract class ServerProvider
     private static final Pattern SPIGOT_SETTINGS_HEADER_PATTERN = Pattern.compile("^(\\s*)settings:\\s*$");
     private static final Pattern SPIGOT_WATCHDOG_TIMEOUT_PATTERN = Pattern.compile("^(\\s*)timeout-time:\\s*\\d+\\s*$");
     private static final int SPIGOT_WATCHDOG_TIMEOUT_SECONDS = 600;
+    private static final String SYNC_STAGING_SUFFIX = ".sync-staging";
+    private static final String SPAWN_PREGENERATION_MARKER_FILE_NAME = "lightkeeper-spawn-pregeneration.txt";
+    private static final int DEFAULT_SPAWN_CHUNK_RADIUS = 2;
+    private static final int MAX_SPAWN_CHUNK_RADIUS = 32;
+    private static final List<Integer> SPAWN_CHUNK_RADIUS_GAME_RULE_VERSION = List.of(1, 20, 5);
+    /**
+     * Conservative generation rate used to extend the startup timeout of the pre-generating restart.
+     */
+    private static final int PREGENERATION_CHUNKS_PER_SECOND = 20;
 
     private final Log log;
 
@@ -90,18 +108,14 @@ public abstract class ServerProvider
     private final Path baseServerJarFile;
 
     /**
-     * Indicates whether the base server should be recreated.
-     * <p>
-     * This is determined based on the server specification and the current state of the base server directory.
+     * How long creating the server jar took in this build, or zero when the cached jar was reused.
      */
-    private final boolean shouldRecreateBaseServer;
+    private Duration jarCreationTime = Duration.ZERO;
 
     /**
-     * Indicates whether the server JAR file should be recreated.
-     * <p>
-     * This is determined based on the server specification and the current state of the JAR file in the cache.
+     * How long creating the base server took in this build, or zero when the cached base server was reused.
      */
-    private final boolean shouldRecreateJar;
+    private Duration baseServerCreationTime = Duration.ZERO;
 
     protected ServerProvider(Log log, String name, ServerSpecification serverSpecification)
     {
@@ -112,11 +126,17 @@ public abstract class ServerProvider
         if (name.isBlank())
             throw new IllegalArgumentException("Server name cannot be null or blank.");
 
+        // Base servers with another profile or pre-generation radius are different entries of the shared cache, so
+        // builds that configure them differently do not recreate each other's base server.
         this.baseServerDirectory = resolveVersionedDirectory(
             serverSpecification.serverVersion(),
             serverSpecification.baseServerCacheDirectoryRoot(),
             serverSpecification.versionedCacheDirectories()
-        );
+        ).resolveSibling(CacheKeyUtil.createBaseServerCacheKey(
+            serverSpecification.cacheKey(),
+            serverSpecification.serverProfile().name(),
+            effectiveSpawnPregenerationRadius(serverSpecification)
+        ));
 
         this.jarCacheDirectory = resolveVersionedDirectory(
             serverSpecification.serverVersion(),
@@ -134,18 +154,6 @@ public abstract class ServerProvider
         this.targetJarFile = this.targetServerDirectory.resolve(outputJarFileName);
         this.jarCacheFile = this.jarCacheDirectory.resolve(outputJarFileName);
         this.baseServerJarFile = this.baseServerDirectory.resolve(outputJarFileName);
-
-        this.shouldRecreateJar = shouldBeRecreated(
-            serverSpecification.forceRebuildJar(),
-            serverSpecification.jarCacheExpiryDays(),
-            this.jarCacheFile
-        );
-
-        this.shouldRecreateBaseServer = shouldBeRecreated(
-            serverSpecification.forceRecreateBaseServer(),
-            serverSpecification.baseServerCacheExpiryDays(),
-            this.baseServerDirectory.resolve(EULA_FILE_NAME)
-        ) || !this.baseServerVersionMatches();
     }
 
     /**
@@ -241,6 +249,171 @@ public abstract class ServerProvider
             """;
     }
 
+    /**
+     * Prepares the overworld spawn area of the running base server.
+     * <p>
+     * The {@code spawnChunkRadius} game rule makes the server prepare the spawn area synchronously during startup,
+     * reporting its progress. To pre-generate the spawn area, the server is therefore restarted with the configured
+     * pre-generation radius: the generated region files stay in the base server, so target servers load those chunks
+     * instead of generating them.
+     * <p>
+     * Afterwards, the rule is set to the radius of the {@link ServerProfile}, so target servers do not keep the
+     * pre-generated area loaded on every boot. Does nothing when neither is configured, or when the server predates
+     * the game rule (Minecraft 1.20.5), in which case no pre-generation marker is written. The server is left running.
+     *
+     * @param serverProcess
+     *     The running base server process.
+     * @throws MojoExecutionException
+     *     If the server could not be restarted or the commands could not be sent.
+     */
+    protected void prepareSpawnChunks(MinecraftServerProcess serverProcess)
+        throws MojoExecutionException
+    {
+        final int profileRadius = serverSpecification().serverProfile().spawnChunkRadius();
+        if (!hasSpawnChunkRadiusGameRule(serverSpecification().serverVersion()))
+        {
+            if (serverSpecification().spawnPregenerationRadius() > DEFAULT_SPAWN_CHUNK_RADIUS
+                || profileRadius != DEFAULT_SPAWN_CHUNK_RADIUS)
+            {
+                log().warn("LK_SERVER: Minecraft %s has no spawnChunkRadius game rule; skipping spawn preparation."
+                    .formatted(serverSpecification().serverVersion()));
+            }
+            return;
+        }
+
+        final int radius = effectiveSpawnPregenerationRadius(serverSpecification);
+        if (radius == 0)
+        {
+            if (profileRadius != DEFAULT_SPAWN_CHUNK_RADIUS)
+                serverProcess.sendCommand("gamerule spawnChunkRadius " + profileRadius);
+            return;
+        }
+
+        final int chunkCount = (2 * radius + 1) * (2 * radius + 1);
+        final long startNanos = System.nanoTime();
+        log().info("LK_SERVER: Pre-generating %d spawn chunk(s) (radius %d) in the base server."
+            .formatted(chunkCount, radius));
+        serverProcess.sendCommand("gamerule spawnChunkRadius " + radius);
+        serverProcess.stop(serverSpecification().serverStopTimeoutSeconds());
+
+        serverProcess.startupOutputListener(line ->
+        {
+            final int progressIndex = line.indexOf("Preparing spawn area");
+            if (progressIndex >= 0)
+                log().info("LK_SERVER: " + line.substring(progressIndex));
+        });
+        try
+        {
+            serverProcess.start(
+                serverSpecification().serverInitTimeoutSeconds() + chunkCount / PREGENERATION_CHUNKS_PER_SECOND);
+        }
+        finally
+        {
+            serverProcess.startupOutputListener(null);
+        }
+        serverProcess.sendCommand("gamerule spawnChunkRadius " + profileRadius);
+
+        final Path markerFile = baseServerDirectory().resolve(SPAWN_PREGENERATION_MARKER_FILE_NAME);
+        try
+        {
+            Files.writeString(markerFile, Integer.toString(radius), StandardCharsets.UTF_8);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to write spawn pre-generation marker '%s'.".formatted(markerFile), exception);
+        }
+        log().info("LK_SERVER: Pre-generated %d spawn chunk(s) in %d ms."
+            .formatted(chunkCount, Duration.ofNanos(System.nanoTime() - startNanos).toMillis()));
+    }
+
+    /**
+     * Returns the spawn pre-generation radius to apply, or {@code 0} when pre-generation is disabled.
+     */
+    private static int effectiveSpawnPregenerationRadius(ServerSpecification serverSpecification)
+    {
+        if (!hasSpawnChunkRadiusGameRule(serverSpecification.serverVersion()))
+            return 0;
+        final int radius = Math.min(serverSpecification.spawnPregenerationRadius(), MAX_SPAWN_CHUNK_RADIUS);
+        return radius > DEFAULT_SPAWN_CHUNK_RADIUS ? radius : 0;
+    }
+
+    /**
+     * Checks whether a server version has the {@code spawnChunkRadius} game rule, which was added in Minecraft 1.20.5.
+     * Versions that cannot be parsed are treated as not having it.
+     *
+     * @param serverVersion
+     *     The Minecraft version, such as {@code 1.21.4}.
+     * @return {@code true} if the game rule exists in that version.
+     */
+    static boolean hasSpawnChunkRadiusGameRule(String serverVersion)
+    {
+        final String[] parts = serverVersion.split("-", 2)[0].split("\\.");
+        for (int idx = 0; idx < SPAWN_CHUNK_RADIUS_GAME_RULE_VERSION.size(); ++idx)
+        {
+            final int part;
+            try
+            {
+                part = idx < parts.length ? Integer.parseInt(parts[idx]) : 0;
+            }
+            catch (NumberFormatException ignored)
+            {
+                return false;
+            }
+            final int required = SPAWN_CHUNK_RADIUS_GAME_RULE_VERSION.get(idx);
+            if (part != required)
+                return part > required;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the spawn pre-generation of the cached base server completed.
+     * <p>
+     * The radius is part of the base server's cache key; the marker is only written once pre-generation finished, so
+     * a base server left behind by an interrupted build is recreated.
+     */
+    private boolean spawnPregenerationMatches()
+    {
+        final int expectedRadius = effectiveSpawnPregenerationRadius(serverSpecification);
+        if (expectedRadius == 0)
+            return true;
+
+        final Path markerFile = baseServerDirectory.resolve(SPAWN_PREGENERATION_MARKER_FILE_NAME);
+        try
+        {
+            if (Integer.parseInt(Files.readString(markerFile, StandardCharsets.UTF_8).strip()) >= expectedRadius)
+                return true;
+        }
+        catch (IOException | NumberFormatException ignored)
+        {
+            // A missing or unreadable marker means the spawn area was not pre-generated.
+        }
+        log.info("Base server '%s' was not pre-generated with spawn radius %d."
+            .formatted(baseServerDirectory, expectedRadius));
+        return false;
+    }
+
+    /**
+     * Applies the configuration files of the configured {@link ServerProfile} to the base server.
+     * <p>
+     * The files only exist after the base server started once, and the edits are idempotent, so they are applied on
+     * every preparation, like the watchdog timeout. The profile is part of the base server's cache key, so a base
+     * server is only ever configured with one profile.
+     *
+     * @throws MojoExecutionException
+     *     If a configuration file cannot be written.
+     */
+    private void applyServerProfile()
+        throws MojoExecutionException
+    {
+        final ServerProfile profile = serverSpecification().serverProfile();
+        if (profile == ServerProfile.DEFAULT)
+            return;
+
+        ServerProfileConfigurer.apply(log(), baseServerDirectory(), profile);
+    }
+
     /**
      * Configures the watchdog timeout in the generated Spigot configuration.
      * <p>
@@ -334,6 +507,25 @@ public abstract class ServerProvider
         );
     }
 
+    /**
+     * Checks whether a TCP port can currently be bound on the loopback address.
+     *
+     * @param port
+     *     The port to check.
+     * @return {@code true} if the port is free.
+     */
+    protected static boolean isTcpPortAvailable(int port)
+    {
+        try (ServerSocket ignored = new ServerSocket(port, 0, InetAddress.getLoopbackAddress()))
+        {
+            return true;
+        }
+        catch (IOException ignored)
+        {
+            return false;
+        }
+    }
+
     /**
      * Reserves an available local TCP port.
      *
@@ -380,36 +572,173 @@ public abstract class ServerProvider
      */
     public final void prepareServer()
         throws MojoExecutionException
+    {
+        prepareBaseServer();
+
+        log().info("Copying base server to target server directory");
+        FileUtil.cleanDirectory(targetServerDirectory(), "target server directory");
+        // A later incremental sync must not trust a manifest describing files this re-creation replaced.
+        DirectorySync.deleteManifest(targetServerDirectory());
+        createTargetServer();
+        installEmbeddedAgentJar();
+    }
+
+    /**
+     * Prepares the server jar and base server like {@link #prepareServer()}, but leaves the target server directory
+     * untouched.
+     * <p>
+     * Returns the desired state of the target server, seeded with the base server. Callers add their worlds, plugins
+     * and configuration to it and then pass it to {@link #syncTargetServer(DirectorySync)}.
+     *
+     * @param contentStore
+     *     The store whose hash index is used for the base server files, or {@code null} to hash them every time.
+     * @return The desired state of the target server.
+     *
+     * @throws MojoExecutionException
+     *     If the server jar or base server could not be prepared.
+     */
+    public final DirectorySync prepareServerSync(@Nullable ContentStore contentStore)
+        throws MojoExecutionException
+    {
+        prepareBaseServer();
+
+        final DirectorySync desiredState = new DirectorySync(contentStore);
+        desiredState.addTree(baseServerDirectory, "", ServerProvider::isNeverWrittenServerFile);
+        return desiredState;
+    }
+
+    /**
+     * Brings the target server directory in line with the desired state, rewriting only the files that differ.
+     * <p>
+     * The result matches what {@link #prepareServer()} followed by installing the same assets would produce, but
+     * an unchanged target server costs one {@code stat} per file instead of a full re-creation. The runtime
+     * {@code server.properties} and the embedded agent jar are staged next to the target and synchronized like any
+     * other file; the previous port is kept while it is still free, so an unchanged target is left untouched.
+     *
+     * @param desiredState
+     *     The desired state obtained from {@link #prepareServerSync(ContentStore)}, with all assets added.
+     * @return The result of the synchronization.
+     * @throws MojoExecutionException
+     *     If the target server could not be synchronized.
+     */
+    public final DirectorySync.Result syncTargetServer(DirectorySync desiredState)
+        throws MojoExecutionException
+    {
+        final Path stagingDirectory = targetServerDirectory.resolveSibling(
+            targetServerDirectory.getFileName() + SYNC_STAGING_SUFFIX);
+        FileUtil.createDirectories(stagingDirectory, "target server staging directory");
+        desiredState.addFile("server.properties", stageServerProperties(desiredState, stagingDirectory), false);
+        final Path stagedAgentJar = stagingDirectory.resolve(LightkeeperEmbeddedAgent.FILE_NAME);
+        writeEmbeddedAgentJar(stagedAgentJar, true);
+        desiredState.addFile("plugins/" + LightkeeperEmbeddedAgent.FILE_NAME, stagedAgentJar, false);
+
+        final DirectorySync.Result result = desiredState.apply(targetServerDirectory);
+        log().info("Synchronized target server directory '%s' (%s)."
+            .formatted(targetServerDirectory, result.describe()));
+        return result;
+    }
+
+    /**
+     * Stages the desired {@code server.properties} with the runtime port applied.
+     */
+    private Path stageServerProperties(DirectorySync desiredState, Path stagingDirectory)
+        throws MojoExecutionException
+    {
+        final @Nullable Path sourceFile = desiredState.sourceFile("server.properties");
+        if (sourceFile == null)
+            throw new MojoExecutionException(
+                "Target server '%s' has no server.properties to synchronize.".formatted(targetServerDirectory));
+
+        final Path stagedFile = stagingDirectory.resolve("server.properties");
+        try
+        {
+            Files.copy(sourceFile, stagedFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to stage server properties '%s' to '%s'.".formatted(sourceFile, stagedFile), exception);
+        }
+
+        final int previousPort =
+            TargetServerPropertiesConfigurer.readServerPort(targetServerDirectory.resolve("server.properties"));
+        final int port = previousPort > 0 && isTcpPortAvailable(previousPort)
+            ? previousPort
+            : reserveTargetServerPort();
+        TargetServerPropertiesConfigurer.rewriteWithRuntimePort(log(), stagedFile, port);
+        return stagedFile;
+    }
+
+    private void prepareBaseServer()
+        throws MojoExecutionException
     {
         pruneUnusedCacheDirectoriesIfConfigured();
 
-        if (shouldRecreateJar())
+        // Decided now rather than when this provider was created: by this point the build has recorded its access to
+        // both cache entries, so a concurrent build's eviction no longer picks an entry this build is about to reuse.
+        final boolean shouldRecreateJar = shouldBeRecreated(
+            serverSpecification().forceRebuildJar(),
+            serverSpecification().jarCacheExpiryDays(),
+            jarCacheFile()
+        );
+        final boolean shouldRecreateBaseServer = shouldBeRecreated(
+            serverSpecification().forceRecreateBaseServer(),
+            serverSpecification().baseServerCacheExpiryDays(),
+            baseServerDirectory().resolve(EULA_FILE_NAME)
+        ) || !baseServerVersionMatches() || !spawnPregenerationMatches();
+
+        if (shouldRecreateJar)
         {
-            log().info("Recreating server JAR file");
-            FileUtil.cleanDirectory(jarCacheDirectory(), "jar cache directory");
-            createBaseServerJar();
+            recreateJarUnderLock();
 
             // The jar file can be updated without recreating the base server directory.
-            if (!shouldRecreateBaseServer())
+            if (!shouldRecreateBaseServer)
             {
                 copyJarFromCacheToBaseServer();
             }
         }
 
-        if (shouldRecreateBaseServer())
+        if (shouldRecreateBaseServer)
         {
             log().info("Recreating base server directory");
+            final long startNanos = System.nanoTime();
             FileUtil.cleanDirectory(baseServerDirectory(), "base server directory");
             copyJarFromCacheToBaseServer();
             createBaseServer();
+            baseServerCreationTime = Duration.ofNanos(System.nanoTime() - startNanos);
         }
 
         configureSpigotWatchdogTimeout();
+        applyServerProfile();
+    }
 
-        log().info("Copying base server to target server directory");
-        FileUtil.cleanDirectory(targetServerDirectory(), "target server directory");
-        createTargetServer();
-        installEmbeddedAgentJar();
+    /**
+     * Recreates the server jar while holding the lock of its jar cache directory.
+     * <p>
+     * The jar cache is shared by every build on the machine, and the decision to recreate the jar was made before the
+     * lock was held. Once it is, the cached jar is checked again: a jar that another build published in the meantime
+     * is reused instead of deleted and built again. A forced rebuild is only skipped when this build waited for
+     * another build, which rebuilt the jar while holding the lock.
+     */
+    private void recreateJarUnderLock()
+        throws MojoExecutionException
+    {
+        final Path lockFile = jarCacheDirectory().resolveSibling(jarCacheDirectory().getFileName() + ".lock");
+        try (CacheLock lock = CacheLock.acquire(lockFile, "jar cache directory", log()))
+        {
+            final boolean forced = serverSpecification().forceRebuildJar() && !lock.waited();
+            if (!forced && !shouldBeRecreated(false, serverSpecification().jarCacheExpiryDays(), jarCacheFile()))
+            {
+                log().info("LK_CACHE: Reusing server JAR file '%s' created by a concurrent build."
+                    .formatted(jarCacheFile()));
+                return;
+            }
+            log().info("Recreating server JAR file");
+            final long startNanos = System.nanoTime();
+            FileUtil.cleanDirectory(jarCacheDirectory(), "jar cache directory");
+            createBaseServerJar();
+            jarCreationTime = Duration.ofNanos(System.nanoTime() - startNanos);
+        }
     }
 
     private void pruneUnusedCacheDirectoriesIfConfigured()
@@ -516,43 +845,79 @@ public abstract class ServerProvider
 
     /**
      * Downloads a file from the specified URL to the target file path.
+     * <p>
+     * The download resumes a partial download left behind by an earlier attempt, see {@link ArtifactDownloader}.
      *
      * @param url
      *     The URL from which to download the file.
      * @param targetFile
      *     The path where the downloaded file should be saved.
+     * @return The SHA-256 of the downloaded file, computed while it was written.
+     *
      * @throws MojoExecutionException
      *     If the file could not be downloaded.
      */
-    protected void downloadFile(String url, Path targetFile)
+    protected String downloadFile(String url, Path targetFile)
         throws MojoExecutionException
     {
+        log().info("Downloading file from %s to %s".formatted(url, targetFile));
+        final URI uri;
         try
         {
-            log().info("Downloading file from %s to %s".formatted(url, targetFile));
-            FileUtils.copyURLToFile(URI.create(url).toURL(), targetFile.toFile(), 10_000, 10_000);
+            uri = URI.create(url);
         }
-        catch (IOException e)
+        catch (IllegalArgumentException e)
         {
             throw new MojoExecutionException("Failed to download file from %s to %s".formatted(url, targetFile), e);
         }
+        return new ArtifactDownloader(log(), serverSpecification().paperUserAgent())
+            .download(uri, targetFile, "SHA-256");
     }
 
     /**
      * Creates the target server.
      * <p>
-     * This method copies the entire base server directory to the target server directory.
+     * This method materializes the base server directory in the target server directory: jars and libraries are
+     * hard-linked and everything else is copied or cloned, see {@link DirectoryMaterializer}.
      *
      * @throws MojoExecutionException
-     *     if the base server directory could not be copied to the target server directory.
+     *     if the base server directory could not be materialized in the target server directory.
      */
     protected void createTargetServer()
         throws MojoExecutionException
     {
-        FileUtil.copyDirectoryRecursively(baseServerDirectory, targetServerDirectory);
+        materializeServer(baseServerDirectory, targetServerDirectory);
         rewriteTargetServerPropertiesWithReservedPort();
     }
 
+    private void materializeServer(Path source, Path target)
+        throws MojoExecutionException
+    {
+        final DirectoryMaterializer.Result result =
+            DirectoryMaterializer.materialize(source, target, ServerProvider::isNeverWrittenServerFile);
+        log().info("Materialized server directory '%s' from '%s' (%s).".formatted(target, source, result.describe()));
+    }
+
+    /**
+     * Whether a server file is only ever replaced, never written in place, so the target may share it with its source
+     * through a hard link.
+     * <p>
+     * Covers the server jar, the Paper cache jars and everything in {@code libraries/} and {@code versions/}.
+     * Plugin jars are excluded: provisioning may overwrite them in the target.
+     *
+     * @param relativePath
+     *     The file path relative to the server directory.
+     * @return {@code true} when the file may be hard-linked.
+     */
+    static boolean isNeverWrittenServerFile(Path relativePath)
+    {
+        final String topLevel = relativePath.getName(0).toString();
+        if (topLevel.equals("libraries") || topLevel.equals("versions"))
+            return true;
+        return !topLevel.equals("plugins")
+            && relativePath.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jar");
+    }
+
     /**
      * Rewrites target-server {@code server.properties} with a port reserved for this target server materialization.
      *
@@ -575,6 +940,42 @@ public abstract class ServerProvider
         TargetServerPropertiesConfigurer.rewriteWithRuntimePort(log(), targetServerPropertiesFile, reservedPort);
     }
 
+    /**
+     * Clones the prepared target server into a sibling directory for an additional fleet server.
+     * <p>
+     * The clone materializes the fully provisioned target server, including installed worlds, plugins and config
+     * overlays, and then reserves its own port so it can run alongside the target server and the other clones.
+     *
+     * @param fleetIndex
+     *     The positive index of the fleet server; the clone is written to {@code <target>-<fleetIndex>}.
+     * @return The directory of the cloned server.
+     * @throws MojoExecutionException
+     *     If the clone could not be created or its {@code server.properties} could not be rewritten.
+     */
+    public final Path cloneTargetServer(int fleetIndex)
+        throws MojoExecutionException
+    {
+        if (fleetIndex <= 0)
+            throw new IllegalArgumentException("Fleet index must be positive, but was %d.".formatted(fleetIndex));
+
+        final Path fleetServerDirectory = targetServerDirectory.resolveSibling(
+            targetServerDirectory.getFileName() + "-" + fleetIndex);
+        FileUtil.cleanDirectory(fleetServerDirectory, "fleet server directory");
+        materializeServer(targetServerDirectory, fleetServerDirectory);
+
+        final Path fleetServerPropertiesFile = fleetServerDirectory.resolve("server.properties");
+        if (Files.notExists(fleetServerPropertiesFile))
+        {
+            throw new MojoExecutionException(
+                "Fleet server properties file '%s' does not exist."
+                    .formatted(fleetServerPropertiesFile)
+            );
+        }
+        TargetServerPropertiesConfigurer.rewriteWithRuntimePort(
+            log(), fleetServerPropertiesFile, reserveTargetServerPort());
+        return fleetServerDirectory;
+    }
+
     /**
      * Reserves a target-server TCP port.
      *
@@ -691,24 +1092,29 @@ public abstract class ServerProvider
     {
         final Path pluginsDirectory = targetServerDirectory().resolve("plugins");
         FileUtil.createDirectories(pluginsDirectory, "plugins directory");
-        final Path targetAgentJar = pluginsDirectory.resolve(LightkeeperEmbeddedAgent.FILE_NAME);
+        writeEmbeddedAgentJar(pluginsDirectory.resolve(LightkeeperEmbeddedAgent.FILE_NAME), false);
+    }
 
+    /**
+     * Extracts the embedded agent jar and verifies it against the expected SHA-256.
+     *
+     * @param targetAgentJar
+     *     The file to write.
+     * @param keepIdenticalFile
+     *     Whether to leave an existing file with the same content untouched, so its modification time stays stable.
+     */
+    private void writeEmbeddedAgentJar(Path targetAgentJar, boolean keepIdenticalFile)
+        throws MojoExecutionException
+    {
         try (InputStream embeddedAgentStream = LightkeeperEmbeddedAgent.openStream())
         {
-            Files.copy(embeddedAgentStream, targetAgentJar, StandardCopyOption.REPLACE_EXISTING);
-            if (Files.notExists(targetAgentJar) || !Files.isReadable(targetAgentJar))
-            {
-                throw new MojoExecutionException(
-                    "Embedded LightKeeper agent was extracted to '%s' but is not readable."
-                        .formatted(targetAgentJar)
-                );
-            }
-
+            // The agent jar is small; hashing the bytes that are written avoids reading the installed file back.
+            final byte[] agentJarBytes = embeddedAgentStream.readAllBytes();
             final String expectedSha256 = serverSpecification().agentJarSha256();
             if (expectedSha256 == null || expectedSha256.isBlank())
                 throw new MojoExecutionException("Embedded LightKeeper agent SHA-256 metadata is missing.");
 
-            final String actualSha256 = HashUtil.sha256(targetAgentJar);
+            final String actualSha256 = HashUtil.sha256(agentJarBytes);
             if (!expectedSha256.equalsIgnoreCase(actualSha256))
             {
                 throw new MojoExecutionException(
@@ -717,6 +1123,21 @@ public abstract class ServerProvider
                 );
             }
 
+            if (keepIdenticalFile && Files.isRegularFile(targetAgentJar)
+                && Arrays.equals(Files.readAllBytes(targetAgentJar), agentJarBytes))
+                return;
+
+            // The old file is removed rather than truncated, in case it is hard-linked into a shared cache.
+            Files.deleteIfExists(targetAgentJar);
+            Files.write(targetAgentJar, agentJarBytes);
+            if (!Files.isReadable(targetAgentJar))
+            {
+                throw new MojoExecutionException(
+                    "Embedded LightKeeper agent was extracted to '%s' but is not readable."
+                        .formatted(targetAgentJar)
+                );
+            }
+
             log.info("Installed LightKeeper agent JAR at '%s'.".formatted(targetAgentJar));
         }
         catch (IOException exception)
@@ -738,4 +1159,24 @@ public abstract class ServerProvider
     {
         return targetJarFile;
     }
+
+    public final Path jarCacheDirectoryPath()
+    {
+        return jarCacheDirectory;
+    }
+
+    public final Path baseServerDirectoryPath()
+    {
+        return baseServerDirectory;
+    }
+
+    public final Duration jarCreationTime()
+    {
+        return jarCreationTime;
+    }
+
+    public final Duration baseServerCreationTime()
+    {
+        return baseServerCreationTime;
+    }
 }
@@ -4,6 +4,8 @@ import lombok.ToString;
 import nl.pim16aap2.lightkeeper.maven.ServerSpecification;
 import nl.pim16aap2.lightkeeper.maven.SpigotBuildMetadata;
 import nl.pim16aap2.lightkeeper.maven.serverprocess.MinecraftServerProcess;
+import nl.pim16aap2.lightkeeper.maven.util.CacheKeyUtil;
+import nl.pim16aap2.lightkeeper.maven.util.CacheLock;
 import nl.pim16aap2.lightkeeper.maven.util.FileUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -34,6 +36,7 @@ public class SpigotServerProvider extends ServerProvider
     private static final Duration BUILDTOOLS_TIMEOUT = Duration.ofMinutes(30);
     private static final int BUILDTOOLS_OUTPUT_TAIL_SIZE = 80;
     private static final String BUILDTOOLS_LOG_FILE_NAME = "lightkeeper-buildtools.log";
+    private static final String BUILDTOOLS_DIRECTORY_NAME = "buildtools";
 
     private final SpigotBuildMetadata spigotBuildMetadata;
 
@@ -46,22 +49,49 @@ public class SpigotServerProvider extends ServerProvider
         this.spigotBuildMetadata = spigotBuildMetadata;
     }
 
+    /**
+     * Builds the Spigot jar with BuildTools.
+     * <p>
+     * BuildTools runs in a work directory shared by all versions and cache keys below the jar cache root, so its
+     * cloned repositories, decompiled sources and bundled Maven are reused instead of set up again for every build.
+     * The work directory is locked while BuildTools runs, because BuildTools cannot share it with another run.
+     */
     @Override
     protected void createBaseServerJar()
         throws MojoExecutionException
     {
-        final Path buildToolsJar = jarCacheDirectory().resolve("BuildTools.jar");
-        final Path buildToolsWorkDirectory = jarCacheDirectory().resolve("buildtools-work");
+        final Path buildToolsDirectory =
+            serverSpecification().jarCacheDirectoryRoot().resolve(BUILDTOOLS_DIRECTORY_NAME);
+        final Path outputDirectory = jarCacheDirectory().resolve("buildtools-output");
+        FileUtil.createDirectories(outputDirectory, "BuildTools output directory");
 
-        downloadFile(spigotBuildMetadata.buildToolsUri().toString(), buildToolsJar);
-        FileUtil.createDirectories(buildToolsWorkDirectory, "BuildTools work directory");
+        try (CacheLock ignored = CacheLock.acquire(
+            buildToolsDirectory.resolve("work.lock"), "BuildTools work directory", log()))
+        {
+            final Path buildToolsJar = buildToolsDirectory.resolve("BuildTools-%s.jar".formatted(
+                CacheKeyUtil.createCacheKey(List.of(spigotBuildMetadata.buildToolsIdentity()))));
+            if (Files.isRegularFile(buildToolsJar))
+                log().info("LK_CACHE: Reusing BuildTools jar '%s'.".formatted(buildToolsJar));
+            else
+                downloadFile(spigotBuildMetadata.buildToolsUri().toString(), buildToolsJar);
 
-        runBuildTools(buildToolsJar, buildToolsWorkDirectory);
+            final Path buildToolsWorkDirectory = buildToolsDirectory.resolve("work");
+            FileUtil.createDirectories(buildToolsWorkDirectory, "BuildTools work directory");
+            runBuildTools(buildToolsJar, buildToolsWorkDirectory, outputDirectory);
+        }
 
-        final Path builtJar = resolveBuiltSpigotJar(jarCacheDirectory(), spigotBuildMetadata.minecraftVersion());
+        final Path builtJar = resolveBuiltSpigotJar(outputDirectory, spigotBuildMetadata.minecraftVersion());
+        final Path temporaryJar = jarCacheFile().resolveSibling(jarCacheFile().getFileName() + ".tmp");
         try
         {
-            Files.copy(builtJar, jarCacheFile(), StandardCopyOption.REPLACE_EXISTING);
+            // Other builds read the shared jar cache without locking, so the jar only appears once it is complete.
+            Files.copy(builtJar, temporaryJar, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(
+                temporaryJar,
+                jarCacheFile(),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
         }
         catch (IOException exception)
         {
@@ -71,6 +101,7 @@ public class SpigotServerProvider extends ServerProvider
                 exception
             );
         }
+        FileUtil.deleteRecursively(outputDirectory, "BuildTools output directory");
     }
 
     @Override
@@ -94,6 +125,7 @@ public class SpigotServerProvider extends ServerProvider
                 );
                 serverProcess.start(serverSpecification().serverInitTimeoutSeconds());
                 log().info("LK_SERVER: Spigot base server started successfully.");
+                prepareSpawnChunks(serverProcess);
                 log().info("LK_SERVER: Stopping Spigot base server process.");
                 serverProcess.stop(serverSpecification().serverStopTimeoutSeconds());
                 log().info("LK_SERVER: Spigot base server stopped successfully.");
@@ -130,10 +162,10 @@ public class SpigotServerProvider extends ServerProvider
         );
     }
 
-    private void runBuildTools(Path buildToolsJar, Path buildToolsWorkDirectory)
+    private void runBuildTools(Path buildToolsJar, Path buildToolsWorkDirectory, Path outputDirectory)
         throws MojoExecutionException
     {
-        final Path buildToolsLogFile = buildToolsWorkDirectory.resolve(BUILDTOOLS_LOG_FILE_NAME);
+        final Path buildToolsLogFile = jarCacheDirectory().resolve(BUILDTOOLS_LOG_FILE_NAME);
         final List<String> command = new ArrayList<>();
         command.add(serverSpecification().javaExecutablePath());
         final @Nullable String extraJvmArgs = serverSpecification().extraJvmArgs();
@@ -144,7 +176,7 @@ public class SpigotServerProvider extends ServerProvider
         command.add("--rev");
         command.add(spigotBuildMetadata.minecraftVersion());
         command.add("--output-dir");
-        command.add(jarCacheDirectory().toString());
+        command.add(outputDirectory.toString());
 
         final ProcessBuilder processBuilder = new ProcessBuilder(command)
             .directory(buildToolsWorkDirectory.toFile())
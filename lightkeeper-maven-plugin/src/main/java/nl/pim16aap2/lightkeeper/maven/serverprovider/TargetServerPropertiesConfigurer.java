@@ -4,11 +4,13 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Rewrites target-server {@code server.properties} with runtime-specific networking values.
@@ -19,6 +21,44 @@ final class TargetServerPropertiesConfigurer
     {
     }
 
+    /**
+     * Reads the {@code server-port} from a server properties file.
+     *
+     * @param serverPropertiesFile
+     *     Path to {@code server.properties}.
+     * @return The configured port, or {@code 0} if the file or the entry is missing or unreadable.
+     */
+    static int readServerPort(Path serverPropertiesFile)
+    {
+        if (!Files.isRegularFile(serverPropertiesFile))
+            return 0;
+        try (Stream<String> lines = Files.lines(serverPropertiesFile, StandardCharsets.UTF_8))
+        {
+            return lines
+                .filter(line -> line.startsWith("server-port="))
+                .reduce((first, second) -> second)
+                .map(line -> parsePort(line.substring("server-port=".length()).strip()))
+                .orElse(0);
+        }
+        catch (IOException | UncheckedIOException ignored)
+        {
+            return 0;
+        }
+    }
+
+    private static int parsePort(String value)
+    {
+        try
+        {
+            final int port = Integer.parseInt(value);
+            return port > 0 && port <= 65_535 ? port : 0;
+        }
+        catch (NumberFormatException ignored)
+        {
+            return 0;
+        }
+    }
+
     /**
      * Rewrites {@code server-port} and {@code query.port} in the target server properties file.
      *
@@ -0,0 +1,216 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Cache of extracted zip archives shared by every build on the machine.
+ * <p>
+ * Each archive is extracted once into a directory named after its SHA-256 below the cache root. Extraction goes to a
+ * temporary sibling that is renamed into place when complete, so an entry that exists is always whole, and concurrent
+ * builds extracting the same archive simply keep the first result.
+ * <p>
+ * Cached entries are shared, so callers must copy out of them and never write to them or hard-link their files into a
+ * directory that is written in place, such as a server world.
+ */
+public final class ArchiveExtractionCache
+{
+    private final Path root;
+    private final @Nullable ContentStore contentStore;
+
+    private ArchiveExtractionCache(Path root, @Nullable ContentStore contentStore)
+    {
+        this.root = root;
+        this.contentStore = contentStore;
+    }
+
+    /**
+     * Outcome of an extraction, for logging.
+     *
+     * @param directory
+     *     The directory holding the extracted archive contents.
+     * @param reused
+     *     Whether the archive was already extracted by an earlier build.
+     * @param elapsed
+     *     Wall-clock time of hashing and, when not reused, extracting the archive.
+     */
+    public record Extraction(Path directory, boolean reused, Duration elapsed)
+    {
+    }
+
+    /**
+     * Opens the cache at the given root, creating it when missing.
+     *
+     * @param root
+     *     The root directory of the cache.
+     * @return The opened cache.
+     *
+     * @throws MojoExecutionException
+     *     If the root cannot be created.
+     */
+    public static ArchiveExtractionCache open(Path root)
+        throws MojoExecutionException
+    {
+        return open(root, null);
+    }
+
+    /**
+     * Opens the cache at the given root, creating it when missing.
+     *
+     * @param root
+     *     The root directory of the cache.
+     * @param contentStore
+     *     The store whose hash index is used for the archives, so an unchanged archive is not read again to find its
+     *     entry, or {@code null} to hash archives every time.
+     * @return The opened cache.
+     *
+     * @throws MojoExecutionException
+     *     If the root cannot be created.
+     */
+    public static ArchiveExtractionCache open(Path root, @Nullable ContentStore contentStore)
+        throws MojoExecutionException
+    {
+        final Path normalizedRoot = root.toAbsolutePath().normalize();
+        FileUtil.createDirectories(normalizedRoot, "archive extraction cache directory");
+        return new ArchiveExtractionCache(normalizedRoot, contentStore);
+    }
+
+    /**
+     * Returns the extracted contents of a zip archive, extracting it only when no build has done so before.
+     *
+     * @param archive
+     *     The zip archive.
+     * @return The extraction.
+     *
+     * @throws MojoExecutionException
+     *     If the archive cannot be hashed or extracted, or contains an entry that escapes the extraction directory.
+     */
+    public Extraction extract(Path archive)
+        throws MojoExecutionException
+    {
+        final long startNanos = System.nanoTime();
+        final Path directory =
+            root.resolve(contentStore == null ? HashUtil.sha256(archive) : contentStore.sha256(archive));
+        if (Files.isDirectory(directory))
+        {
+            touch(directory);
+            return new Extraction(directory, true, Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        final Path temporary = root.resolve("tmp-" + UUID.randomUUID());
+        try
+        {
+            extractZip(archive, temporary);
+            Files.move(temporary, directory, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (FileAlreadyExistsException | DirectoryNotEmptyException exception)
+        {
+            // Another build extracted the same archive first.
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to store extracted archive '%s' in '%s'.".formatted(archive, directory), exception);
+        }
+        finally
+        {
+            if (Files.exists(temporary))
+                FileUtil.deleteRecursively(temporary, "temporary archive extraction directory");
+        }
+        return new Extraction(directory, false, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Extracts a zip archive into a directory, inflating its entries in parallel.
+     * <p>
+     * The archive is read through its central directory, so entries can be inflated independently of each other.
+     * When the archive contains an entry name more than once, the last one wins.
+     *
+     * @param archive
+     *     The zip archive.
+     * @param target
+     *     The directory to extract into; created when missing.
+     * @throws MojoExecutionException
+     *     If the archive cannot be read, an entry escapes the target directory, or writing fails.
+     */
+    public static void extractZip(Path archive, Path target)
+        throws MojoExecutionException
+    {
+        final Path targetRoot = target.toAbsolutePath().normalize();
+        try (ZipFile zipFile = new ZipFile(archive.toFile()))
+        {
+            Files.createDirectories(targetRoot);
+            final Map<Path, ZipEntry> files = new LinkedHashMap<>();
+            for (final ZipEntry entry : Collections.list(zipFile.entries()))
+            {
+                final String entryName = entry.getName();
+                if (entryName == null || entryName.isBlank())
+                    continue;
+
+                final Path entryPath = targetRoot.resolve(entryName).normalize();
+                if (!entryPath.startsWith(targetRoot))
+                {
+                    throw new MojoExecutionException(
+                        "Resolved zip entry path '%s' escapes root '%s'.".formatted(entryPath, targetRoot)
+                    );
+                }
+
+                if (entry.isDirectory())
+                {
+                    Files.createDirectories(entryPath);
+                    continue;
+                }
+                if (entryPath.getParent() != null)
+                    Files.createDirectories(entryPath.getParent());
+                files.remove(entryPath);
+                files.put(entryPath, entry);
+            }
+
+            final List<Map.Entry<Path, ZipEntry>> extractions = new ArrayList<>(files.entrySet());
+            DirectoryMaterializer.runInParallel(extractions, extraction ->
+            {
+                try (InputStream inputStream = zipFile.getInputStream(extraction.getValue()))
+                {
+                    Files.copy(inputStream, extraction.getKey(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            });
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to extract archive '%s'.".formatted(archive), exception);
+        }
+    }
+
+    /**
+     * Marks a cache entry as used, so age-based cleanup keeps entries that builds still reuse.
+     */
+    private static void touch(Path directory)
+    {
+        try
+        {
+            Files.setLastModifiedTime(directory, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException ignored)
+        {
+            // Only affects cleanup order; the entry itself is intact.
+        }
+    }
+}
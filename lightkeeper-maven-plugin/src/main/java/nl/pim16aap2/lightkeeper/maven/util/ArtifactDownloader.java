@@ -0,0 +1,331 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads artifacts over HTTP, resuming interrupted downloads and hashing the bytes while they are written.
+ * <p>
+ * A download is written to {@code <target>.part} and renamed to the target once complete. The strong
+ * {@code ETag}, or else the {@code Last-Modified} date, of the response is kept in {@code <target>.part.validator}.
+ * When a partial file is left behind, by a failed attempt or an earlier build, the next download asks the server for
+ * the remaining bytes with a {@code Range} request guarded by {@code If-Range}, and appends them. If the file changed
+ * on the server in the meantime, or the server ignores the range, the whole file is sent again and the download
+ * starts over. A partial file without a validator is never resumed, since nothing proves it belongs to the file
+ * currently on the server.
+ * <p>
+ * The digest of the complete file is returned, so callers verify checksums without reading the file back.
+ */
+public final class ArtifactDownloader
+{
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofSeconds(2).toNanos();
+    private static final double MIB = 1024.0 * 1024.0;
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (?<start>\\d+)-\\d+/(?:\\d+|\\*)");
+
+    private final Log log;
+    private final String userAgent;
+    private final HttpClient httpClient;
+
+    /**
+     * Creates a downloader with its own HTTP client.
+     *
+     * @param log
+     *     The log to report progress to.
+     * @param userAgent
+     *     HTTP user-agent header value.
+     */
+    public ArtifactDownloader(Log log, String userAgent)
+    {
+        this(
+            log,
+            userAgent,
+            HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(15))
+                .build()
+        );
+    }
+
+    /**
+     * Creates a downloader that sends its requests through the given client.
+     *
+     * @param log
+     *     The log to report progress to.
+     * @param userAgent
+     *     HTTP user-agent header value.
+     * @param httpClient
+     *     The client to send requests with.
+     */
+    public ArtifactDownloader(Log log, String userAgent, HttpClient httpClient)
+    {
+        this.log = Objects.requireNonNull(log, "log");
+        this.userAgent = Objects.requireNonNull(userAgent, "userAgent");
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
+    }
+
+    /**
+     * Downloads a file, resuming a partial download of the same target when one exists.
+     * <p>
+     * Transfer failures are retried, resuming from the bytes received so far. Unsuccessful HTTP statuses are not.
+     *
+     * @param uri
+     *     The URI to download.
+     * @param target
+     *     The file to write; replaced when it exists.
+     * @param hashAlgorithm
+     *     The JCA name of the digest to compute, such as {@code SHA-256}.
+     * @return The lowercase hex digest of the downloaded file.
+     *
+     * @throws MojoExecutionException
+     *     If the download fails, or the server answers with an unsuccessful status.
+     */
+    public String download(URI uri, Path target, String hashAlgorithm)
+        throws MojoExecutionException
+    {
+        final Path partFile = target.resolveSibling(target.getFileName() + ".part");
+        final Path validatorFile = target.resolveSibling(target.getFileName() + ".part.validator");
+        for (int attempt = 1; ; ++attempt)
+        {
+            try
+            {
+                final String hash = transfer(uri, partFile, validatorFile, hashAlgorithm);
+                moveIntoPlace(partFile, target);
+                Files.deleteIfExists(validatorFile);
+                return hash;
+            }
+            catch (IOException | IllegalArgumentException exception)
+            {
+                if (attempt >= MAX_ATTEMPTS || exception instanceof IllegalArgumentException)
+                {
+                    throw new MojoExecutionException(
+                        "Failed to download file from %s to %s".formatted(uri, target), exception);
+                }
+                log.warn("LK_DOWNLOAD: Download of '%s' failed (attempt %d/%d); resuming. Cause: %s"
+                    .formatted(uri, attempt, MAX_ATTEMPTS, exception.getMessage()));
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException(
+                    "Interrupted while downloading file from %s to %s".formatted(uri, target), exception);
+            }
+        }
+    }
+
+    /**
+     * Runs one download attempt into the part file, continuing after the bytes it already holds.
+     *
+     * @return The digest of the complete part file.
+     */
+    private String transfer(URI uri, Path partFile, Path validatorFile, String hashAlgorithm)
+        throws IOException, InterruptedException, MojoExecutionException
+    {
+        Files.createDirectories(partFile.toAbsolutePath().getParent());
+        final @Nullable String validator = readValidator(validatorFile);
+        final long existingBytes = validator != null && Files.isRegularFile(partFile) ? Files.size(partFile) : 0L;
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+            .header("User-Agent", userAgent)
+            .timeout(Duration.ofMinutes(2))
+            .GET();
+        if (existingBytes > 0L)
+        {
+            request.header("Range", "bytes=%d-".formatted(existingBytes));
+            request.header("If-Range", Objects.requireNonNull(validator));
+        }
+
+        final HttpResponse<InputStream> response =
+            httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body())
+        {
+            final int statusCode = response.statusCode();
+            if (statusCode == 416 && existingBytes > 0L)
+            {
+                // The part file does not fit the current file on the server; start over on the next attempt.
+                Files.deleteIfExists(partFile);
+                Files.deleteIfExists(validatorFile);
+                throw new IOException("Server rejected resuming at byte %d.".formatted(existingBytes));
+            }
+            if (statusCode < 200 || statusCode >= 300)
+            {
+                throw new MojoExecutionException(
+                    "Download from '%s' failed with status %d.".formatted(uri, statusCode));
+            }
+
+            final boolean resumed = statusCode == 206 && existingBytes > 0L;
+            if (resumed && !rangeStartsAt(response, existingBytes))
+            {
+                Files.deleteIfExists(partFile);
+                Files.deleteIfExists(validatorFile);
+                throw new IOException("Server answered the range request with an unexpected Content-Range.");
+            }
+
+            final MessageDigest digest = HashUtil.getDigest(hashAlgorithm);
+            final long offset = resumed ? existingBytes : 0L;
+            if (resumed)
+                hashExistingBytes(partFile, digest);
+            else
+                writeValidator(validatorFile, response);
+
+            final OptionalLong contentLength = response.headers().firstValueAsLong("Content-Length");
+            final Progress progress = new Progress(
+                uri, offset, contentLength.isPresent() ? offset + contentLength.getAsLong() : -1L);
+            try (FileChannel channel = FileChannel.open(
+                partFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                resumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int readBytes;
+                while ((readBytes = body.read(buffer)) != -1)
+                {
+                    digest.update(buffer, 0, readBytes);
+                    final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, readBytes);
+                    while (byteBuffer.hasRemaining())
+                        channel.write(byteBuffer);
+                    progress.advance(readBytes);
+                }
+            }
+            progress.finish();
+            return HashUtil.toHex(digest.digest());
+        }
+    }
+
+    private static @Nullable String readValidator(Path validatorFile)
+        throws IOException
+    {
+        if (!Files.isRegularFile(validatorFile))
+            return null;
+        final String validator = Files.readString(validatorFile, StandardCharsets.UTF_8).strip();
+        return validator.isEmpty() ? null : validator;
+    }
+
+    /**
+     * Records what identifies the version of the file being downloaded, so a later attempt can only resume the
+     * same version. Weak entity tags cannot be used with {@code If-Range}.
+     */
+    private static void writeValidator(Path validatorFile, HttpResponse<?> response)
+        throws IOException
+    {
+        final @Nullable String validator = response.headers().firstValue("ETag")
+            .filter(entityTag -> !entityTag.startsWith("W/"))
+            .or(() -> response.headers().firstValue("Last-Modified"))
+            .orElse(null);
+        if (validator == null)
+            Files.deleteIfExists(validatorFile);
+        else
+            Files.writeString(validatorFile, validator, StandardCharsets.UTF_8);
+    }
+
+    private static boolean rangeStartsAt(HttpResponse<?> response, long expectedStart)
+    {
+        final String contentRange = response.headers().firstValue("Content-Range").orElse("");
+        final Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+        return matcher.matches() && Long.parseLong(matcher.group("start")) == expectedStart;
+    }
+
+    private static void hashExistingBytes(Path partFile, MessageDigest digest)
+        throws IOException
+    {
+        try (InputStream inputStream = Files.newInputStream(partFile))
+        {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int readBytes;
+            while ((readBytes = inputStream.read(buffer)) != -1)
+                digest.update(buffer, 0, readBytes);
+        }
+    }
+
+    private static void moveIntoPlace(Path partFile, Path target)
+        throws IOException
+    {
+        try
+        {
+            Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException exception)
+        {
+            Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reports the progress and throughput of one download attempt at most every two seconds.
+     */
+    private final class Progress
+    {
+        private final URI uri;
+        private final long offset;
+        private final long totalBytes;
+        private final long startNanos = System.nanoTime();
+        private long lastReportNanos = startNanos;
+        private long receivedBytes;
+
+        private Progress(URI uri, long offset, long totalBytes)
+        {
+            this.uri = uri;
+            this.offset = offset;
+            this.totalBytes = totalBytes;
+            if (offset > 0L)
+                log.info("LK_DOWNLOAD: Resuming download of '%s' at %.1f MiB.".formatted(uri, offset / MIB));
+        }
+
+        private void advance(int bytes)
+        {
+            receivedBytes += bytes;
+            final long now = System.nanoTime();
+            if (now - lastReportNanos < PROGRESS_INTERVAL_NANOS)
+                return;
+            lastReportNanos = now;
+
+            final long currentBytes = offset + receivedBytes;
+            final String total = totalBytes < 0L
+                ? ""
+                : "/%.1f MiB (%d%%)".formatted(totalBytes / MIB, currentBytes * 100L / Math.max(1L, totalBytes));
+            log.info("LK_DOWNLOAD: '%s': %.1f%s at %.1f MiB/s."
+                .formatted(uri, currentBytes / MIB, total.isEmpty() ? " MiB" : total, throughput(now)));
+        }
+
+        private void finish()
+        {
+            final long now = System.nanoTime();
+            log.info("LK_DOWNLOAD: Downloaded '%s' (%.1f MiB) in %d ms at %.1f MiB/s.".formatted(
+                uri,
+                (offset + receivedBytes) / MIB,
+                Duration.ofNanos(now - startNanos).toMillis(),
+                throughput(now)
+            ));
+        }
+
+        private double throughput(long now)
+        {
+            final double seconds = Math.max(1L, now - startNanos) / 1_000_000_000.0;
+            return receivedBytes / MIB / seconds;
+        }
+    }
+}
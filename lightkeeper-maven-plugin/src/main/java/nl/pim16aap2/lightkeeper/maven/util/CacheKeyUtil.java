@@ -1,5 +1,6 @@
 package nl.pim16aap2.lightkeeper.maven.util;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.StringJoiner;
@@ -11,6 +12,8 @@ public final class CacheKeyUtil
 {
     private static final String SERVER_TYPE_PAPER = "paper";
     private static final String SERVER_TYPE_SPIGOT = "spigot";
+    private static final String CLASS_DATA_ARCHIVE = "class-data-archive";
+    private static final String BASE_SERVER = "base-server";
 
     private CacheKeyUtil()
     {
@@ -42,6 +45,49 @@ public final class CacheKeyUtil
         ));
     }
 
+    /**
+     * Creates the cache key of a base server, which depends on how the base server is configured as well as on the
+     * server jar.
+     *
+     * @param serverCacheKey
+     *     The cache key of the server jar.
+     * @param serverProfile
+     *     The name of the server profile applied to the base server.
+     * @param spawnPregenerationRadius
+     *     The spawn pre-generation radius applied to the base server, or {@code 0} when disabled.
+     * @return The base server cache key.
+     */
+    public static String createBaseServerCacheKey(
+        String serverCacheKey,
+        String serverProfile,
+        int spawnPregenerationRadius)
+    {
+        return createCacheKey(List.of(
+            BASE_SERVER,
+            requireNonBlank(serverCacheKey, "serverCacheKey"),
+            requireNonBlank(serverProfile, "serverProfile"),
+            Integer.toString(spawnPregenerationRadius)
+        ));
+    }
+
+    /**
+     * Creates the cache key of a class-data archive for a prepared server and the exact set of plugin jars it loads.
+     *
+     * @param serverCacheKey
+     *     The cache key of the server jar.
+     * @param pluginJarIdentities
+     *     One identity per plugin jar (for example {@code name=sha256}), in a stable order.
+     * @return The class-data archive cache key.
+     */
+    public static String createClassDataArchiveCacheKey(String serverCacheKey, List<String> pluginJarIdentities)
+    {
+        final List<String> parts = new ArrayList<>(pluginJarIdentities.size() + 2);
+        parts.add(CLASS_DATA_ARCHIVE);
+        parts.add(requireNonBlank(serverCacheKey, "serverCacheKey"));
+        parts.addAll(pluginJarIdentities);
+        return createCacheKey(parts);
+    }
+
     public static String createCacheKey(List<String> parts)
     {
         final StringJoiner joiner = new StringJoiner("|");
@@ -0,0 +1,162 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive lock on a cache entry that concurrent builds on the same machine share.
+ * <p>
+ * Builds in different JVMs are kept apart by an OS file lock on a lock file. Builds in the same JVM, such as the
+ * modules of a parallel Maven build, are additionally kept apart by an in-process lock, because a JVM cannot hold two
+ * file locks on the same file. Lock files are never deleted; removing one while another build waits on it would let a
+ * third build lock a new file and run concurrently.
+ */
+public final class CacheLock implements AutoCloseable
+{
+    private static final ConcurrentMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final ReentrantLock processLock;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final boolean waited;
+
+    private CacheLock(ReentrantLock processLock, FileChannel channel, FileLock fileLock, boolean waited)
+    {
+        this.processLock = processLock;
+        this.channel = channel;
+        this.fileLock = fileLock;
+        this.waited = waited;
+    }
+
+    /**
+     * Acquires the lock, waiting for other builds that hold it.
+     *
+     * @param lockFile
+     *     The lock file; created with its parent directories when missing.
+     * @param description
+     *     What the lock protects, for log and error messages.
+     * @param log
+     *     The log to report waiting to.
+     * @return The acquired lock. Closing it releases the lock.
+     *
+     * @throws MojoExecutionException
+     *     If the lock file cannot be opened or locked, or when interrupted while waiting.
+     */
+    public static CacheLock acquire(Path lockFile, String description, Log log)
+        throws MojoExecutionException
+    {
+        final Path normalizedLockFile = lockFile.toAbsolutePath().normalize();
+        final ReentrantLock processLock =
+            PROCESS_LOCKS.computeIfAbsent(normalizedLockFile, ignored -> new ReentrantLock());
+
+        boolean waited = false;
+        if (!processLock.tryLock())
+        {
+            waited = true;
+            logWaiting(log, description, normalizedLockFile);
+            try
+            {
+                processLock.lockInterruptibly();
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException(
+                    "Interrupted while waiting for the %s lock '%s'.".formatted(description, normalizedLockFile),
+                    exception
+                );
+            }
+        }
+
+        @Nullable FileChannel channel = null;
+        boolean acquired = false;
+        try
+        {
+            Files.createDirectories(normalizedLockFile.getParent());
+            channel = FileChannel.open(normalizedLockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            @Nullable FileLock fileLock = channel.tryLock();
+            if (fileLock == null)
+            {
+                if (!waited)
+                    logWaiting(log, description, normalizedLockFile);
+                waited = true;
+                fileLock = channel.lock();
+            }
+            acquired = true;
+            return new CacheLock(processLock, channel, fileLock, waited);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to lock %s '%s'.".formatted(description, normalizedLockFile), exception);
+        }
+        finally
+        {
+            if (!acquired)
+            {
+                closeQuietly(channel);
+                processLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Whether another build held the lock when it was requested.
+     * <p>
+     * Callers use this to check whether the other build already produced what they were about to produce.
+     *
+     * @return {@code true} if acquiring the lock had to wait.
+     */
+    public boolean waited()
+    {
+        return waited;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            fileLock.release();
+        }
+        catch (IOException ignored)
+        {
+            // Closing the channel below releases the lock as well.
+        }
+        finally
+        {
+            closeQuietly(channel);
+            processLock.unlock();
+        }
+    }
+
+    private static void logWaiting(Log log, String description, Path lockFile)
+    {
+        log.info("LK_CACHE: Waiting for another build to release the %s lock '%s'.".formatted(description, lockFile));
+    }
+
+    private static void closeQuietly(@Nullable FileChannel channel)
+    {
+        if (channel == null)
+            return;
+        try
+        {
+            channel.close();
+        }
+        catch (IOException ignored)
+        {
+            // Nothing left to release.
+        }
+    }
+}
@@ -0,0 +1,574 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the directory caches shared by every build on the machine within a byte budget.
+ * <p>
+ * Every direct child directory of a managed cache root is one entry, like a server jar cache key or an extracted
+ * world archive. The parent directories of indexed entries are managed as well, so the entries of other server types
+ * and versions count towards the same budget. An index below the index directory remembers each entry's size, last
+ * access and creation cost, so sizes are only measured again for entries that were used since. An entry's last access
+ * is the later of the time recorded through {@link #touch(Collection)} and its directory's modification time, which
+ * caches like {@link ArchiveExtractionCache} update when they reuse an entry.
+ * <p>
+ * When the total size exceeds the budget, {@link #enforceBudget()} evicts the entries with the highest eviction score
+ * until it fits: the time since the last access, divided by one plus the creation cost in minutes. Among equally
+ * cheap entries this is plain LRU, while an entry that took ten minutes to create, like a Spigot BuildTools output,
+ * stays eleven times as long as one that took seconds. Entries accessed within the last hour are never evicted,
+ * because a concurrent build that touched them may still be reading them.
+ * <p>
+ * Index updates and evictions hold a {@link CacheLock} in the index directory, so concurrent builds never lose each
+ * other's accesses or evict the same entry twice. Evicted entries are first renamed to a hidden name, so no build
+ * ever sees a partially deleted entry.
+ */
+public final class CacheManager
+{
+    private static final String INDEX_FILE_NAME = "cache-index.tsv";
+    private static final String LOCK_FILE_NAME = "cache-index.lock";
+    private static final String EVICTED_PREFIX = ".evicted-";
+
+    /**
+     * Entries accessed more recently than this are never evicted.
+     */
+    static final Duration EVICTION_GRACE_PERIOD = Duration.ofHours(1);
+
+    /**
+     * The creation cost that doubles how long an entry is kept.
+     */
+    private static final long COST_UNIT_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final Path indexDirectory;
+    private final Map<Path, String> roots;
+    private final long budgetBytes;
+    private final Log log;
+    private final Set<Path> touched = new HashSet<>();
+    private final Map<Path, Duration> costs = new HashMap<>();
+
+    private CacheManager(Path indexDirectory, Map<Path, String> roots, long budgetBytes, Log log)
+    {
+        this.indexDirectory = indexDirectory;
+        this.roots = roots;
+        this.budgetBytes = budgetBytes;
+        this.log = log;
+    }
+
+    /**
+     * One cache entry.
+     *
+     * @param kind
+     *     The kind of cache the entry belongs to, like {@code jar} or {@code world}.
+     * @param directory
+     *     The absolute, normalized entry directory.
+     * @param sizeBytes
+     *     The total size of the regular files in the entry.
+     * @param lastAccess
+     *     When the entry was last used.
+     * @param cost
+     *     How long it took to create the entry, or {@link Duration#ZERO} when unknown.
+     */
+    public record Entry(String kind, Path directory, long sizeBytes, Instant lastAccess, Duration cost)
+    {
+        /**
+         * Gets the eviction score of the entry; entries with a higher score are evicted first.
+         *
+         * @param now
+         *     The current time.
+         * @return The idle time in milliseconds, divided by one plus the creation cost in minutes.
+         */
+        public double evictionScore(Instant now)
+        {
+            final long idleMillis = Math.max(0L, Duration.between(lastAccess, now).toMillis());
+            return idleMillis / (1.0D + (double) cost.toMillis() / COST_UNIT_MILLIS);
+        }
+
+        private String format()
+        {
+            return "%s\t%d\t%d\t%d\t%s".formatted(
+                kind, lastAccess.toEpochMilli(), sizeBytes, cost.toMillis(), directory);
+        }
+
+        private static @Nullable Entry parse(Path indexDirectory, String line)
+        {
+            final String[] parts = line.split("\t", 5);
+            if (parts.length != 5)
+                return null;
+            try
+            {
+                return new Entry(
+                    parts[0],
+                    indexDirectory.getFileSystem().getPath(parts[4]),
+                    Long.parseLong(parts[2]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[1])),
+                    Duration.ofMillis(Long.parseLong(parts[3]))
+                );
+            }
+            catch (RuntimeException exception)
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Outcome of {@link #enforceBudget()}.
+     *
+     * @param evicted
+     *     The entries that were evicted.
+     * @param failed
+     *     The entry directories that should have been evicted but could not be deleted.
+     * @param totalBytes
+     *     The total size of all entries afterwards.
+     */
+    public record EvictionResult(List<Entry> evicted, List<Path> failed, long totalBytes)
+    {
+    }
+
+    /**
+     * Opens the cache manager.
+     *
+     * @param indexDirectory
+     *     The directory holding the index and its lock file; created when missing.
+     * @param roots
+     *     The managed cache roots, mapped from their kind. Roots that do not exist are skipped.
+     * @param budgetBytes
+     *     The maximum total size of all entries, or {@code 0} or less for no limit.
+     * @param log
+     *     Logger for evictions.
+     * @return The opened cache manager.
+     *
+     * @throws MojoExecutionException
+     *     If the index directory cannot be created.
+     */
+    public static CacheManager open(Path indexDirectory, Map<String, Path> roots, long budgetBytes, Log log)
+        throws MojoExecutionException
+    {
+        final Path normalizedIndexDirectory = indexDirectory.toAbsolutePath().normalize();
+        FileUtil.createDirectories(normalizedIndexDirectory, "cache index directory");
+
+        final Map<Path, String> normalizedRoots = new LinkedHashMap<>();
+        roots.forEach((kind, root) -> normalizedRoots.put(root.toAbsolutePath().normalize(), kind));
+        return new CacheManager(normalizedIndexDirectory, normalizedRoots, budgetBytes, log);
+    }
+
+    /**
+     * Records that the entries are used by this build.
+     * <p>
+     * Call this before reading from the entries, so concurrent builds do not evict them in the meantime. Directories
+     * that are not an entry of a managed root are ignored. Costs recorded for the entries are written as well, and
+     * their sizes are marked as unknown, so the next {@link #scan()} measures what this build changed. Touching never
+     * measures sizes itself, which keeps it cheap enough to run on every build.
+     *
+     * @param entryDirectories
+     *     The entry directories used by this build.
+     * @throws MojoExecutionException
+     *     If the index cannot be locked, read or written.
+     */
+    public void touch(Collection<Path> entryDirectories)
+        throws MojoExecutionException
+    {
+        final Instant now = Instant.now();
+        try (CacheLock ignored = lock())
+        {
+            final Map<Path, Entry> index = readIndex();
+            for (final Path entryDirectory : entryDirectories)
+            {
+                final Path directory = entryDirectory.toAbsolutePath().normalize();
+                final @Nullable String kind = kindOf(directory);
+                if (kind == null)
+                    continue;
+
+                touched.add(directory);
+                final @Nullable Entry existing = index.get(directory);
+                index.put(directory, new Entry(
+                    kind,
+                    directory,
+                    -1L,
+                    now,
+                    costs.getOrDefault(directory, existing == null ? Duration.ZERO : existing.cost())
+                ));
+            }
+            writeIndex(index.values());
+        }
+    }
+
+    /**
+     * Records how long it took to create an entry, which makes it more expensive to evict.
+     * <p>
+     * The cost is written to the index by the next {@link #touch(Collection)} of the entry, {@link #scan()} or
+     * {@link #enforceBudget()}. Zero or negative
+     * costs are ignored, so reusing an entry keeps the cost recorded when it was created.
+     *
+     * @param entryDirectory
+     *     The entry directory.
+     * @param cost
+     *     The time it took to create the entry.
+     */
+    public void recordCost(Path entryDirectory, Duration cost)
+    {
+        if (cost.isPositive())
+            costs.put(entryDirectory.toAbsolutePath().normalize(), cost);
+    }
+
+    /**
+     * Refreshes the index from the managed roots and returns all entries.
+     * <p>
+     * Sizes are measured for new entries and entries touched by this build; the others keep their indexed size.
+     *
+     * @return The entries, ordered from first to last evicted.
+     *
+     * @throws MojoExecutionException
+     *     If the index cannot be locked, read or written, or a root cannot be listed.
+     */
+    public List<Entry> scan()
+        throws MojoExecutionException
+    {
+        try (CacheLock ignored = lock())
+        {
+            final List<Entry> entries = refresh(Instant.now());
+            writeIndex(entries);
+            return entries;
+        }
+    }
+
+    /**
+     * Evicts entries until their total size fits the budget.
+     * <p>
+     * Does nothing but refresh the index when no budget is configured. Entries accessed within the grace period are
+     * kept even when the budget is exceeded afterwards.
+     *
+     * @return The evicted entries and the total size afterwards.
+     *
+     * @throws MojoExecutionException
+     *     If the index cannot be locked, read or written, or a root cannot be listed.
+     */
+    public EvictionResult enforceBudget()
+        throws MojoExecutionException
+    {
+        final Instant now = Instant.now();
+        try (CacheLock ignored = lock())
+        {
+            final List<Entry> entries = new ArrayList<>(refresh(now));
+            long totalBytes = entries.stream().mapToLong(Entry::sizeBytes).sum();
+            final List<Entry> evicted = new ArrayList<>();
+            final List<Path> failed = new ArrayList<>();
+            if (budgetBytes > 0)
+            {
+                for (final Entry entry : List.copyOf(entries))
+                {
+                    if (totalBytes <= budgetBytes)
+                        break;
+                    if (isInGracePeriod(entry, now))
+                        continue;
+                    if (evict(entry.directory()))
+                    {
+                        evicted.add(entry);
+                        entries.remove(entry);
+                        totalBytes -= entry.sizeBytes();
+                        log.info("LK_CACHE: Evicted %s cache entry '%s' (%s, idle for %d hour(s)).".formatted(
+                            entry.kind(),
+                            entry.directory(),
+                            formatBytes(entry.sizeBytes()),
+                            Duration.between(entry.lastAccess(), now).toHours()
+                        ));
+                    }
+                    else
+                    {
+                        failed.add(entry.directory());
+                        log.warn("LK_CACHE: Failed to evict %s cache entry '%s'. Keeping entry."
+                            .formatted(entry.kind(), entry.directory()));
+                    }
+                }
+                if (totalBytes > budgetBytes)
+                    log.warn("LK_CACHE: Caches use %s, over the budget of %s; the remaining entries are in use."
+                        .formatted(formatBytes(totalBytes), formatBytes(budgetBytes)));
+            }
+            writeIndex(entries);
+            return new EvictionResult(List.copyOf(evicted), List.copyOf(failed), totalBytes);
+        }
+    }
+
+    /**
+     * Gets the byte budget.
+     *
+     * @return The maximum total size of all entries, or {@code 0} or less for no limit.
+     */
+    public long budgetBytes()
+    {
+        return budgetBytes;
+    }
+
+    /**
+     * Formats a byte count for log messages, like {@code 1.5 GiB}.
+     *
+     * @param bytes
+     *     The byte count.
+     * @return The formatted byte count.
+     */
+    public static String formatBytes(long bytes)
+    {
+        if (bytes < 1024L)
+            return bytes + " B";
+        final String[] units = {"KiB", "MiB", "GiB", "TiB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024.0D && unit < units.length - 1)
+        {
+            value /= 1024.0D;
+            ++unit;
+        }
+        return "%.1f %s".formatted(value, units[unit]);
+    }
+
+    /**
+     * Orders entries from first to last evicted.
+     *
+     * @param entries
+     *     The entries to order.
+     * @param now
+     *     The current time.
+     * @return The ordered entries.
+     */
+    static List<Entry> evictionOrder(Collection<Entry> entries, Instant now)
+    {
+        return entries.stream()
+            .sorted(Comparator.comparingDouble((Entry entry) -> entry.evictionScore(now)).reversed()
+                .thenComparing(Entry::directory))
+            .toList();
+    }
+
+    private static boolean isInGracePeriod(Entry entry, Instant now)
+    {
+        return entry.lastAccess().isAfter(now.minus(EVICTION_GRACE_PERIOD));
+    }
+
+    /**
+     * Lists the entries of all managed roots, merging them with the index.
+     */
+    private List<Entry> refresh(Instant now)
+        throws MojoExecutionException
+    {
+        final Map<Path, Entry> index = readIndex();
+        // Builds for other server types or versions keep their entries in other directories; manage those as well.
+        final Map<Path, String> managedRoots = new LinkedHashMap<>(roots);
+        for (final Entry entry : index.values())
+        {
+            final @Nullable Path parent = entry.directory().getParent();
+            if (parent != null)
+                managedRoots.putIfAbsent(parent, entry.kind());
+        }
+
+        final List<Entry> entries = new ArrayList<>();
+        for (final Map.Entry<Path, String> root : managedRoots.entrySet())
+        {
+            for (final Path directory : listEntryDirectories(root.getKey()))
+            {
+                final @Nullable Entry indexed = index.get(directory);
+                final Instant modified = lastModified(directory, now);
+                final Instant lastAccess = indexed == null || modified.isAfter(indexed.lastAccess())
+                    ? modified
+                    : indexed.lastAccess();
+                // Entries that were used since they were last measured may have grown.
+                final long sizeBytes = indexed != null && indexed.sizeBytes() >= 0 && !touched.contains(directory) &&
+                    !modified.isAfter(indexed.lastAccess())
+                    ? indexed.sizeBytes()
+                    : measureSize(directory);
+                final Duration cost = costs.getOrDefault(directory, indexed == null ? Duration.ZERO : indexed.cost());
+                entries.add(new Entry(root.getValue(), directory, sizeBytes, lastAccess, cost));
+            }
+        }
+        return evictionOrder(entries, now);
+    }
+
+    private List<Path> listEntryDirectories(Path root)
+        throws MojoExecutionException
+    {
+        if (!Files.isDirectory(root))
+            return List.of();
+
+        final List<Path> directories = new ArrayList<>();
+        try (Stream<Path> children = Files.list(root))
+        {
+            for (final Path child : children.toList())
+            {
+                if (!Files.isDirectory(child))
+                    continue;
+                final String name = child.getFileName().toString();
+                if (name.startsWith(EVICTED_PREFIX))
+                    deleteEvicted(child);
+                else if (!name.startsWith(".") && !name.startsWith("tmp-"))
+                    directories.add(child.toAbsolutePath().normalize());
+            }
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to list cache directory '%s'.".formatted(root), exception);
+        }
+        return directories;
+    }
+
+    private @Nullable String kindOf(Path directory)
+    {
+        final @Nullable Path parent = directory.getParent();
+        return parent == null ? null : roots.get(parent);
+    }
+
+    private boolean evict(Path directory)
+    {
+        final Path evicted = directory.resolveSibling(EVICTED_PREFIX + UUID.randomUUID());
+        try
+        {
+            Files.move(directory, evicted, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception)
+        {
+            return false;
+        }
+        deleteEvicted(evicted);
+        return true;
+    }
+
+    private void deleteEvicted(Path evicted)
+    {
+        try
+        {
+            FileUtil.deleteRecursively(evicted, "evicted cache entry");
+        }
+        catch (MojoExecutionException exception)
+        {
+            // The entry is already out of use; the next scan retries deleting it.
+            log.debug("LK_CACHE: Failed to delete evicted cache entry '%s'.".formatted(evicted), exception);
+        }
+    }
+
+    private static Instant lastModified(Path directory, Instant fallback)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(directory).toInstant();
+        }
+        catch (IOException exception)
+        {
+            return fallback;
+        }
+    }
+
+    private static long measureSize(Path directory)
+        throws MojoExecutionException
+    {
+        final long[] size = {0L};
+        try
+        {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>()
+            {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                {
+                    if (attributes.isRegularFile())
+                        size[0] += attributes.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exception)
+                {
+                    // Files deleted while walking, like a server's session lock, do not count.
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to measure cache entry '%s'.".formatted(directory), exception);
+        }
+        return size[0];
+    }
+
+    private CacheLock lock()
+        throws MojoExecutionException
+    {
+        return CacheLock.acquire(indexDirectory.resolve(LOCK_FILE_NAME), "cache index", log);
+    }
+
+    private Map<Path, Entry> readIndex()
+        throws MojoExecutionException
+    {
+        final Map<Path, Entry> index = new HashMap<>();
+        final Path indexFile = indexDirectory.resolve(INDEX_FILE_NAME);
+        if (!Files.isRegularFile(indexFile))
+            return index;
+        try
+        {
+            for (final String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8))
+            {
+                final @Nullable Entry entry = Entry.parse(indexDirectory, line);
+                if (entry != null)
+                    index.put(entry.directory(), entry);
+            }
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to read cache index '%s'.".formatted(indexFile), exception);
+        }
+        return index;
+    }
+
+    private void writeIndex(Collection<Entry> entries)
+        throws MojoExecutionException
+    {
+        final Path indexFile = indexDirectory.resolve(INDEX_FILE_NAME);
+        final Path temporary = indexDirectory.resolve(INDEX_FILE_NAME + "." + UUID.randomUUID() + ".tmp");
+        try
+        {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8))
+            {
+                for (final Entry entry : entries.stream().sorted(Comparator.comparing(Entry::directory)).toList())
+                {
+                    writer.write(entry.format());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to write cache index '%s'.".formatted(indexFile), exception);
+        }
+        finally
+        {
+            try
+            {
+                Files.deleteIfExists(temporary);
+            }
+            catch (IOException ignored)
+            {
+                // A leftover temporary file only wastes space; its random name never collides.
+            }
+        }
+    }
+}
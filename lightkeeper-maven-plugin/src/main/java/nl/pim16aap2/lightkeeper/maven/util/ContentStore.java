@@ -0,0 +1,435 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for artifacts shared by every build on the machine.
+ * <p>
+ * Each distinct file is stored once, as {@code sha256/<first two hex digits>/<sha256>} below the store root, and
+ * installed into server directories as a hard link to that object. Identical plugin jars used by several projects or
+ * server versions therefore occupy disk space only once, and installing them is a metadata operation.
+ * <p>
+ * The store keeps an index of the files it has hashed, mapping their canonical path to their size, modification time,
+ * file key (the device and inode on Unix) and SHA-256. A file whose size, modification time and file key still match
+ * its index entry is not read again, so replacing a file by another one, as an atomic move does, is noticed even when
+ * size and timestamp agree. The index is written by {@link #saveIndex()}; concurrent builds may overwrite each other's
+ * index, which only costs a re-hash. A store opened to verify its index hashes every file anyway and counts the index
+ * entries that turned out to be stale.
+ * <p>
+ * Installed links share their inode with the stored object, so they must never be written in place. This holds for
+ * the plugin jars installed through this store.
+ */
+public final class ContentStore
+{
+    private static final String INDEX_FILE_NAME = "index.tsv";
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    /**
+     * Files modified this recently are hashed but not indexed, because a later write within the same timestamp
+     * granularity would keep both the size and the modification time and go unnoticed.
+     */
+    private static final long RACY_MODIFICATION_MILLIS = 2_000L;
+
+    private final Path root;
+    private final Map<Path, IndexEntry> index;
+    private final boolean verifyIndex;
+    private final AtomicInteger staleIndexEntries = new AtomicInteger();
+
+    private ContentStore(Path root, Map<Path, IndexEntry> index, boolean verifyIndex)
+    {
+        this.root = root;
+        this.index = index;
+        this.verifyIndex = verifyIndex;
+    }
+
+    /**
+     * Opens the store at the given root, creating it when missing, and loads its index.
+     * <p>
+     * Equivalent to {@code open(root, false)}.
+     *
+     * @param root
+     *     The root directory of the store.
+     * @return The opened store.
+     *
+     * @throws MojoExecutionException
+     *     If the root cannot be created or the index cannot be read.
+     */
+    public static ContentStore open(Path root)
+        throws MojoExecutionException
+    {
+        return open(root, false);
+    }
+
+    /**
+     * Opens the store at the given root, creating it when missing, and loads its index.
+     * <p>
+     * Malformed index lines, including lines written before the index recorded file keys, are skipped; the files they
+     * described are hashed again when needed.
+     *
+     * @param root
+     *     The root directory of the store.
+     * @param verifyIndex
+     *     Whether every file is hashed even when its index entry matches, to detect a stale index. See
+     *     {@link #staleIndexEntries()}.
+     * @return The opened store.
+     *
+     * @throws MojoExecutionException
+     *     If the root cannot be created or the index cannot be read.
+     */
+    public static ContentStore open(Path root, boolean verifyIndex)
+        throws MojoExecutionException
+    {
+        final Path normalizedRoot = root.toAbsolutePath().normalize();
+        FileUtil.createDirectories(normalizedRoot, "content store directory");
+
+        final Map<Path, IndexEntry> index = new ConcurrentHashMap<>();
+        final Path indexFile = normalizedRoot.resolve(INDEX_FILE_NAME);
+        if (Files.isRegularFile(indexFile))
+        {
+            try
+            {
+                for (final String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8))
+                {
+                    final @Nullable IndexEntry entry = IndexEntry.parse(normalizedRoot, line);
+                    if (entry != null)
+                        index.put(entry.path(), entry);
+                }
+            }
+            catch (IOException exception)
+            {
+                throw new MojoExecutionException(
+                    "Failed to read content store index '%s'.".formatted(indexFile), exception);
+            }
+        }
+        return new ContentStore(normalizedRoot, index, verifyIndex);
+    }
+
+    /**
+     * Returns the SHA-256 of a file, reading it only when its size, modification time or file key changed since it was
+     * last hashed through this store.
+     *
+     * @param file
+     *     The file to hash.
+     * @return The lowercase hex SHA-256 of the file.
+     *
+     * @throws MojoExecutionException
+     *     If the file cannot be read.
+     */
+    public String sha256(Path file)
+        throws MojoExecutionException
+    {
+        final Path path = canonicalPath(file);
+        final BasicFileAttributes attributes = readAttributes(path);
+
+        final @Nullable IndexEntry entry = index.get(path);
+        final @Nullable String indexedSha256 = entry != null && entry.matches(attributes) ? entry.sha256() : null;
+        if (indexedSha256 != null && !verifyIndex)
+            return indexedSha256;
+
+        final String sha256 = HashUtil.sha256(path);
+        if (indexedSha256 != null && !indexedSha256.equals(sha256))
+            staleIndexEntries.incrementAndGet();
+        remember(path, attributes, sha256);
+        return sha256;
+    }
+
+    /**
+     * Adds a file to the store, unless an identical file is already stored.
+     *
+     * @param file
+     *     The file to store.
+     * @return The path of the stored object.
+     *
+     * @throws MojoExecutionException
+     *     If the file cannot be hashed or stored.
+     */
+    public Path ingest(Path file)
+        throws MojoExecutionException
+    {
+        final Path object = objectPath(sha256(file));
+        if (Files.isRegularFile(object))
+            return object;
+
+        final Path temporary = root.resolve("tmp-" + UUID.randomUUID());
+        try
+        {
+            Files.createDirectories(object.getParent());
+            Files.copy(file, temporary, StandardCopyOption.COPY_ATTRIBUTES);
+            Files.move(temporary, object, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (FileAlreadyExistsException exception)
+        {
+            // Another build stored the same content first.
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to store '%s' in content store '%s'.".formatted(file, root), exception);
+        }
+        finally
+        {
+            deleteQuietly(temporary);
+        }
+        return object;
+    }
+
+    /**
+     * Stores a file and installs it at the target path as a hard link to the stored object.
+     * <p>
+     * When the target cannot link to the store, for example because it is on another filesystem, the object is
+     * copied instead. Either way the target is indexed under its own path, so hashing it later does not read it.
+     *
+     * @param file
+     *     The file to install.
+     * @param target
+     *     The path to install the file at. It must not exist yet.
+     * @return {@code true} if the target was linked, {@code false} if it was copied.
+     *
+     * @throws MojoExecutionException
+     *     If the file cannot be stored or installed.
+     */
+    public boolean install(Path file, Path target)
+        throws MojoExecutionException
+    {
+        final Path object = ingest(file);
+        final Path normalizedTarget = target.toAbsolutePath().normalize();
+        try
+        {
+            final boolean linked = tryLink(object, normalizedTarget);
+            if (!linked)
+                Files.copy(object, normalizedTarget, StandardCopyOption.COPY_ATTRIBUTES);
+            final Path installed = canonicalPath(normalizedTarget);
+            remember(
+                installed,
+                Files.readAttributes(installed, BasicFileAttributes.class),
+                object.getFileName().toString()
+            );
+            return linked;
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to install '%s' from content store at '%s'.".formatted(file, target), exception);
+        }
+    }
+
+    /**
+     * Writes the index back to disk, dropping entries of files that no longer exist.
+     *
+     * @throws MojoExecutionException
+     *     If the index cannot be written.
+     */
+    public void saveIndex()
+        throws MojoExecutionException
+    {
+        index.values().removeIf(entry -> !Files.isRegularFile(entry.path()));
+        final List<IndexEntry> entries = index.values().stream()
+            .sorted(Comparator.comparing(IndexEntry::path))
+            .toList();
+
+        final Path indexFile = root.resolve(INDEX_FILE_NAME);
+        final Path temporary = root.resolve(INDEX_FILE_NAME + "." + UUID.randomUUID() + ".tmp");
+        try
+        {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8))
+            {
+                for (final IndexEntry entry : entries)
+                {
+                    writer.write(entry.format());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to write content store index '%s'.".formatted(indexFile), exception);
+        }
+        finally
+        {
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Returns the path a file with the given SHA-256 is stored at, whether or not it is stored.
+     *
+     * @param sha256
+     *     The lowercase hex SHA-256 of the content.
+     * @return The object path.
+     */
+    public Path objectPath(String sha256)
+    {
+        if (!SHA256_PATTERN.matcher(sha256).matches())
+            throw new IllegalArgumentException("'%s' is not a lowercase hex SHA-256.".formatted(sha256));
+        return root.resolve("sha256").resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    /**
+     * Returns the number of index entries that matched their file's size, modification time and file key but not its
+     * content.
+     * <p>
+     * Only counted when the store was opened to verify its index; otherwise such entries are trusted and this is
+     * always {@code 0}.
+     *
+     * @return The number of stale index entries found so far.
+     */
+    public int staleIndexEntries()
+    {
+        return staleIndexEntries.get();
+    }
+
+    /**
+     * Returns the root directory of the store.
+     *
+     * @return The absolute, normalized root directory.
+     */
+    public Path root()
+    {
+        return root;
+    }
+
+    /**
+     * Indexes the hash of a file, unless the file was modified too recently for its timestamp to be trusted.
+     */
+    private void remember(Path path, BasicFileAttributes attributes, String sha256)
+    {
+        final long modifiedMillis = attributes.lastModifiedTime().toMillis();
+        if (System.currentTimeMillis() - modifiedMillis > RACY_MODIFICATION_MILLIS)
+            index.put(path, new IndexEntry(path, attributes.size(), modifiedMillis, fileKey(attributes), sha256));
+        else
+            index.remove(path);
+    }
+
+    /**
+     * Resolves symbolic links, so a file reached through different paths has a single index entry.
+     */
+    private static Path canonicalPath(Path file)
+    {
+        final Path path = file.toAbsolutePath().normalize();
+        try
+        {
+            return path.toRealPath();
+        }
+        catch (IOException exception)
+        {
+            // Reading the attributes reports the actual problem, like a missing file.
+            return path;
+        }
+    }
+
+    /**
+     * Formats the file key of a file, or {@code -} on filesystems without file keys.
+     */
+    private static String fileKey(BasicFileAttributes attributes)
+    {
+        final @Nullable Object fileKey = attributes.fileKey();
+        return fileKey == null ? "-" : fileKey.toString().replace('\t', ' ');
+    }
+
+    /**
+     * Links the target to a stored object.
+     *
+     * @return {@code true} when the link was created, {@code false} when the target cannot link to the store.
+     */
+    private static boolean tryLink(Path object, Path target)
+        throws IOException
+    {
+        try
+        {
+            Files.createLink(target, object);
+            return true;
+        }
+        catch (FileAlreadyExistsException exception)
+        {
+            throw exception;
+        }
+        catch (UnsupportedOperationException | FileSystemException exception)
+        {
+            return false;
+        }
+    }
+
+    private static BasicFileAttributes readAttributes(Path path)
+        throws MojoExecutionException
+    {
+        try
+        {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to read attributes of '%s'.".formatted(path), exception);
+        }
+    }
+
+    private static void deleteQuietly(Path path)
+    {
+        try
+        {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException ignored)
+        {
+            // A leftover temporary file only wastes space; its random name never collides.
+        }
+    }
+
+    /**
+     * One line of the index: {@code <sha256> TAB <size> TAB <modified millis> TAB <file key> TAB <canonical path>}.
+     */
+    private record IndexEntry(Path path, long size, long modifiedMillis, String fileKey, String sha256)
+    {
+        private boolean matches(BasicFileAttributes attributes)
+        {
+            return size == attributes.size() &&
+                modifiedMillis == attributes.lastModifiedTime().toMillis() &&
+                fileKey.equals(ContentStore.fileKey(attributes));
+        }
+
+        private String format()
+        {
+            return "%s\t%d\t%d\t%s\t%s".formatted(sha256, size, modifiedMillis, fileKey, path);
+        }
+
+        private static @Nullable IndexEntry parse(Path root, String line)
+        {
+            final String[] parts = line.split("\t", 5);
+            if (parts.length != 5 || !SHA256_PATTERN.matcher(parts[0]).matches())
+                return null;
+            try
+            {
+                return new IndexEntry(
+                    root.getFileSystem().getPath(parts[4]),
+                    Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]),
+                    parts[3],
+                    parts[0]
+                );
+            }
+            catch (RuntimeException exception)
+            {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Brings a directory in line with a desired state while rewriting only the files that differ.
+ * <p>
+ * The desired state is built up from source trees and single files; later additions replace earlier ones at the same
+ * path, so a base tree can be overlaid with worlds, plugins and configuration. {@link #apply(Path)} then compares the
+ * target against that state and a manifest of what it wrote last time ({@code <target>.sync-manifest.tsv}, next to
+ * the target):
+ * <ul>
+ *     <li>a file whose size and modification time match the manifest is trusted to still have the recorded hash;</li>
+ *     <li>any other existing file is hashed, in parallel, and kept when its content already matches;</li>
+ *     <li>missing and differing files are written, and files and empty directories outside the desired state are
+ *     deleted.</li>
+ * </ul>
+ * The result is the same tree a clean re-creation would produce, but an unchanged server costs one {@code stat} per
+ * file. Files marked linkable are hard-linked to their source, like {@link DirectoryMaterializer} does.
+ */
+public final class DirectorySync
+{
+    private static final String MANIFEST_SUFFIX = ".sync-manifest.tsv";
+
+    private final @Nullable ContentStore contentStore;
+    private final Map<String, Source> files = new LinkedHashMap<>();
+    private final Set<String> directories = new HashSet<>();
+
+    /**
+     * @param contentStore
+     *     The store whose hash index is used for the source files, or {@code null} to hash every source file.
+     */
+    public DirectorySync(@Nullable ContentStore contentStore)
+    {
+        this.contentStore = contentStore;
+    }
+
+    /**
+     * A desired file and where its content comes from.
+     *
+     * @param file
+     *     The source file.
+     * @param linkable
+     *     Whether neither side ever writes the file in place, so the target may hard-link it.
+     */
+    private record Source(Path file, boolean linkable)
+    {
+    }
+
+    /**
+     * Outcome of a synchronization, for logging.
+     *
+     * @param unchangedFiles
+     *     Number of files that already matched the desired state.
+     * @param rehashedFiles
+     *     Number of existing files whose metadata changed and that were hashed to compare their content.
+     * @param writtenFiles
+     *     Number of files linked or copied.
+     * @param deletedFiles
+     *     Number of files outside the desired state that were deleted.
+     * @param elapsed
+     *     Wall-clock time of the synchronization.
+     */
+    public record Result(
+        int unchangedFiles,
+        int rehashedFiles,
+        int writtenFiles,
+        int deletedFiles,
+        Duration elapsed
+    )
+    {
+        /**
+         * Describes the result in one line, for example
+         * {@code 812 unchanged, 3 rehashed, 1 written, 4 deleted in 95 ms}.
+         *
+         * @return The description.
+         */
+        public String describe()
+        {
+            return "%d unchanged, %d rehashed, %d written, %d deleted in %d ms".formatted(
+                unchangedFiles, rehashedFiles, writtenFiles, deletedFiles, elapsed.toMillis());
+        }
+    }
+
+    /**
+     * Adds every file of a source tree to the desired state.
+     *
+     * @param sourceRoot
+     *     The root of the source tree.
+     * @param targetPrefix
+     *     The relative path in the target that the source root maps to; empty for the target root.
+     * @param linkable
+     *     Selects the files, by path relative to {@code sourceRoot}, that may be hard-linked into the target.
+     * @throws MojoExecutionException
+     *     If the source is not a directory, contains a symbolic link or cannot be read.
+     */
+    public void addTree(Path sourceRoot, String targetPrefix, Predicate<Path> linkable)
+        throws MojoExecutionException
+    {
+        if (!Files.isDirectory(sourceRoot))
+            throw new MojoExecutionException("Source path '%s' is not a directory.".formatted(sourceRoot));
+
+        try
+        {
+            Files.walkFileTree(sourceRoot, new SimpleFileVisitor<>()
+            {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+                {
+                    addDirectory(join(targetPrefix, sourceRoot.relativize(dir)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                    throws IOException
+                {
+                    if (!attrs.isRegularFile())
+                        throw new IOException("Only regular files can be synchronized, but found: " + file);
+                    final Path relative = sourceRoot.relativize(file);
+                    putFile(join(targetPrefix, relative), new Source(file, linkable.test(relative)));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException("Failed to read source tree '%s'.".formatted(sourceRoot), exception);
+        }
+    }
+
+    /**
+     * Adds a single file to the desired state.
+     *
+     * @param targetPath
+     *     The relative path of the file in the target, using {@code /} as separator.
+     * @param sourceFile
+     *     The file providing the content.
+     * @param linkable
+     *     Whether the target may hard-link the source file.
+     */
+    public void addFile(String targetPath, Path sourceFile, boolean linkable)
+    {
+        putFile(targetPath, new Source(sourceFile, linkable));
+    }
+
+    /**
+     * Whether the desired state contains a file at the given path.
+     *
+     * @param targetPath
+     *     The relative path in the target, using {@code /} as separator.
+     * @return {@code true} if a file is desired at that path.
+     */
+    public boolean containsFile(String targetPath)
+    {
+        return files.containsKey(targetPath);
+    }
+
+    /**
+     * Gets the source of the file desired at the given path.
+     *
+     * @param targetPath
+     *     The relative path in the target, using {@code /} as separator.
+     * @return The source file, or {@code null} if no file is desired at that path.
+     */
+    public @Nullable Path sourceFile(String targetPath)
+    {
+        final @Nullable Source source = files.get(targetPath);
+        return source == null ? null : source.file();
+    }
+
+    /**
+     * Whether the desired state contains a directory at the given path.
+     *
+     * @param targetPath
+     *     The relative path in the target, using {@code /} as separator.
+     * @return {@code true} if a directory is desired at that path.
+     */
+    public boolean containsDirectory(String targetPath)
+    {
+        return directories.contains(targetPath);
+    }
+
+    /**
+     * Removes a directory and everything below it from the desired state.
+     *
+     * @param targetPath
+     *     The relative path in the target, using {@code /} as separator.
+     */
+    public void removeDirectory(String targetPath)
+    {
+        final String prefix = targetPath + "/";
+        files.keySet().removeIf(path -> path.startsWith(prefix));
+        directories.removeIf(path -> path.equals(targetPath) || path.startsWith(prefix));
+    }
+
+    /**
+     * Synchronizes the target directory with the desired state.
+     *
+     * @param target
+     *     The target directory; created when missing.
+     * @return What was synchronized.
+     *
+     * @throws MojoExecutionException
+     *     If hashing, writing or deleting a file fails.
+     */
+    public Result apply(Path target)
+        throws MojoExecutionException
+    {
+        final long startNanos = System.nanoTime();
+        final Path manifestFile = manifestFile(target);
+        try
+        {
+            final Map<String, ManifestEntry> manifest = readManifest(manifestFile);
+            // A sync that fails halfway must not leave a manifest vouching for files it did not write.
+            Files.deleteIfExists(manifestFile);
+            Files.createDirectories(target);
+
+            final Map<String, String> desiredHashes = new ConcurrentHashMap<>();
+            DirectoryMaterializer.runInParallel(
+                List.copyOf(files.entrySet()),
+                entry -> desiredHashes.put(entry.getKey(), sha256(entry.getValue().file()))
+            );
+
+            final Map<String, BasicFileAttributes> existingFiles = new HashMap<>();
+            final List<Path> existingDirectories = new ArrayList<>();
+            walkTarget(target, existingFiles, existingDirectories);
+
+            final List<String> toDelete = new ArrayList<>();
+            final List<String> toRehash = new ArrayList<>();
+            final List<String> toWrite = new ArrayList<>();
+            int unchanged = 0;
+            for (final Map.Entry<String, BasicFileAttributes> existing : existingFiles.entrySet())
+            {
+                final String path = existing.getKey();
+                final @Nullable String desiredHash = desiredHashes.get(path);
+                if (desiredHash == null)
+                {
+                    toDelete.add(path);
+                    continue;
+                }
+                final @Nullable ManifestEntry recorded = manifest.get(path);
+                if (recorded == null || !recorded.matches(existing.getValue()))
+                    toRehash.add(path);
+                else if (recorded.sha256().equals(desiredHash))
+                    ++unchanged;
+                else
+                    toWrite.add(path);
+            }
+            for (final String path : files.keySet())
+                if (!existingFiles.containsKey(path))
+                    toWrite.add(path);
+
+            final Set<String> rehashedUnchanged = ConcurrentHashMap.newKeySet();
+            DirectoryMaterializer.runInParallel(toRehash, path ->
+            {
+                if (sha256(target.resolve(path)).equals(desiredHashes.get(path)))
+                    rehashedUnchanged.add(path);
+            });
+            unchanged += rehashedUnchanged.size();
+            for (final String path : toRehash)
+                if (!rehashedUnchanged.contains(path))
+                    toWrite.add(path);
+
+            for (final String path : toDelete)
+                Files.delete(target.resolve(path));
+            deleteEmptyUndesiredDirectories(target, existingDirectories);
+            DirectoryMaterializer.runInParallel(
+                toWrite,
+                path -> write(Objects.requireNonNull(files.get(path)), target.resolve(path))
+            );
+
+            writeManifest(target, manifestFile, desiredHashes);
+            return new Result(
+                unchanged,
+                toRehash.size(),
+                toWrite.size(),
+                toDelete.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos)
+            );
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to synchronize target directory '%s'.".formatted(target), exception);
+        }
+    }
+
+    /**
+     * Returns the manifest file for a target directory.
+     *
+     * @param target
+     *     The target directory.
+     * @return The manifest file next to the target directory.
+     */
+    public static Path manifestFile(Path target)
+    {
+        final Path normalizedTarget = target.toAbsolutePath().normalize();
+        return normalizedTarget.resolveSibling(normalizedTarget.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    /**
+     * Deletes the manifest of a target directory, so the next {@link #apply(Path)} hashes every existing file.
+     *
+     * @param target
+     *     The target directory.
+     * @throws MojoExecutionException
+     *     If the manifest exists but cannot be deleted.
+     */
+    public static void deleteManifest(Path target)
+        throws MojoExecutionException
+    {
+        final Path manifestFile = manifestFile(target);
+        try
+        {
+            Files.deleteIfExists(manifestFile);
+        }
+        catch (IOException exception)
+        {
+            throw new MojoExecutionException(
+                "Failed to delete synchronization manifest '%s'.".formatted(manifestFile), exception);
+        }
+    }
+
+    private void putFile(String targetPath, Source source)
+    {
+        files.put(targetPath, source);
+        final int separator = targetPath.lastIndexOf('/');
+        if (separator > 0)
+            addDirectory(targetPath.substring(0, separator));
+    }
+
+    private void addDirectory(String targetPath)
+    {
+        String current = targetPath;
+        while (!current.isEmpty() && directories.add(current))
+        {
+            final int separator = current.lastIndexOf('/');
+            current = separator < 0 ? "" : current.substring(0, separator);
+        }
+    }
+
+    private String sha256(Path file)
+        throws IOException
+    {
+        try
+        {
+            return contentStore == null ? HashUtil.sha256(file) : contentStore.sha256(file);
+        }
+        catch (MojoExecutionException exception)
+        {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    private static void walkTarget(
+        Path target,
+        Map<String, BasicFileAttributes> existingFiles,
+        List<Path> existingDirectories)
+        throws IOException
+    {
+        Files.walkFileTree(target, new SimpleFileVisitor<>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+            {
+                if (!dir.equals(target))
+                    existingDirectories.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+            {
+                existingFiles.put(join("", target.relativize(file)), attrs);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Deletes the existing directories that are not part of the desired state and are empty, deepest first.
+     */
+    private void deleteEmptyUndesiredDirectories(Path target, List<Path> existingDirectories)
+        throws IOException
+    {
+        final List<Path> deepestFirst = existingDirectories.stream()
+            .sorted(Comparator.comparingInt(Path::getNameCount).reversed())
+            .toList();
+        for (final Path directory : deepestFirst)
+        {
+            if (directories.contains(join("", target.relativize(directory))))
+                continue;
+            try (var entries = Files.list(directory))
+            {
+                if (entries.findAny().isPresent())
+                    continue;
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void write(Source source, Path targetFile)
+        throws IOException
+    {
+        Files.createDirectories(targetFile.getParent());
+        if (source.linkable())
+        {
+            try
+            {
+                DirectoryMaterializer.link(source.file(), targetFile);
+                return;
+            }
+            catch (UnsupportedOperationException | FileSystemException exception)
+            {
+                // The target cannot link to the source; copy it below instead.
+            }
+        }
+        Files.copy(source.file(), targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    private static Map<String, ManifestEntry> readManifest(Path manifestFile)
+        throws IOException
+    {
+        final Map<String, ManifestEntry> manifest = new HashMap<>();
+        if (!Files.isRegularFile(manifestFile))
+            return manifest;
+        for (final String line : Files.readAllLines(manifestFile, StandardCharsets.UTF_8))
+        {
+            final @Nullable ManifestEntry entry = ManifestEntry.parse(line);
+            if (entry != null)
+                manifest.put(entry.path(), entry);
+        }
+        return manifest;
+    }
+
+    private void writeManifest(Path target, Path manifestFile, Map<String, String> desiredHashes)
+        throws IOException
+    {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8))
+        {
+            for (final String path : files.keySet())
+            {
+                final BasicFileAttributes attributes =
+                    Files.readAttributes(target.resolve(path), BasicFileAttributes.class);
+                writer.write(new ManifestEntry(
+                    path,
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis(),
+                    Objects.requireNonNull(desiredHashes.get(path))
+                ).format());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String join(String prefix, Path relative)
+    {
+        final List<String> names = new ArrayList<>();
+        if (!prefix.isEmpty())
+            names.add(prefix);
+        for (final Path name : relative)
+            if (!name.toString().isEmpty())
+                names.add(name.toString());
+        return String.join("/", names);
+    }
+
+    /**
+     * One line of the manifest: {@code <sha256> TAB <size> TAB <modified millis> TAB <relative path>}.
+     */
+    private record ManifestEntry(String path, long size, long modifiedMillis, String sha256)
+    {
+        private boolean matches(BasicFileAttributes attributes)
+        {
+            return attributes.size() == size && attributes.lastModifiedTime().toMillis() == modifiedMillis;
+        }
+
+        private String format()
+        {
+            return "%s\t%d\t%d\t%s".formatted(sha256, size, modifiedMillis, path);
+        }
+
+        private static @Nullable ManifestEntry parse(String line)
+        {
+            final String[] parts = line.split("\t", 4);
+            if (parts.length != 4)
+                return null;
+            try
+            {
+                return new ManifestEntry(
+                    parts[3],
+                    Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]),
+                    parts[0].toLowerCase(Locale.ROOT)
+                );
+            }
+            catch (NumberFormatException exception)
+            {
+                return null;
+            }
+        }
+    }
+}
@@ -1,22 +1,48 @@
 package nl.pim16aap2.lightkeeper.maven.util;
 
 import org.apache.maven.plugin.MojoExecutionException;
+import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
 
 /**
  * Utility methods for SHA-256 and SHA-512 hashing.
+ * <p>
+ * Files of at least {@value #MAPPED_READ_THRESHOLD} bytes are hashed through memory-mapped chunks instead of a
+ * stream, so large server jars and world archives are digested straight from the page cache without copying every
+ * block through a small buffer. Callers that hash the same files on every build should go through
+ * {@link ContentStore#sha256(Path)}, which skips unchanged files altogether.
  */
 public final class HashUtil
 {
     private static final int BUFFER_SIZE = 8_192;
 
+    /**
+     * Files at least this large are hashed through memory-mapped chunks.
+     */
+    static final long MAPPED_READ_THRESHOLD = 1L << 20;
+
+    /**
+     * The size of each memory-mapped chunk, which bounds the address space a single hash maps at once.
+     */
+    static final long MAPPED_CHUNK_SIZE = 64L << 20;
+
+    /**
+     * Whether files are memory-mapped at all. Windows keeps a mapped file locked until the mapping is garbage
+     * collected, which would make deleting or replacing a file right after hashing it fail.
+     */
+    private static final boolean MAPPING_SUPPORTED =
+        !System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
     private HashUtil()
     {
     }
@@ -48,9 +74,18 @@ public final class HashUtil
     private static String hash(Path path, String algorithm)
         throws MojoExecutionException
     {
-        try (InputStream inputStream = Files.newInputStream(path))
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
         {
-            return hash(inputStream, algorithm);
+            final long size = channel.size();
+            if (MAPPING_SUPPORTED && size >= MAPPED_READ_THRESHOLD)
+            {
+                final @Nullable String mappedHash = hashMapped(channel, size, algorithm, MAPPED_CHUNK_SIZE);
+                if (mappedHash != null)
+                    return mappedHash;
+            }
+            final MessageDigest digest = getDigest(algorithm);
+            update(digest, Channels.newInputStream(channel.position(0)));
+            return toHex(digest.digest());
         }
         catch (IOException exception)
         {
@@ -61,18 +96,36 @@ public final class HashUtil
         }
     }
 
+    /**
+     * Hashes a file through memory-mapped chunks of at most {@code maxChunkSize} bytes, or returns {@code null} when
+     * its filesystem cannot map files.
+     */
+    static @Nullable String hashMapped(FileChannel channel, long size, String algorithm, long maxChunkSize)
+        throws IOException
+    {
+        final MessageDigest digest = getDigest(algorithm);
+        for (long position = 0; position < size; position += maxChunkSize)
+        {
+            final long chunkSize = Math.min(maxChunkSize, size - position);
+            try
+            {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, chunkSize));
+            }
+            catch (UnsupportedOperationException ignored)
+            {
+                return null;
+            }
+        }
+        return toHex(digest.digest());
+    }
+
     private static String hash(InputStream inputStream, String algorithm)
         throws MojoExecutionException
     {
         try
         {
             final MessageDigest digest = getDigest(algorithm);
-            final byte[] buffer = new byte[BUFFER_SIZE];
-
-            int readBytes;
-            while ((readBytes = inputStream.read(buffer)) != -1)
-                digest.update(buffer, 0, readBytes);
-
+            update(digest, inputStream);
             return toHex(digest.digest());
         }
         catch (IOException exception)
@@ -81,6 +134,15 @@ public final class HashUtil
         }
     }
 
+    private static void update(MessageDigest digest, InputStream inputStream)
+        throws IOException
+    {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int readBytes;
+        while ((readBytes = inputStream.read(buffer)) != -1)
+            digest.update(buffer, 0, readBytes);
+    }
+
     public static String sha256(byte[] input)
     {
         final MessageDigest digest = getSha256Digest();
@@ -100,7 +162,10 @@ public final class HashUtil
         return getDigest("SHA-256");
     }
 
-    private static MessageDigest getDigest(String algorithm)
+    /**
+     * Creates a digest for the given JCA algorithm name, such as {@code SHA-256}.
+     */
+    static MessageDigest getDigest(String algorithm)
     {
         try
         {
@@ -112,7 +177,7 @@ public final class HashUtil
         }
     }
 
-    private static String toHex(byte[] bytes)
+    static String toHex(byte[] bytes)
     {
         return java.util.HexFormat.of().formatHex(bytes);
     }
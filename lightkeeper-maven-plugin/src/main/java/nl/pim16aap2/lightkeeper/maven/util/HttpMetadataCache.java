@@ -0,0 +1,254 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of HTTP metadata responses, such as build and version listings.
+ * <p>
+ * Each successful response is stored with its {@code ETag}, {@code Last-Modified} and fetch time. Within the
+ * time-to-live a cached response is served without touching the network; after it, the request is sent as a
+ * conditional GET and a {@code 304 Not Modified} answer renews the cached response. In offline mode every cached
+ * response is served regardless of its age, and uncached requests fail.
+ * <p>
+ * The cache is safe for concurrent use; entries are replaced atomically, so concurrent builds at worst fetch the same
+ * response twice.
+ */
+public final class HttpMetadataCache
+{
+    private static final String BODY = "body";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String FETCHED_AT_MILLIS = "fetchedAtMillis";
+    private static final String REQUEST_URI = "uri";
+
+    private final @Nullable Path root;
+    private final Duration timeToLive;
+    private final boolean offline;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger revalidations = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private HttpMetadataCache(@Nullable Path root, Duration timeToLive, boolean offline)
+    {
+        this.root = root;
+        this.timeToLive = timeToLive;
+        this.offline = offline;
+    }
+
+    /**
+     * Where a response came from.
+     */
+    public enum Source
+    {
+        /**
+         * Served from the cache without a request.
+         */
+        CACHE,
+        /**
+         * Served from the cache after the server confirmed it with {@code 304 Not Modified}.
+         */
+        REVALIDATED,
+        /**
+         * Fetched from the server.
+         */
+        NETWORK
+    }
+
+    /**
+     * A metadata response.
+     *
+     * @param statusCode
+     *     The HTTP status code; {@code 200} for cached responses.
+     * @param body
+     *     The response body.
+     * @param source
+     *     Where the response came from.
+     */
+    public record Response(int statusCode, String body, Source source)
+    {
+    }
+
+    /**
+     * Opens the cache at the given root. The root is created when the first response is stored.
+     *
+     * @param root
+     *     The root directory of the cache.
+     * @param timeToLive
+     *     How long a cached response is served without asking the server whether it changed.
+     * @param offline
+     *     Whether to serve cached responses of any age and never send a request.
+     * @return The opened cache.
+     */
+    public static HttpMetadataCache open(Path root, Duration timeToLive, boolean offline)
+    {
+        return new HttpMetadataCache(root.toAbsolutePath().normalize(), timeToLive, offline);
+    }
+
+    /**
+     * Returns a cache that stores nothing and sends every request.
+     *
+     * @return The pass-through cache.
+     */
+    public static HttpMetadataCache disabled()
+    {
+        return new HttpMetadataCache(null, Duration.ZERO, false);
+    }
+
+    /**
+     * Sends a GET request through the cache.
+     * <p>
+     * Only {@code 2xx} responses are cached. Other responses are returned as they are, so callers keep reporting them.
+     *
+     * @param httpClient
+     *     The client to send the request with.
+     * @param request
+     *     The GET request. Its URI is the cache key.
+     * @return The response.
+     *
+     * @throws IOException
+     *     If the request fails, or in offline mode when the response is not cached.
+     * @throws InterruptedException
+     *     If interrupted while waiting for the response.
+     */
+    public Response get(HttpClient httpClient, HttpRequest request)
+        throws IOException, InterruptedException
+    {
+        if (root == null)
+        {
+            final HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body(), Source.NETWORK);
+        }
+
+        final Path entryFile = root.resolve(HashUtil.sha256(request.uri().toString()) + ".properties");
+        final @Nullable Properties entry = readEntry(entryFile);
+        if (entry != null && (offline || isFresh(entry)))
+        {
+            hits.incrementAndGet();
+            return new Response(200, entry.getProperty(BODY), Source.CACHE);
+        }
+        if (offline)
+        {
+            throw new IOException(
+                "Offline mode is enabled and no cached response exists for '%s'.".formatted(request.uri()));
+        }
+
+        final HttpRequest.Builder conditionalRequest = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (entry != null)
+        {
+            final @Nullable String etag = entry.getProperty(ETAG);
+            final @Nullable String lastModified = entry.getProperty(LAST_MODIFIED);
+            if (etag != null)
+                conditionalRequest.header("If-None-Match", etag);
+            if (lastModified != null)
+                conditionalRequest.header("If-Modified-Since", lastModified);
+        }
+
+        final HttpResponse<String> response =
+            httpClient.send(conditionalRequest.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 304 && entry != null)
+        {
+            revalidations.incrementAndGet();
+            entry.setProperty(FETCHED_AT_MILLIS, Long.toString(System.currentTimeMillis()));
+            writeEntry(entryFile, entry);
+            return new Response(200, entry.getProperty(BODY), Source.REVALIDATED);
+        }
+
+        misses.incrementAndGet();
+        if (response.statusCode() >= 200 && response.statusCode() < 300)
+        {
+            final Properties updated = new Properties();
+            updated.setProperty(REQUEST_URI, request.uri().toString());
+            updated.setProperty(BODY, response.body());
+            updated.setProperty(FETCHED_AT_MILLIS, Long.toString(System.currentTimeMillis()));
+            response.headers().firstValue("ETag")
+                .ifPresent(value -> updated.setProperty(ETAG, value));
+            response.headers().firstValue("Last-Modified")
+                .ifPresent(value -> updated.setProperty(LAST_MODIFIED, value));
+            writeEntry(entryFile, updated);
+        }
+        return new Response(response.statusCode(), response.body(), Source.NETWORK);
+    }
+
+    /**
+     * Describes the hits, revalidations and misses so far in one line, for logging.
+     *
+     * @return The description.
+     */
+    public String describeStatistics()
+    {
+        return "%d hit(s), %d revalidated, %d miss(es)%s".formatted(
+            hits.get(),
+            revalidations.get(),
+            misses.get(),
+            offline ? " (offline)" : ""
+        );
+    }
+
+    private boolean isFresh(Properties entry)
+    {
+        try
+        {
+            final long fetchedAtMillis = Long.parseLong(entry.getProperty(FETCHED_AT_MILLIS, ""));
+            return System.currentTimeMillis() - fetchedAtMillis < timeToLive.toMillis();
+        }
+        catch (NumberFormatException exception)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a cache entry, treating a missing or unreadable entry as absent.
+     */
+    private static @Nullable Properties readEntry(Path entryFile)
+    {
+        if (!Files.isRegularFile(entryFile))
+            return null;
+
+        final Properties entry = new Properties();
+        try (Reader reader = Files.newBufferedReader(entryFile, StandardCharsets.UTF_8))
+        {
+            entry.load(reader);
+        }
+        catch (IOException | IllegalArgumentException exception)
+        {
+            return null;
+        }
+        return entry.getProperty(BODY) == null ? null : entry;
+    }
+
+    private static void writeEntry(Path entryFile, Properties entry)
+        throws IOException
+    {
+        Files.createDirectories(entryFile.getParent());
+        final Path temporary = entryFile.resolveSibling(entryFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try
+        {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8))
+            {
+                entry.store(writer, null);
+            }
+            Files.move(temporary, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
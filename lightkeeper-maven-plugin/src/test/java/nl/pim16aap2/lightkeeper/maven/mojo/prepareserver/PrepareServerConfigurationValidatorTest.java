@@ -35,7 +35,7 @@ class PrepareServerConfigurationValidatorTest
         final String serverType = "paper";
 
         // execute
-        VALIDATOR.validateConfiguration(serverType, "LightKeeper/Test", null, 1, 0, 0, "-Dfoo=bar");
+        VALIDATOR.validateConfiguration(serverType, "LightKeeper/Test", null, 1, 0, 0, 1, 120L, "-Dfoo=bar");
 
         // verify
     }
@@ -54,6 +54,8 @@ class PrepareServerConfigurationValidatorTest
             1,
             0,
             0,
+            1,
+            120L,
             null
         ))
             .isInstanceOf(MojoExecutionException.class)
@@ -67,7 +69,7 @@ class PrepareServerConfigurationValidatorTest
         final String userAgent = " ";
 
         // execute + verify
-        assertThatThrownBy(() -> VALIDATOR.validateConfiguration("paper", userAgent, null, 1, 0, 0, null))
+        assertThatThrownBy(() -> VALIDATOR.validateConfiguration("paper", userAgent, null, 1, 0, 0, 1, 120L, null))
             .isInstanceOf(MojoExecutionException.class)
             .hasMessageContaining("lightkeeper.userAgent");
     }
@@ -79,10 +81,76 @@ class PrepareServerConfigurationValidatorTest
         final Path configuredAgentJarPath = Path.of("/tmp/legacy-agent.jar");
 
         // execute + verify
-        assertThatThrownBy(
-            () -> VALIDATOR.validateConfiguration("paper", "LightKeeper/Test", configuredAgentJarPath, 1, 0, 0, null))
+        assertThatThrownBy(() -> VALIDATOR.validateConfiguration(
+            "paper",
+            "LightKeeper/Test",
+            configuredAgentJarPath,
+            1,
+            0,
+            0,
+            1,
+            120L,
+            null
+        ))
             .isInstanceOf(MojoExecutionException.class)
             .hasMessageContaining("lightkeeper.agentJarPath")
             .hasMessageContaining("internal");
     }
+
+    @Test
+    void validateConfiguration_shouldThrowExceptionWhenServerCountIsNotPositive()
+    {
+        // setup
+        final int serverCount = 0;
+
+        // execute + verify
+        assertThatThrownBy(
+            () -> VALIDATOR.validateConfiguration("paper", "LightKeeper/Test", null, 1, 0, 0, serverCount, 120L, null))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("lightkeeper.serverCount");
+    }
+
+    @Test
+    void validateConfiguration_shouldThrowExceptionWhenSyncOperationTimeoutIsNotPositive()
+    {
+        // setup
+        final long syncOperationTimeoutSeconds = 0L;
+
+        // execute + verify
+        assertThatThrownBy(() -> VALIDATOR.validateConfiguration(
+            "paper",
+            "LightKeeper/Test",
+            null,
+            1,
+            0,
+            0,
+            1,
+            syncOperationTimeoutSeconds,
+            null
+        ))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("lightkeeper.syncOperationTimeoutSeconds");
+    }
+
+    @Test
+    void validateConfiguration_shouldRejectSyncOperationTimeoutInExtraJvmArgs()
+    {
+        // setup
+        final String extraJvmArgs = "-Xss2m -Dlightkeeper.agent.syncOperationTimeoutSeconds=300";
+
+        // execute + verify
+        assertThatThrownBy(() -> VALIDATOR.validateConfiguration(
+            "paper",
+            "LightKeeper/Test",
+            null,
+            1,
+            0,
+            0,
+            1,
+            120L,
+            extraJvmArgs
+        ))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("lightkeeper.syncOperationTimeoutSeconds");
+    }
 }
@@ -10,6 +10,7 @@ import nl.pim16aap2.lightkeeper.maven.provisioning.WorldInputSpec;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.PaperServerProvider;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.ServerProvider;
 import nl.pim16aap2.lightkeeper.maven.serverprovider.SpigotServerProvider;
+import nl.pim16aap2.lightkeeper.runtime.RuntimeManifest;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
@@ -160,6 +161,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         invokePrivate(mojo, "validateConfiguration", new Class<?>[0]);
@@ -176,6 +179,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(() -> invokePrivate(mojo, "validateConfiguration", new Class<?>[0]))
@@ -194,6 +199,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(() -> invokePrivate(mojo, "validateConfiguration", new Class<?>[0]))
@@ -213,6 +220,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(() -> invokePrivate(mojo, "validateConfiguration", new Class<?>[0]))
@@ -656,6 +665,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(mojo::execute)
@@ -756,6 +767,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 0);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(() -> invokePrivate(mojo, "validateConfiguration", new Class<?>[0]))
@@ -774,6 +787,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", -1);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
 
         // execute + verify
         assertThatThrownBy(() -> invokePrivate(mojo, "validateConfiguration", new Class<?>[0]))
@@ -895,6 +910,38 @@ class PrepareServerMojoInternalTest
             .hasMessageContaining("RepositorySystem");
     }
 
+    @Test
+    void provisionFleetServers_shouldCloneTargetServerWithDistinctSocketsAndTokens(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final PrepareServerMojo mojo = new PrepareServerMojo();
+        configureRequiredFields(mojo, tempDirectory, "paper");
+        setField(mojo, "serverCount", 3);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
+        final PrepareServerExecutionContext executionContext = mojo.buildExecutionContext();
+        final ServerProvider serverProvider = mock(ServerProvider.class);
+        when(serverProvider.targetJarFilePath()).thenReturn(tempDirectory.resolve("work/paper/paper.jar"));
+        when(serverProvider.cloneTargetServer(1)).thenReturn(tempDirectory.resolve("work/paper-1"));
+        when(serverProvider.cloneTargetServer(2)).thenReturn(tempDirectory.resolve("work/paper-2"));
+
+        // execute
+        final List<RuntimeManifest.FleetServer> fleetServers =
+            mojo.provisionFleetServers(serverProvider, executionContext);
+
+        // verify
+        assertThat(fleetServers).hasSize(2);
+        assertThat(fleetServers.get(0).serverDirectory())
+            .isEqualTo(tempDirectory.resolve("work/paper-1").toAbsolutePath().toString());
+        assertThat(fleetServers.get(0).serverJar())
+            .isEqualTo(tempDirectory.resolve("work/paper-1/paper.jar").toAbsolutePath().toString());
+        assertThat(fleetServers.get(1).serverDirectory())
+            .isEqualTo(tempDirectory.resolve("work/paper-2").toAbsolutePath().toString());
+        assertThat(fleetServers.get(0).agentAuthToken()).isNotEqualTo(fleetServers.get(1).agentAuthToken());
+        assertThat(fleetServers.get(0).udsSocketPath()).isNotEqualTo(fleetServers.get(1).udsSocketPath());
+        verify(serverProvider, never()).cloneTargetServer(3);
+    }
+
     @Test
     void createPaperDownloadsClient_shouldCreateClientInstance()
     {
@@ -1016,6 +1063,8 @@ class PrepareServerMojoInternalTest
         setField(mojo, "serverStartMaxAttempts", 1);
         setField(mojo, "jarCacheExpiryDays", 0);
         setField(mojo, "baseServerCacheExpiryDays", 0);
+        setField(mojo, "serverCount", 1);
+        setField(mojo, "syncOperationTimeoutSeconds", 120L);
     }
 
     private static final class TestPrepareServerMojo extends PrepareServerMojo
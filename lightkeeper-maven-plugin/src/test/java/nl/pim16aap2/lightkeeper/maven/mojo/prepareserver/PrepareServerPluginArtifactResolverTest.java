@@ -29,6 +29,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -206,6 +208,191 @@ class PrepareServerPluginArtifactResolverTest
         }
     }
 
+    @Test
+    void resolvePluginArtifacts_shouldDownloadConcurrentlyWithinLimitAndKeepSpecOrder(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final AtomicInteger activeRequests = new AtomicInteger();
+        final AtomicInteger maxActiveRequests = new AtomicInteger();
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            final int active = activeRequests.incrementAndGet();
+            maxActiveRequests.accumulateAndGet(active, Math::max);
+            try
+            {
+                // Later specs answer first, so completion order differs from declaration order.
+                final String name = exchange.getRequestURI().getPath().substring(1);
+                Thread.sleep(200L - 40L * Integer.parseInt(name));
+                final byte[] body = name.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                activeRequests.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        final List<PluginArtifactSpec> specs = Stream.of("0", "1", "2", "3")
+            .map(name -> urlSpec(
+                URI.create("http://127.0.0.1:%d/%s".formatted(server.getAddress().getPort(), name)),
+                HashUtil.sha256(name)
+            ))
+            .toList();
+        final PrepareServerPluginArtifactResolver resolver = new PrepareServerPluginArtifactResolver(2);
+
+        try
+        {
+            // execute
+            final List<ResolvedPluginArtifact> resolved = resolver.resolvePluginArtifacts(
+                specs,
+                mock(RepositorySystem.class),
+                mock(RepositorySystemSession.class),
+                List.of(),
+                tempDirectory.resolve("cache"),
+                "LightKeeper/Test",
+                new SystemStreamLog()
+            );
+
+            // verify
+            assertThat(resolved)
+                .extracting(ResolvedPluginArtifact::sourceDescription)
+                .containsExactlyElementsOf(specs.stream().map(spec -> "url:" + spec.uri()).toList());
+            assertThat(resolved).allSatisfy(artifact -> assertThat(artifact.sourceJar()).isRegularFile());
+            assertThat(maxActiveRequests.get()).isBetween(1, 2);
+        }
+        finally
+        {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolvePluginArtifacts_shouldDownloadDuplicateSpecsOnceWhenResolvedInParallel(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final byte[] pluginBytes = "plugin".getBytes(StandardCharsets.UTF_8);
+        final AtomicInteger requestCount = new AtomicInteger();
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/plugin.jar", exchange -> {
+            requestCount.incrementAndGet();
+            try
+            {
+                Thread.sleep(200L);
+                exchange.sendResponseHeaders(200, pluginBytes.length);
+                exchange.getResponseBody().write(pluginBytes);
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                exchange.close();
+            }
+        });
+        server.start();
+        final PluginArtifactSpec spec = urlSpec(
+            URI.create("http://127.0.0.1:%d/plugin.jar".formatted(server.getAddress().getPort())),
+            HashUtil.sha256(pluginBytes)
+        );
+        final PrepareServerPluginArtifactResolver resolver = new PrepareServerPluginArtifactResolver(2);
+
+        try
+        {
+            // execute
+            final List<ResolvedPluginArtifact> resolved = resolver.resolvePluginArtifacts(
+                List.of(spec, spec),
+                mock(RepositorySystem.class),
+                mock(RepositorySystemSession.class),
+                List.of(),
+                tempDirectory.resolve("cache"),
+                "LightKeeper/Test",
+                new SystemStreamLog()
+            );
+
+            // verify
+            assertThat(resolved).hasSize(2)
+                .allSatisfy(artifact -> assertThat(artifact.sourceJar()).hasContent("plugin"));
+            assertThat(requestCount).hasValue(1);
+        }
+        finally
+        {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolvePluginArtifacts_shouldReportFirstFailureInSpecOrder(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            final String path = exchange.getRequestURI().getPath();
+            try
+            {
+                // The first failing spec answers last, so the reported failure cannot follow completion order.
+                if (path.equals("/first"))
+                    Thread.sleep(300L);
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            final byte[] body = "plugin".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(path.equals("/valid") ? 200 : path.equals("/first") ? 404 : 500, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        final String baseUri = "http://127.0.0.1:%d/".formatted(server.getAddress().getPort());
+        final List<PluginArtifactSpec> specs = List.of(
+            urlSpec(URI.create(baseUri + "valid"), HashUtil.sha256("plugin")),
+            urlSpec(URI.create(baseUri + "first"), HashUtil.sha256("plugin")),
+            urlSpec(URI.create(baseUri + "second"), HashUtil.sha256("plugin"))
+        );
+        final PrepareServerPluginArtifactResolver resolver = new PrepareServerPluginArtifactResolver(3);
+
+        try
+        {
+            // execute + verify
+            assertThatThrownBy(() -> resolver.resolvePluginArtifacts(
+                specs,
+                mock(RepositorySystem.class),
+                mock(RepositorySystemSession.class),
+                List.of(),
+                tempDirectory.resolve("cache"),
+                "LightKeeper/Test",
+                new SystemStreamLog()
+            ))
+                .isInstanceOf(MojoExecutionException.class)
+                .hasMessageContaining("/first' failed with status 404")
+                .satisfies(exception -> assertThat(exception.getSuppressed()).singleElement()
+                    .satisfies(suppressed -> assertThat(suppressed).hasMessageContaining("status 500")));
+        }
+        finally
+        {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
     @Test
     void resolvePluginArtifacts_shouldRejectCorruptCachedUrlArtifact(@TempDir Path tempDirectory)
         throws Exception
@@ -304,7 +304,10 @@ class PrepareServerRuntimeSupportTest
             1,
             "no-agent",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
 
         // execute + verify
@@ -313,6 +316,33 @@ class PrepareServerRuntimeSupportTest
             .hasMessageContaining("not a directory");
     }
 
+    @Test
+    void resolveClassDataArchiveDirectory_shouldKeyDirectoryByPluginSet(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final PrepareServerRuntimeSupport runtimeSupport = new PrepareServerRuntimeSupport(new SystemStreamLog());
+        final Path archiveRoot = tempDirectory.resolve("cds");
+        final Path serverDirectory = tempDirectory.resolve("server");
+        final Path pluginJar = serverDirectory.resolve("plugins").resolve("plugin.jar");
+        Files.createDirectories(pluginJar.getParent());
+        Files.writeString(pluginJar, "first");
+
+        // execute
+        final Path first =
+            runtimeSupport.resolveClassDataArchiveDirectory(archiveRoot, "cache-key", serverDirectory, 30);
+        final Path repeated =
+            runtimeSupport.resolveClassDataArchiveDirectory(archiveRoot, "cache-key", serverDirectory, 30);
+        Files.writeString(pluginJar, "second");
+        final Path changed =
+            runtimeSupport.resolveClassDataArchiveDirectory(archiveRoot, "cache-key", serverDirectory, 30);
+
+        // verify
+        assertThat(first).isDirectory().hasParent(archiveRoot);
+        assertThat(repeated).isEqualTo(first);
+        assertThat(changed).isNotEqualTo(first);
+    }
+
     @Test
     void createRuntimeManifest_shouldMapAllWorldInputSpecsToProvisionedWorlds(@TempDir Path tempDirectory)
     {
@@ -355,7 +385,9 @@ class PrepareServerRuntimeSupportTest
             "auth-token",
             agentMetadata,
             1,
-            List.of(startupWorld, templateWorld)
+            List.of(startupWorld, templateWorld),
+            List.of(),
+            null
         );
 
         // verify
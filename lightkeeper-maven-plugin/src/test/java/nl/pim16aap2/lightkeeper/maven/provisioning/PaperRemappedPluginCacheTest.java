@@ -0,0 +1,92 @@
+package nl.pim16aap2.lightkeeper.maven.provisioning;
+
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaperRemappedPluginCacheTest
+{
+    @Test
+    void seed_shouldInstallRemappedJarsHarvestedFromPreviousTarget(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final PaperRemappedPluginCache cache = new PaperRemappedPluginCache(contentStore, new SystemStreamLog());
+        final Path previousTarget = tempDirectory.resolve("previous");
+        final String pluginSha256 = HashUtil.sha256(writePlugin(previousTarget, "plugin.jar", "spigot-mapped"));
+        final String libSha256 = HashUtil.sha256(writePlugin(previousTarget, "library.jar", "mojang-mapped"));
+        final Path remappedDirectory = previousTarget.resolve(PaperRemappedPluginCache.REMAPPED_PLUGINS_DIRECTORY);
+        Files.createDirectories(remappedDirectory);
+        Files.writeString(remappedDirectory.resolve("plugin.jar"), "remapped");
+        Files.writeString(remappedDirectory.resolve("index.json"), """
+            {"version":1,"hashes":{"%s":"plugin.jar"},"skippedHashes":["%s"]}
+            """.formatted(pluginSha256, libSha256));
+        final Path manifest = writeManifest(tempDirectory, previousTarget, 42L);
+
+        final Path newTarget = tempDirectory.resolve("new");
+        writePlugin(newTarget, "plugin.jar", "spigot-mapped");
+        writePlugin(newTarget, "library.jar", "mojang-mapped");
+        writePlugin(newTarget, "other.jar", "unknown");
+
+        // execute
+        cache.harvest(manifest);
+        cache.seed(newTarget, 42L);
+
+        // verify
+        final Path seededDirectory = newTarget.resolve(PaperRemappedPluginCache.REMAPPED_PLUGINS_DIRECTORY);
+        assertThat(seededDirectory.resolve("plugin.jar")).hasContent("remapped");
+        assertThat(Files.readString(seededDirectory.resolve("index.json")))
+            .contains("\"version\":1", pluginSha256, libSha256)
+            .doesNotContain(HashUtil.sha256(newTarget.resolve("plugins").resolve("other.jar")));
+    }
+
+    @Test
+    void seed_shouldSkipOtherPaperBuild(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final PaperRemappedPluginCache cache = new PaperRemappedPluginCache(contentStore, new SystemStreamLog());
+        final Path previousTarget = tempDirectory.resolve("previous");
+        final String pluginSha256 = HashUtil.sha256(writePlugin(previousTarget, "plugin.jar", "spigot-mapped"));
+        final Path remappedDirectory = previousTarget.resolve(PaperRemappedPluginCache.REMAPPED_PLUGINS_DIRECTORY);
+        Files.createDirectories(remappedDirectory);
+        Files.writeString(remappedDirectory.resolve("plugin.jar"), "remapped");
+        Files.writeString(remappedDirectory.resolve("index.json"), """
+            {"hashes":{"%s":"plugin.jar"},"skippedHashes":[]}
+            """.formatted(pluginSha256));
+        cache.harvest(writeManifest(tempDirectory, previousTarget, 42L));
+
+        final Path newTarget = tempDirectory.resolve("new");
+        writePlugin(newTarget, "plugin.jar", "spigot-mapped");
+
+        // execute
+        cache.seed(newTarget, 43L);
+
+        // verify
+        assertThat(newTarget.resolve(PaperRemappedPluginCache.REMAPPED_PLUGINS_DIRECTORY)).doesNotExist();
+    }
+
+    private static Path writePlugin(Path serverDirectory, String fileName, String content)
+        throws Exception
+    {
+        final Path plugins = Files.createDirectories(serverDirectory.resolve("plugins"));
+        return Files.writeString(plugins.resolve(fileName), content);
+    }
+
+    private static Path writeManifest(Path directory, Path serverDirectory, long paperBuildId)
+        throws Exception
+    {
+        return Files.writeString(directory.resolve("runtime-manifest.json"), """
+            {"serverType":"paper","paperBuildId":%d,"serverDirectory":"%s"}
+            """.formatted(paperBuildId, serverDirectory.toString().replace("\\", "\\\\")));
+    }
+}
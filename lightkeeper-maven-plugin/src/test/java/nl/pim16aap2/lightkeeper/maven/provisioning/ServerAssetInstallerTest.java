@@ -1,5 +1,9 @@
 package nl.pim16aap2.lightkeeper.maven.provisioning;
 
+import nl.pim16aap2.lightkeeper.maven.util.ArchiveExtractionCache;
+import nl.pim16aap2.lightkeeper.maven.util.ContentStore;
+import nl.pim16aap2.lightkeeper.maven.util.DirectorySync;
+import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.jspecify.annotations.Nullable;
@@ -11,6 +15,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -85,6 +90,43 @@ class ServerAssetInstallerTest
             .hasContent("zipped");
     }
 
+    @Test
+    void installWorlds_shouldReuseCachedExtractionForUnchangedArchive(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archivePath = tempDirectory.resolve("world.zip");
+        createWorldArchive(
+            archivePath,
+            List.of(
+                new ArchiveEntry("zipped-world/level.dat", "dummy-level"),
+                new ArchiveEntry("zipped-world/region/r.0.0.mca", "region")
+            )
+        );
+        final WorldInputSpec worldInputSpec = new WorldInputSpec(
+            "imported-world", WorldInputSpec.SourceType.ARCHIVE, archivePath, true, false, "NORMAL", "NORMAL", 0L);
+        final ArchiveExtractionCache worldArchiveCache = ArchiveExtractionCache.open(tempDirectory.resolve("cache"));
+        final Path firstServer = tempDirectory.resolve("server-a");
+        ServerAssetInstaller.installWorlds(
+            firstServer, List.of(worldInputSpec), worldArchiveCache, new SystemStreamLog());
+        Files.writeString(firstServer.resolve("imported-world/region/r.0.0.mca"), "written-by-server");
+
+        // execute
+        final Path secondServer = tempDirectory.resolve("server-b");
+        ServerAssetInstaller.installWorlds(
+            secondServer, List.of(worldInputSpec), worldArchiveCache, new SystemStreamLog());
+
+        // verify
+        assertThat(secondServer.resolve("imported-world/region/r.0.0.mca")).hasContent("region");
+        assertThat(secondServer.resolve("imported-world/level.dat")).hasContent("dummy-level");
+        final String archiveHash = HashUtil.sha256(archivePath);
+        try (Stream<Path> entries = Files.list(tempDirectory.resolve("cache")))
+        {
+            assertThat(entries).singleElement()
+                .satisfies(entry -> assertThat(entry.getFileName()).hasToString(archiveHash));
+        }
+    }
+
     @Test
     void installWorlds_shouldThrowExceptionWhenArchiveContainsTraversalEntries(@TempDir Path tempDirectory)
         throws Exception
@@ -191,6 +233,28 @@ class ServerAssetInstallerTest
         assertThat(targetServerDirectory.resolve("plugins/my-plugin.jar")).isRegularFile().hasContent("plugin");
     }
 
+    @Test
+    void installPluginArtifacts_shouldLinkPluginsFromContentStore(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path targetServerDirectory = tempDirectory.resolve("server");
+        final Path pluginJar = Files.writeString(tempDirectory.resolve("plugin.jar"), "plugin");
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final List<ResolvedPluginArtifact> resolvedPluginArtifacts = List.of(
+            new ResolvedPluginArtifact(pluginJar, "my-plugin.jar", "path:plugin")
+        );
+
+        // execute
+        ServerAssetInstaller.installPluginArtifacts(
+            targetServerDirectory, resolvedPluginArtifacts, contentStore, new SystemStreamLog());
+
+        // verify
+        final Path installedJar = targetServerDirectory.resolve("plugins/my-plugin.jar");
+        assertThat(installedJar).hasContent("plugin");
+        assertThat(Files.isSameFile(installedJar, contentStore.objectPath(HashUtil.sha256("plugin")))).isTrue();
+    }
+
     @Test
     void installWorlds_shouldThrowExceptionWhenTargetExistsAndOverwriteIsDisabled(@TempDir Path tempDirectory)
         throws Exception
@@ -478,6 +542,65 @@ class ServerAssetInstallerTest
             .hasMessageContaining("does not exist");
     }
 
+    @Test
+    void addWorlds_shouldReplaceBaseWorldAndLetOverlayWin(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path baseServerDirectory = Files.createDirectories(tempDirectory.resolve("base/world/region"));
+        Files.writeString(baseServerDirectory.resolve("r.0.0.mca"), "generated");
+        final Path archivePath = tempDirectory.resolve("world.zip");
+        createWorldArchive(archivePath, List.of(new ArchiveEntry("level.dat", "fixture-level")));
+        final Path overlayDirectory = Files.createDirectories(tempDirectory.resolve("overlay/world"));
+        Files.writeString(overlayDirectory.resolve("level.dat"), "overlay-level");
+        final Path targetServerDirectory = tempDirectory.resolve("server");
+        final DirectorySync desiredState = new DirectorySync(null);
+        desiredState.addTree(tempDirectory.resolve("base"), "", relative -> false);
+        final WorldInputSpec worldInputSpec = new WorldInputSpec(
+            "world", WorldInputSpec.SourceType.ARCHIVE, archivePath, true, false, "NORMAL", "NORMAL", 0L);
+
+        // execute
+        ServerAssetInstaller.addWorlds(
+            desiredState,
+            targetServerDirectory,
+            List.of(worldInputSpec),
+            ArchiveExtractionCache.open(tempDirectory.resolve("world-cache")),
+            new SystemStreamLog()
+        );
+        ServerAssetInstaller.addConfigOverlay(tempDirectory.resolve("overlay"), desiredState, new SystemStreamLog());
+        desiredState.apply(targetServerDirectory);
+
+        // verify
+        assertThat(targetServerDirectory.resolve("world/level.dat")).hasContent("overlay-level");
+        assertThat(targetServerDirectory.resolve("world/region")).doesNotExist();
+    }
+
+    @Test
+    void addWorlds_shouldThrowExceptionWhenBaseServerHasWorldAndOverwriteIsDisabled(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        Files.createDirectories(tempDirectory.resolve("base/existing-world"));
+        Files.writeString(tempDirectory.resolve("base/existing-world/level.dat"), "generated");
+        final Path sourceWorldDirectory = Files.createDirectories(tempDirectory.resolve("world-source"));
+        final DirectorySync desiredState = new DirectorySync(null);
+        desiredState.addTree(tempDirectory.resolve("base"), "", relative -> false);
+        final WorldInputSpec worldInputSpec = new WorldInputSpec(
+            "existing-world", WorldInputSpec.SourceType.FOLDER, sourceWorldDirectory, false, false, "NORMAL", "NORMAL",
+            0L);
+
+        // execute + verify
+        assertThatThrownBy(() -> ServerAssetInstaller.addWorlds(
+            desiredState,
+            tempDirectory.resolve("server"),
+            List.of(worldInputSpec),
+            ArchiveExtractionCache.open(tempDirectory.resolve("world-cache")),
+            new SystemStreamLog()
+        ))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("overwrite=false");
+    }
+
     private static void createWorldArchive(Path archivePath, List<ArchiveEntry> entries)
         throws IOException
     {
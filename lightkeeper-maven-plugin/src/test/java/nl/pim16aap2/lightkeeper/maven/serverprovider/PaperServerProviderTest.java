@@ -18,7 +18,9 @@ import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.Objects;
 
 import static org.assertj.core.api.Assertions.*;
@@ -52,6 +54,23 @@ class PaperServerProviderTest
         assertThat(provider.targetServerDirectoryPath().resolve("paper-1.21.11.jar")).isRegularFile();
     }
 
+    @Test
+    void prepareServer_shouldPregenerateSpawnChunksAndResetRadius(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final TestPaperServerProvider provider = createProvider(tempDirectory, 1, 0, false, true, 8);
+
+        // execute
+        provider.prepareServer();
+
+        // verify
+        assertThat(provider.sentCommands())
+            .containsExactly("gamerule spawnChunkRadius 8", "gamerule spawnChunkRadius 2");
+        assertThat(provider.baseServerDirectoryForTests().resolve("lightkeeper-spawn-pregeneration.txt"))
+            .hasContent("8");
+    }
+
     @Test
     void prepareServer_shouldDeleteTransientFilesBeforeRetry(@TempDir Path tempDirectory)
         throws Exception
@@ -207,6 +226,24 @@ class PaperServerProviderTest
         int failingAttempts,
         boolean createTransientLockOnFailure,
         boolean cleanupUnusedCacheDirectories)
+    {
+        return createProvider(
+            tempDirectory,
+            maxAttempts,
+            failingAttempts,
+            createTransientLockOnFailure,
+            cleanupUnusedCacheDirectories,
+            0
+        );
+    }
+
+    private TestPaperServerProvider createProvider(
+        Path tempDirectory,
+        int maxAttempts,
+        int failingAttempts,
+        boolean createTransientLockOnFailure,
+        boolean cleanupUnusedCacheDirectories,
+        int spawnPregenerationRadius)
     {
         final Log log = new SystemStreamLog();
         final ServerSpecification serverSpecification = new ServerSpecification(
@@ -232,7 +269,9 @@ class PaperServerProviderTest
             EMBEDDED_AGENT_SHA256,
             "test-token",
             1,
-            "embedded-agent"
+            "embedded-agent",
+            spawnPregenerationRadius,
+            ServerProfile.DEFAULT
         );
 
         return new TestPaperServerProvider(
@@ -272,7 +311,9 @@ class PaperServerProviderTest
             EMBEDDED_AGENT_SHA256,
             "test-token",
             1,
-            "embedded-agent"
+            "embedded-agent",
+            0,
+            ServerProfile.DEFAULT
         );
         return new TestPaperJarProvider(
             new SystemStreamLog(),
@@ -286,6 +327,7 @@ class PaperServerProviderTest
     {
         private final int failingAttempts;
         private final boolean createTransientLockOnFailure;
+        private final List<String> sentCommands = new ArrayList<>();
         private int createBaseServerJarInvocations;
         private int createServerProcessInvocations;
 
@@ -322,7 +364,12 @@ class PaperServerProviderTest
         {
             createServerProcessInvocations++;
             final boolean failStart = createServerProcessInvocations <= failingAttempts;
-            return new ScriptedServerProcess(baseServerDirectory(), failStart, createTransientLockOnFailure);
+            return new ScriptedServerProcess(
+                baseServerDirectory(),
+                failStart,
+                createTransientLockOnFailure,
+                sentCommands
+            );
         }
 
         int createBaseServerJarInvocations()
@@ -335,6 +382,11 @@ class PaperServerProviderTest
             return createServerProcessInvocations;
         }
 
+        List<String> sentCommands()
+        {
+            return sentCommands;
+        }
+
         Path baseServerDirectoryForTests()
         {
             return baseServerDirectory();
@@ -351,14 +403,29 @@ class PaperServerProviderTest
         private final Path serverDirectory;
         private final boolean failStart;
         private final boolean createTransientLockOnFailure;
+        private final List<String> sentCommands;
         private boolean running;
 
-        private ScriptedServerProcess(Path serverDirectory, boolean failStart, boolean createTransientLockOnFailure)
+        private ScriptedServerProcess(
+            Path serverDirectory,
+            boolean failStart,
+            boolean createTransientLockOnFailure,
+            List<String> sentCommands)
         {
             super(serverDirectory, serverDirectory.resolve("paper.jar"), "java", null, 512);
             this.serverDirectory = serverDirectory;
             this.failStart = failStart;
             this.createTransientLockOnFailure = createTransientLockOnFailure;
+            this.sentCommands = sentCommands;
+        }
+
+        @Override
+        public void sendCommand(String command)
+            throws MojoExecutionException
+        {
+            if (!running)
+                throw new MojoExecutionException("Process not running.");
+            sentCommands.add(command);
         }
 
         @Override
@@ -432,13 +499,14 @@ class PaperServerProviderTest
         }
 
         @Override
-        protected void downloadFile(String url, Path targetFile)
+        protected String downloadFile(String url, Path targetFile)
             throws MojoExecutionException
         {
             try
             {
                 Files.createDirectories(targetFile.getParent());
                 Files.writeString(targetFile, downloadedJarContents);
+                return HashUtil.sha256(targetFile);
             }
             catch (IOException exception)
             {
@@ -0,0 +1,163 @@
+package nl.pim16aap2.lightkeeper.maven.serverprovider;
+
+import nl.pim16aap2.lightkeeper.maven.provisioning.LoopbackLoginGuard;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ServerProfileConfigurerTest
+{
+    @Test
+    void setYamlValue_shouldReplaceExistingNestedValue()
+    {
+        // setup
+        final List<String> lines = new ArrayList<>(List.of(
+            "world-settings:",
+            "  default:",
+            "    entity-activation-range:",
+            "      animals: 32",
+            "      monsters: 32",
+            "    merge-radius:",
+            "      animals: 2.5"
+        ));
+
+        // execute
+        ServerProfileConfigurer.setYamlValue(lines, "world-settings.default.entity-activation-range.animals", "8");
+
+        // verify
+        assertThat(lines).containsExactly(
+            "world-settings:",
+            "  default:",
+            "    entity-activation-range:",
+            "      animals: 8",
+            "      monsters: 32",
+            "    merge-radius:",
+            "      animals: 2.5"
+        );
+    }
+
+    @Test
+    void setYamlValue_shouldAppendMissingKeyToEndOfExistingSection()
+    {
+        // setup
+        final List<String> lines = new ArrayList<>(List.of(
+            "advancements:",
+            "    disabled:",
+            "    - minecraft:story/disabled",
+            "# players",
+            "players:",
+            "    disable-saving: false"
+        ));
+
+        // execute
+        ServerProfileConfigurer.setYamlValue(lines, "advancements.disable-saving", "true");
+
+        // verify
+        assertThat(lines).containsExactly(
+            "advancements:",
+            "    disabled:",
+            "    - minecraft:story/disabled",
+            "    disable-saving: true",
+            "# players",
+            "players:",
+            "    disable-saving: false"
+        );
+    }
+
+    @Test
+    void setYamlValue_shouldCreateMissingSections()
+    {
+        // setup
+        final List<String> lines = new ArrayList<>(List.of(
+            "settings:",
+            "  timeout-time: 600"
+        ));
+
+        // execute
+        ServerProfileConfigurer.setYamlValue(lines, "stats.disable-saving", "true");
+        ServerProfileConfigurer.setYamlValue(lines, "settings.nested.value", "1");
+
+        // verify
+        assertThat(lines).containsExactly(
+            "settings:",
+            "  timeout-time: 600",
+            "  nested:",
+            "    value: 1",
+            "stats:",
+            "  disable-saving: true"
+        );
+    }
+
+    @Test
+    void setProperty_shouldReplaceExistingOrAppendMissingProperty()
+    {
+        // setup
+        final List<String> lines = new ArrayList<>(List.of("view-distance=10", "online-mode=false"));
+
+        // execute
+        ServerProfileConfigurer.setProperty(lines, "view-distance", "2");
+        ServerProfileConfigurer.setProperty(lines, "sync-chunk-writes", "false");
+
+        // verify
+        assertThat(lines).containsExactly("view-distance=2", "online-mode=false", "sync-chunk-writes=false");
+    }
+
+    @Test
+    void apply_shouldConfigureFastTestProfileAndKeepLoopbackLoginWorking(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        Files.writeString(tempDirectory.resolve("server.properties"), """
+            online-mode=false
+            view-distance=10
+            simulation-distance=10
+            """);
+        Files.writeString(tempDirectory.resolve("bukkit.yml"), """
+            ticks-per:
+              animal-spawns: 400
+              autosave: 6000
+            """);
+        Files.writeString(tempDirectory.resolve("spigot.yml"), """
+            settings:
+              bungeecord: false
+            stats:
+              disable-saving: false
+            """);
+
+        // execute
+        ServerProfileConfigurer.apply(new SystemStreamLog(), tempDirectory, ServerProfile.FAST_TEST);
+
+        // verify
+        assertThat(Files.readAllLines(tempDirectory.resolve("server.properties")))
+            .contains("view-distance=2", "simulation-distance=2", "sync-chunk-writes=false");
+        assertThat(Files.readAllLines(tempDirectory.resolve("bukkit.yml"))).contains("  autosave: 0");
+        assertThat(Files.readAllLines(tempDirectory.resolve("spigot.yml")))
+            .contains("  disable-saving: true", "      animals: 8", "  bungeecord: false");
+        assertThat(tempDirectory.resolve("config")).doesNotExist();
+        assertThatCode(() -> LoopbackLoginGuard.validate(tempDirectory, new SystemStreamLog()))
+            .doesNotThrowAnyException();
+    }
+
+    @Test
+    void apply_shouldLeaveFilesUntouchedForDefaultProfile(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path serverProperties =
+            Files.writeString(tempDirectory.resolve("server.properties"), "view-distance=10\n");
+
+        // execute
+        ServerProfileConfigurer.apply(new SystemStreamLog(), tempDirectory, ServerProfile.DEFAULT);
+
+        // verify
+        assertThat(serverProperties).hasContent("view-distance=10");
+    }
+}
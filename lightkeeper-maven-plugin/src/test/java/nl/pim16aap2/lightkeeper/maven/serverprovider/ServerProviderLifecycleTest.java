@@ -2,6 +2,7 @@ package nl.pim16aap2.lightkeeper.maven.serverprovider;
 
 import nl.pim16aap2.lightkeeper.maven.ServerSpecification;
 import nl.pim16aap2.lightkeeper.maven.LightkeeperEmbeddedAgent;
+import nl.pim16aap2.lightkeeper.maven.util.DirectorySync;
 import nl.pim16aap2.lightkeeper.maven.util.HashUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -94,6 +96,24 @@ class ServerProviderLifecycleTest
         assertThat(shouldRecreate).isFalse();
     }
 
+    @Test
+    void prepareServer_shouldReuseJarPublishedAfterProviderWasCreated(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final String agentSha256 = resolveEmbeddedAgentSha256();
+        final LifecycleServerProvider lateProvider =
+            createProvider(tempDirectory, false, false, agentSha256, "cache-key", 26801);
+        createProvider(tempDirectory, false, false, agentSha256, "cache-key", 26802).prepareServer();
+
+        // execute
+        lateProvider.prepareServer();
+
+        // verify
+        assertThat(lateProvider.createBaseServerJarInvocations()).isZero();
+        assertThat(lateProvider.targetJarFilePath()).isRegularFile();
+    }
+
     @Test
     void prepareServer_shouldAssignNewTargetPortPerRunWhenReusingBaseCache(@TempDir Path tempDirectory)
         throws Exception
@@ -141,6 +161,52 @@ class ServerProviderLifecycleTest
         assertThat(firstPort).isNotEqualTo(secondPort);
     }
 
+    @Test
+    void cloneTargetServer_shouldCopyProvisionedTargetIntoSiblingWithItsOwnPort(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final AtomicInteger reservedPortCounter = new AtomicInteger(27800);
+        final LifecycleServerProvider provider = createProvider(
+            tempDirectory, true, true, resolveEmbeddedAgentSha256(), "cache-key", reservedPortCounter::incrementAndGet);
+        provider.prepareServer();
+        final Path targetServerDirectory = provider.targetServerDirectoryPath();
+
+        // execute
+        final Path fleetServerDirectory = provider.cloneTargetServer(1);
+
+        // verify
+        assertThat(fleetServerDirectory.getFileName().toString())
+            .isEqualTo(targetServerDirectory.getFileName() + "-1");
+        assertThat(fleetServerDirectory.resolve("plugins").resolve(LightkeeperEmbeddedAgent.FILE_NAME))
+            .isRegularFile();
+        assertThat(readServerPort(fleetServerDirectory)).isNotEqualTo(readServerPort(targetServerDirectory));
+        assertThatThrownBy(() -> provider.cloneTargetServer(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void syncTargetServer_shouldLeaveUnchangedTargetUntouched(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final LifecycleServerProvider provider = createProvider(
+            tempDirectory, true, true, resolveEmbeddedAgentSha256(), "cache-key", 27901);
+        provider.syncTargetServer(provider.prepareServerSync(null));
+        final Path agentJar = provider.targetServerDirectoryPath().resolve("plugins")
+            .resolve(LightkeeperEmbeddedAgent.FILE_NAME);
+        final FileTime agentJarModified = Files.getLastModifiedTime(agentJar);
+
+        // execute
+        final DirectorySync.Result result = provider.syncTargetServer(provider.prepareServerSync(null));
+
+        // verify
+        assertThat(result.writtenFiles()).isZero();
+        assertThat(result.deletedFiles()).isZero();
+        assertThat(Files.getLastModifiedTime(agentJar)).isEqualTo(agentJarModified);
+        assertThat(readServerPort(provider.targetServerDirectoryPath())).isEqualTo(27901);
+    }
+
     private static LifecycleServerProvider createProviderWithoutAgent(Path tempDirectory)
         throws Exception
     {
@@ -206,7 +272,9 @@ class ServerProviderLifecycleTest
             agentJarSha256,
             "test-token",
             1,
-            "agent-cache-id"
+            "agent-cache-id",
+            0,
+            ServerProfile.DEFAULT
         );
         return new LifecycleServerProvider(log, specification, portSupplier);
     }
@@ -323,6 +323,31 @@ class ServerProviderTest
         assertThat(content).contains("server-port=26601");
     }
 
+    @Test
+    void isNeverWrittenServerFile_shouldSelectJarsAndLibrariesButNotPluginsOrConfig()
+    {
+        // execute + verify
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("server.jar"))).isTrue();
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("cache", "mojang_1.21.jar"))).isTrue();
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("libraries", "com", "lib.txt"))).isTrue();
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("plugins", "agent.jar"))).isFalse();
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("server.properties"))).isFalse();
+        assertThat(ServerProvider.isNeverWrittenServerFile(Path.of("world", "level.dat"))).isFalse();
+    }
+
+    @Test
+    void hasSpawnChunkRadiusGameRule_shouldRequireMinecraft1_20_5()
+    {
+        // execute + verify
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.21.11")).isTrue();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.20.5")).isTrue();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.21")).isTrue();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.21.4-R0.1-SNAPSHOT")).isTrue();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.20.4")).isFalse();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("1.20")).isFalse();
+        assertThat(ServerProvider.hasSpawnChunkRadiusGameRule("latest-supported")).isFalse();
+    }
+
     private static TestServerProvider createProvider(Path tempDirectory)
     {
         return createProvider(tempDirectory, 25565);
@@ -354,7 +379,9 @@ class ServerProviderTest
             null,
             "test-token",
             1,
-            "no-agent"
+            "no-agent",
+            0,
+            ServerProfile.DEFAULT
         );
         return new TestServerProvider(log, specification, reservedPort);
     }
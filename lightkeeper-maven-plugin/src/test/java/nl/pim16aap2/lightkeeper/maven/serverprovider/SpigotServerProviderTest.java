@@ -149,6 +149,27 @@ class SpigotServerProviderTest
         assertThat(provider.jarCacheFileForTests().getFileName().toString()).isEqualTo("spigot-1.21.11.jar");
     }
 
+    @Test
+    void createBaseServerJar_shouldShareBuildToolsAcrossCacheKeys(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path successfulBuildToolsJar = createFakeBuildToolsJar(tempDirectory, false);
+        final TestSpigotJarProvider first = createJarProvider(tempDirectory, successfulBuildToolsJar, "first-key");
+        final TestSpigotJarProvider second = createJarProvider(tempDirectory, successfulBuildToolsJar, "second-key");
+
+        // execute
+        first.runCreateBaseServerJar();
+        second.runCreateBaseServerJar();
+
+        // verify
+        assertThat(first.downloadInvocations() + second.downloadInvocations()).isEqualTo(1);
+        assertThat(first.jarCacheFileForTests()).isRegularFile();
+        assertThat(second.jarCacheFileForTests()).isRegularFile();
+        assertThat(tempDirectory.resolve("jars/buildtools/work")).isDirectory();
+        assertThat(second.jarCacheFileForTests().resolveSibling("buildtools-output")).doesNotExist();
+    }
+
     @Test
     void createBaseServerJar_shouldThrowExceptionWhenBuildToolsFails(@TempDir Path tempDirectory)
         throws Exception
@@ -226,7 +247,9 @@ class SpigotServerProviderTest
             EMBEDDED_AGENT_SHA256,
             "test-token",
             1,
-            "embedded-agent"
+            "embedded-agent",
+            0,
+            ServerProfile.DEFAULT
         );
 
         return new TestSpigotServerProvider(
@@ -239,6 +262,11 @@ class SpigotServerProviderTest
     }
 
     private TestSpigotJarProvider createJarProvider(Path tempDirectory, Path buildToolsJar)
+    {
+        return createJarProvider(tempDirectory, buildToolsJar, "cache-key");
+    }
+
+    private TestSpigotJarProvider createJarProvider(Path tempDirectory, Path buildToolsJar, String cacheKey)
     {
         final Log log = new SystemStreamLog();
         final ServerSpecification serverSpecification = new ServerSpecification(
@@ -259,12 +287,14 @@ class SpigotServerProviderTest
             512,
             System.getProperty("java.home") + "/bin/java",
             null,
-            "cache-key",
+            cacheKey,
             "LightKeeper/Tests",
             EMBEDDED_AGENT_SHA256,
             "test-token",
             1,
-            "embedded-agent"
+            "embedded-agent",
+            0,
+            ServerProfile.DEFAULT
         );
 
         return new TestSpigotJarProvider(log, serverSpecification, SPIGOT_BUILD_METADATA, buildToolsJar);
@@ -475,6 +505,7 @@ class SpigotServerProviderTest
     private static final class TestSpigotJarProvider extends SpigotServerProvider
     {
         private final Path fakeBuildToolsJar;
+        private int downloadInvocations;
 
         private TestSpigotJarProvider(
             Log log,
@@ -497,19 +528,26 @@ class SpigotServerProviderTest
             return jarCacheFile();
         }
 
+        private int downloadInvocations()
+        {
+            return downloadInvocations;
+        }
+
         private MinecraftServerProcess createServerProcessForTests()
         {
             return createServerProcess();
         }
 
         @Override
-        protected void downloadFile(String url, Path targetFile)
+        protected String downloadFile(String url, Path targetFile)
             throws MojoExecutionException
         {
+            ++downloadInvocations;
             try
             {
                 Files.createDirectories(targetFile.getParent());
                 Files.copy(fakeBuildToolsJar, targetFile);
+                return HashUtil.sha256(targetFile);
             }
             catch (IOException exception)
             {
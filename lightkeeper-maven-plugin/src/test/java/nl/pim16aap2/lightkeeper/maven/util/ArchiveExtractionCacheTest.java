@@ -0,0 +1,101 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveExtractionCacheTest
+{
+    @Test
+    void extract_shouldExtractOnceAndReuseEntryForSameArchive(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archive = createArchive(
+            tempDirectory.resolve("world.zip"),
+            Map.of("world/level.dat", "level", "world/region/r.0.0.mca", "region")
+        );
+        final ArchiveExtractionCache cache = ArchiveExtractionCache.open(tempDirectory.resolve("cache"));
+
+        // execute
+        final ArchiveExtractionCache.Extraction first = cache.extract(archive);
+        final ArchiveExtractionCache.Extraction second = cache.extract(archive);
+
+        // verify
+        assertThat(first.reused()).isFalse();
+        assertThat(second.reused()).isTrue();
+        assertThat(second.directory()).isEqualTo(first.directory());
+        assertThat(first.directory().getFileName()).hasToString(HashUtil.sha256(archive));
+        assertThat(first.directory().resolve("world/region/r.0.0.mca")).hasContent("region");
+        try (Stream<Path> entries = Files.list(tempDirectory.resolve("cache")))
+        {
+            assertThat(entries).containsExactly(first.directory());
+        }
+    }
+
+    @Test
+    void extractZip_shouldExtractEveryEntry(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archive = createArchive(
+            tempDirectory.resolve("world.zip"),
+            Map.of("a.txt", "a", "nested/b.txt", "b", "nested/deeper/c.txt", "c")
+        );
+        final Path target = tempDirectory.resolve("target");
+
+        // execute
+        ArchiveExtractionCache.extractZip(archive, target);
+
+        // verify
+        assertThat(target.resolve("a.txt")).hasContent("a");
+        assertThat(target.resolve("nested/b.txt")).hasContent("b");
+        assertThat(target.resolve("nested/deeper/c.txt")).hasContent("c");
+    }
+
+    @Test
+    void extract_shouldRejectTraversalEntryAndLeaveNoEntryBehind(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path archive = createArchive(tempDirectory.resolve("bad.zip"), Map.of("../outside.txt", "bad"));
+        final ArchiveExtractionCache cache = ArchiveExtractionCache.open(tempDirectory.resolve("cache"));
+
+        // execute + verify
+        assertThatThrownBy(() -> cache.extract(archive))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("escapes root");
+        assertThat(tempDirectory.resolve("outside.txt")).doesNotExist();
+        try (Stream<Path> entries = Files.list(tempDirectory.resolve("cache")))
+        {
+            assertThat(entries).isEmpty();
+        }
+    }
+
+    private static Path createArchive(Path archivePath, Map<String, String> entries)
+        throws IOException
+    {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(archivePath)))
+        {
+            for (final Map.Entry<String, String> entry : entries.entrySet())
+            {
+                zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+                zipOutputStream.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zipOutputStream.closeEntry();
+            }
+        }
+        return archivePath;
+    }
+}
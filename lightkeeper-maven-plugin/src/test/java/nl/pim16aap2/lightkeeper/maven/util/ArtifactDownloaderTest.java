@@ -0,0 +1,177 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArtifactDownloaderTest
+{
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"v2\"";
+
+    private final List<String> receivedRanges = new CopyOnWriteArrayList<>();
+    private final HttpServer server = startServer(receivedRanges);
+    private final ArtifactDownloader downloader = new ArtifactDownloader(new SystemStreamLog(), "LightKeeper/Test");
+
+    private static HttpServer startServer(List<String> receivedRanges)
+    {
+        final HttpServer server;
+        try
+        {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        }
+        catch (IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+        server.createContext("/ranged.jar", exchange -> {
+            final String range = exchange.getRequestHeaders().getFirst("Range");
+            final String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            receivedRanges.add(String.valueOf(range));
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (range == null || !ETAG.equals(ifRange))
+            {
+                send(exchange, 200, CONTENT);
+                return;
+            }
+            final int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            exchange.getResponseHeaders()
+                .add("Content-Range", "bytes %d-%d/%d".formatted(start, CONTENT.length - 1, CONTENT.length));
+            send(exchange, 206, Arrays.copyOfRange(CONTENT, start, CONTENT.length));
+        });
+        server.createContext("/unranged.jar", exchange -> {
+            receivedRanges.add(String.valueOf(exchange.getRequestHeaders().getFirst("Range")));
+            send(exchange, 200, CONTENT);
+        });
+        server.createContext("/missing.jar", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static void send(HttpExchange exchange, int statusCode, byte[] body)
+        throws IOException
+    {
+        exchange.sendResponseHeaders(statusCode, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    void download_shouldResumePartialDownloadWithRangeRequest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path target = tempDirectory.resolve("plugin.jar");
+        Files.write(tempDirectory.resolve("plugin.jar.part"), Arrays.copyOfRange(CONTENT, 0, 10));
+        Files.writeString(tempDirectory.resolve("plugin.jar.part.validator"), ETAG);
+
+        // execute
+        final String hash = downloader.download(uri("/ranged.jar"), target, "SHA-256");
+
+        // verify
+        assertThat(receivedRanges).containsExactly("bytes=10-");
+        assertThat(target).hasBinaryContent(CONTENT);
+        assertThat(hash).isEqualTo(HashUtil.sha256(CONTENT));
+        assertThat(tempDirectory.resolve("plugin.jar.part")).doesNotExist();
+        assertThat(tempDirectory.resolve("plugin.jar.part.validator")).doesNotExist();
+    }
+
+    @Test
+    void download_shouldRestartWhenFileChangedSincePartialDownload(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path target = tempDirectory.resolve("plugin.jar");
+        Files.writeString(tempDirectory.resolve("plugin.jar.part"), "old version");
+        Files.writeString(tempDirectory.resolve("plugin.jar.part.validator"), "\"v1\"");
+
+        // execute
+        final String hash = downloader.download(uri("/ranged.jar"), target, "SHA-256");
+
+        // verify
+        assertThat(receivedRanges).containsExactly("bytes=11-");
+        assertThat(target).hasBinaryContent(CONTENT);
+        assertThat(hash).isEqualTo(HashUtil.sha256(CONTENT));
+    }
+
+    @Test
+    void download_shouldNotResumePartialDownloadWithoutValidator(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path target = tempDirectory.resolve("plugin.jar");
+        Files.writeString(tempDirectory.resolve("plugin.jar.part"), "unknown version");
+
+        // execute
+        downloader.download(uri("/ranged.jar"), target, "SHA-256");
+
+        // verify
+        assertThat(receivedRanges).containsExactly("null");
+        assertThat(target).hasBinaryContent(CONTENT);
+    }
+
+    @Test
+    void download_shouldRestartWhenServerIgnoresRange(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path target = tempDirectory.resolve("plugin.jar");
+        Files.writeString(tempDirectory.resolve("plugin.jar.part"), "stale bytes");
+        Files.writeString(tempDirectory.resolve("plugin.jar.part.validator"), ETAG);
+
+        // execute
+        final String hash = downloader.download(uri("/unranged.jar"), target, "SHA-512");
+
+        // verify
+        assertThat(receivedRanges).containsExactly("bytes=11-");
+        assertThat(target).hasBinaryContent(CONTENT);
+        assertThat(hash).isEqualTo(HashUtil.sha512(target));
+    }
+
+    @Test
+    void download_shouldFailOnUnsuccessfulStatus(@TempDir Path tempDirectory)
+    {
+        // setup
+        final Path target = tempDirectory.resolve("plugin.jar");
+
+        // execute + verify
+        assertThatThrownBy(() -> downloader.download(uri("/missing.jar"), target, "SHA-256"))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("failed with status 404");
+        assertThat(target).doesNotExist();
+        assertThat(tempDirectory.resolve("plugin.jar.part")).doesNotExist();
+    }
+
+    private URI uri(String path)
+    {
+        return URI.create("http://127.0.0.1:%d%s".formatted(server.getAddress().getPort(), path));
+    }
+}
@@ -51,6 +51,19 @@ class CacheKeyUtilTest
         assertThat(first).isNotEqualTo(second);
     }
 
+    @Test
+    void createBaseServerCacheKey_shouldGenerateDifferentHashPerProfileAndPregenerationRadius()
+    {
+        // execute
+        final String defaultProfile = CacheKeyUtil.createBaseServerCacheKey("server-key", "DEFAULT", 0);
+        final String fastTestProfile = CacheKeyUtil.createBaseServerCacheKey("server-key", "FAST_TEST", 0);
+        final String pregenerated = CacheKeyUtil.createBaseServerCacheKey("server-key", "DEFAULT", 8);
+
+        // verify
+        assertThat(List.of(defaultProfile, fastTestProfile, pregenerated)).doesNotHaveDuplicates();
+        assertThat(CacheKeyUtil.createBaseServerCacheKey("server-key", "DEFAULT", 0)).isEqualTo(defaultProfile);
+    }
+
     @Test
     void createSpigotCacheKey_shouldGenerateDifferentHashWhenEnvironmentChanges()
     {
@@ -77,4 +90,23 @@ class CacheKeyUtilTest
         // verify
         assertThat(first).isNotEqualTo(second);
     }
+
+    @Test
+    void createClassDataArchiveCacheKey_shouldGenerateDifferentHashWhenPluginSetChanges()
+    {
+        // setup
+        final String serverCacheKey = CacheKeyUtil.createPaperCacheKey("1.21.11", "sha-a");
+
+        // execute
+        final String withoutPlugins = CacheKeyUtil.createClassDataArchiveCacheKey(serverCacheKey, List.of());
+        final String withPlugin =
+            CacheKeyUtil.createClassDataArchiveCacheKey(serverCacheKey, List.of("plugin.jar=sha-p"));
+        final String withChangedPlugin =
+            CacheKeyUtil.createClassDataArchiveCacheKey(serverCacheKey, List.of("plugin.jar=sha-q"));
+
+        // verify
+        assertThat(withoutPlugins).isNotEqualTo(withPlugin);
+        assertThat(withPlugin).isNotEqualTo(withChangedPlugin);
+        assertThat(withoutPlugins).isNotEqualTo(serverCacheKey);
+    }
 }
@@ -0,0 +1,62 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLockTest
+{
+    @Test
+    void acquire_shouldWaitUntilOtherHolderReleasesLock(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path lockFile = tempDirectory.resolve("nested/entry.lock");
+        final CacheLock first = CacheLock.acquire(lockFile, "test entry", new SystemStreamLog());
+        final CompletableFuture<Boolean> secondWaited = CompletableFuture.supplyAsync(() ->
+        {
+            try (CacheLock second = CacheLock.acquire(lockFile, "test entry", new SystemStreamLog()))
+            {
+                return second.waited();
+            }
+            catch (Exception exception)
+            {
+                throw new IllegalStateException(exception);
+            }
+        });
+
+        // execute
+        assertThatThrownBy(() -> secondWaited.get(200, TimeUnit.MILLISECONDS))
+            .isInstanceOf(TimeoutException.class);
+        first.close();
+
+        // verify
+        assertThat(first.waited()).isFalse();
+        assertThat(secondWaited.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(lockFile).isRegularFile();
+    }
+
+    @Test
+    void acquire_shouldNotWaitForReleasedLock(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path lockFile = tempDirectory.resolve("entry.lock");
+        CacheLock.acquire(lockFile, "test entry", new SystemStreamLog()).close();
+
+        // execute
+        try (CacheLock lock = CacheLock.acquire(lockFile, "test entry", new SystemStreamLog()))
+        {
+            // verify
+            assertThat(lock.waited()).isFalse();
+        }
+    }
+}
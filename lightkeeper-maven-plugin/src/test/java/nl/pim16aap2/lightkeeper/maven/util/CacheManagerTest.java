@@ -0,0 +1,158 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheManagerTest
+{
+    @Test
+    void enforceBudget_shouldEvictLeastRecentlyUsedEntriesUntilWithinBudget(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path root = tempDirectory.resolve("worlds");
+        final Path oldest = createEntry(root, "oldest", 1000, Duration.ofDays(3));
+        final Path older = createEntry(root, "older", 1000, Duration.ofDays(2));
+        final Path recent = createEntry(root, "recent", 1000, Duration.ofDays(1));
+        final CacheManager cacheManager =
+            CacheManager.open(tempDirectory.resolve("index"), Map.of("world", root), 1500, new SystemStreamLog());
+
+        // execute
+        final CacheManager.EvictionResult result = cacheManager.enforceBudget();
+
+        // verify
+        assertThat(result.evicted()).extracting(CacheManager.Entry::directory)
+            .containsExactly(oldest.toAbsolutePath().normalize(), older.toAbsolutePath().normalize());
+        assertThat(result.totalBytes()).isEqualTo(1000);
+        assertThat(oldest).doesNotExist();
+        assertThat(older).doesNotExist();
+        assertThat(recent).isDirectory();
+        assertThat(root).isDirectoryNotContaining(path -> path.getFileName().toString().startsWith("."));
+    }
+
+    @Test
+    void enforceBudget_shouldKeepExpensiveEntryOverCheapMoreRecentEntry(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path root = tempDirectory.resolve("jars");
+        final Path expensive = createEntry(root, "buildtools", 1000, Duration.ofDays(3));
+        final Path cheap = createEntry(root, "paper", 1000, Duration.ofDays(1));
+        final CacheManager cacheManager =
+            CacheManager.open(tempDirectory.resolve("index"), Map.of("jar", root), 1500, new SystemStreamLog());
+        cacheManager.recordCost(expensive, Duration.ofMinutes(10));
+
+        // execute
+        cacheManager.enforceBudget();
+
+        // verify
+        assertThat(expensive).isDirectory();
+        assertThat(cheap).doesNotExist();
+    }
+
+    @Test
+    void enforceBudget_shouldNeverEvictTouchedEntries(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path root = tempDirectory.resolve("server");
+        final Path inUse = createEntry(root, "in-use", 1000, Duration.ofDays(30));
+        final Path idle = createEntry(root, "idle", 1000, Duration.ofDays(1));
+        final CacheManager cacheManager =
+            CacheManager.open(tempDirectory.resolve("index"), Map.of("server", root), 500, new SystemStreamLog());
+        cacheManager.touch(List.of(inUse));
+
+        // execute
+        final CacheManager.EvictionResult result = cacheManager.enforceBudget();
+
+        // verify
+        assertThat(inUse).isDirectory();
+        assertThat(idle).doesNotExist();
+        assertThat(result.totalBytes()).isEqualTo(1000);
+    }
+
+    @Test
+    void scan_shouldKeepIndexedEntriesOfOtherRootsAndCosts(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path jarRoot = tempDirectory.resolve("jars/spigot");
+        final Path jarEntry = createEntry(jarRoot, "key", 10, Duration.ofDays(1));
+        final Path indexDirectory = tempDirectory.resolve("index");
+        final CacheManager first =
+            CacheManager.open(indexDirectory, Map.of("jar", jarRoot), 0, new SystemStreamLog());
+        first.recordCost(jarEntry, Duration.ofMinutes(5));
+        first.scan();
+
+        // execute
+        final List<CacheManager.Entry> entries =
+            CacheManager.open(indexDirectory, Map.of(), 0, new SystemStreamLog()).scan();
+
+        // verify
+        assertThat(entries).singleElement().satisfies(entry ->
+        {
+            assertThat(entry.kind()).isEqualTo("jar");
+            assertThat(entry.sizeBytes()).isEqualTo(10);
+            assertThat(entry.cost()).isEqualTo(Duration.ofMinutes(5));
+        });
+    }
+
+    @Test
+    void touch_shouldRecordCostsAndLeaveSizesToNextScan(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path jarRoot = tempDirectory.resolve("jars");
+        final Path jarEntry = createEntry(jarRoot, "key", 10, Duration.ofDays(1));
+        final Path indexDirectory = tempDirectory.resolve("index");
+        final CacheManager first =
+            CacheManager.open(indexDirectory, Map.of("jar", jarRoot), 0, new SystemStreamLog());
+        first.scan();
+        Files.write(jarEntry.resolve("data.bin"), new byte[20]);
+        first.recordCost(jarEntry, Duration.ofMinutes(5));
+
+        // execute
+        first.touch(List.of(jarEntry));
+        final List<CacheManager.Entry> entries =
+            CacheManager.open(indexDirectory, Map.of(), 0, new SystemStreamLog()).scan();
+
+        // verify
+        assertThat(entries).singleElement().satisfies(entry ->
+        {
+            assertThat(entry.sizeBytes()).isEqualTo(20);
+            assertThat(entry.cost()).isEqualTo(Duration.ofMinutes(5));
+        });
+    }
+
+    @Test
+    void evictionScore_shouldDivideIdleTimeByCostInMinutes()
+    {
+        // setup
+        final Instant now = Instant.parse("2026-01-02T00:00:00Z");
+        final CacheManager.Entry entry = new CacheManager.Entry(
+            "jar", Path.of("entry"), 0, now.minus(Duration.ofMinutes(30)), Duration.ofMinutes(2));
+
+        // execute + verify
+        assertThat(entry.evictionScore(now)).isEqualTo(Duration.ofMinutes(10).toMillis());
+    }
+
+    private static Path createEntry(Path root, String name, int sizeBytes, Duration idle)
+        throws Exception
+    {
+        final Path directory = Files.createDirectories(root.resolve(name));
+        Files.write(directory.resolve("data.bin"), new byte[sizeBytes]);
+        Files.setLastModifiedTime(directory, FileTime.from(Instant.now().minus(idle)));
+        return directory;
+    }
+}
@@ -0,0 +1,174 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentStoreTest
+{
+    @Test
+    void install_shouldStoreIdenticalContentOnceAndLinkEveryTarget(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final Path firstSource = Files.writeString(tempDirectory.resolve("first.jar"), "plugin");
+        final Path secondSource = Files.writeString(tempDirectory.resolve("second.jar"), "plugin");
+        final Path firstTarget = tempDirectory.resolve("server-a.jar");
+        final Path secondTarget = tempDirectory.resolve("server-b.jar");
+
+        // execute
+        final boolean firstLinked = contentStore.install(firstSource, firstTarget);
+        final boolean secondLinked = contentStore.install(secondSource, secondTarget);
+
+        // verify
+        assertThat(firstLinked).isTrue();
+        assertThat(secondLinked).isTrue();
+        assertThat(Files.isSameFile(firstTarget, secondTarget)).isTrue();
+        assertThat(Files.isSameFile(firstTarget, contentStore.objectPath(HashUtil.sha256("plugin")))).isTrue();
+        try (Stream<Path> objects = Files.walk(contentStore.root().resolve("sha256")))
+        {
+            assertThat(objects.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void sha256_shouldTrustIndexedHashWhileSizeAndModificationTimeAreUnchanged(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path storeRoot = tempDirectory.resolve("cas");
+        final Path file = Files.writeString(tempDirectory.resolve("plugin.jar"), "aaaa");
+        final FileTime modified = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(file, modified);
+        final ContentStore firstRun = ContentStore.open(storeRoot);
+        final String indexedHash = firstRun.sha256(file);
+        firstRun.saveIndex();
+        Files.writeString(file, "bbbb");
+        Files.setLastModifiedTime(file, modified);
+
+        // execute
+        final ContentStore secondRun = ContentStore.open(storeRoot);
+        final String unchangedHash = secondRun.sha256(file);
+        Files.setLastModifiedTime(file, FileTime.from(modified.toInstant().plusSeconds(1)));
+        final String changedHash = secondRun.sha256(file);
+
+        // verify
+        assertThat(unchangedHash).isEqualTo(indexedHash).isEqualTo(HashUtil.sha256("aaaa"));
+        assertThat(changedHash).isEqualTo(HashUtil.sha256("bbbb"));
+    }
+
+    @Test
+    void sha256_shouldRehashFileReplacedWithSameSizeAndModificationTime(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final FileTime modified = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        final Path file = Files.writeString(tempDirectory.resolve("plugin.jar"), "aaaa");
+        Files.setLastModifiedTime(file, modified);
+        contentStore.sha256(file);
+        final Path replacement = Files.writeString(tempDirectory.resolve("plugin.jar.tmp"), "bbbb");
+        Files.setLastModifiedTime(replacement, modified);
+
+        // execute
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        final String hash = contentStore.sha256(file);
+
+        // verify
+        assertThat(hash).isEqualTo(HashUtil.sha256("bbbb"));
+    }
+
+    @Test
+    void sha256_shouldRehashAndCountStaleEntriesWhenVerifyingIndex(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path storeRoot = tempDirectory.resolve("cas");
+        final FileTime modified = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        final Path stale = Files.writeString(tempDirectory.resolve("stale.jar"), "aaaa");
+        final Path current = Files.writeString(tempDirectory.resolve("current.jar"), "cccc");
+        Files.setLastModifiedTime(stale, modified);
+        Files.setLastModifiedTime(current, modified);
+        final ContentStore firstRun = ContentStore.open(storeRoot);
+        firstRun.sha256(stale);
+        firstRun.sha256(current);
+        firstRun.saveIndex();
+        Files.writeString(stale, "bbbb");
+        Files.setLastModifiedTime(stale, modified);
+
+        // execute
+        final ContentStore verifyingRun = ContentStore.open(storeRoot, true);
+        final String staleHash = verifyingRun.sha256(stale);
+        final String currentHash = verifyingRun.sha256(current);
+
+        // verify
+        assertThat(staleHash).isEqualTo(HashUtil.sha256("bbbb"));
+        assertThat(currentHash).isEqualTo(HashUtil.sha256("cccc"));
+        assertThat(verifyingRun.staleIndexEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void saveIndex_shouldSkipRecentlyModifiedFiles(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory.resolve("cas"));
+        final Path file = Files.writeString(tempDirectory.resolve("plugin.jar"), "fresh");
+        contentStore.sha256(file);
+
+        // execute
+        contentStore.saveIndex();
+
+        // verify
+        assertThat(contentStore.root().resolve("index.tsv")).isEmptyFile();
+    }
+
+    @Test
+    void install_shouldCopyWhenFilesystemCannotLink()
+        throws Exception
+    {
+        // setup
+        try (FileSystem fileSystem = Jimfs.newFileSystem(
+            Configuration.unix().toBuilder().setSupportedFeatures().build()))
+        {
+            final ContentStore contentStore = ContentStore.open(fileSystem.getPath("/cas"));
+            final Path source = Files.writeString(fileSystem.getPath("/plugin.jar"), "plugin");
+            final Path target = fileSystem.getPath("/server.jar");
+
+            // execute
+            final boolean linked = contentStore.install(source, target);
+
+            // verify
+            assertThat(linked).isFalse();
+            assertThat(target).hasContent("plugin");
+            assertThat(contentStore.objectPath(HashUtil.sha256("plugin"))).hasContent("plugin");
+        }
+    }
+
+    @Test
+    void objectPath_shouldRejectValueThatIsNotSha256(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final ContentStore contentStore = ContentStore.open(tempDirectory);
+
+        // execute + verify
+        assertThatThrownBy(() -> contentStore.objectPath("../escape"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("is not a lowercase hex SHA-256");
+    }
+}
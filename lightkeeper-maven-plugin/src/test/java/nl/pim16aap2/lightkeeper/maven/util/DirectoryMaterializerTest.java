@@ -0,0 +1,86 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DirectoryMaterializerTest
+{
+    @Test
+    void materialize_shouldLinkNeverWrittenFilesAndCopyTheRest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path source = tempDirectory.resolve("base");
+        final Path target = tempDirectory.resolve("target");
+        Files.createDirectories(source.resolve("libraries/nested"));
+        Files.createDirectories(source.resolve("world"));
+        Files.writeString(source.resolve("server.jar"), "server");
+        Files.writeString(source.resolve("libraries/nested/lib.jar"), "library");
+        Files.writeString(source.resolve("world/level.dat"), "level");
+
+        // execute
+        final DirectoryMaterializer.Result result = DirectoryMaterializer.materialize(
+            source, target, relative -> relative.toString().endsWith(".jar"));
+
+        // verify
+        assertThat(result.strategy()).isEqualTo(DirectoryMaterializer.Strategy.HARDLINK);
+        assertThat(result.linkedFiles()).isEqualTo(2);
+        assertThat(result.copiedFiles()).isEqualTo(1);
+        assertThat(result.copiedBytes()).isEqualTo(5L);
+        assertThat(Files.isSameFile(source.resolve("server.jar"), target.resolve("server.jar"))).isTrue();
+        assertThat(target.resolve("libraries/nested/lib.jar")).hasContent("library");
+        Files.writeString(target.resolve("world/level.dat"), "changed");
+        assertThat(source.resolve("world/level.dat")).hasContent("level");
+    }
+
+    @Test
+    void materialize_shouldCopyEverythingWhenFilesystemCannotLink()
+        throws Exception
+    {
+        // setup
+        try (FileSystem fileSystem = Jimfs.newFileSystem(
+            Configuration.unix().toBuilder().setSupportedFeatures().build()))
+        {
+            final Path source = fileSystem.getPath("/base");
+            final Path target = fileSystem.getPath("/target");
+            Files.createDirectories(source);
+            Files.writeString(source.resolve("server.jar"), "server");
+            Files.writeString(source.resolve("server.properties"), "port");
+
+            // execute
+            final DirectoryMaterializer.Result result = DirectoryMaterializer.materialize(
+                source, target, relative -> relative.toString().endsWith(".jar"));
+
+            // verify
+            assertThat(result.strategy()).isEqualTo(DirectoryMaterializer.Strategy.COPY);
+            assertThat(result.linkedFiles()).isZero();
+            assertThat(result.copiedFiles()).isEqualTo(2);
+            assertThat(target.resolve("server.jar")).hasContent("server");
+            assertThat(target.resolve("server.properties")).hasContent("port");
+        }
+    }
+
+    @Test
+    void materialize_shouldThrowExceptionWhenSourceIsNotDirectory(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path sourceFile = Files.writeString(tempDirectory.resolve("source.txt"), "content");
+        final Path target = tempDirectory.resolve("target");
+
+        // execute + verify
+        assertThatThrownBy(() -> DirectoryMaterializer.materialize(sourceFile, target, path -> true))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("is not a directory");
+    }
+}
@@ -0,0 +1,119 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DirectorySyncTest
+{
+    @Test
+    void apply_shouldRestoreChangedFilesAndDeleteExtraFilesOnly(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path base = tempDirectory.resolve("base");
+        final Path target = tempDirectory.resolve("target");
+        Files.createDirectories(base.resolve("libraries"));
+        Files.writeString(base.resolve("server.properties"), "motd=base");
+        Files.writeString(base.resolve("libraries/lib.jar"), "library");
+        desiredState(base).apply(target);
+        Files.writeString(target.resolve("server.properties"), "motd=changed-by-server");
+        Files.createDirectories(target.resolve("logs"));
+        Files.writeString(target.resolve("logs/latest.log"), "log");
+
+        // execute
+        final DirectorySync.Result result = desiredState(base).apply(target);
+
+        // verify
+        assertThat(result.unchangedFiles()).isEqualTo(1);
+        assertThat(result.rehashedFiles()).isEqualTo(1);
+        assertThat(result.writtenFiles()).isEqualTo(1);
+        assertThat(result.deletedFiles()).isEqualTo(1);
+        assertThat(target.resolve("server.properties")).hasContent("motd=base");
+        assertThat(target.resolve("logs")).doesNotExist();
+        assertThat(Files.isSameFile(base.resolve("libraries/lib.jar"), target.resolve("libraries/lib.jar"))).isTrue();
+        assertThat(DirectorySync.manifestFile(target)).isRegularFile();
+    }
+
+    @Test
+    void apply_shouldRewriteUnchangedTargetFileWhenItsSourceChanged(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path base = tempDirectory.resolve("base");
+        final Path target = tempDirectory.resolve("target");
+        Files.createDirectories(base);
+        Files.writeString(base.resolve("plugin.jar"), "version-1");
+        final DirectorySync firstRun = new DirectorySync(null);
+        firstRun.addFile("plugins/plugin.jar", base.resolve("plugin.jar"), false);
+        firstRun.apply(target);
+        Files.writeString(base.resolve("plugin.jar"), "version-2");
+
+        // execute
+        final DirectorySync secondRun = new DirectorySync(null);
+        secondRun.addFile("plugins/plugin.jar", base.resolve("plugin.jar"), false);
+        final DirectorySync.Result result = secondRun.apply(target);
+
+        // verify
+        assertThat(result.unchangedFiles()).isZero();
+        assertThat(result.writtenFiles()).isEqualTo(1);
+        assertThat(target.resolve("plugins/plugin.jar")).hasContent("version-2");
+    }
+
+    @Test
+    void removeDirectory_shouldLetLaterTreeReplaceBaseDirectory(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path base = tempDirectory.resolve("base");
+        final Path world = tempDirectory.resolve("fixture-world");
+        final Path target = tempDirectory.resolve("target");
+        Files.createDirectories(base.resolve("world/region"));
+        Files.writeString(base.resolve("world/level.dat"), "generated");
+        Files.writeString(base.resolve("world/region/r.0.0.mca"), "region");
+        Files.createDirectories(world);
+        Files.writeString(world.resolve("level.dat"), "fixture");
+        final DirectorySync desiredState = desiredState(base);
+
+        // execute
+        desiredState.removeDirectory("world");
+        desiredState.addTree(world, "world", relative -> false);
+        desiredState.apply(target);
+
+        // verify
+        assertThat(target.resolve("world/level.dat")).hasContent("fixture");
+        assertThat(target.resolve("world/region")).doesNotExist();
+        assertThat(desiredState.containsDirectory("world")).isTrue();
+        assertThat(desiredState.containsDirectory("world/region")).isFalse();
+    }
+
+    @Test
+    void addTree_shouldRejectSymbolicLinks(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final Path overlay = Files.createDirectories(tempDirectory.resolve("overlay"));
+        final Path outside = Files.writeString(tempDirectory.resolve("secret.txt"), "secret");
+        Files.createSymbolicLink(overlay.resolve("link.txt"), outside);
+        final DirectorySync desiredState = new DirectorySync(null);
+
+        // execute + verify
+        assertThatThrownBy(() -> desiredState.addTree(overlay, "", relative -> false))
+            .isInstanceOf(MojoExecutionException.class)
+            .hasMessageContaining("Failed to read source tree");
+    }
+
+    private static DirectorySync desiredState(Path base)
+        throws Exception
+    {
+        final DirectorySync desiredState = new DirectorySync(null);
+        desiredState.addTree(base, "", relative -> relative.toString().endsWith(".jar"));
+        return desiredState;
+    }
+}
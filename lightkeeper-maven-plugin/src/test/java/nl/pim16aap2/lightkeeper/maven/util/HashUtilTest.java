@@ -3,15 +3,20 @@ package nl.pim16aap2.lightkeeper.maven.util;
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -49,6 +54,62 @@ class HashUtilTest
         }
     }
 
+    @Test
+    void sha256_shouldHashLargeFileThroughMappedChunksLikeStream(@TempDir Path tempDirectory)
+        throws IOException, MojoExecutionException
+    {
+        // setup
+        final byte[] content = new byte[(int) HashUtil.MAPPED_READ_THRESHOLD * 3 + 17];
+        new Random(42).nextBytes(content);
+        final Path file = Files.write(tempDirectory.resolve("large.jar"), content);
+
+        // execute
+        final String hash = HashUtil.sha256(file);
+
+        // verify
+        assertThat(hash).isEqualTo(HashUtil.sha256(content));
+    }
+
+    @Test
+    void hashMapped_shouldHashFileSpanningSeveralChunksAndPartialLastChunkLikeStream(@TempDir Path tempDirectory)
+        throws IOException, MojoExecutionException
+    {
+        // setup
+        final int chunkSize = 4_096;
+        final byte[] content = new byte[chunkSize * 3 + 17];
+        new Random(11).nextBytes(content);
+        final Path file = Files.write(tempDirectory.resolve("chunked.jar"), content);
+
+        // execute
+        final @Nullable String hash;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            hash = HashUtil.hashMapped(channel, channel.size(), "SHA-256", chunkSize);
+        }
+
+        // verify
+        assertThat(hash).isEqualTo(HashUtil.sha256(new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    void sha256_shouldHashLargeFileOnFilesystemWithoutMapping()
+        throws IOException, MojoExecutionException
+    {
+        // setup
+        final byte[] content = new byte[(int) HashUtil.MAPPED_READ_THRESHOLD + 1];
+        new Random(7).nextBytes(content);
+        try (FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix()))
+        {
+            final Path file = Files.write(fileSystem.getPath("large.jar"), content);
+
+            // execute
+            final String hash = HashUtil.sha256(file);
+
+            // verify
+            assertThat(hash).isEqualTo(HashUtil.sha256(content));
+        }
+    }
+
     @Test
     void sha256_shouldThrowExceptionWhenFileDoesNotExist()
     {
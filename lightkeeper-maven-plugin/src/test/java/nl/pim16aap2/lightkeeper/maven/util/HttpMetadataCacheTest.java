@@ -0,0 +1,155 @@
+package nl.pim16aap2.lightkeeper.maven.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpMetadataCacheTest
+{
+    private static final String ETAG = "\"builds-v1\"";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+    private final HttpServer server = startServer(receivedIfNoneMatch);
+
+    private static HttpServer startServer(List<String> receivedIfNoneMatch)
+    {
+        final HttpServer server;
+        try
+        {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        }
+        catch (IOException exception)
+        {
+            throw new UncheckedIOException(exception);
+        }
+        server.createContext("/builds", exchange -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedIfNoneMatch.add(String.valueOf(ifNoneMatch));
+            if (ETAG.equals(ifNoneMatch))
+            {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            final byte[] body = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            receivedIfNoneMatch.add("missing");
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    @AfterEach
+    void stopServer()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    void get_shouldServeFreshResponseWithoutRequest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final HttpMetadataCache cache = HttpMetadataCache.open(tempDirectory, Duration.ofHours(1), false);
+        cache.get(httpClient, request("/builds"));
+
+        // execute
+        final HttpMetadataCache.Response response = cache.get(httpClient, request("/builds"));
+
+        // verify
+        assertThat(response.source()).isEqualTo(HttpMetadataCache.Source.CACHE);
+        assertThat(response.body()).isEqualTo("[{\"id\":1}]");
+        assertThat(receivedIfNoneMatch).hasSize(1);
+        assertThat(cache.describeStatistics()).isEqualTo("1 hit(s), 0 revalidated, 1 miss(es)");
+    }
+
+    @Test
+    void get_shouldRevalidateExpiredResponseWithConditionalRequest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        HttpMetadataCache.open(tempDirectory, Duration.ZERO, false).get(httpClient, request("/builds"));
+        final HttpMetadataCache cache = HttpMetadataCache.open(tempDirectory, Duration.ZERO, false);
+
+        // execute
+        final HttpMetadataCache.Response response = cache.get(httpClient, request("/builds"));
+
+        // verify
+        assertThat(response.source()).isEqualTo(HttpMetadataCache.Source.REVALIDATED);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("[{\"id\":1}]");
+        assertThat(receivedIfNoneMatch).containsExactly("null", ETAG);
+    }
+
+    @Test
+    void get_shouldServeStaleResponseOfflineAndFailForUncachedRequest(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        HttpMetadataCache.open(tempDirectory, Duration.ZERO, false).get(httpClient, request("/builds"));
+        final HttpMetadataCache cache = HttpMetadataCache.open(tempDirectory, Duration.ZERO, true);
+        final HttpRequest cachedRequest = request("/builds");
+        final HttpRequest uncachedRequest = request("/other");
+        server.stop(0);
+
+        // execute
+        final HttpMetadataCache.Response response = cache.get(httpClient, cachedRequest);
+
+        // verify
+        assertThat(response.source()).isEqualTo(HttpMetadataCache.Source.CACHE);
+        assertThat(response.body()).isEqualTo("[{\"id\":1}]");
+        assertThatThrownBy(() -> cache.get(httpClient, uncachedRequest))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Offline mode is enabled");
+    }
+
+    @Test
+    void get_shouldNotCacheUnsuccessfulResponse(@TempDir Path tempDirectory)
+        throws Exception
+    {
+        // setup
+        final HttpMetadataCache cache = HttpMetadataCache.open(tempDirectory, Duration.ofHours(1), false);
+
+        // execute
+        final HttpMetadataCache.Response first = cache.get(httpClient, request("/missing"));
+        final HttpMetadataCache.Response second = cache.get(httpClient, request("/missing"));
+
+        // verify
+        assertThat(first.statusCode()).isEqualTo(404);
+        assertThat(second.statusCode()).isEqualTo(404);
+        assertThat(receivedIfNoneMatch).hasSize(2);
+    }
+
+    private HttpRequest request(String path)
+    {
+        return HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:%d%s".formatted(server.getAddress().getPort(), path)))
+            .GET()
+            .build();
+    }
+}
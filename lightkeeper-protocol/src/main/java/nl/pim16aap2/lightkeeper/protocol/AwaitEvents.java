@@ -0,0 +1,159 @@
+package nl.pim16aap2.lightkeeper.protocol;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocks on the agent until enough matching events of a captured class have fired, or a deadline passes.
+ *
+ * <p>The agent wakes the waiting request from the capture path itself, so the latency from the matching event
+ * to the response is a single round trip instead of a client-side poll loop.
+ */
+public final class AwaitEvents
+{
+    private AwaitEvents()
+    {
+    }
+
+    /**
+     * Command record for {@code AWAIT_EVENTS}.
+     *
+     * <p>The capture listener for {@code eventClassName} must already be registered. Events captured before the
+     * command arrived count towards {@code minCount}, so a test can fire the action first and await afterwards
+     * without racing the event.
+     *
+     * @param requestId
+     *     Correlation identifier matching the response's {@code requestId}.
+     * @param eventClassName
+     *     Fully-qualified class name of the captured Bukkit event to await.
+     * @param minCount
+     *     Number of matching captured events required; must be positive.
+     * @param filters
+     *     Filters every counted event must satisfy (all of them); empty counts every captured event.
+     * @param timeoutMillis
+     *     Wall-clock deadline for the wait; must be positive. The agent clamps it to its own synchronous
+     *     operation timeout.
+     * @param timeoutTicks
+     *     Optional server-tick deadline; {@code 0} disables it. Whichever deadline passes first ends the wait.
+     */
+    public record Command(
+        String requestId,
+        String eventClassName,
+        int minCount,
+        List<Filter> filters,
+        long timeoutMillis,
+        int timeoutTicks
+    ) implements IAgentCommand<Response>
+    {
+        /**
+         * Validates command inputs and defensively copies the filters.
+         */
+        public Command
+        {
+            ProtocolPreconditions.requireNonBlank(requestId, "requestId");
+            ProtocolPreconditions.requireNonBlank(eventClassName, "eventClassName");
+            if (minCount <= 0)
+                throw new IllegalArgumentException("'minCount' must be positive.");
+            if (timeoutMillis <= 0L)
+                throw new IllegalArgumentException("'timeoutMillis' must be positive.");
+            ProtocolPreconditions.requireNonNegative(timeoutTicks, "timeoutTicks");
+            filters = filters == null ? List.of() : List.copyOf(filters);
+        }
+
+        @Override
+        public Class<Response> responseType()
+        {
+            return Response.class;
+        }
+    }
+
+    /**
+     * An equality filter on one captured value.
+     *
+     * <p>The accessor path is a dot-separated walk into nested {@link IProtocolValue.PRecord records}, e.g.
+     * {@code getBlock.getType}. The value found at the path matches when its match text equals
+     * {@code expected}: a {@link IProtocolValue.PRef reference} matches on its id (entity UUID, world name),
+     * an {@link IProtocolValue.PEnum enum} on its constant name, and every other value on its
+     * {@link IProtocolValue#toDisplayString() display string}.
+     *
+     * @param accessorPath
+     *     Dot-separated accessor path into the captured values.
+     * @param expected
+     *     The match text the value must equal.
+     */
+    public record Filter(
+        String accessorPath,
+        String expected
+    )
+    {
+        /**
+         * Validates the fields.
+         */
+        public Filter
+        {
+            ProtocolPreconditions.requireNonBlank(accessorPath, "accessorPath");
+            ProtocolPreconditions.requireNonNull(expected, "expected");
+        }
+
+        /**
+         * Tests whether a captured event's values satisfy this filter.
+         *
+         * @param values
+         *     The captured event's top-level values.
+         * @return {@code true} when the value at {@link #accessorPath()} exists and its match text equals
+         *     {@link #expected()}.
+         */
+        public boolean matches(Map<String, IProtocolValue> values)
+        {
+            @Nullable Map<String, IProtocolValue> fields = values;
+            @Nullable IProtocolValue current = null;
+            for (final String segment : accessorPath.split("\\."))
+            {
+                if (fields == null)
+                    return false;
+                current = fields.get(segment);
+                if (current == null)
+                    return false;
+                fields = current instanceof IProtocolValue.PRecord record ? record.fields() : null;
+            }
+            return current != null && expected.equals(matchText(current));
+        }
+
+        private static String matchText(IProtocolValue value)
+        {
+            return switch (value)
+            {
+                case IProtocolValue.PRef ref -> ref.id();
+                case IProtocolValue.PEnum enumValue -> enumValue.name();
+                default -> value.toDisplayString();
+            };
+        }
+    }
+
+    /**
+     * Response record for {@code AWAIT_EVENTS}.
+     *
+     * @param satisfied
+     *     Whether {@code minCount} matching events were captured before the deadline.
+     * @param tick
+     *     The server tick at which the wait ended.
+     * @param events
+     *     The matching captured events, oldest first; on a timeout, the matches seen so far.
+     */
+    public record Response(
+        boolean satisfied,
+        long tick,
+        List<GetCapturedEvents.CapturedEvent> events
+    ) implements IAgentResponse
+    {
+        /**
+         * Defensively copies the event list.
+         */
+        public Response
+        {
+            events = events == null ? List.of() : List.copyOf(events);
+        }
+    }
+}
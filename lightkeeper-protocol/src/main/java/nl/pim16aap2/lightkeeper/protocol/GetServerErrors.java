@@ -43,8 +43,9 @@ public final class GetServerErrors
      * @param errors
      *     Captured error entries ordered oldest-to-newest.
      * @param droppedCount
-     *     Number of entries discarded because the agent-side capture buffer was full. The buffer keeps the
-     *     oldest entries, so the retained entries always include the first (root-cause) errors.
+     *     Number of occurrences discarded because the agent-side capture buffer was full of distinct errors.
+     *     Repeats of an already-captured error are counted on its entry instead. The buffer keeps the oldest
+     *     entries, so the retained entries always include the first (root-cause) errors.
      * @param captureActive
      *     Whether the agent's log appender is attached. {@code false} means structured capture is unavailable
      *     on this server and the entry list is not authoritative.
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "action")
 @JsonSubTypes(
     {
+        @JsonSubTypes.Type(value = AwaitEvents.Command.class, name = "AWAIT_EVENTS"),
         @JsonSubTypes.Type(value = BlockType.Command.class, name = "BLOCK_TYPE"),
         @JsonSubTypes.Type(value = CancelNextEvents.Command.class, name = "CANCEL_NEXT_EVENTS"),
         @JsonSubTypes.Type(value = ClearCapturedEvents.Command.class, name = "CLEAR_CAPTURED_EVENTS"),
@@ -55,17 +56,21 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
         @JsonSubTypes.Type(value = QueryEntities.Command.class, name = "QUERY_ENTITIES"),
         @JsonSubTypes.Type(value = RegisterEventListener.Command.class, name = "REGISTER_EVENT_LISTENER"),
         @JsonSubTypes.Type(value = RemovePlayer.Command.class, name = "REMOVE_PLAYER"),
+        @JsonSubTypes.Type(value = RestoreRegion.Command.class, name = "RESTORE_REGION"),
         @JsonSubTypes.Type(value = RightClickBlock.Command.class, name = "RIGHT_CLICK_BLOCK"),
         @JsonSubTypes.Type(value = SetBlock.Command.class, name = "SET_BLOCK"),
+        @JsonSubTypes.Type(value = SnapshotRegion.Command.class, name = "SNAPSHOT_REGION"),
         @JsonSubTypes.Type(value = TabCompletePlayer.Command.class, name = "TAB_COMPLETE_PLAYER"),
         @JsonSubTypes.Type(value = TeleportPlayer.Command.class, name = "TELEPORT_PLAYER"),
         @JsonSubTypes.Type(value = UnloadChunk.Command.class, name = "UNLOAD_CHUNK"),
+        @JsonSubTypes.Type(value = UnloadWorld.Command.class, name = "UNLOAD_WORLD"),
         @JsonSubTypes.Type(value = UnregisterEventListener.Command.class, name = "UNREGISTER_EVENT_LISTENER"),
         @JsonSubTypes.Type(value = WaitTicks.Command.class, name = "WAIT_TICKS"),
     }
 )
 public sealed interface IAgentCommand<R extends IAgentResponse>
     permits
+    AwaitEvents.Command,
     BlockType.Command,
     CancelNextEvents.Command,
     ClearCapturedEvents.Command,
@@ -98,11 +103,14 @@ public sealed interface IAgentCommand<R extends IAgentResponse>
     QueryEntities.Command,
     RegisterEventListener.Command,
     RemovePlayer.Command,
+    RestoreRegion.Command,
     RightClickBlock.Command,
     SetBlock.Command,
+    SnapshotRegion.Command,
     TabCompletePlayer.Command,
     TeleportPlayer.Command,
     UnloadChunk.Command,
+    UnloadWorld.Command,
     UnregisterEventListener.Command,
     WaitTicks.Command
 {
@@ -13,6 +13,7 @@ package nl.pim16aap2.lightkeeper.protocol;
  */
 public sealed interface IAgentResponse
     permits
+    AwaitEvents.Response,
     BlockType.Response,
     CancelNextEvents.Response,
     ClearCapturedEvents.Response,
@@ -45,11 +46,14 @@ public sealed interface IAgentResponse
     QueryEntities.Response,
     RegisterEventListener.Response,
     RemovePlayer.Response,
+    RestoreRegion.Response,
     RightClickBlock.Response,
     SetBlock.Response,
+    SnapshotRegion.Response,
     TabCompletePlayer.Response,
     TeleportPlayer.Response,
     UnloadChunk.Response,
+    UnloadWorld.Response,
     UnregisterEventListener.Response,
     WaitTicks.Response
 {
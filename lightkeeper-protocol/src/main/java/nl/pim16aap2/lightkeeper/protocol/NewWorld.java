@@ -1,5 +1,7 @@
 package nl.pim16aap2.lightkeeper.protocol;
 
+import org.jspecify.annotations.Nullable;
+
 /**
  * Creates a new world on the server.
  */
@@ -17,18 +19,23 @@ public final class NewWorld
      * @param worldName
      *     Unique name for the new world.
      * @param worldType
-     *     World generator type; corresponds to the {@code WorldType} enum name (e.g. {@code FLAT} or {@code NORMAL}).
+     *     World generator type; a Bukkit {@code WorldType} enum name (e.g. {@code FLAT} or {@code NORMAL}), or one of
+     *     the agent-provided generators {@code VOID}, {@code BEDROCK} and {@code LAYERS}.
      * @param environment
      *     Bukkit {@code World.Environment} enum name (e.g. {@code NORMAL}, {@code NETHER}, {@code THE_END}).
      * @param seed
      *     World generation seed.
+     * @param generatorLayers
+     *     Layer stack for the {@code LAYERS} world type, in the vanilla superflat format from bottom to top (e.g.
+     *     {@code minecraft:bedrock,2*minecraft:dirt,minecraft:grass_block}); {@code null} for other world types.
      */
     public record Command(
         String requestId,
         String worldName,
         String worldType,
         String environment,
-        long seed
+        long seed,
+        @Nullable String generatorLayers
     ) implements IAgentCommand<Response>
     {
         /**
@@ -2,6 +2,9 @@ package nl.pim16aap2.lightkeeper.protocol;
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.List;
+import java.util.regex.Pattern;
+
 /**
  * Validation helpers for protocol command compact constructors.
  *
@@ -21,6 +24,12 @@ import org.jspecify.annotations.Nullable;
  */
 public final class ProtocolPreconditions
 {
+    /**
+     * A dot-separated chain of Java identifiers, e.g. {@code getPlayer.getName}.
+     */
+    private static final Pattern ACCESSOR_PATH =
+        Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*");
+
     private ProtocolPreconditions()
     {
     }
@@ -98,4 +107,28 @@ public final class ProtocolPreconditions
             throw new IllegalArgumentException("'%s' must be a finite number, got: %s".formatted(name, value));
         return value;
     }
+
+    /**
+     * Requires that every entry of an optional list is a dot-separated accessor path, and copies the list.
+     *
+     * @param paths
+     *     The paths to check; {@code null} is treated as an empty list.
+     * @param name
+     *     Field name used in the failure message.
+     * @return An immutable copy of the validated paths.
+     * @throws IllegalArgumentException
+     *     When an entry is {@code null} or not a dot-separated chain of identifiers.
+     */
+    public static List<String> requireAccessorPaths(@Nullable List<String> paths, String name)
+    {
+        if (paths == null)
+            return List.of();
+        for (final String path : paths)
+        {
+            if (path == null || !ACCESSOR_PATH.matcher(path).matches())
+                throw new IllegalArgumentException(
+                    "'%s' entries must be dot-separated accessor paths, got: %s".formatted(name, path));
+        }
+        return List.copyOf(paths);
+    }
 }
@@ -2,7 +2,10 @@ package nl.pim16aap2.lightkeeper.protocol;
 
 import org.jspecify.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -40,6 +43,9 @@ public final class QueryEntities
      * @param countOnly
      *     When {@code true} the response carries only the count, skipping the per-entity payloads — the cheap
      *     probe shape for retrying assertions.
+     * @param projection
+     *     Accessor paths (e.g. {@code getLocation.getBlockY}) to additionally encode per entity into
+     *     {@link EntityData#projected()}; empty skips the generic encoding entirely.
      */
     public record Command(
         String requestId,
@@ -52,16 +58,18 @@ public final class QueryEntities
         int maxX,
         int maxY,
         int maxZ,
-        boolean countOnly
+        boolean countOnly,
+        List<String> projection
     ) implements IAgentCommand<Response>
     {
         /**
-         * Validates command inputs.
+         * Validates command inputs and defensively copies the projection.
          */
         public Command
         {
             ProtocolPreconditions.requireNonBlank(requestId, "requestId");
             ProtocolPreconditions.requireNonBlank(worldName, "worldName");
+            projection = ProtocolPreconditions.requireAccessorPaths(projection, "projection");
             if (entityTypeKey != null && entityTypeKey.isBlank())
                 throw new IllegalArgumentException("'entityTypeKey' must not be blank when present.");
             if (bounded && (minX > maxX || minY > maxY || minZ > maxZ))
@@ -94,6 +102,8 @@ public final class QueryEntities
      *     Namespaced keys present in the entity's persistent data container.
      * @param transform
      *     The display transformation for display entities, or {@code null} for all other entities.
+     * @param projected
+     *     The command's projected accessor paths, nested as records along each path; empty without a projection.
      */
     public record EntityData(
         UUID uuid,
@@ -103,7 +113,8 @@ public final class QueryEntities
         double z,
         @Nullable String customName,
         List<String> pdcKeys,
-        @Nullable TransformData transform
+        @Nullable TransformData transform,
+        Map<String, IProtocolValue> projected
     )
     {
         /**
@@ -114,6 +125,10 @@ public final class QueryEntities
             ProtocolPreconditions.requireNonNull(uuid, "uuid");
             ProtocolPreconditions.requireNonBlank(typeKey, "typeKey");
             pdcKeys = pdcKeys == null ? List.of() : List.copyOf(pdcKeys);
+            // Map.copyOf would discard the projection order; an unmodifiable LinkedHashMap copy keeps it.
+            projected = projected == null
+                ? Map.of()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(projected));
         }
     }
 
@@ -1,5 +1,7 @@
 package nl.pim16aap2.lightkeeper.protocol;
 
+import java.util.List;
+
 /**
  * Registers a dynamic Bukkit event listener that captures events of the given class.
  */
@@ -16,14 +18,18 @@ public final class RegisterEventListener
      *     Correlation identifier matching the response's {@code requestId}.
      * @param eventClassName
      *     Fully-qualified class name of the Bukkit event to listen for.
+     * @param projection
+     *     Accessor paths (e.g. {@code getPlayer.getName}) to capture; empty captures the full bounded accessor
+     *     walk. A projected event carries only the requested paths, nested as records along each path.
      */
     public record Command(
         String requestId,
-        String eventClassName
+        String eventClassName,
+        List<String> projection
     ) implements IAgentCommand<Response>
     {
         /**
-         * Validates command inputs.
+         * Validates command inputs and defensively copies the projection.
          */
         public Command
         {
@@ -32,6 +38,7 @@ public final class RegisterEventListener
             if (!eventClassName.matches("[A-Za-z_$][A-Za-z0-9_$]*(\\.[A-Za-z_$][A-Za-z0-9_$]*)*"))
                 throw new IllegalArgumentException(
                     "'eventClassName' must be a fully-qualified class name, got: " + eventClassName);
+            projection = ProtocolPreconditions.requireAccessorPaths(projection, "projection");
         }
 
         @Override
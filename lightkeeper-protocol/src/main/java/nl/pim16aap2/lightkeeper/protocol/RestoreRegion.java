@@ -0,0 +1,64 @@
+package nl.pim16aap2.lightkeeper.protocol;
+
+/**
+ * Rolls a box back to a snapshot taken by {@link SnapshotRegion} and releases the snapshot.
+ *
+ * <p>Only blocks that differ from the snapshot are written, in batches bounded per server tick, so restoring a large
+ * area spreads over a few ticks instead of stalling one.
+ */
+public final class RestoreRegion
+{
+    private RestoreRegion()
+    {
+    }
+
+    /**
+     * Command record for {@code RESTORE_REGION}.
+     *
+     * @param requestId
+     *     Correlation identifier matching the response's {@code requestId}.
+     * @param snapshotId
+     *     Identifier returned by {@link SnapshotRegion}; a snapshot can be restored once.
+     */
+    public record Command(
+        String requestId,
+        String snapshotId
+    ) implements IAgentCommand<Response>
+    {
+        /**
+         * Validates command inputs.
+         */
+        public Command
+        {
+            ProtocolPreconditions.requireNonBlank(requestId, "requestId");
+            ProtocolPreconditions.requireNonBlank(snapshotId, "snapshotId");
+        }
+
+        @Override
+        public Class<Response> responseType()
+        {
+            return Response.class;
+        }
+    }
+
+    /**
+     * Response record for {@code RESTORE_REGION}.
+     *
+     * @param changedBlocks
+     *     Number of blocks that differed from the snapshot and were rewritten.
+     * @param restoredTileStates
+     *     Number of tile states written back.
+     * @param restoredEntities
+     *     Number of entities respawned from the snapshot after the entities in the box were removed.
+     * @param batches
+     *     Number of main-thread batches, and therefore server ticks, the block writes took.
+     */
+    public record Response(
+        int changedBlocks,
+        int restoredTileStates,
+        int restoredEntities,
+        int batches
+    ) implements IAgentResponse
+    {
+    }
+}
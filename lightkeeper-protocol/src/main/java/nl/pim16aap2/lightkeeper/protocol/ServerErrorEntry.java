@@ -10,8 +10,11 @@ import java.util.List;
  * <p>Entries are captured by the agent's Log4j appender as structured log events, so the throwable metadata
  * reflects the actual {@code Throwable} attached to the log event rather than text scraped from console output.
  *
+ * <p>Repeated occurrences of the same error are folded into one entry: the agent keeps the first occurrence in full
+ * and counts the rest, so an exception thrown every tick occupies a single entry.
+ *
  * @param timestampMillis
- *     Epoch milliseconds at which the log event was created.
+ *     Epoch milliseconds at which the first occurrence's log event was created.
  * @param severity
  *     Severity bucket derived from the numeric log level: {@code "ERROR"} for error-or-worse events,
  *     {@code "WARNING"} otherwise.
@@ -30,6 +33,10 @@ import java.util.List;
  * @param stackTrace
  *     Rendered stack trace lines of the attached throwable including its cause chain (possibly truncated);
  *     empty when the event carried no throwable.
+ * @param occurrenceCount
+ *     Number of occurrences folded into this entry; at least {@code 1}.
+ * @param lastTimestampMillis
+ *     Epoch milliseconds at which the most recent occurrence's log event was created.
  */
 public record ServerErrorEntry(
     long timestampMillis,
@@ -40,7 +47,9 @@ public record ServerErrorEntry(
     String message,
     @Nullable String throwableClass,
     @Nullable String throwableMessage,
-    List<String> stackTrace
+    List<String> stackTrace,
+    long occurrenceCount,
+    long lastTimestampMillis
 )
 {
     /**
@@ -53,6 +62,8 @@ public record ServerErrorEntry(
         ProtocolPreconditions.requireNonNull(loggerName, "loggerName");
         ProtocolPreconditions.requireNonNull(threadName, "threadName");
         ProtocolPreconditions.requireNonNull(message, "message");
+        if (occurrenceCount <= 0L)
+            throw new IllegalArgumentException("'occurrenceCount' must be positive.");
         stackTrace = stackTrace == null ? List.of() : List.copyOf(stackTrace);
     }
 }
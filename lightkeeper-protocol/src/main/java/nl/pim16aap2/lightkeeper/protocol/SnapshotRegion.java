@@ -0,0 +1,82 @@
+package nl.pim16aap2.lightkeeper.protocol;
+
+/**
+ * Captures the blocks, tile states and entities inside a block-inclusive box, so {@link RestoreRegion} can roll the
+ * box back later.
+ */
+public final class SnapshotRegion
+{
+    private SnapshotRegion()
+    {
+    }
+
+    /**
+     * Command record for {@code SNAPSHOT_REGION}.
+     *
+     * @param requestId
+     *     Correlation identifier matching the response's {@code requestId}.
+     * @param worldName
+     *     Name of the world to snapshot.
+     * @param minX
+     *     Minimum block X (inclusive).
+     * @param minY
+     *     Minimum block Y (inclusive); clamped to the world's minimum height.
+     * @param minZ
+     *     Minimum block Z (inclusive).
+     * @param maxX
+     *     Maximum block X (inclusive).
+     * @param maxY
+     *     Maximum block Y (inclusive); clamped to the world's maximum height.
+     * @param maxZ
+     *     Maximum block Z (inclusive).
+     */
+    public record Command(
+        String requestId,
+        String worldName,
+        int minX,
+        int minY,
+        int minZ,
+        int maxX,
+        int maxY,
+        int maxZ
+    ) implements IAgentCommand<Response>
+    {
+        /**
+         * Validates command inputs.
+         */
+        public Command
+        {
+            ProtocolPreconditions.requireNonBlank(requestId, "requestId");
+            ProtocolPreconditions.requireNonBlank(worldName, "worldName");
+            if (minX > maxX || minY > maxY || minZ > maxZ)
+                throw new IllegalArgumentException("Bounds must satisfy min <= max on every axis.");
+        }
+
+        @Override
+        public Class<Response> responseType()
+        {
+            return Response.class;
+        }
+    }
+
+    /**
+     * Response record for {@code SNAPSHOT_REGION}.
+     *
+     * @param snapshotId
+     *     Agent-assigned identifier to pass to {@link RestoreRegion}.
+     * @param blockCount
+     *     Number of blocks captured.
+     * @param tileStateCount
+     *     Number of tile states (chests, signs, ...) captured with their contents.
+     * @param entityCount
+     *     Number of non-player entities captured.
+     */
+    public record Response(
+        String snapshotId,
+        int blockCount,
+        int tileStateCount,
+        int entityCount
+    ) implements IAgentResponse
+    {
+    }
+}
@@ -0,0 +1,57 @@
+package nl.pim16aap2.lightkeeper.protocol;
+
+/**
+ * Unloads a world without saving it, optionally deleting its folder.
+ */
+public final class UnloadWorld
+{
+    private UnloadWorld()
+    {
+    }
+
+    /**
+     * Command record for {@code UNLOAD_WORLD}.
+     *
+     * @param requestId
+     *     Correlation identifier matching the response's {@code requestId}.
+     * @param worldName
+     *     Name of the world to unload; the server's main world cannot be unloaded.
+     * @param deleteFolder
+     *     Whether to delete the world's folder once it is unloaded, so a later world with the same name is
+     *     generated afresh instead of loading the old data.
+     */
+    public record Command(
+        String requestId,
+        String worldName,
+        boolean deleteFolder
+    ) implements IAgentCommand<Response>
+    {
+        /**
+         * Validates command inputs.
+         */
+        public Command
+        {
+            ProtocolPreconditions.requireNonBlank(requestId, "requestId");
+            ProtocolPreconditions.requireNonBlank(worldName, "worldName");
+        }
+
+        @Override
+        public Class<Response> responseType()
+        {
+            return Response.class;
+        }
+    }
+
+    /**
+     * Response record for {@code UNLOAD_WORLD}.
+     *
+     * @param unloaded
+     *     Whether the world was unloaded; {@code false} when no world with the name is loaded or Bukkit refused
+     *     the unload.
+     */
+    public record Response(
+        boolean unloaded
+    ) implements IAgentResponse
+    {
+    }
+}
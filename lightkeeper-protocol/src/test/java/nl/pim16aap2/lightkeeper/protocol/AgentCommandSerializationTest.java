@@ -9,6 +9,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -336,6 +337,70 @@ class AgentCommandSerializationTest
         assertThat(result.count()).isEqualTo(3);
     }
 
+    // -----------------------------------------------------------------------
+    // Round-trip: AwaitEvents.Command / AwaitEvents.Response
+    // -----------------------------------------------------------------------
+
+    @Test
+    void serialize_awaitEventsCommand_roundTrips() throws Exception
+    {
+        // setup
+        final ObjectMapper mapper = AgentProtocolMapper.create();
+        final AwaitEvents.Command original = new AwaitEvents.Command(
+            "req-await",
+            "org.bukkit.event.block.BlockBreakEvent",
+            2,
+            List.of(new AwaitEvents.Filter("getBlock.getType", "STONE")),
+            5_000L,
+            40
+        );
+
+        // execute
+        final String json = mapper.writeValueAsString(original);
+        @SuppressWarnings("rawtypes")
+        final IAgentCommand deserialized = mapper.readValue(json, IAgentCommand.class);
+
+        // verify
+        assertThat(deserialized).isEqualTo(original);
+    }
+
+    @Test
+    void serialize_awaitEventsResponse_roundTrips() throws Exception
+    {
+        // setup
+        final ObjectMapper mapper = AgentProtocolMapper.create();
+        final AwaitEvents.Response original = new AwaitEvents.Response(
+            true,
+            12L,
+            List.of(new GetCapturedEvents.CapturedEvent(11L, Map.of("isCancelled", new IProtocolValue.PBool(false))))
+        );
+
+        // execute
+        final String json = mapper.writeValueAsString(original);
+        final AwaitEvents.Response deserialized = mapper.readValue(json, AwaitEvents.Response.class);
+
+        // verify
+        assertThat(deserialized).isEqualTo(original);
+    }
+
+    @Test
+    void awaitEventsFilter_shouldMatchNestedRecordsEnumsAndReferences()
+    {
+        // setup
+        final Map<String, IProtocolValue> values = Map.of(
+            "getBlock", new IProtocolValue.PRecord(
+                Map.of("getType", new IProtocolValue.PEnum("org.bukkit.Material", "STONE"))),
+            "getPlayer", new IProtocolValue.PRef("org.bukkit.entity.Player", "abc")
+        );
+
+        // execute + verify
+        assertThat(new AwaitEvents.Filter("getBlock.getType", "STONE").matches(values)).isTrue();
+        assertThat(new AwaitEvents.Filter("getBlock.getType", "DIRT").matches(values)).isFalse();
+        assertThat(new AwaitEvents.Filter("getPlayer", "abc").matches(values)).isTrue();
+        assertThat(new AwaitEvents.Filter("getBlock.getMissing", "STONE").matches(values)).isFalse();
+        assertThat(new AwaitEvents.Filter("getPlayer.getName", "abc").matches(values)).isFalse();
+    }
+
     // -----------------------------------------------------------------------
     // Round-trip: PlayerChat.Command
     // -----------------------------------------------------------------------
@@ -406,7 +471,7 @@ class AgentCommandSerializationTest
         final ObjectMapper mapper = AgentProtocolMapper.create();
         final QueryEntities.Command original = new QueryEntities.Command(
             "req-17", "world", "minecraft:block_display", true,
-            0, 1, 2, 10, 11, 12, false
+            0, 1, 2, 10, 11, 12, false, List.of("getHealth", "getLocation.getWorld")
         );
 
         // execute
@@ -428,6 +493,7 @@ class AgentCommandSerializationTest
         assertThat(result.maxY()).isEqualTo(11);
         assertThat(result.maxZ()).isEqualTo(12);
         assertThat(result.countOnly()).isFalse();
+        assertThat(result.projection()).containsExactly("getHealth", "getLocation.getWorld");
     }
 
     // -----------------------------------------------------------------------
@@ -441,7 +507,7 @@ class AgentCommandSerializationTest
         final ObjectMapper mapper = AgentProtocolMapper.create();
         final QueryEntities.Command original = new QueryEntities.Command(
             "req-18", "world", null, false,
-            0, 0, 0, 0, 0, 0, true
+            0, 0, 0, 0, 0, 0, true, List.of()
         );
 
         // execute
@@ -476,7 +542,8 @@ class AgentCommandSerializationTest
         );
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
             entityUuid, "minecraft:block_display", 10.0, 64.0, -5.0,
-            "Display Name", List.of("plugin:alpha", "plugin:beta"), transformData
+            "Display Name", List.of("plugin:alpha", "plugin:beta"), transformData,
+            Map.of("getHealth", new IProtocolValue.PNumber(20.0))
         );
         final QueryEntities.Response original = new QueryEntities.Response(42L, 1, List.of(entityData));
 
@@ -502,7 +569,7 @@ class AgentCommandSerializationTest
         final ObjectMapper mapper = AgentProtocolMapper.create();
         final UUID entityUuid = UUID.fromString("00000000-0000-0000-0000-00000000000b");
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            entityUuid, "minecraft:zombie", 1.0, 2.0, 3.0, null, List.of(), null
+            entityUuid, "minecraft:zombie", 1.0, 2.0, 3.0, null, List.of(), null, Map.of()
         );
         final QueryEntities.Response original = new QueryEntities.Response(7L, 1, List.of(entityData));
 
@@ -686,7 +753,9 @@ class AgentCommandSerializationTest
             "Could not pass event to plugin",
             "java.lang.IllegalStateException",
             "boom",
-            List.of("java.lang.IllegalStateException: boom", "\tat net.example.SomePlugin.onEvent(SomePlugin.java:1)")
+            List.of("java.lang.IllegalStateException: boom", "\tat net.example.SomePlugin.onEvent(SomePlugin.java:1)"),
+            1L,
+            1_720_000_000_000L
         );
         final GetServerErrors.Response original = new GetServerErrors.Response(List.of(entry), 5L, true);
 
@@ -714,7 +783,9 @@ class AgentCommandSerializationTest
             "Something looked off",
             null,
             null,
-            List.of()
+            List.of(),
+            1L,
+            1_720_000_000_001L
         );
         final GetServerErrors.Response original = new GetServerErrors.Response(List.of(entry), 0L, false);
 
@@ -837,6 +908,42 @@ class AgentCommandSerializationTest
         assertThat(result.bukkitVersion()).isEqualTo("1.21.11-R0.1-SNAPSHOT");
     }
 
+    // -----------------------------------------------------------------------
+    // Round-trip: SnapshotRegion.Command and RestoreRegion.Response
+    // -----------------------------------------------------------------------
+
+    @Test
+    void serialize_snapshotRegionCommand_roundTrips() throws Exception
+    {
+        // setup
+        final ObjectMapper mapper = AgentProtocolMapper.create();
+        final SnapshotRegion.Command original = new SnapshotRegion.Command("req-31", "world", -32, 60, -32, 31, 90, 31);
+
+        // execute
+        final String json = mapper.writeValueAsString(original);
+        @SuppressWarnings("rawtypes")
+        final IAgentCommand deserialized = mapper.readValue(json, IAgentCommand.class);
+
+        // verify
+        assertThat(json).contains("\"SNAPSHOT_REGION\"");
+        assertThat(deserialized).isEqualTo(original);
+    }
+
+    @Test
+    void serialize_restoreRegionResponse_roundTrips() throws Exception
+    {
+        // setup
+        final ObjectMapper mapper = AgentProtocolMapper.create();
+        final RestoreRegion.Response original = new RestoreRegion.Response(4_096, 2, 3, 2);
+
+        // execute
+        final String json = mapper.writeValueAsString(original);
+        final RestoreRegion.Response result = mapper.readValue(json, RestoreRegion.Response.class);
+
+        // verify
+        assertThat(result).isEqualTo(original);
+    }
+
     // -----------------------------------------------------------------------
     // Guard: @JsonSubTypes registration matches the sealed permits clause
     // -----------------------------------------------------------------------
@@ -6,6 +6,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.RecordComponent;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -236,7 +237,7 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.Command(
-            "request-1", "world", "   ", false, 0, 0, 0, 0, 0, 0, false))
+            "request-1", "world", "   ", false, 0, 0, 0, 0, 0, 0, false, List.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("entityTypeKey");
     }
@@ -246,7 +247,7 @@ class AgentCommandValidationTest
     {
         // setup + execute
         final QueryEntities.Command command = new QueryEntities.Command(
-            "request-1", "world", null, false, 0, 0, 0, 0, 0, 0, false);
+            "request-1", "world", null, false, 0, 0, 0, 0, 0, 0, false, List.of());
 
         // verify
         assertThat(command.entityTypeKey()).isNull();
@@ -257,7 +258,7 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.Command(
-            "request-1", "world", null, true, 5, 0, 0, 4, 0, 0, false))
+            "request-1", "world", null, true, 5, 0, 0, 4, 0, 0, false, List.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Bounds");
     }
@@ -267,7 +268,7 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.Command(
-            "request-1", "world", null, true, 0, 5, 0, 0, 4, 0, false))
+            "request-1", "world", null, true, 0, 5, 0, 0, 4, 0, false, List.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Bounds");
     }
@@ -277,7 +278,7 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.Command(
-            "request-1", "world", null, true, 0, 0, 5, 0, 0, 4, false))
+            "request-1", "world", null, true, 0, 0, 5, 0, 0, 4, false, List.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Bounds");
     }
@@ -287,7 +288,7 @@ class AgentCommandValidationTest
     {
         // setup + execute — bounded=false must ignore the (otherwise-invalid) inverted bounds
         final QueryEntities.Command command = new QueryEntities.Command(
-            "request-1", "world", null, false, 5, 5, 5, 0, 0, 0, false);
+            "request-1", "world", null, false, 5, 5, 5, 0, 0, 0, false, List.of());
 
         // verify
         assertThat(command.bounded()).isFalse();
@@ -298,12 +299,34 @@ class AgentCommandValidationTest
     {
         // setup + execute — min == max on every axis is a valid single-block bound
         final QueryEntities.Command command = new QueryEntities.Command(
-            "request-1", "world", null, true, 5, 5, 5, 5, 5, 5, false);
+            "request-1", "world", null, true, 5, 5, 5, 5, 5, 5, false, List.of());
 
         // verify
         assertThat(command.bounded()).isTrue();
     }
 
+    @Test
+    void queryEntitiesCommand_shouldRejectMalformedProjectionPath()
+    {
+        // execute + verify
+        assertThatThrownBy(() -> new QueryEntities.Command(
+            "request-1", "world", null, false, 0, 0, 0, 0, 0, 0, false, List.of("getLocation..getWorld")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("projection");
+    }
+
+    @Test
+    @SuppressWarnings("NullAway") // Intentionally crosses the non-null API boundary to verify null tolerance.
+    void registerEventListenerCommand_shouldTreatNullProjectionAsEmpty()
+    {
+        // execute
+        final RegisterEventListener.Command command =
+            new RegisterEventListener.Command("request-1", "org.bukkit.event.Event", null);
+
+        // verify
+        assertThat(command.projection()).isEmpty();
+    }
+
     // -----------------------------------------------------------------------
     // QueryEntities.EntityData validation
     // -----------------------------------------------------------------------
@@ -314,7 +337,7 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.EntityData(
-            null, "minecraft:zombie", 0.0, 0.0, 0.0, null, List.of(), null))
+            null, "minecraft:zombie", 0.0, 0.0, 0.0, null, List.of(), null, Map.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("uuid");
     }
@@ -324,11 +347,24 @@ class AgentCommandValidationTest
     {
         // execute + verify
         assertThatThrownBy(() -> new QueryEntities.EntityData(
-            UUID.randomUUID(), "   ", 0.0, 0.0, 0.0, null, List.of(), null))
+            UUID.randomUUID(), "   ", 0.0, 0.0, 0.0, null, List.of(), null, Map.of()))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("typeKey");
     }
 
+    // -----------------------------------------------------------------------
+    // SnapshotRegion.Command validation
+    // -----------------------------------------------------------------------
+
+    @Test
+    void snapshotRegionCommand_shouldRejectBoundsWhenMinZGreaterThanMaxZ()
+    {
+        // execute + verify
+        assertThatThrownBy(() -> new SnapshotRegion.Command("request-1", "world", 0, 0, 5, 0, 0, 4))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Bounds");
+    }
+
     // -----------------------------------------------------------------------
     // CreatePlayer.Command validation
     // -----------------------------------------------------------------------
@@ -488,6 +524,8 @@ class AgentCommandValidationTest
             return false;
         if (type == int[].class)
             return new int[]{0};
+        if (type == List.class)
+            return List.of();
         if (type.isEnum())
             return type.getEnumConstants()[0];
         throw new IllegalStateException("Unhandled record component type in test: " + type);
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -49,7 +50,7 @@ class ProtocolDefensiveCopyTest
         // setup
         final List<String> source = new ArrayList<>(List.of("java.lang.IllegalStateException: boom"));
         final ServerErrorEntry entry = new ServerErrorEntry(
-            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, source);
+            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, source, 1L, 0L);
 
         // execute
         source.add("\tat net.example.SomePlugin.onEvent(SomePlugin.java:1)");
@@ -66,7 +67,7 @@ class ProtocolDefensiveCopyTest
     {
         // setup + execute
         final ServerErrorEntry entry = new ServerErrorEntry(
-            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, null);
+            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, null, 1L, 0L);
 
         // verify
         assertThat(entry.stackTrace()).isEmpty();
@@ -77,7 +78,7 @@ class ProtocolDefensiveCopyTest
     {
         // setup
         final ServerErrorEntry entry = new ServerErrorEntry(
-            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, List.of());
+            0L, "ERROR", "ERROR", "logger", "thread", "message", null, null, List.of(), 1L, 0L);
         final List<ServerErrorEntry> source = new ArrayList<>(List.of(entry));
         final GetServerErrors.Response response = new GetServerErrors.Response(source, 0L, true);
 
@@ -107,7 +108,7 @@ class ProtocolDefensiveCopyTest
         // setup
         final List<String> source = new ArrayList<>(List.of("plugin:alpha"));
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, source, null);
+            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, source, null, Map.of());
 
         // execute
         source.add("plugin:beta");
@@ -124,7 +125,7 @@ class ProtocolDefensiveCopyTest
     {
         // setup + execute
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, null, null);
+            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, null, null, Map.of());
 
         // verify
         assertThat(entityData.pdcKeys()).isEmpty();
@@ -182,7 +183,7 @@ class ProtocolDefensiveCopyTest
     {
         // setup
         final QueryEntities.EntityData entityData = new QueryEntities.EntityData(
-            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, List.of(), null);
+            UUID.randomUUID(), "minecraft:zombie", 0.0, 0.0, 0.0, null, List.of(), null, Map.of());
         final List<QueryEntities.EntityData> source = new ArrayList<>(List.of(entityData));
         final QueryEntities.Response response = new QueryEntities.Response(1L, 1, source);
 
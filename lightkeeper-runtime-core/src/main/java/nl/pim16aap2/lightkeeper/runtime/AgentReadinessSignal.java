@@ -0,0 +1,179 @@
+package nl.pim16aap2.lightkeeper.runtime;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * One-line message the in-server agent sends on the framework's readiness socket once the server has started.
+ *
+ * <p>The framework listens on {@link RuntimeProtocol#PROPERTY_READY_SOCKET_PATH} and treats the first message as
+ * the end of startup: {@code READY} followed by the epoch-millisecond timestamp of every startup phase the agent
+ * observed, or {@code FAILED} followed by the reason the agent could not start.
+ *
+ * @param phaseEpochMillis
+ *     Epoch milliseconds at which each observed startup phase was reached; empty for a failure.
+ * @param failureMessage
+ *     Why the agent failed to start, or {@code null} when it is ready.
+ */
+public record AgentReadinessSignal(Map<Phase, Long> phaseEpochMillis, @Nullable String failureMessage)
+{
+    private static final String READY = "READY";
+    private static final String FAILED = "FAILED";
+
+    /**
+     * Startup phases observed by the agent, in the order the server reaches them.
+     */
+    public enum Phase
+    {
+        /**
+         * The server JVM started.
+         */
+        JVM_START("jvm-start"),
+        /**
+         * The server loaded the plugins, before enabling any of them.
+         */
+        PLUGINS_LOADED("plugins-loaded"),
+        /**
+         * The server loaded its default worlds and started enabling post-world plugins such as the agent.
+         */
+        WORLDS_LOADED("worlds-loaded"),
+        /**
+         * The server enabled every plugin and finished startup.
+         */
+        SERVER_LOADED("server-loaded"),
+        /**
+         * The agent socket accepts connections.
+         */
+        AGENT_READY("agent-ready");
+
+        private final String label;
+
+        Phase(String label)
+        {
+            this.label = label;
+        }
+
+        /**
+         * @return The name of the phase on the wire and in startup timelines.
+         */
+        public String label()
+        {
+            return label;
+        }
+
+        private static @Nullable Phase fromLabel(String label)
+        {
+            for (final Phase phase : values())
+            {
+                if (phase.label.equals(label))
+                    return phase;
+            }
+            return null;
+        }
+    }
+
+    public AgentReadinessSignal
+    {
+        phaseEpochMillis = phaseEpochMillis.isEmpty()
+            ? Map.of()
+            : Collections.unmodifiableMap(new EnumMap<>(phaseEpochMillis));
+    }
+
+    /**
+     * Creates the signal of an agent that is ready.
+     *
+     * @param phaseEpochMillis
+     *     Epoch milliseconds at which each observed startup phase was reached.
+     * @return The ready signal.
+     */
+    public static AgentReadinessSignal ready(Map<Phase, Long> phaseEpochMillis)
+    {
+        return new AgentReadinessSignal(phaseEpochMillis, null);
+    }
+
+    /**
+     * Creates the signal of an agent that failed to start.
+     *
+     * @param failureMessage
+     *     Why the agent failed to start.
+     * @return The failure signal.
+     */
+    public static AgentReadinessSignal failed(String failureMessage)
+    {
+        return new AgentReadinessSignal(Map.of(), Objects.requireNonNull(failureMessage, "failureMessage"));
+    }
+
+    /**
+     * @return Whether the agent is ready to accept requests.
+     */
+    public boolean isReady()
+    {
+        return failureMessage == null;
+    }
+
+    /**
+     * Encodes this signal as a single line, without line terminator.
+     *
+     * @return The wire form of this signal.
+     */
+    public String encode()
+    {
+        if (failureMessage != null)
+            return FAILED + " " + failureMessage.replaceAll("\\s+", " ").strip();
+
+        final StringJoiner joiner = new StringJoiner(" ");
+        joiner.add(READY);
+        phaseEpochMillis.forEach((phase, epochMillis) -> joiner.add(phase.label() + "=" + epochMillis));
+        return joiner.toString();
+    }
+
+    /**
+     * Decodes a line produced by {@link #encode()}.
+     *
+     * <p>Unknown phases are skipped, so an agent may report phases this framework does not know about yet.
+     *
+     * @param line
+     *     The received line.
+     * @return The decoded signal.
+     * @throws IllegalArgumentException
+     *     When the line is not a readiness signal.
+     */
+    public static AgentReadinessSignal decode(String line)
+    {
+        final String trimmedLine = line.strip();
+        if (trimmedLine.equals(FAILED) || trimmedLine.startsWith(FAILED + " "))
+            return failed(trimmedLine.substring(FAILED.length()).strip());
+        if (!trimmedLine.equals(READY) && !trimmedLine.startsWith(READY + " "))
+            throw new IllegalArgumentException("Malformed agent readiness signal '%s'.".formatted(line));
+
+        final Map<Phase, Long> phaseEpochMillis = new EnumMap<>(Phase.class);
+        final String phases = trimmedLine.substring(READY.length()).strip();
+        if (phases.isEmpty())
+            return ready(phaseEpochMillis);
+
+        for (final String entry : phases.split(" +"))
+        {
+            final int separator = entry.indexOf('=');
+            if (separator <= 0)
+                throw new IllegalArgumentException("Malformed agent readiness phase '%s'.".formatted(entry));
+            final @Nullable Phase phase = Phase.fromLabel(entry.substring(0, separator));
+            if (phase == null)
+                continue;
+            try
+            {
+                phaseEpochMillis.put(phase, Long.parseLong(entry.substring(separator + 1)));
+            }
+            catch (NumberFormatException exception)
+            {
+                throw new IllegalArgumentException(
+                    "Malformed agent readiness phase '%s'.".formatted(entry), exception);
+            }
+        }
+        return ready(phaseEpochMillis);
+    }
+}
@@ -6,6 +6,10 @@ import java.util.List;
 
 /**
  * Runtime manifest written by {@code prepare-server}.
+ * <p>
+ * The top-level server fields describe the primary server. When {@code prepare-server} provisions a fleet, every
+ * additional server is listed in {@link #fleetServers()}; {@link #forServer(int)} projects any of them onto a
+ * single-server manifest that can be started like the primary one.
  *
  * @param serverType
  *     The server type.
@@ -39,6 +43,18 @@ import java.util.List;
  *     All worlds provisioned into the server directory by {@code prepare-server}, including templates that
  *     are not loaded on startup. The framework preloads the {@code loadOnStartup} entries before test
  *     execution and validates template names against the full list.
+ * @param fleetServers
+ *     The additional servers cloned from the primary one, each with its own directory, port, socket and auth
+ *     token. Empty for a single-server manifest.
+ * @param classDataArchiveDirectory
+ *     Optional directory for dynamic class-data (AppCDS) archives, keyed by the server and plugin set. When
+ *     present, the framework records an archive on the first boot of each server directory and maps it on later
+ *     boots.
+ * @param syncOperationTimeoutSeconds
+ *     The timeout, in seconds, the agent applies to synchronous server operations. The framework passes it to the
+ *     server as {@link RuntimeProtocol#PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS}. Non-positive values, including the
+ *     {@code 0} of a manifest written without this field, fall back to
+ *     {@link RuntimeProtocol#DEFAULT_SYNC_OPERATION_TIMEOUT_SECONDS}.
  */
 public record RuntimeManifest(
     String serverType,
@@ -55,12 +71,86 @@ public record RuntimeManifest(
     int runtimeProtocolVersion,
     String agentCacheIdentity,
     @Nullable String extraJvmArgs,
-    List<ProvisionedWorld> provisionedWorlds
+    List<ProvisionedWorld> provisionedWorlds,
+    List<FleetServer> fleetServers,
+    @Nullable String classDataArchiveDirectory,
+    long syncOperationTimeoutSeconds
 )
 {
     public RuntimeManifest
     {
         provisionedWorlds = provisionedWorlds == null ? List.of() : List.copyOf(provisionedWorlds);
+        fleetServers = fleetServers == null ? List.of() : List.copyOf(fleetServers);
+        if (syncOperationTimeoutSeconds <= 0L)
+            syncOperationTimeoutSeconds = RuntimeProtocol.DEFAULT_SYNC_OPERATION_TIMEOUT_SECONDS;
+    }
+
+    /**
+     * Gets the number of servers described by this manifest.
+     *
+     * @return {@code 1} for the primary server plus the number of {@link #fleetServers()}.
+     */
+    public int serverCount()
+    {
+        return 1 + fleetServers.size();
+    }
+
+    /**
+     * Projects one server of the fleet onto a single-server manifest.
+     *
+     * @param serverIndex
+     *     {@code 0} for the primary server, or {@code n} for the {@code n}-th entry of {@link #fleetServers()}.
+     * @return A manifest whose server fields describe the selected server and whose fleet is empty.
+     * @throws IllegalArgumentException
+     *     When the index is outside {@code [0, serverCount())}.
+     */
+    public RuntimeManifest forServer(int serverIndex)
+    {
+        if (serverIndex < 0 || serverIndex >= serverCount())
+        {
+            throw new IllegalArgumentException(
+                "Server index %d is out of range for a fleet of %d server(s).".formatted(serverIndex, serverCount()));
+        }
+        if (serverIndex == 0)
+            return withServer(serverDirectory, serverJar, udsSocketPath, agentAuthToken, agentJar);
+
+        final FleetServer fleetServer = fleetServers.get(serverIndex - 1);
+        return withServer(
+            fleetServer.serverDirectory(),
+            fleetServer.serverJar(),
+            fleetServer.udsSocketPath(),
+            fleetServer.agentAuthToken(),
+            fleetServer.agentJar()
+        );
+    }
+
+    private RuntimeManifest withServer(
+        String serverDirectoryValue,
+        String serverJarValue,
+        String udsSocketPathValue,
+        String agentAuthTokenValue,
+        @Nullable String agentJarValue)
+    {
+        return new RuntimeManifest(
+            serverType,
+            serverVersion,
+            paperBuildId,
+            cacheKey,
+            serverDirectoryValue,
+            serverJarValue,
+            memoryMb,
+            udsSocketPathValue,
+            agentAuthTokenValue,
+            agentJarValue,
+            agentJarSha256,
+            runtimeProtocolVersion,
+            agentCacheIdentity,
+            extraJvmArgs,
+            provisionedWorlds,
+            List.of(),
+            classDataArchiveDirectory,
+            syncOperationTimeoutSeconds
+        );
     }
 
     /**
@@ -86,4 +176,28 @@ public record RuntimeManifest(
     )
     {
     }
+
+    /**
+     * An additional server of a fleet, cloned from the primary server by {@code prepare-server}.
+     *
+     * @param serverDirectory
+     *     The cloned server directory.
+     * @param serverJar
+     *     The path to the server jar inside the cloned directory.
+     * @param udsSocketPath
+     *     The UDS socket path for this server's agent.
+     * @param agentAuthToken
+     *     The short-lived agent auth token for this server.
+     * @param agentJar
+     *     Optional path to the agent jar deployed into the cloned directory.
+     */
+    public record FleetServer(
+        String serverDirectory,
+        String serverJar,
+        String udsSocketPath,
+        String agentAuthToken,
+        @Nullable String agentJar
+    )
+    {
+    }
 }
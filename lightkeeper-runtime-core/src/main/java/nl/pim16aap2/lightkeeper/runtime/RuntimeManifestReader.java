@@ -77,5 +77,23 @@ public final class RuntimeManifestReader
                 throw new IOException("Runtime manifest provisioned world '%s' is missing worldType."
                     .formatted(provisionedWorld.name()));
         }
+
+        for (int idx = 0; idx < manifest.fleetServers().size(); ++idx)
+        {
+            final RuntimeManifest.FleetServer fleetServer = manifest.fleetServers().get(idx);
+            final int serverIndex = idx + 1;
+            requireFleetField(fleetServer.serverDirectory(), "serverDirectory", serverIndex);
+            requireFleetField(fleetServer.serverJar(), "serverJar", serverIndex);
+            requireFleetField(fleetServer.udsSocketPath(), "udsSocketPath", serverIndex);
+            requireFleetField(fleetServer.agentAuthToken(), "agentAuthToken", serverIndex);
+        }
+    }
+
+    private static void requireFleetField(String value, String fieldName, int serverIndex)
+        throws IOException
+    {
+        if (value == null || value.isBlank())
+            throw new IOException("Runtime manifest fleet server %d field '%s' is missing or blank."
+                .formatted(serverIndex, fieldName));
     }
 }
@@ -20,7 +20,7 @@ public final class RuntimeProtocol
      * in a backward-incompatible way. Both the framework and the agent must agree on this value; a mismatch causes an
      * {@code HANDSHAKE} failure.
      */
-    public static final int VERSION = 12;
+    public static final int VERSION = 19;
 
     /**
      * Minecraft server version supported by this LightKeeper build.
@@ -60,6 +60,11 @@ public final class RuntimeProtocol
      */
     public static final String PROPERTY_SYNC_OPERATION_TIMEOUT_SECONDS =
         "lightkeeper.agent.syncOperationTimeoutSeconds";
+    /**
+     * System property containing the Unix domain socket path on which the framework awaits the agent's
+     * {@link AgentReadinessSignal}. Absent when the server is not launched by the framework.
+     */
+    public static final String PROPERTY_READY_SOCKET_PATH = "lightkeeper.agent.readySocketPath";
 
     private RuntimeProtocol()
     {
@@ -0,0 +1,72 @@
+package nl.pim16aap2.lightkeeper.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgentReadinessSignalTest
+{
+    @Test
+    void decode_shouldRoundTripReadySignalWithPhasesInOrder()
+    {
+        // setup
+        final AgentReadinessSignal signal = AgentReadinessSignal.ready(Map.of(
+            AgentReadinessSignal.Phase.AGENT_READY, 400L,
+            AgentReadinessSignal.Phase.JVM_START, 100L,
+            AgentReadinessSignal.Phase.WORLDS_LOADED, 300L
+        ));
+
+        // execute
+        final String encoded = signal.encode();
+        final AgentReadinessSignal decoded = AgentReadinessSignal.decode(encoded);
+
+        // verify
+        assertThat(encoded).isEqualTo("READY jvm-start=100 worlds-loaded=300 agent-ready=400");
+        assertThat(decoded.isReady()).isTrue();
+        assertThat(decoded.phaseEpochMillis()).containsExactly(
+            Map.entry(AgentReadinessSignal.Phase.JVM_START, 100L),
+            Map.entry(AgentReadinessSignal.Phase.WORLDS_LOADED, 300L),
+            Map.entry(AgentReadinessSignal.Phase.AGENT_READY, 400L)
+        );
+    }
+
+    @Test
+    void decode_shouldRoundTripFailureOnSingleLine()
+    {
+        // setup
+        final AgentReadinessSignal signal = AgentReadinessSignal.failed("Required property\n  is missing.");
+
+        // execute
+        final AgentReadinessSignal decoded = AgentReadinessSignal.decode(signal.encode());
+
+        // verify
+        assertThat(decoded.isReady()).isFalse();
+        assertThat(decoded.failureMessage()).isEqualTo("Required property is missing.");
+        assertThat(decoded.phaseEpochMillis()).isEmpty();
+    }
+
+    @Test
+    void decode_shouldSkipUnknownPhases()
+    {
+        // execute
+        final AgentReadinessSignal decoded = AgentReadinessSignal.decode("READY future-phase=5 agent-ready=7");
+
+        // verify
+        assertThat(decoded.phaseEpochMillis()).containsExactly(Map.entry(AgentReadinessSignal.Phase.AGENT_READY, 7L));
+    }
+
+    @Test
+    void decode_shouldThrowExceptionForMalformedLine()
+    {
+        // execute + verify
+        assertThatThrownBy(() -> AgentReadinessSignal.decode("Done (1.234s)! For help, type \"help\""))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Malformed agent readiness signal");
+        assertThatThrownBy(() -> AgentReadinessSignal.decode("READY agent-ready=soon"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Malformed agent readiness phase");
+    }
+}
@@ -471,6 +471,92 @@ class RuntimeManifestReaderTest
             .hasMessageContaining("Runtime manifest contains a provisioned world with a missing name.");
     }
 
+    @Test
+    void read_shouldThrowExceptionWhenFleetServerSocketPathIsBlank(@TempDir Path tempDirectory)
+        throws IOException
+    {
+        // setup
+        final Path manifestPath = tempDirectory.resolve("runtime-manifest.json");
+        Files.writeString(manifestPath, """
+            {
+              "serverType": "paper",
+              "serverVersion": "1.21.11",
+              "paperBuildId": 113,
+              "cacheKey": "cache-key",
+              "serverDirectory": "/tmp/server",
+              "serverJar": "/tmp/server/paper.jar",
+              "memoryMb": 2048,
+              "udsSocketPath": "/tmp/lightkeeper.sock",
+              "agentAuthToken": "token",
+              "runtimeProtocolVersion": %d,
+              "agentCacheIdentity": "no-agent",
+              "fleetServers": [
+                {
+                  "serverDirectory": "/tmp/server-1",
+                  "serverJar": "/tmp/server-1/paper.jar",
+                  "udsSocketPath": " ",
+                  "agentAuthToken": "token-1"
+                }
+              ]
+            }
+            """.formatted(RuntimeProtocol.VERSION)
+        );
+
+        // execute + verify
+        assertThatThrownBy(() -> new RuntimeManifestReader().read(manifestPath))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("fleet server 1 field 'udsSocketPath'");
+    }
+
+    @Test
+    void forServer_shouldProjectFleetServerOntoSingleServerManifest()
+    {
+        // setup
+        final RuntimeManifest runtimeManifest = new RuntimeManifest(
+            "paper",
+            "1.21.11",
+            113,
+            "cache-key",
+            "/tmp/server",
+            "/tmp/server/paper.jar",
+            2048,
+            "/tmp/lightkeeper.sock",
+            "token",
+            null,
+            "agent-sha",
+            RuntimeProtocol.VERSION,
+            "no-agent",
+            null,
+            List.of(),
+            List.of(new RuntimeManifest.FleetServer(
+                "/tmp/server-1",
+                "/tmp/server-1/paper.jar",
+                "/tmp/lightkeeper-1.sock",
+                "token-1",
+                null
+            )),
+            null,
+            120L
+        );
+
+        // execute
+        final RuntimeManifest primary = runtimeManifest.forServer(0);
+        final RuntimeManifest fleetServer = runtimeManifest.forServer(1);
+
+        // verify
+        assertThat(runtimeManifest.serverCount()).isEqualTo(2);
+        assertThat(primary.serverDirectory()).isEqualTo("/tmp/server");
+        assertThat(primary.fleetServers()).isEmpty();
+        assertThat(fleetServer.serverDirectory()).isEqualTo("/tmp/server-1");
+        assertThat(fleetServer.serverJar()).isEqualTo("/tmp/server-1/paper.jar");
+        assertThat(fleetServer.udsSocketPath()).isEqualTo("/tmp/lightkeeper-1.sock");
+        assertThat(fleetServer.agentAuthToken()).isEqualTo("token-1");
+        assertThat(fleetServer.agentJarSha256()).isEqualTo("agent-sha");
+        assertThat(fleetServer.fleetServers()).isEmpty();
+        assertThatThrownBy(() -> runtimeManifest.forServer(2))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @SuppressWarnings("NullAway") // Intentionally crosses the non-null API boundary to verify default-on-null.
     void runtimeManifest_shouldDefaultProvisionedWorldsToEmptyListWhenConstructedWithNull()
@@ -494,7 +580,10 @@ class RuntimeManifestReaderTest
             RuntimeProtocol.VERSION,
             "no-agent",
             null,
-            nullProvisionedWorlds
+            nullProvisionedWorlds,
+            List.of(),
+            null,
+            120L
         );
 
         // verify
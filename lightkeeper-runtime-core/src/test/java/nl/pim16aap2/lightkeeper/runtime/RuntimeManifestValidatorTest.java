@@ -88,7 +88,10 @@ class RuntimeManifestValidatorTest
             protocolVersion,
             "agent-cache-id",
             null,
-            List.of()
+            List.of(),
+            List.of(),
+            null,
+            120L
         );
     }
 }
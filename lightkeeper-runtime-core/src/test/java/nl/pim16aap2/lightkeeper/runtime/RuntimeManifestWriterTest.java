@@ -33,7 +33,16 @@ class RuntimeManifestWriterTest
             List.of(
                 new RuntimeManifest.ProvisionedWorld("fixture-world", "NORMAL", "FLAT", 42L, true),
                 new RuntimeManifest.ProvisionedWorld("template-world", "NORMAL", "NORMAL", 0L, false)
-            )
+            ),
+            List.of(new RuntimeManifest.FleetServer(
+                "/tmp/server-1",
+                "/tmp/server-1/paper.jar",
+                "/tmp/lightkeeper-1.sock",
+                "fleet-auth-token",
+                "/tmp/server-1/plugins/lightkeeper-agent-spigot.jar"
+            )),
+            "/tmp/cds/archive-key",
+            120L
         );
         final Path manifestPath = tempDirectory.resolve("runtime-manifest.json");
 
@@ -52,5 +61,9 @@ class RuntimeManifestWriterTest
         assertThat(parsedManifest.provisionedWorlds().get(0).loadOnStartup()).isTrue();
         assertThat(parsedManifest.provisionedWorlds().get(1).name()).isEqualTo("template-world");
         assertThat(parsedManifest.provisionedWorlds().get(1).loadOnStartup()).isFalse();
+        assertThat(parsedManifest.serverCount()).isEqualTo(2);
+        assertThat(parsedManifest.fleetServers().getFirst().udsSocketPath()).isEqualTo("/tmp/lightkeeper-1.sock");
+        assertThat(parsedManifest.fleetServers().getFirst().agentAuthToken()).isEqualTo("fleet-auth-token");
+        assertThat(parsedManifest.classDataArchiveDirectory()).isEqualTo("/tmp/cds/archive-key");
     }
 }